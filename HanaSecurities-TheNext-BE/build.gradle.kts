@@ -2,6 +2,7 @@ plugins {
     java
     id("org.springframework.boot") version "3.5.6"
     id("io.spring.dependency-management") version "1.1.7"
+    id("me.champeau.jmh") version "0.7.3" // 실시간 경로 마이크로벤치마크 (src/jmh)
 }
 
 group = "com.hanati"
@@ -31,6 +32,11 @@ dependencies {
     implementation("org.springframework.boot:spring-boot-starter-websocket")
     implementation("me.paulschwarz:spring-dotenv:4.0.0") // .env 파일 지원
 
+    // 운영 지표 (Actuator + Prometheus)
+    implementation("org.springframework.boot:spring-boot-starter-actuator")
+    runtimeOnly("io.micrometer:micrometer-registry-prometheus")
+    implementation("org.hdrhistogram:HdrHistogram:2.2.2") // 틱 지연 히스토그램
+
     // Swagger/OpenAPI
     implementation("org.springdoc:springdoc-openapi-starter-webmvc-ui:2.8.13")
 
@@ -41,6 +47,23 @@ dependencies {
     testRuntimeOnly("org.junit.platform:junit-platform-launcher")
 }
 
+// 파서 테스트는 벤치마크와 같은 원본 프레임 픽스처(src/jmh/resources/fixtures) 사용
+sourceSets {
+    test {
+        resources.srcDir("src/jmh/resources")
+    }
+}
+
 tasks.withType<Test> {
     useJUnitPlatform()
 }
+
+// ./gradlew jmh
+jmh {
+    jmhVersion = "1.37"
+    fork = 1
+    warmupIterations = 3
+    iterations = 5
+    // 초당 처리량과 함께 1건당 할당량(gc.alloc.rate.norm) 보고
+    profilers = listOf("gc")
+}
@@ -0,0 +1,41 @@
+package com.hanati.benchmark;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 벤치마크 입력 픽스처 (src/jmh/resources/fixtures)
+ *
+ * 실제 수신 형식 그대로의 원본 프레임을 한 줄에 하나씩 저장한다.
+ * 종목마다 필드 길이가 다르므로 여러 줄을 순환하며 입력해 한 종목에 특화된 측정을 피한다.
+ */
+public final class Fixtures {
+
+    private Fixtures() {
+    }
+
+    /**
+     * 픽스처 파일의 비어 있지 않은 줄 (줄 수는 2의 거듭제곱으로 맞춰 next()에서 마스크로 순환)
+     */
+    public static String[] lines(String name) {
+        try (InputStream in = Fixtures.class.getResourceAsStream("/fixtures/" + name)) {
+            if (in == null) {
+                throw new IllegalArgumentException("픽스처 없음: " + name);
+            }
+            String[] lines = new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))
+                    .lines()
+                    .filter(line -> !line.isBlank())
+                    .toArray(String[]::new);
+            if (Integer.bitCount(lines.length) != 1) {
+                throw new IllegalArgumentException("픽스처 줄 수는 2의 거듭제곱이어야 함: " + name + " " + lines.length);
+            }
+            return lines;
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+    }
+}
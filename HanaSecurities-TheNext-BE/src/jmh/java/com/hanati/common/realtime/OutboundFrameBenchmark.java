@@ -0,0 +1,82 @@
+package com.hanati.common.realtime;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hanati.domain.quote.dto.RealtimeQuoteResponse;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.infra.Blackhole;
+import org.springframework.web.socket.TextMessage;
+
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 호가 1건을 구독자 N명에게 보낼 때의 직렬화 비용 비교
+ *
+ * - perSessionEncode: 기존 방식 (세션마다 Map.of + writeValueAsString + new TextMessage)
+ * - sharedFrame: 업데이트당 한 번 직렬화한 OutboundFrame을 모든 세션이 공유
+ *
+ * sharedFrame은 구독자 수가 늘어도 직렬화 비용이 일정하고 세션 루프 비용만 늘어난다.
+ * 실제 소켓 전송은 제외하고 Blackhole로 전달 비용만 측정한다.
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+public class OutboundFrameBenchmark {
+
+    @Param({"1", "100", "1000", "5000"})
+    private int subscribers;
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private RealtimeQuoteResponse quote;
+
+    @Setup
+    public void setUp() {
+        long[] askPrices = new long[10];
+        long[] bidPrices = new long[10];
+        long[] askVolumes = new long[10];
+        long[] bidVolumes = new long[10];
+        for (int i = 0; i < 10; i++) {
+            askPrices[i] = 71_100 + i * 100L;
+            bidPrices[i] = 71_000 - i * 100L;
+            askVolumes[i] = 1_000 + i * 37L;
+            bidVolumes[i] = 2_000 + i * 41L;
+        }
+
+        quote = RealtimeQuoteResponse.builder()
+                .stockCode("005930")
+                .timestamp("2025-01-02 09:00:00")
+                .askPrices(askPrices)
+                .bidPrices(bidPrices)
+                .askVolumes(askVolumes)
+                .bidVolumes(bidVolumes)
+                .totalAskVolume(123_456)
+                .totalBidVolume(234_567)
+                .build();
+    }
+
+    @Benchmark
+    public void perSessionEncode(Blackhole blackhole) throws Exception {
+        for (int i = 0; i < subscribers; i++) {
+            Map<String, Object> message = Map.of(
+                    "type", "quote",
+                    "data", quote
+            );
+            blackhole.consume(new TextMessage(objectMapper.writeValueAsString(message)));
+        }
+    }
+
+    @Benchmark
+    public void sharedFrame(Blackhole blackhole) throws Exception {
+        OutboundFrame frame = OutboundFrame.encode(objectMapper, "quote", quote);
+        for (int i = 0; i < subscribers; i++) {
+            blackhole.consume(frame.message());
+        }
+    }
+}
@@ -0,0 +1,90 @@
+package com.hanati.common.snapshot;
+
+import com.hanati.benchmark.Fixtures;
+import com.hanati.common.cache.CacheSweeper;
+import com.hanati.common.cache.TtlCache;
+import com.hanati.common.config.RealtimeConfig;
+import com.hanati.domain.quote.dto.RealtimeQuoteResponse;
+import com.hanati.domain.quote.parser.KisOrderBook;
+import com.hanati.domain.quote.parser.KisRealtimeFrame;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 호가 1건 저장/조회 비용 - 틱마다 불변 DTO를 만들어 캐시에 넣는 방식과 스냅샷 슬롯 제자리 갱신 비교
+ *
+ * - storeDto/readDto: KisOrderBook.toResponse (DTO + 배열 4개) → TtlCache.put/get
+ * - writeSnapshot/readSnapshot: MarketSnapshot.writeBook/readBook (seqlock, 읽기 버퍼 재사용)
+ *
+ * 프레임 파싱 비용은 같으므로 setUp에서 미리 파싱해 두고 저장 경로만 측정한다.
+ * ./gradlew jmh의 gc 프로파일러 gc.alloc.rate.norm으로 1건당 할당량(틱당 garbage)을 비교한다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class MarketSnapshotBenchmark {
+
+    private static final String TIMESTAMP = "2025-01-02 09:30:00";
+
+    private KisOrderBook[] books;
+    private TtlCache<String, RealtimeQuoteResponse> dtoCache;
+    private MarketSnapshotStore snapshotStore;
+    private final OrderBookView view = new OrderBookView();
+    private int index;
+
+    @Setup
+    public void setUp() {
+        String[] frames = Fixtures.lines("kis-domestic-quote.txt");
+        KisRealtimeFrame frame = new KisRealtimeFrame();
+        books = new KisOrderBook[frames.length];
+        for (int i = 0; i < frames.length; i++) {
+            books[i] = new KisOrderBook();
+            if (!frame.wrap(frames[i]) || !books[i].readFrom(frame)) {
+                throw new IllegalStateException("호가 픽스처 형식 오류: " + frames[i]);
+            }
+        }
+
+        // sweeper 스레드는 시작하지 않음 (등록만 측정에 포함)
+        RealtimeConfig config = new RealtimeConfig();
+        CacheSweeper sweeper = new CacheSweeper(config);
+        dtoCache = new TtlCache<>(sweeper, config.getCache().getTtlMs(), config.getCache().getStaleRetentionMs());
+        snapshotStore = new MarketSnapshotStore(sweeper, config);
+        for (KisOrderBook book : books) {
+            dtoCache.put(book.getStockCode(), book.toResponse(TIMESTAMP));
+            snapshotStore.snapshot(book.getStockCode()).writeBook(book, TIMESTAMP);
+        }
+    }
+
+    private KisOrderBook next() {
+        return books[index++ & (books.length - 1)];
+    }
+
+    @Benchmark
+    public void storeDto() {
+        KisOrderBook book = next();
+        dtoCache.put(book.getStockCode(), book.toResponse(TIMESTAMP));
+    }
+
+    @Benchmark
+    public void writeSnapshot() {
+        KisOrderBook book = next();
+        snapshotStore.snapshot(book.getStockCode()).writeBook(book, TIMESTAMP);
+    }
+
+    @Benchmark
+    public RealtimeQuoteResponse readDto() {
+        return dtoCache.get(next().getStockCode());
+    }
+
+    @Benchmark
+    public long readSnapshot() {
+        return snapshotStore.find(next().getStockCode()).readBook(view);
+    }
+}
@@ -0,0 +1,54 @@
+package com.hanati.domain.foreignquote.service;
+
+import com.hanati.benchmark.Fixtures;
+import com.hanati.domain.foreignquote.dto.ForeignQuoteData;
+import com.hanati.domain.quote.parser.KisRealtimeFrame;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 해외주식 호가 수신 경로 (ForeignKisWebSocketClient.parseUsQuoteData / parseAsiaQuoteData)
+ *
+ * 캐시 저장과 리스너 통지는 제외하고 프레임 커서 초기화 + 중간가 계산 + DTO 생성만 측정한다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class ForeignQuoteParserBenchmark {
+
+    private final KisRealtimeFrame frame = new KisRealtimeFrame();
+
+    private String[] usFrames;
+    private String[] asiaFrames;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        usFrames = Fixtures.lines("kis-us-quote.txt");
+        asiaFrames = Fixtures.lines("kis-asia-quote.txt");
+    }
+
+    @Benchmark
+    public ForeignQuoteData parseUsQuote() {
+        return parse(usFrames[index++ & (usFrames.length - 1)], 20);
+    }
+
+    @Benchmark
+    public ForeignQuoteData parseAsiaQuote() {
+        return parse(asiaFrames[index++ & (asiaFrames.length - 1)], 15);
+    }
+
+    private ForeignQuoteData parse(String payload, int minFields) {
+        if (!frame.wrap(payload) || frame.fieldCount() < minFields) {
+            throw new IllegalStateException("호가 픽스처 형식 오류: " + payload);
+        }
+        return ForeignKisWebSocketClient.buildBookQuote(frame);
+    }
+}
@@ -0,0 +1,57 @@
+package com.hanati.domain.gold.service;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hanati.benchmark.Fixtures;
+import com.hanati.common.realtime.OutboundFrame;
+import com.hanati.domain.gold.dto.GoldQuoteData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 금현물 호가 수신 경로 (GoldKiwoomWebSocketClient.handleRealtimeData → parseQuoteData)
+ *
+ * - parseQuote: split + 42개 필드 변환 + DTO 생성
+ * - encodeQuote: GoldQuoteWebSocketHandler가 브로드캐스트 시 1회 수행하는 Jackson 직렬화
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class GoldRealtimeBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    private String[] quoteFrames;
+    private GoldQuoteData[] quotes;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        quoteFrames = Fixtures.lines("kiwoom-gold-quote.txt");
+        quotes = new GoldQuoteData[quoteFrames.length];
+        for (int i = 0; i < quoteFrames.length; i++) {
+            quotes[i] = parse(quoteFrames[i]);
+        }
+    }
+
+    @Benchmark
+    public GoldQuoteData parseQuote() {
+        return parse(quoteFrames[index++ & (quoteFrames.length - 1)]);
+    }
+
+    @Benchmark
+    public OutboundFrame encodeQuote() throws Exception {
+        return OutboundFrame.encode(objectMapper, quotes[index++ & (quotes.length - 1)]);
+    }
+
+    private static GoldQuoteData parse(String payload) {
+        String[] fields = payload.split("\\|");
+        return GoldKiwoomWebSocketClient.parseQuoteData(fields[1], fields);
+    }
+}
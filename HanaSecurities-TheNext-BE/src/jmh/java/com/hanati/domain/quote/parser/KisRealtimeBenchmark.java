@@ -0,0 +1,94 @@
+package com.hanati.domain.quote.parser;
+
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hanati.benchmark.Fixtures;
+import com.hanati.common.realtime.OutboundFrame;
+import com.hanati.domain.quote.dto.RealtimeQuoteResponse;
+import com.hanati.domain.quote.dto.RealtimeTradeData;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 국내주식 실시간 수신 경로 (KisWebSocketClient.parseRealtimeQuoteData / parseRealtimeTradeData)
+ *
+ * - parseQuote/parseTrade: 프레임 커서 초기화 + 필드 변환 + 응답 DTO 생성 (수신 스레드 1건 처리 비용)
+ * - encodeQuote/encodeTrade: 브로드캐스트 시 1회 수행하는 Jackson 직렬화 (OutboundFrame)
+ *
+ * 초당 처리량과 함께 ./gradlew jmh의 gc 프로파일러로 1건당 할당량(gc.alloc.rate.norm)을 본다.
+ */
+@State(Scope.Thread)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.SECONDS)
+public class KisRealtimeBenchmark {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final KisRealtimeFrame frame = new KisRealtimeFrame();
+    private final KisOrderBook orderBook = new KisOrderBook();
+    private final KisTradeTick tradeTick = new KisTradeTick();
+
+    private String[] quoteFrames;
+    private String[] tradeFrames;
+    private RealtimeQuoteResponse[] quotes;
+    private RealtimeTradeData[] trades;
+    private int index;
+
+    @Setup
+    public void setUp() {
+        quoteFrames = Fixtures.lines("kis-domestic-quote.txt");
+        tradeFrames = Fixtures.lines("kis-domestic-trade.txt");
+
+        quotes = new RealtimeQuoteResponse[quoteFrames.length];
+        for (int i = 0; i < quoteFrames.length; i++) {
+            quotes[i] = parseQuote(quoteFrames[i]);
+        }
+        trades = new RealtimeTradeData[tradeFrames.length];
+        for (int i = 0; i < tradeFrames.length; i++) {
+            trades[i] = parseTrade(tradeFrames[i]);
+        }
+    }
+
+    private int next(int length) {
+        return index++ & (length - 1);
+    }
+
+    @Benchmark
+    public RealtimeQuoteResponse parseQuote() {
+        return parseQuote(quoteFrames[next(quoteFrames.length)]);
+    }
+
+    @Benchmark
+    public RealtimeTradeData parseTrade() {
+        return parseTrade(tradeFrames[next(tradeFrames.length)]);
+    }
+
+    @Benchmark
+    public OutboundFrame encodeQuote() throws Exception {
+        return OutboundFrame.encode(objectMapper, "quote", quotes[next(quotes.length)]);
+    }
+
+    @Benchmark
+    public OutboundFrame encodeTrade() throws Exception {
+        return OutboundFrame.encode(objectMapper, "trade", trades[next(trades.length)]);
+    }
+
+    private RealtimeQuoteResponse parseQuote(String payload) {
+        if (!frame.wrap(payload) || !orderBook.readFrom(frame)) {
+            throw new IllegalStateException("호가 픽스처 형식 오류: " + payload);
+        }
+        return orderBook.toResponse(RealtimeTimestamp.now());
+    }
+
+    private RealtimeTradeData parseTrade(String payload) {
+        if (!frame.wrap(payload) || !tradeTick.readFrom(frame)) {
+            throw new IllegalStateException("체결 픽스처 형식 오류: " + payload);
+        }
+        return tradeTick.toTradeData(frame, RealtimeTimestamp.now());
+    }
+}
@@ -0,0 +1,51 @@
+package com.hanati.common.cache;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * TTL 캐시 항목 (값 + 저장 시각)
+ *
+ * - 저장 시각은 System.nanoTime 기준 (시계 보정/변경 영향 없음)
+ * - TTL이 지난 항목도 보관 기간 동안 조회 가능 → 호출자가 isStale()/getAgeMillis()로 최근값 제공 여부 판단
+ */
+public final class CacheEntry<V> {
+
+    private final V value;
+    private final long storedNanos;
+    private final long freshUntilNanos;
+
+    public CacheEntry(V value, long storedNanos, long freshUntilNanos) {
+        this.value = value;
+        this.storedNanos = storedNanos;
+        this.freshUntilNanos = freshUntilNanos;
+    }
+
+    public V getValue() {
+        return value;
+    }
+
+    /**
+     * 저장 후 경과 시간 (ms)
+     */
+    public long getAgeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - storedNanos);
+    }
+
+    /**
+     * TTL 경과 여부
+     */
+    public boolean isStale() {
+        return isStale(System.nanoTime());
+    }
+
+    boolean isStale(long nowNanos) {
+        return nowNanos - freshUntilNanos > 0;
+    }
+
+    /**
+     * 저장 시각 (System.nanoTime, 수신 시각과 함께 저장한 경우 업스트림 수신 시각)
+     */
+    public long getStoredNanos() {
+        return storedNanos;
+    }
+}
@@ -0,0 +1,132 @@
+package com.hanati.common.cache;
+
+import com.hanati.common.config.RealtimeConfig;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * TTL 캐시/스냅샷 저장소 만료 처리용 해시드 타이밍 휠 (TtlCache, MarketSnapshotStore 공용, 스레드 1개)
+ *
+ * - 슬롯 = 마감 시각(System.nanoTime) / tick, 슬롯마다 Lock-free 스택(Node.next 연결)으로 등록
+ * - tick마다 경과한 슬롯을 비우고, 마감 전 노드(휠 한 바퀴 이상 남은 노드)는 다시 등록
+ * - 등록 단위는 키(최초 저장 시 1회) → 갱신이 잦은 시세도 저장당 추가 할당/CAS 없음
+ */
+@Slf4j
+@Component
+public class CacheSweeper {
+
+    private static final int WHEEL_SIZE = 1024;
+    private static final int MASK = WHEEL_SIZE - 1;
+
+    private final long tickNanos;
+    private final long startNanos = System.nanoTime();
+    private final AtomicReferenceArray<Node> wheel = new AtomicReferenceArray<>(WHEEL_SIZE);
+    private final LongAdder expired = new LongAdder();
+
+    // 처리 완료한 마지막 tick (sweeper 스레드만 갱신)
+    private volatile long processedTick = -1;
+
+    private ScheduledExecutorService executor;
+
+    public CacheSweeper(RealtimeConfig realtimeConfig) {
+        this.tickNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(1, realtimeConfig.getCache().getSweepTickMs()));
+    }
+
+    @PostConstruct
+    public void start() {
+        executor = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "cache-sweeper");
+            thread.setDaemon(true);
+            return thread;
+        });
+        long tickMillis = TimeUnit.NANOSECONDS.toMillis(tickNanos);
+        executor.scheduleAtFixedRate(this::sweep, tickMillis, tickMillis, TimeUnit.MILLISECONDS);
+        log.info("[캐시 Sweeper] 시작 - tick: {}ms, 슬롯: {}개", tickMillis, WHEEL_SIZE);
+    }
+
+    /**
+     * 노드를 마감 시각 슬롯에 등록 (임의 스레드)
+     * - 이미 지난 슬롯이면 다음 tick 슬롯에 등록
+     */
+    public void schedule(Node node, long deadlineNanos) {
+        node.deadlineNanos = deadlineNanos;
+        long tick = Math.max((deadlineNanos - startNanos) / tickNanos, processedTick + 1);
+        int slot = (int) (tick & MASK);
+        Node head;
+        do {
+            head = wheel.get(slot);
+            node.next = head;
+        } while (!wheel.compareAndSet(slot, head, node));
+    }
+
+    /**
+     * 경과한 슬롯 처리 (sweeper 스레드)
+     * - 지연으로 tick을 건너뛰었으면 밀린 슬롯까지 한 번에 처리 (최대 휠 한 바퀴)
+     */
+    private void sweep() {
+        try {
+            long now = System.nanoTime();
+            long currentTick = (now - startNanos) / tickNanos;
+            long from = Math.max(processedTick + 1, currentTick - MASK);
+            for (long tick = from; tick <= currentTick; tick++) {
+                processedTick = tick;
+                Node node = wheel.getAndSet((int) (tick & MASK), null);
+                while (node != null) {
+                    Node next = node.next;
+                    node.next = null;
+                    if (node.deadlineNanos - now > 0) {
+                        schedule(node, node.deadlineNanos);
+                    } else {
+                        long nextDeadline = node.expire(now);
+                        if (nextDeadline == Node.DONE) {
+                            expired.increment();
+                        } else {
+                            schedule(node, nextDeadline);
+                        }
+                    }
+                    node = next;
+                }
+            }
+        } catch (Exception e) {
+            log.error("[캐시 Sweeper] 만료 처리 실패", e);
+        }
+    }
+
+    /**
+     * 만료 처리로 제거된 키 수 (누적)
+     */
+    public long getExpiredCount() {
+        return expired.sum();
+    }
+
+    @PreDestroy
+    public void stop() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+
+    /**
+     * 휠 등록 단위 (TtlCache 키, MarketSnapshotStore 종목 슬롯)
+     */
+    public abstract static class Node {
+        public static final long DONE = Long.MIN_VALUE;
+
+        long deadlineNanos;
+        Node next;
+
+        /**
+         * 마감 도달 시 호출 (sweeper 스레드)
+         * @return 다시 등록할 마감 시각, 제거 완료면 DONE
+         */
+        protected abstract long expire(long nowNanos);
+    }
+}
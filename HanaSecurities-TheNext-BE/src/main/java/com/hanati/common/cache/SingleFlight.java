@@ -0,0 +1,177 @@
+package com.hanati.common.cache;
+
+import java.util.Map;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Supplier;
+
+/**
+ * 키 단위 중복 호출 병합 (single-flight)
+ *
+ * - 같은 키의 조회가 진행 중이면 새로 호출하지 않고 진행 중인 결과를 함께 받음
+ * - 결과 공유 시간(기본 0): 0이면 완료 후 들어온 호출은 다시 조회 (결과 보관은 호출자의 캐시가 담당),
+ *   0보다 크면 완료된 성공 결과를 그 시간 동안 같은 키 호출에 그대로 반환 (동시 접속 직후 연이은 요청 흡수)
+ * - 실패도 대기 중인 호출 모두에게 같은 예외로 전달 (실패 결과는 공유 시간과 무관하게 보관하지 않음)
+ * - 취소 안전:
+ *   대기 중인 호출이 인터럽트되어도 진행 중인 조회는 계속되어 나머지 호출에 전달되고,
+ *   조회하던 호출이 인터럽트로 중단되면 대기 중인 호출은 예외 대신 다시 조회를 시도하며,
+ *   submit이 반환한 future를 취소해도 같은 조회를 기다리는 다른 호출에는 영향 없음
+ */
+public final class SingleFlight<K, V> {
+
+    private final Map<K, Flight<V>> inFlight = new ConcurrentHashMap<>();
+    private final long shareResultNanos;
+    // 공유 시간이 끝난 완료 결과 제거 (키별 1회 예약, 전체 순회 없음)
+    private final Executor evictor;
+
+    public SingleFlight() {
+        this(0, TimeUnit.MILLISECONDS);
+    }
+
+    /**
+     * @param shareResult 완료된 성공 결과를 같은 키 호출에 재사용하는 시간 (0이면 진행 중인 동안만 공유)
+     */
+    public SingleFlight(long shareResult, TimeUnit unit) {
+        this.shareResultNanos = Math.max(0, unit.toNanos(shareResult));
+        this.evictor = CompletableFuture.delayedExecutor(shareResultNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 동기 조회 - 호출 스레드가 직접 조회하거나 진행 중인 조회 완료를 기다림
+     */
+    public V execute(K key, Supplier<V> loader) {
+        while (true) {
+            Flight<V> created = new Flight<>();
+            Flight<V> running = join(key, created);
+            if (running != null) {
+                try {
+                    return await(running.future);
+                } catch (Abandoned e) {
+                    // 조회하던 호출이 취소됨 → 다시 시도 (먼저 도착한 호출이 새로 조회)
+                    continue;
+                }
+            }
+
+            try {
+                V value = loader.get();
+                complete(key, created, value);
+                return value;
+            } catch (RuntimeException | Error e) {
+                fail(key, created, Thread.currentThread().isInterrupted() ? new Abandoned() : e);
+                throw e;
+            }
+        }
+    }
+
+    /**
+     * 비동기 조회 - 진행 중인 조회가 없을 때만 executor에 등록
+     * @return 조회 결과 (진행 중이던 조회가 있으면 그 결과, 취소해도 다른 호출에 영향 없는 사본)
+     */
+    public CompletableFuture<V> submit(K key, Supplier<V> loader, Executor executor) {
+        Flight<V> created = new Flight<>();
+        Flight<V> running = join(key, created);
+        if (running != null) {
+            return running.future.copy();
+        }
+
+        try {
+            executor.execute(() -> {
+                try {
+                    complete(key, created, loader.get());
+                } catch (Throwable t) {
+                    fail(key, created, t);
+                }
+            });
+        } catch (RejectedExecutionException e) {
+            fail(key, created, e);
+        }
+        return created.future.copy();
+    }
+
+    /**
+     * 진행 중인 키 수 (공유 시간 중인 완료 결과 포함)
+     */
+    public int size() {
+        return inFlight.size();
+    }
+
+    /**
+     * 진행 중이거나 공유 시간이 남은 조회에 합류, 없으면 created를 등록
+     * @return 합류할 조회 (null이면 created가 등록되어 호출자가 조회)
+     */
+    private Flight<V> join(K key, Flight<V> created) {
+        while (true) {
+            Flight<V> running = inFlight.putIfAbsent(key, created);
+            if (running == null) {
+                return null;
+            }
+            if (!running.isExpired(System.nanoTime(), shareResultNanos)) {
+                return running;
+            }
+            if (inFlight.replace(key, running, created)) {
+                return null;
+            }
+        }
+    }
+
+    private void complete(K key, Flight<V> flight, V value) {
+        if (shareResultNanos == 0) {
+            inFlight.remove(key, flight);
+        } else {
+            flight.completedNanos = System.nanoTime();
+            // 이미 다른 조회로 교체됐으면 remove(key, flight)는 아무것도 지우지 않음
+            evictor.execute(() -> inFlight.remove(key, flight));
+        }
+        flight.future.complete(value);
+    }
+
+    private void fail(K key, Flight<V> flight, Throwable error) {
+        inFlight.remove(key, flight);
+        flight.future.completeExceptionally(error);
+    }
+
+    private static <V> V await(CompletableFuture<V> future) {
+        try {
+            return future.get();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("중복 조회 대기 중 인터럽트", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException runtime) {
+                throw runtime;
+            }
+            if (cause instanceof Error error) {
+                throw error;
+            }
+            throw new CompletionException(cause);
+        }
+    }
+
+    /**
+     * 진행 중인 조회 (completedNanos는 성공 완료 후 공유 시간 판단용, 0이면 미완료)
+     */
+    private static final class Flight<V> {
+        private final CompletableFuture<V> future = new CompletableFuture<>();
+        private volatile long completedNanos;
+
+        private boolean isExpired(long nowNanos, long shareNanos) {
+            long completed = completedNanos;
+            return completed != 0 && nowNanos - completed >= shareNanos;
+        }
+    }
+
+    /**
+     * 조회하던 호출이 인터럽트로 중단됨 (대기 중인 호출은 다시 시도)
+     */
+    private static final class Abandoned extends RuntimeException {
+        private Abandoned() {
+            super("조회 호출 취소", null, false, false);
+        }
+    }
+}
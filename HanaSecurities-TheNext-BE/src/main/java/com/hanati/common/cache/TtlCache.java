@@ -0,0 +1,105 @@
+package com.hanati.common.cache;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * System.nanoTime 기반 TTL 캐시
+ *
+ * - get: TTL 이내 값만 반환 (기존 2초 TTL 캐시와 동일), 조회 시 시각 객체 할당 없음
+ * - getEntry: TTL이 지난 최근값도 보관 기간 동안 경과 시간과 함께 반환
+ * - 보관 기간이 지난 항목은 CacheSweeper(타이밍 휠)가 제거 → 조회가 없는 종목도 누적되지 않음
+ */
+public final class TtlCache<K, V> {
+
+    private final Map<K, CacheEntry<V>> entries = new ConcurrentHashMap<>();
+    private final CacheSweeper sweeper;
+    private final long ttlNanos;
+    private final long retentionNanos;
+
+    /**
+     * @param ttlMillis 최신값 유효 시간
+     * @param staleRetentionMillis TTL 경과 후 최근값 보관 시간
+     */
+    public TtlCache(CacheSweeper sweeper, long ttlMillis, long staleRetentionMillis) {
+        this.sweeper = sweeper;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.retentionNanos = TimeUnit.MILLISECONDS.toNanos(Math.max(0, staleRetentionMillis));
+    }
+
+    /**
+     * 저장 - 처음 저장되는 키만 sweeper에 등록 (갱신은 만료 시점에 저장 시각으로 재계산)
+     */
+    public void put(K key, V value) {
+        put(key, value, System.nanoTime());
+    }
+
+    /**
+     * 저장 (저장 시각 = 업스트림 수신 시각)
+     * - 수신 후 저장까지는 같은 수신 스레드의 파싱 시간뿐이므로 TTL 기준으로도 그대로 사용
+     * @param receivedNanos 업스트림 수신 시각 (System.nanoTime)
+     */
+    public void put(K key, V value, long receivedNanos) {
+        CacheEntry<V> previous = entries.put(key, new CacheEntry<>(value, receivedNanos, receivedNanos + ttlNanos));
+        if (previous == null) {
+            sweeper.schedule(new KeyNode(key), receivedNanos + ttlNanos + retentionNanos);
+        }
+    }
+
+    /**
+     * TTL 이내 값 조회 (없거나 만료되었으면 null)
+     */
+    public V get(K key) {
+        CacheEntry<V> entry = entries.get(key);
+        if (entry == null || entry.isStale(System.nanoTime())) {
+            return null;
+        }
+        return entry.getValue();
+    }
+
+    /**
+     * 최근값 조회 (TTL 경과 여부와 무관, 보관 기간이 지나 제거되었으면 null)
+     */
+    public CacheEntry<V> getEntry(K key) {
+        return entries.get(key);
+    }
+
+    public void remove(K key) {
+        entries.remove(key);
+    }
+
+    public void clear() {
+        entries.clear();
+    }
+
+    public int size() {
+        return entries.size();
+    }
+
+    /**
+     * 키별 만료 노드
+     * - 마감 시점에 최신 저장 시각 기준으로 보관 기간이 남았으면 재등록, 지났으면 제거
+     */
+    private final class KeyNode extends CacheSweeper.Node {
+        private final K key;
+
+        KeyNode(K key) {
+            this.key = key;
+        }
+
+        @Override
+        protected long expire(long nowNanos) {
+            CacheEntry<V> current = entries.get(key);
+            if (current == null) {
+                return DONE;
+            }
+            long deadline = current.getStoredNanos() + ttlNanos + retentionNanos;
+            if (deadline - nowNanos > 0) {
+                return deadline;
+            }
+            // 제거 직전에 갱신되었으면 다음 tick에 다시 판단
+            return entries.remove(key, current) ? DONE : nowNanos;
+        }
+    }
+}
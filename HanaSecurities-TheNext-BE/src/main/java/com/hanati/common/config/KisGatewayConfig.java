@@ -0,0 +1,22 @@
+package com.hanati.common.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import lombok.Getter;
+import lombok.Setter;
+
+@Configuration
+@ConfigurationProperties(prefix = "kis.gateway")
+@Getter
+@Setter
+public class KisGatewayConfig {
+
+    // 앱키당 초당 REST 호출 수 (KIS 실전 한도 20건에서 여유분 제외)
+    private double requestsPerSecond = 18;
+    // 유휴 후 한 번에 허용하는 호출 수 (토큰 버킷 크기)
+    private int burst = 5;
+    // 호출 허용을 기다리는 최대 시간 (초과 시 호출 실패)
+    private long maxWaitMs = 10000;
+    // 초당 호출 한도 초과 응답(EGW00201) 수신 시 전체 호출 일시 정지 시간
+    private long throttleBackoffMs = 1000;
+}
@@ -0,0 +1,95 @@
+package com.hanati.common.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import lombok.Getter;
+import lombok.Setter;
+
+@Configuration
+@ConfigurationProperties(prefix = "realtime")
+@Getter
+@Setter
+public class RealtimeConfig {
+
+    // 시세 팬아웃 실행기 설정
+    private Broadcast broadcast = new Broadcast();
+
+    // 세션별 전송 버퍼 설정
+    private Outbound outbound = new Outbound();
+
+    // KIS 실시간 등록 한도 설정
+    private Upstream upstream = new Upstream();
+
+    // 업스트림 원본 프레임 저널 설정
+    private Journal journal = new Journal();
+
+    // 실시간 시세 캐시 TTL 설정
+    private Cache cache = new Cache();
+
+    @Getter
+    @Setter
+    public static class Broadcast {
+        // 팬아웃 샤드(스레드) 수 (0 이하이면 CPU 코어 수)
+        private int threads = 0;
+    }
+
+    @Getter
+    @Setter
+    public static class Outbound {
+        // 세션당 대기 가능한 메시지 수 (종목별 최신값만 유지하므로 구독 종목 수 + 여유분)
+        private int bufferLimit = 256;
+        // 메시지 1건 전송 허용 시간 (초과 시 세션 종료)
+        private long sendTimeLimitMs = 5000;
+        // 세션 전송 스레드 수
+        private int senderThreads = 8;
+        // 묶음 전송 세션의 첫 시세 적재 후 전송까지 대기 시간 (같은 주기에 바뀐 종목을 한 프레임으로 모음)
+        private long batchWindowMs = 50;
+    }
+
+    @Getter
+    @Setter
+    public static class Upstream {
+        // KIS 실시간 WebSocket 주소 (부하 시험 시 로컬 시뮬레이터 주소로 교체)
+        private String kisWsUrl = "ws://ops.koreainvestment.com:21000";
+        // 키움 금현물 실시간 WebSocket 주소
+        private String kiwoomWsUrl = "wss://api.kiwoom.com:10000/api/dostk/websocket";
+        // 승인키(연결)당 실시간 등록 가능 건수 (KIS 한도 41건)
+        private int maxRegistrations = 41;
+        // 실시간 등록 후 교체 대상에서 제외되는 최소 유지 시간
+        private long minResidencyMs = 30000;
+        // 대기 종목과 실시간 종목 순위 재평가 주기
+        private long rebalanceIntervalMs = 5000;
+        // 대기 종목 REST 스냅샷 갱신 주기
+        private long fallbackIntervalMs = 3000;
+        // KIS가 거부한 등록의 최초 재시도 간격 (연속 거부마다 2배)
+        private long failedRetryMs = 30000;
+        // 거부된 등록 재시도 간격 상한
+        private long failedRetryMaxMs = 600000;
+    }
+
+    @Getter
+    @Setter
+    public static class Journal {
+        // 원본 프레임 기록 여부
+        private boolean enabled = false;
+        // 일자별 세그먼트 저장 경로
+        private String directory = "./journal";
+        // 세그먼트 파일 크기 (가득 차면 다음 세그먼트로 교체)
+        private int segmentSizeMb = 256;
+        // 수신 스레드 → 기록 스레드 대기열 크기 (초과분은 버리고 카운트)
+        private int queueCapacity = 65536;
+        // 시간 인덱스 기록 간격
+        private long indexIntervalMs = 1000;
+    }
+
+    @Getter
+    @Setter
+    public static class Cache {
+        // 최신값으로 제공하는 유효 시간 (초과 시 get은 null, 최근값 조회는 stale 표시)
+        private long ttlMs = 2000;
+        // 만료 후에도 최근값(stale)으로 보관하는 시간 (초과 시 sweeper가 제거)
+        private long staleRetentionMs = 60000;
+        // 타이밍 휠 tick 간격
+        private long sweepTickMs = 100;
+    }
+}
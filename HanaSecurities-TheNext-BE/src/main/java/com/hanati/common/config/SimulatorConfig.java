@@ -0,0 +1,45 @@
+package com.hanati.common.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import lombok.Getter;
+import lombok.Setter;
+
+@Configuration
+@ConfigurationProperties(prefix = "simulator")
+@Getter
+@Setter
+public class SimulatorConfig {
+
+    // 로컬 거래소 시뮬레이터 활성화 (/sim/kis, /sim/kiwoom 엔드포인트와 토큰/승인키 발급 API 등록)
+    private boolean enabled = false;
+
+    // 등록 1건당 초당 송출 프레임 수 (합성 모드)
+    private double framesPerSecond = 10;
+
+    // 연결당 동시 송출 종목(등록) 수 한도 (KIS 한도 41건, 부하 시험 시 realtime.upstream.max-registrations와 함께 확대)
+    private int maxRegistrations = 41;
+
+    // 송출 주기 (주기마다 누적된 송출량만큼 프레임 전송)
+    private long tickMs = 10;
+
+    // 저널 재생 설정
+    private Replay replay = new Replay();
+
+    @Getter
+    @Setter
+    public static class Replay {
+        // 재생할 저널 경로 (비어 있으면 합성 프레임 송출)
+        private String directory = "";
+        // 재생할 저널 일자 (yyyy-MM-dd)
+        private String date = "";
+        // 재생 배속 (2.0이면 2배 빠르게, 0 이하면 대기 없이 최대 속도)
+        private double speed = 1.0;
+        // 끝까지 재생하면 처음부터 반복
+        private boolean loop = true;
+    }
+
+    public boolean isReplayEnabled() {
+        return !replay.getDirectory().isBlank() && !replay.getDate().isBlank();
+    }
+}
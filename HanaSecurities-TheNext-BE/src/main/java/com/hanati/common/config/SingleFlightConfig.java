@@ -0,0 +1,16 @@
+package com.hanati.common.config;
+
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Configuration;
+import lombok.Getter;
+import lombok.Setter;
+
+@Configuration
+@ConfigurationProperties(prefix = "single-flight")
+@Getter
+@Setter
+public class SingleFlightConfig {
+
+    // 같은 조회(차트/종목 기본정보/투자의견/재무정보)의 완료 결과를 이어서 들어온 요청에 재사용하는 시간 (0이면 진행 중인 동안만 병합)
+    private long readShareMs = 1000;
+}
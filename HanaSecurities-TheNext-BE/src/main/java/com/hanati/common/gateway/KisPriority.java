@@ -0,0 +1,45 @@
+package com.hanati.common.gateway;
+
+import java.util.Locale;
+
+/**
+ * KIS REST 호출 우선순위 (선언 순서가 높은 순위)
+ *
+ * 초당 호출 한도를 다 쓴 상태에서는 대기 중인 가장 높은 순위의 호출부터 실행
+ * (장 시작 직후 순위/차트 조회가 몰려도 주문/잔고 조회가 밀리지 않도록)
+ * 시세성 조회(QUOTE 이하)만 진행 중인 같은 GET 병합 대상 - 주문/잔고는 항상 각자 호출
+ */
+public enum KisPriority {
+    // 매수/매도 주문
+    ORDER(false),
+    // 잔고, 매수가능금액, 매도가능수량
+    BALANCE(false),
+    // 현재가, 호가, 종목 기본정보, 투자의견, 재무정보
+    QUOTE(true),
+    // 분봉/기간별 시세, 지수 시간별 시세
+    CHART(true),
+    // 순위
+    RANKING(true),
+    // 비동기 DB 동기화 (사용자 요청과 무관한 갱신)
+    BACKGROUND(true);
+
+    private final boolean coalescable;
+
+    KisPriority(boolean coalescable) {
+        this.coalescable = coalescable;
+    }
+
+    /**
+     * 진행 중인 같은 GET에 합류 가능 여부 (계좌 상태를 읽는 조회는 항상 새로 호출)
+     */
+    public boolean isCoalescable() {
+        return coalescable;
+    }
+
+    /**
+     * 지표 태그용 코드 (소문자)
+     */
+    public String code() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
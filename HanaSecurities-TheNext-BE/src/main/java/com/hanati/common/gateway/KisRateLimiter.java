@@ -0,0 +1,159 @@
+package com.hanati.common.gateway;
+
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * 우선순위 토큰 버킷
+ *
+ * - 초당 permitsPerSecond개씩 토큰이 쌓이고(최대 burst개) 호출 1건마다 1개 사용
+ * - 토큰이 없으면 순위별 대기열에 들어가고, 가장 높은 순위 대기열의 맨 앞 호출만 다음 토큰 시각까지 대기
+ *   (같은 순위는 도착 순, 낮은 순위는 높은 순위 대기열이 빌 때까지 배정받지 못함)
+ * - 한도 초과 응답을 받으면 pause로 남은 토큰을 버리고 일정 시간 배정 중지
+ */
+final class KisRateLimiter {
+
+    private final double permitsPerNano;
+    private final double burst;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final ArrayDeque<Waiter>[] lanes;
+
+    // lock으로 보호
+    private double tokens;
+    private long refilledNanos;
+    private long pausedUntilNanos;
+
+    @SuppressWarnings("unchecked")
+    KisRateLimiter(double permitsPerSecond, int burst, int laneCount) {
+        this.permitsPerNano = permitsPerSecond / TimeUnit.SECONDS.toNanos(1);
+        this.burst = Math.max(1, burst);
+        this.tokens = this.burst;
+        this.refilledNanos = System.nanoTime();
+        this.pausedUntilNanos = refilledNanos;
+        this.lanes = new ArrayDeque[laneCount];
+        for (int i = 0; i < laneCount; i++) {
+            lanes[i] = new ArrayDeque<>();
+        }
+    }
+
+    /**
+     * 토큰 1개 획득 (호출 스레드 대기)
+     * @param lane 대기열 번호 (0이 가장 높은 순위)
+     * @return 대기 시간 (나노초), 최대 대기 시간 초과 또는 인터럽트 시 -1
+     */
+    long acquire(int lane, long maxWaitNanos) {
+        long startNanos = System.nanoTime();
+        long deadline = startNanos + maxWaitNanos;
+        lock.lock();
+        Waiter waiter = new Waiter(lock.newCondition());
+        lanes[lane].addLast(waiter);
+        try {
+            while (true) {
+                long now = System.nanoTime();
+                refill(now);
+                long remaining = deadline - now;
+
+                if (waiter == head()) {
+                    long delay = delayUntilPermit(now);
+                    if (delay == 0) {
+                        tokens -= 1;
+                        return now - startNanos;
+                    }
+                    if (delay > remaining) {
+                        return -1;
+                    }
+                    waiter.wake.awaitNanos(delay);
+                } else {
+                    if (remaining <= 0) {
+                        return -1;
+                    }
+                    waiter.wake.awaitNanos(remaining);
+                }
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            return -1;
+        } finally {
+            lanes[lane].remove(waiter);
+            // 다음 순서의 호출이 토큰 시각 대기를 이어받도록 깨움
+            Waiter next = head();
+            if (next != null) {
+                next.wake.signal();
+            }
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 남은 토큰을 버리고 일정 시간 배정 중지 (한도 초과 응답 수신 시)
+     * - 중지 중에는 토큰도 쌓이지 않음 (재개 직후 버스트로 다시 한도를 넘지 않도록)
+     */
+    void pause(long pauseNanos) {
+        lock.lock();
+        try {
+            long until = System.nanoTime() + pauseNanos;
+            if (until - pausedUntilNanos > 0) {
+                pausedUntilNanos = until;
+                refilledNanos = until;
+            }
+            tokens = 0;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * 대기열별 대기 중인 호출 수
+     */
+    int queued(int lane) {
+        lock.lock();
+        try {
+            return lanes[lane].size();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void refill(long now) {
+        long elapsed = now - refilledNanos;
+        if (elapsed > 0) {
+            tokens = Math.min(burst, tokens + elapsed * permitsPerNano);
+            refilledNanos = now;
+        }
+    }
+
+    /**
+     * 다음 토큰을 쓸 수 있을 때까지 남은 시간 (0이면 즉시)
+     */
+    private long delayUntilPermit(long now) {
+        long paused = pausedUntilNanos - now;
+        if (paused > 0) {
+            return paused;
+        }
+        if (tokens >= 1) {
+            return 0;
+        }
+        return Math.max(1, (long) Math.ceil((1 - tokens) / permitsPerNano));
+    }
+
+    private Waiter head() {
+        for (ArrayDeque<Waiter> queue : lanes) {
+            Waiter first = queue.peekFirst();
+            if (first != null) {
+                return first;
+            }
+        }
+        return null;
+    }
+
+    private static final class Waiter {
+        private final Condition wake;
+
+        private Waiter(Condition wake) {
+            this.wake = wake;
+        }
+    }
+}
@@ -0,0 +1,192 @@
+package com.hanati.common.gateway;
+
+import com.hanati.common.cache.SingleFlight;
+import com.hanati.common.config.KisGatewayConfig;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.http.HttpEntity;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.HttpMethod;
+import org.springframework.http.ResponseEntity;
+import org.springframework.stereotype.Component;
+import org.springframework.web.client.HttpStatusCodeException;
+import org.springframework.web.client.ResourceAccessException;
+import org.springframework.web.client.RestTemplate;
+
+import java.util.EnumMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.TreeMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * KIS REST 호출 단일 관문
+ *
+ * - 모든 KIS REST 호출(토큰/승인키 발급 제외)은 이 관문의 exchange를 거침 (RestTemplate.exchange와 같은 형태 + 우선순위)
+ * - 앱키당 초당 호출 한도를 토큰 버킷으로 지키고, 한도가 찬 동안은 우선순위(주문 > 잔고 > 시세 > 차트 > 순위 > 동기화) 순으로 배정
+ * - 시세성 GET(QUOTE/CHART/RANKING/BACKGROUND)은 같은 요청(주소, 인증 외 헤더, 응답 타입)이 진행 중이면
+ *   새로 호출하지 않고 진행 중인 응답을 함께 받음 - 합류한 요청은 먼저 호출한 요청의 우선순위로 대기/호출됨
+ * - 주문/잔고 GET은 병합하지 않음 (계좌 상태는 호출 시점 값이 필요)
+ * - 한도 초과 응답(EGW00201)을 받으면 잠시 전체 배정을 멈추고, GET은 한 번 재시도
+ * - 최대 대기 시간을 넘기면 ResourceAccessException (기존 서비스의 RestClientException 처리 그대로 적용)
+ *
+ * 지표 이름:
+ * - kis.rest.queue (priority): 호출 허용 대기 중인 요청 수
+ * - kis.rest.wait (priority): 호출 허용까지 대기 시간
+ * - kis.rest.calls / kis.rest.rejected (priority): 실제 호출 수, 대기 시간 초과로 거부된 요청 수
+ * - kis.rest.coalesced / kis.rest.throttled: 진행 중인 GET에 합류한 요청 수, 한도 초과 응답 수
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class KisRestGateway {
+
+    // KIS 초당 거래건수 초과 응답 코드
+    private static final String THROTTLED_CODE = "EGW00201";
+    // 병합 키에서 제외하는 인증 헤더 (모든 호출이 같은 값)
+    private static final Set<String> AUTH_HEADERS = Set.of("authorization", "appkey", "appsecret");
+
+    private final RestTemplate restTemplate;
+    private final KisGatewayConfig gatewayConfig;
+    private final MeterRegistry registry;
+
+    private final SingleFlight<RequestKey, ResponseEntity<?>> inFlightGets = new SingleFlight<>();
+    private final Map<KisPriority, LaneMeters> lanes = new EnumMap<>(KisPriority.class);
+
+    private KisRateLimiter limiter;
+    private Counter coalesced;
+    private Counter throttled;
+
+    @PostConstruct
+    public void init() {
+        limiter = new KisRateLimiter(gatewayConfig.getRequestsPerSecond(), gatewayConfig.getBurst(),
+                KisPriority.values().length);
+
+        for (KisPriority priority : KisPriority.values()) {
+            Gauge.builder("kis.rest.queue", limiter, l -> l.queued(priority.ordinal()))
+                    .description("KIS REST 호출 허용 대기 중인 요청 수")
+                    .tag("priority", priority.code())
+                    .strongReference(true)
+                    .register(registry);
+            lanes.put(priority, new LaneMeters(
+                    Timer.builder("kis.rest.wait")
+                            .description("KIS REST 호출 허용까지 대기 시간")
+                            .tag("priority", priority.code())
+                            .register(registry),
+                    Counter.builder("kis.rest.calls")
+                            .description("KIS REST 호출 수")
+                            .tag("priority", priority.code())
+                            .register(registry),
+                    Counter.builder("kis.rest.rejected")
+                            .description("대기 시간 초과로 거부된 KIS REST 요청 수")
+                            .tag("priority", priority.code())
+                            .register(registry)));
+        }
+        coalesced = Counter.builder("kis.rest.coalesced")
+                .description("진행 중인 같은 GET에 합류한 요청 수")
+                .register(registry);
+        throttled = Counter.builder("kis.rest.throttled")
+                .description("KIS 초당 호출 한도 초과(EGW00201) 응답 수")
+                .register(registry);
+        Gauge.builder("kis.rest.inflight", inFlightGets, SingleFlight::size)
+                .description("진행 중인 GET 호출 수 (병합 키 기준)")
+                .strongReference(true)
+                .register(registry);
+
+        log.info("[KIS REST] 호출 관문 초기화 - 초당 {}건, 버스트 {}건",
+                gatewayConfig.getRequestsPerSecond(), gatewayConfig.getBurst());
+    }
+
+    /**
+     * KIS REST 호출 (호출 허용을 받을 때까지 호출 스레드 대기)
+     * - 병합된 GET은 먼저 호출한 요청(leader)의 우선순위로 한 번만 대기/호출하고, 합류한 요청은 그 결과를 기다림
+     * @param priority 호출 우선순위
+     */
+    @SuppressWarnings("unchecked")
+    public <T> ResponseEntity<T> exchange(KisPriority priority, String url, HttpMethod method,
+                                          HttpEntity<?> request, Class<T> responseType) {
+        if (method != HttpMethod.GET) {
+            return call(priority, url, method, request, responseType, false);
+        }
+        if (!priority.isCoalescable()) {
+            return call(priority, url, method, request, responseType, true);
+        }
+
+        RequestKey key = new RequestKey(url, keyHeaders(request.getHeaders()), responseType);
+        boolean[] leader = new boolean[1];
+        ResponseEntity<?> response = inFlightGets.execute(key, () -> {
+            leader[0] = true;
+            return call(priority, url, method, request, responseType, true);
+        });
+        if (!leader[0]) {
+            coalesced.increment();
+        }
+        return (ResponseEntity<T>) response;
+    }
+
+    private <T> ResponseEntity<T> call(KisPriority priority, String url, HttpMethod method,
+                                       HttpEntity<?> request, Class<T> responseType, boolean retryThrottled) {
+        acquire(priority);
+        try {
+            return restTemplate.exchange(url, method, request, responseType);
+        } catch (HttpStatusCodeException e) {
+            if (!isThrottled(e)) {
+                throw e;
+            }
+            throttled.increment();
+            limiter.pause(TimeUnit.MILLISECONDS.toNanos(gatewayConfig.getThrottleBackoffMs()));
+            log.warn("[KIS REST] 초당 호출 한도 초과 - 우선순위: {}, TR_ID: {}, {}ms 배정 중지",
+                    priority, request.getHeaders().getFirst("tr_id"), gatewayConfig.getThrottleBackoffMs());
+            if (!retryThrottled) {
+                throw e;
+            }
+            acquire(priority);
+            return restTemplate.exchange(url, method, request, responseType);
+        }
+    }
+
+    private void acquire(KisPriority priority) {
+        LaneMeters lane = lanes.get(priority);
+        long waited = limiter.acquire(priority.ordinal(), TimeUnit.MILLISECONDS.toNanos(gatewayConfig.getMaxWaitMs()));
+        if (waited < 0) {
+            lane.rejected.increment();
+            throw new ResourceAccessException("KIS 호출 대기 시간 초과 - 우선순위: " + priority);
+        }
+        lane.waitTimer.record(waited, TimeUnit.NANOSECONDS);
+        lane.calls.increment();
+    }
+
+    private static boolean isThrottled(HttpStatusCodeException e) {
+        return e.getResponseBodyAsString().contains(THROTTLED_CODE);
+    }
+
+    /**
+     * 병합 키용 헤더 (인증 헤더 제외, 이름 소문자 정렬 - tr_id, tr_cont, custtype 등 조회 조건은 모두 포함)
+     */
+    private static Map<String, List<String>> keyHeaders(HttpHeaders headers) {
+        Map<String, List<String>> keyHeaders = new TreeMap<>();
+        headers.forEach((name, values) -> {
+            String lowerName = name.toLowerCase(Locale.ROOT);
+            if (!AUTH_HEADERS.contains(lowerName)) {
+                keyHeaders.put(lowerName, List.copyOf(values));
+            }
+        });
+        return keyHeaders;
+    }
+
+    /**
+     * GET 병합 키
+     */
+    private record RequestKey(String url, Map<String, List<String>> headers, Class<?> responseType) {
+    }
+
+    private record LaneMeters(Timer waitTimer, Counter calls, Counter rejected) {
+    }
+}
@@ -0,0 +1,47 @@
+package com.hanati.common.journal;
+
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * 저널 세그먼트 파일 형식
+ *
+ * 데이터 파일 (segment-NNNN.dat, 고정 크기로 미리 매핑 - 기록되지 않은 영역은 0)
+ * <pre>
+ * header : int magic, int version, long createdEpochNanos
+ * record : int payloadLength(>0), long receiveEpochNanos, short sourceId, byte[payloadLength] UTF-8
+ * </pre>
+ * payloadLength가 0이면 기록 끝
+ *
+ * 인덱스 파일 (segment-NNNN.idx)
+ * <pre>
+ * entry  : long receiveEpochNanos, long recordOffset  (인덱스 간격마다 첫 레코드 위치, 0이면 끝)
+ * </pre>
+ */
+final class JournalFormat {
+
+    static final int MAGIC = 0x484A524E;  // "HJRN"
+    static final int VERSION = 1;
+    static final int HEADER_SIZE = 16;
+    static final int RECORD_HEADER_SIZE = Integer.BYTES + Long.BYTES + Short.BYTES;
+    static final int INDEX_ENTRY_SIZE = Long.BYTES * 2;
+
+    private static final DateTimeFormatter DAY = DateTimeFormatter.BASIC_ISO_DATE;
+
+    private JournalFormat() {
+    }
+
+    static Path dayDirectory(Path root, LocalDate date) {
+        return root.resolve(date.format(DAY));
+    }
+
+    static Path dataFile(Path dayDirectory, int segment) {
+        return dayDirectory.resolve(String.format("segment-%04d.dat", segment));
+    }
+
+    static Path indexFile(Path dataFile) {
+        String name = dataFile.getFileName().toString();
+        return dataFile.resolveSibling(name.substring(0, name.length() - 4) + ".idx");
+    }
+}
@@ -0,0 +1,8 @@
+package com.hanati.common.journal;
+
+/**
+ * 저널 레코드 (재생/오프라인 벤치마크용)
+ * @param receiveEpochNanos 수신 시각 (epoch 기준 나노초)
+ */
+public record JournalRecord(long receiveEpochNanos, MarketDataSource source, String payload) {
+}
@@ -0,0 +1,283 @@
+package com.hanati.common.journal;
+
+import com.hanati.common.config.RealtimeConfig;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.stream.Stream;
+
+/**
+ * 업스트림 원본 프레임 저널 (장애 재현/재생/오프라인 벤치마크용 캡처)
+ *
+ * - 수신 스레드는 수신 시각(epoch 나노초)과 출처를 붙여 대기열에 넣기만 함 (가득 차면 버리고 카운트, 블로킹 없음)
+ * - 기록 전용 스레드가 일자별 디렉터리의 고정 크기 메모리 매핑 세그먼트에 순차 기록
+ * - 세그먼트가 가득 차거나 날짜(Asia/Seoul)가 바뀌면 다음 세그먼트로 교체
+ * - 인덱스 간격마다 (수신 시각, 레코드 위치)를 인덱스 파일에 기록 → 시각 기준 탐색 (MarketDataJournalReader)
+ * - 파일 형식은 JournalFormat 참고
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MarketDataJournal {
+
+    private static final ZoneId ZONE = ZoneId.of("Asia/Seoul");
+    private static final long FORCE_INTERVAL_NANOS = TimeUnit.SECONDS.toNanos(1);
+
+    private final RealtimeConfig realtimeConfig;
+
+    private volatile boolean enabled;
+    private volatile boolean running;
+    private BlockingQueue<Entry> queue;
+    private Thread writerThread;
+
+    // epoch 나노초 = 기동 시 epoch + 경과 nanoTime (단조 증가, 나노초 해상도)
+    private long baseEpochNanos;
+    private long baseNanoTime;
+
+    // 기록 스레드 전용 상태
+    private Path root;
+    private int segmentSize;
+    private long indexIntervalNanos;
+    private LocalDate currentDay;
+    private long dayEndNanos;
+    private int segmentNo;
+    private FileChannel dataChannel;
+    private MappedByteBuffer data;
+    private FileChannel indexChannel;
+    private MappedByteBuffer index;
+    private long nextIndexNanos;
+    private long lastForceNanos;
+
+    private final LongAdder recorded = new LongAdder();
+    private final LongAdder dropped = new LongAdder();
+    private final LongAdder bytesWritten = new LongAdder();
+    private final LongAdder writeFailures = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        RealtimeConfig.Journal config = realtimeConfig.getJournal();
+        if (!config.isEnabled()) {
+            return;
+        }
+
+        Instant now = Instant.now();
+        baseNanoTime = System.nanoTime();
+        baseEpochNanos = TimeUnit.SECONDS.toNanos(now.getEpochSecond()) + now.getNano();
+
+        root = Paths.get(config.getDirectory());
+        segmentSize = config.getSegmentSizeMb() * 1024 * 1024;
+        indexIntervalNanos = TimeUnit.MILLISECONDS.toNanos(config.getIndexIntervalMs());
+        queue = new ArrayBlockingQueue<>(config.getQueueCapacity());
+
+        running = true;
+        writerThread = new Thread(this::runWriter, "market-data-journal");
+        writerThread.setDaemon(true);
+        writerThread.start();
+        enabled = true;
+
+        log.info("[시세 저널] 기록 시작 - 경로: {}, 세그먼트: {}MB", root.toAbsolutePath(), config.getSegmentSizeMb());
+    }
+
+    /**
+     * 원본 프레임 기록 요청 (수신 스레드, 논블로킹)
+     */
+    public void record(MarketDataSource source, String payload) {
+        if (!enabled || payload == null || payload.isEmpty()) {
+            return;
+        }
+        if (!queue.offer(new Entry(epochNanos(), source.id(), payload))) {
+            dropped.increment();
+        }
+    }
+
+    private long epochNanos() {
+        return baseEpochNanos + (System.nanoTime() - baseNanoTime);
+    }
+
+    private void runWriter() {
+        while (running || !queue.isEmpty()) {
+            try {
+                Entry entry = queue.poll(200, TimeUnit.MILLISECONDS);
+                if (entry != null) {
+                    write(entry);
+                }
+                forceIfDue();
+            } catch (InterruptedException e) {
+                // 종료 요청 - 남은 대기열을 비우고 종료
+                running = false;
+            } catch (Exception e) {
+                writeFailures.increment();
+                log.error("[시세 저널] 기록 실패", e);
+                closeSegment();
+            }
+        }
+        closeSegment();
+    }
+
+    private void write(Entry entry) throws IOException {
+        byte[] payload = entry.payload.getBytes(StandardCharsets.UTF_8);
+        int size = JournalFormat.RECORD_HEADER_SIZE + payload.length;
+        if (JournalFormat.HEADER_SIZE + size + Integer.BYTES > segmentSize) {
+            dropped.increment();
+            log.warn("[시세 저널] 세그먼트보다 큰 프레임 생략 - {}바이트", payload.length);
+            return;
+        }
+
+        if (data == null || entry.receiveEpochNanos >= dayEndNanos) {
+            openSegment(dayOf(entry.receiveEpochNanos));
+        } else if (data.remaining() < size + Integer.BYTES) {
+            // 끝 표시(payloadLength 0) 자리를 남기고 다음 세그먼트로 교체
+            openSegment(currentDay);
+        }
+
+        if (entry.receiveEpochNanos >= nextIndexNanos && index.remaining() >= JournalFormat.INDEX_ENTRY_SIZE) {
+            index.putLong(entry.receiveEpochNanos);
+            index.putLong(data.position());
+            nextIndexNanos = entry.receiveEpochNanos - entry.receiveEpochNanos % indexIntervalNanos + indexIntervalNanos;
+        }
+
+        data.putInt(payload.length);
+        data.putLong(entry.receiveEpochNanos);
+        data.putShort(entry.sourceId);
+        data.put(payload);
+
+        recorded.increment();
+        bytesWritten.add(size);
+    }
+
+    /**
+     * 새 세그먼트 열기 (같은 날짜면 다음 번호, 재기동 시 기존 파일 뒤 번호부터)
+     */
+    private void openSegment(LocalDate day) throws IOException {
+        boolean sameDay = day.equals(currentDay);
+        closeSegment();
+
+        Path directory = JournalFormat.dayDirectory(root, day);
+        Files.createDirectories(directory);
+        segmentNo = sameDay ? segmentNo + 1 : nextSegmentNo(directory);
+        currentDay = day;
+        dayEndNanos = TimeUnit.SECONDS.toNanos(day.plusDays(1).atStartOfDay(ZONE).toEpochSecond());
+
+        Path dataFile = JournalFormat.dataFile(directory, segmentNo);
+        dataChannel = FileChannel.open(dataFile,
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        data = dataChannel.map(FileChannel.MapMode.READ_WRITE, 0, segmentSize);
+        data.putInt(JournalFormat.MAGIC);
+        data.putInt(JournalFormat.VERSION);
+        data.putLong(epochNanos());
+
+        // 하루치 인덱스 항목 + 끝 표시
+        long indexSize = (TimeUnit.DAYS.toNanos(1) / indexIntervalNanos + 2) * JournalFormat.INDEX_ENTRY_SIZE;
+        indexChannel = FileChannel.open(JournalFormat.indexFile(dataFile),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        index = indexChannel.map(FileChannel.MapMode.READ_WRITE, 0, indexSize);
+        nextIndexNanos = 0;
+
+        log.info("[시세 저널] 세그먼트 시작: {}", dataFile);
+    }
+
+    private int nextSegmentNo(Path directory) throws IOException {
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.map(path -> path.getFileName().toString())
+                    .filter(name -> name.startsWith("segment-") && name.endsWith(".dat"))
+                    .mapToInt(name -> Integer.parseInt(name.substring(8, name.length() - 4)))
+                    .max()
+                    .orElse(-1) + 1;
+        }
+    }
+
+    private void forceIfDue() {
+        long now = System.nanoTime();
+        if (data == null || now - lastForceNanos < FORCE_INTERVAL_NANOS) {
+            return;
+        }
+        lastForceNanos = now;
+        data.force();
+        index.force();
+    }
+
+    /**
+     * 현재 세그먼트 닫기 - 매핑은 GC 시 해제되며, 기록되지 않은 뒷부분은 희소 파일 영역으로 남음
+     */
+    private void closeSegment() {
+        try {
+            if (data != null) {
+                data.force();
+                index.force();
+            }
+            if (dataChannel != null) {
+                dataChannel.close();
+            }
+            if (indexChannel != null) {
+                indexChannel.close();
+            }
+        } catch (IOException e) {
+            log.warn("[시세 저널] 세그먼트 닫기 실패: {}", e.getMessage());
+        } finally {
+            data = null;
+            index = null;
+            dataChannel = null;
+            indexChannel = null;
+        }
+    }
+
+    private static LocalDate dayOf(long epochNanos) {
+        return LocalDate.ofInstant(Instant.ofEpochSecond(0, epochNanos), ZONE);
+    }
+
+    public boolean isEnabled() {
+        return enabled;
+    }
+
+    public long getRecorded() {
+        return recorded.sum();
+    }
+
+    public long getDropped() {
+        return dropped.sum();
+    }
+
+    public long getBytesWritten() {
+        return bytesWritten.sum();
+    }
+
+    public long getWriteFailures() {
+        return writeFailures.sum();
+    }
+
+    public int getQueueDepth() {
+        return queue != null ? queue.size() : 0;
+    }
+
+    @PreDestroy
+    public void destroy() throws InterruptedException {
+        if (!enabled) {
+            return;
+        }
+        enabled = false;
+        running = false;
+        writerThread.join(TimeUnit.SECONDS.toMillis(5));
+        log.info("[시세 저널] 기록 종료 - 기록: {}건, 버림: {}건", getRecorded(), getDropped());
+    }
+
+    private record Entry(long receiveEpochNanos, short sourceId, String payload) {
+    }
+}
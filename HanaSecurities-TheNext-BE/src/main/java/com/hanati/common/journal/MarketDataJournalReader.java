@@ -0,0 +1,141 @@
+package com.hanati.common.journal;
+
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+import java.util.stream.Stream;
+
+/**
+ * 저널 세그먼트 순차 읽기 (재생/오프라인 벤치마크용)
+ *
+ * - seek(epochNanos): 인덱스에서 해당 시각 이전의 가장 가까운 위치로 이동 후 그 시각 이상 레코드까지 건너뜀
+ * - next(): 다음 레코드 (기록 끝이면 null) - 기록 중인 세그먼트도 읽을 수 있음
+ */
+public class MarketDataJournalReader implements AutoCloseable {
+
+    private final FileChannel dataChannel;
+    private final MappedByteBuffer data;
+    private final long[] indexNanos;
+    private final long[] indexOffsets;
+
+    public MarketDataJournalReader(Path dataFile) throws IOException {
+        dataChannel = FileChannel.open(dataFile, StandardOpenOption.READ);
+        data = dataChannel.map(FileChannel.MapMode.READ_ONLY, 0, dataChannel.size());
+
+        if (data.getInt() != JournalFormat.MAGIC || data.getInt() != JournalFormat.VERSION) {
+            dataChannel.close();
+            throw new IOException("저널 세그먼트 형식이 아님: " + dataFile);
+        }
+        data.position(JournalFormat.HEADER_SIZE);
+
+        // 인덱스 로드 (없으면 처음부터 순차 탐색)
+        Path indexFile = JournalFormat.indexFile(dataFile);
+        long[][] loaded = Files.exists(indexFile) ? loadIndex(indexFile) : new long[][]{new long[0], new long[0]};
+        indexNanos = loaded[0];
+        indexOffsets = loaded[1];
+    }
+
+    /**
+     * 날짜별 세그먼트 목록 (번호 순)
+     */
+    public static List<Path> segments(Path root, LocalDate date) throws IOException {
+        Path directory = JournalFormat.dayDirectory(root, date);
+        if (!Files.isDirectory(directory)) {
+            return List.of();
+        }
+        try (Stream<Path> files = Files.list(directory)) {
+            return files.filter(path -> path.getFileName().toString().endsWith(".dat"))
+                    .sorted()
+                    .toList();
+        }
+    }
+
+    private static long[][] loadIndex(Path indexFile) throws IOException {
+        try (FileChannel channel = FileChannel.open(indexFile, StandardOpenOption.READ)) {
+            MappedByteBuffer index = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            int capacity = (int) (channel.size() / JournalFormat.INDEX_ENTRY_SIZE);
+            long[] nanos = new long[capacity];
+            long[] offsets = new long[capacity];
+            int count = 0;
+            while (count < capacity) {
+                long time = index.getLong();
+                long offset = index.getLong();
+                if (offset == 0) {
+                    break;
+                }
+                nanos[count] = time;
+                offsets[count] = offset;
+                count++;
+            }
+            return new long[][]{Arrays.copyOf(nanos, count), Arrays.copyOf(offsets, count)};
+        }
+    }
+
+    /**
+     * 지정 시각 이상인 첫 레코드 위치로 이동
+     */
+    public void seek(long epochNanos) {
+        int low = 0;
+        int high = indexNanos.length - 1;
+        int found = -1;
+        while (low <= high) {
+            int mid = (low + high) >>> 1;
+            if (indexNanos[mid] <= epochNanos) {
+                found = mid;
+                low = mid + 1;
+            } else {
+                high = mid - 1;
+            }
+        }
+        data.position(found >= 0 ? (int) indexOffsets[found] : JournalFormat.HEADER_SIZE);
+
+        // 인덱스 위치부터 지정 시각 전 레코드 건너뛰기
+        while (data.remaining() >= JournalFormat.RECORD_HEADER_SIZE) {
+            int start = data.position();
+            int length = data.getInt();
+            if (length <= 0) {
+                data.position(start);
+                return;
+            }
+            long time = data.getLong();
+            if (time >= epochNanos) {
+                data.position(start);
+                return;
+            }
+            data.position(start + JournalFormat.RECORD_HEADER_SIZE + length);
+        }
+    }
+
+    /**
+     * 다음 레코드 (기록 끝이면 null)
+     */
+    public JournalRecord next() {
+        if (data.remaining() < JournalFormat.RECORD_HEADER_SIZE) {
+            return null;
+        }
+        int start = data.position();
+        int length = data.getInt();
+        if (length <= 0 || data.remaining() < Long.BYTES + Short.BYTES + length) {
+            data.position(start);
+            return null;
+        }
+
+        long time = data.getLong();
+        MarketDataSource source = MarketDataSource.of(data.getShort());
+        byte[] payload = new byte[length];
+        data.get(payload);
+        return new JournalRecord(time, source, new String(payload, StandardCharsets.UTF_8));
+    }
+
+    @Override
+    public void close() throws IOException {
+        dataChannel.close();
+    }
+}
@@ -0,0 +1,30 @@
+package com.hanati.common.journal;
+
+/**
+ * 저널에 기록되는 업스트림 출처
+ * - id는 세그먼트 파일에 기록되므로 기존 값은 변경하지 않음
+ */
+public enum MarketDataSource {
+
+    KIS_REALTIME((short) 1),      // KIS 실시간 (국내/해외 공용 연결)
+    KIWOOM_GOLD((short) 2);       // 키움 금현물 실시간
+
+    private final short id;
+
+    MarketDataSource(short id) {
+        this.id = id;
+    }
+
+    public short id() {
+        return id;
+    }
+
+    public static MarketDataSource of(short id) {
+        for (MarketDataSource source : values()) {
+            if (source.id == id) {
+                return source;
+            }
+        }
+        throw new IllegalArgumentException("알 수 없는 저널 출처: " + id);
+    }
+}
@@ -0,0 +1,84 @@
+package com.hanati.common.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * WebSocket 채널 1개의 계측기 묶음 (팬아웃/전송 스레드에서 사용)
+ */
+public final class ChannelMeters {
+
+    private final Timer fanOut;
+    private final Counter framesSent;
+    private final Counter sendFailures;
+    private final Counter droppedSessions;
+
+    // 수신 시각 기준 지연 히스토그램 (TickLatency)
+    private final StageLatency cacheLatency;
+    private final StageLatency fanOutLatency;
+    private final StageLatency sendLatency;
+
+    ChannelMeters(Timer fanOut, Counter framesSent, Counter sendFailures, Counter droppedSessions,
+                  StageLatency cacheLatency, StageLatency fanOutLatency, StageLatency sendLatency) {
+        this.fanOut = fanOut;
+        this.framesSent = framesSent;
+        this.sendFailures = sendFailures;
+        this.droppedSessions = droppedSessions;
+        this.cacheLatency = cacheLatency;
+        this.fanOutLatency = fanOutLatency;
+        this.sendLatency = sendLatency;
+    }
+
+    /**
+     * 팬아웃 1건 소요 시간 기록
+     * @param startNanos 팬아웃 시작 시각 (System.nanoTime)
+     */
+    public void recordFanOut(long startNanos) {
+        fanOut.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+
+    /**
+     * 수신 → 캐시 기록 완료 지연 (수신 스레드)
+     * @param receivedNanos 업스트림 수신 시각 (0이면 무시)
+     */
+    public void recordCacheLatency(long receivedNanos) {
+        cacheLatency.record(receivedNanos);
+    }
+
+    /**
+     * 수신 → 팬아웃 시작 지연 (팬아웃에서 읽은 값의 수신 시각)
+     */
+    public void recordFanOutLatency(long receivedNanos) {
+        fanOutLatency.record(receivedNanos);
+    }
+
+    /**
+     * 프레임 1건 전송 완료 (sendMessage 반환 직후)
+     * @param receivedNanos 프레임에 담긴 값의 수신 시각 (제어 메시지는 0)
+     */
+    public void frameSent(long receivedNanos) {
+        framesSent.increment();
+        sendLatency.record(receivedNanos);
+    }
+
+    /**
+     * 묶음 프레임 1건 전송 완료 - 프레임 수는 1건, 지연은 묶인 시세마다 기록
+     * @param receivedNanos 묶인 시세별 수신 시각 (앞에서 count개 사용)
+     */
+    public void batchSent(long[] receivedNanos, int count) {
+        framesSent.increment();
+        for (int i = 0; i < count; i++) {
+            sendLatency.record(receivedNanos[i]);
+        }
+    }
+
+    public void sendFailed() {
+        sendFailures.increment();
+    }
+
+    public void sessionDropped() {
+        droppedSessions.increment();
+    }
+}
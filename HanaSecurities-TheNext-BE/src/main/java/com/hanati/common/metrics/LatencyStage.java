@@ -0,0 +1,25 @@
+package com.hanati.common.metrics;
+
+/**
+ * 틱 지연 측정 지점 (모두 업스트림 수신 시각 기준 누적 경과 시간)
+ *
+ * - CACHE: 수신 → 캐시/스냅샷 기록 완료 (수신 스레드)
+ * - FANOUT: 수신 → 팬아웃 시작 시 읽은 값의 경과 시간 (시세 실행기 샤드 스레드, 디스패처 대기 포함)
+ * - SEND: 수신 → session.sendMessage 완료 (sender 스레드, 세션 버퍼 대기 포함)
+ */
+public enum LatencyStage {
+
+    CACHE("cache"),
+    FANOUT("fanout"),
+    SEND("send");
+
+    private final String tag;
+
+    LatencyStage(String tag) {
+        this.tag = tag;
+    }
+
+    public String tag() {
+        return tag;
+    }
+}
@@ -0,0 +1,136 @@
+package com.hanati.common.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.FunctionCounter;
+import io.micrometer.core.instrument.Gauge;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import lombok.RequiredArgsConstructor;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.ToDoubleFunction;
+
+/**
+ * 실시간 시세 경로 지표 (Micrometer → /actuator/prometheus)
+ *
+ * - 계측기(Counter/Timer)는 TR_ID 등록, 핸들러 초기화, 세션 연결 시점에 한 번만 만들어 보관
+ * - 수신/전송 경로에서는 보관한 계측기의 increment/record(long)만 호출 → 기록 시 태그/객체 할당 없음
+ *
+ * 지표 이름:
+ * - marketdata.upstream.frames / marketdata.upstream.parse (source, tr_id): 수신 프레임 수, 처리 시간
+ * - marketdata.cache.writes (cache): 캐시/스냅샷 기록 수
+ * - marketdata.fanout (channel): 종목 1건 팬아웃(세션 버퍼 적재) 시간
+ * - marketdata.outbound.frames / failures / dropped (channel): 전송 프레임, 전송 실패, 느린 세션 종료
+ * - marketdata.sessions / marketdata.subscriptions (channel): 연결 세션 수, 구독 종목 수
+ *
+ * 수신 시각 기준 단계별 지연(HDR 히스토그램)은 TickLatency → /actuator/ticklatency
+ */
+@Component
+@RequiredArgsConstructor
+public class MarketDataMetrics {
+
+    private final MeterRegistry registry;
+    private final TickLatency tickLatency;
+
+    private final Map<String, ChannelMeters> channels = new ConcurrentHashMap<>();
+
+    /**
+     * 업스트림 TR_ID별 계측기 (처리기 등록 시 1회 호출)
+     * @param source kis, kiwoom
+     */
+    public UpstreamMeters upstream(String source, String trId) {
+        Counter frames = Counter.builder("marketdata.upstream.frames")
+                .description("업스트림 실시간 프레임 수신 수")
+                .tag("source", source)
+                .tag("tr_id", trId)
+                .register(registry);
+        Timer parse = Timer.builder("marketdata.upstream.parse")
+                .description("수신 프레임 처리 시간 (파싱, 캐시 기록, 리스너 통지)")
+                .tag("source", source)
+                .tag("tr_id", trId)
+                .register(registry);
+        return new UpstreamMeters(frames, parse);
+    }
+
+    /**
+     * 캐시/스냅샷 기록 카운터
+     * @param cache domestic_quote, domestic_trade, foreign_quote, gold_quote, gold_trade
+     */
+    public Counter cacheWrites(String cache) {
+        return Counter.builder("marketdata.cache.writes")
+                .description("실시간 캐시/스냅샷 기록 수")
+                .tag("cache", cache)
+                .register(registry);
+    }
+
+    /**
+     * WebSocket 채널(/ws/*)별 계측기
+     * @param channel quote, trade, foreign_quote, gold_quote, gold_trade
+     */
+    public ChannelMeters channel(String channel) {
+        return channels.computeIfAbsent(channel, name -> new ChannelMeters(
+                Timer.builder("marketdata.fanout")
+                        .description("종목 1건을 구독 세션 버퍼에 적재하는 시간")
+                        .tag("channel", name)
+                        .register(registry),
+                Counter.builder("marketdata.outbound.frames")
+                        .description("클라이언트 전송 프레임 수")
+                        .tag("channel", name)
+                        .register(registry),
+                Counter.builder("marketdata.outbound.failures")
+                        .description("전송 실패로 종료된 세션 수")
+                        .tag("channel", name)
+                        .register(registry),
+                Counter.builder("marketdata.outbound.dropped")
+                        .description("버퍼/전송 시간 한도 초과로 종료된 느린 세션 수")
+                        .tag("channel", name)
+                        .register(registry),
+                tickLatency.stage(name, LatencyStage.CACHE),
+                tickLatency.stage(name, LatencyStage.FANOUT),
+                tickLatency.stage(name, LatencyStage.SEND)));
+    }
+
+    /**
+     * 채널의 연결 세션 수/구독 종목 수 게이지 (스크레이프 시에만 계산)
+     */
+    public <T> void bindSessions(String channel, T source, ToDoubleFunction<T> sessions) {
+        Gauge.builder("marketdata.sessions", source, sessions)
+                .description("연결된 WebSocket 세션 수")
+                .tag("channel", channel)
+                .strongReference(true)
+                .register(registry);
+    }
+
+    public <T> void bindSubscriptions(String channel, T source, ToDoubleFunction<T> subscriptions) {
+        Gauge.builder("marketdata.subscriptions", source, subscriptions)
+                .description("구독자가 있는 종목 수")
+                .tag("channel", channel)
+                .strongReference(true)
+                .register(registry);
+    }
+
+    /**
+     * 기존 누적 카운터(LongAdder 등)를 스크레이프 시 읽는 카운터로 노출
+     */
+    public <T> void bindCounter(String name, String description, T source, ToDoubleFunction<T> count,
+                                String... tags) {
+        FunctionCounter.builder(name, source, count)
+                .description(description)
+                .tags(tags)
+                .register(registry);
+    }
+
+    /**
+     * 현재 값을 스크레이프 시 읽는 게이지
+     */
+    public <T> void bindGauge(String name, String description, T source, ToDoubleFunction<T> value,
+                              String... tags) {
+        Gauge.builder(name, source, value)
+                .description(description)
+                .tags(tags)
+                .strongReference(true)
+                .register(registry);
+    }
+}
@@ -0,0 +1,56 @@
+package com.hanati.common.metrics;
+
+import org.HdrHistogram.Histogram;
+import org.HdrHistogram.Recorder;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 채널 1개 × 측정 지점 1개의 지연 HDR 히스토그램
+ *
+ * - 기록: Recorder(wait-free) → 수신/팬아웃/전송 스레드가 동시에 기록해도 락 없음, 기록 시 할당 없음
+ * - 조회: 마지막 조회 이후 구간 히스토그램을 누적 히스토그램에 합산 (조회/초기화 스레드만 잠금)
+ * - 해상도: 1µs ~ 60초, 유효숫자 3자리 (60초를 넘는 값은 60초로 기록)
+ */
+public final class StageLatency {
+
+    private static final long LOWEST_NANOS = TimeUnit.MICROSECONDS.toNanos(1);
+    private static final long HIGHEST_NANOS = TimeUnit.SECONDS.toNanos(60);
+    private static final int SIGNIFICANT_DIGITS = 3;
+
+    private final Recorder recorder = new Recorder(LOWEST_NANOS, HIGHEST_NANOS, SIGNIFICANT_DIGITS);
+    private final Histogram accumulated = new Histogram(LOWEST_NANOS, HIGHEST_NANOS, SIGNIFICANT_DIGITS);
+    private Histogram interval;
+
+    StageLatency() {
+    }
+
+    /**
+     * 수신 후 경과 시간 기록
+     * @param receivedNanos 업스트림 수신 시각 (System.nanoTime, 0이면 수신 시각이 없는 값 → 무시)
+     */
+    public void record(long receivedNanos) {
+        if (receivedNanos == 0) {
+            return;
+        }
+        long age = System.nanoTime() - receivedNanos;
+        if (age < 0) {
+            return;
+        }
+        recorder.recordValue(Math.min(age, HIGHEST_NANOS));
+    }
+
+    /**
+     * 초기화 이후 누적 히스토그램 복사본
+     */
+    synchronized Histogram snapshot() {
+        interval = recorder.getIntervalHistogram(interval);
+        accumulated.add(interval);
+        return accumulated.copy();
+    }
+
+    synchronized void reset() {
+        recorder.reset();
+        accumulated.reset();
+    }
+}
@@ -0,0 +1,80 @@
+package com.hanati.common.metrics;
+
+import org.HdrHistogram.Histogram;
+import org.springframework.stereotype.Component;
+
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 엔드포인트(/ws/*)별 틱 지연 히스토그램 보관소
+ *
+ * - 업스트림 수신 시각(System.nanoTime)을 캐시/스냅샷에 함께 저장하고, 각 측정 지점에서 그 시각 기준 경과 시간을 기록
+ * - 병합(coalescing)된 업데이트는 마지막 값의 수신 시각 기준 → "전송 시점에 시세가 얼마나 오래되었는가"
+ * - 히스토그램은 채널 계측기(ChannelMeters) 생성 시 한 번만 만들어짐
+ */
+@Component
+public class TickLatency {
+
+    private final Map<String, Map<LatencyStage, StageLatency>> channels = new ConcurrentHashMap<>();
+
+    /**
+     * 측정 지점 히스토그램 (채널 계측기 생성 시 호출)
+     */
+    public StageLatency stage(String channel, LatencyStage stage) {
+        return channels.computeIfAbsent(channel, name -> {
+            Map<LatencyStage, StageLatency> stages = new EnumMap<>(LatencyStage.class);
+            for (LatencyStage each : LatencyStage.values()) {
+                stages.put(each, new StageLatency());
+            }
+            return stages;
+        }).get(stage);
+    }
+
+    /**
+     * 채널 → 측정 지점 → 백분위 (초기화 이후 누적)
+     */
+    public Map<String, Map<String, Percentiles>> snapshot() {
+        Map<String, Map<String, Percentiles>> result = new TreeMap<>();
+        channels.forEach((channel, stages) -> {
+            Map<String, Percentiles> byStage = new LinkedHashMap<>();
+            stages.forEach((stage, latency) -> byStage.put(stage.tag(), Percentiles.of(latency.snapshot())));
+            result.put(channel, byStage);
+        });
+        return result;
+    }
+
+    /**
+     * 전체 히스토그램 초기화 (측정 구간 재시작)
+     */
+    public void reset() {
+        channels.values().forEach(stages -> stages.values().forEach(StageLatency::reset));
+    }
+
+    /**
+     * 지연 백분위 (ms)
+     */
+    public record Percentiles(long count, double p50, double p99, double p999, double max, double mean) {
+
+        private static final double NANOS_PER_MILLI = 1_000_000.0;
+
+        static Percentiles of(Histogram histogram) {
+            if (histogram.getTotalCount() == 0) {
+                return new Percentiles(0, 0, 0, 0, 0, 0);
+            }
+            return new Percentiles(histogram.getTotalCount(),
+                    millis(histogram.getValueAtPercentile(50.0)),
+                    millis(histogram.getValueAtPercentile(99.0)),
+                    millis(histogram.getValueAtPercentile(99.9)),
+                    millis(histogram.getMaxValue()),
+                    histogram.getMean() / NANOS_PER_MILLI);
+        }
+
+        private static double millis(long nanos) {
+            return nanos / NANOS_PER_MILLI;
+        }
+    }
+}
@@ -0,0 +1,34 @@
+package com.hanati.common.metrics;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+
+/**
+ * 틱 지연 관리 엔드포인트
+ *
+ * - GET /actuator/ticklatency: 엔드포인트(quote, trade, foreign_quote, gold_quote, gold_trade)별
+ *   cache/fanout/send 지점의 p50/p99/p99.9/max/mean (ms, 업스트림 수신 시각 기준)
+ * - DELETE /actuator/ticklatency: 히스토그램 초기화 (측정 구간 재시작)
+ */
+@Component
+@Endpoint(id = "ticklatency")
+@RequiredArgsConstructor
+public class TickLatencyEndpoint {
+
+    private final TickLatency tickLatency;
+
+    @ReadOperation
+    public Map<String, Map<String, TickLatency.Percentiles>> latency() {
+        return tickLatency.snapshot();
+    }
+
+    @DeleteOperation
+    public void reset() {
+        tickLatency.reset();
+    }
+}
@@ -0,0 +1,29 @@
+package com.hanati.common.metrics;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.Timer;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 업스트림 TR_ID 1개의 계측기 묶음 (수신 스레드에서 사용)
+ */
+public final class UpstreamMeters {
+
+    private final Counter frames;
+    private final Timer parse;
+
+    UpstreamMeters(Counter frames, Timer parse) {
+        this.frames = frames;
+        this.parse = parse;
+    }
+
+    /**
+     * 프레임 1건 처리 기록
+     * @param startNanos 처리 시작 시각 (System.nanoTime)
+     */
+    public void record(long startNanos) {
+        frames.increment();
+        parse.record(System.nanoTime() - startNanos, TimeUnit.NANOSECONDS);
+    }
+}
@@ -0,0 +1,72 @@
+package com.hanati.common.realtime;
+
+import com.hanati.common.metrics.ChannelMeters;
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * 종목 단위 업데이트 병합(coalescing) 디스패처
+ *
+ * - signal(key): 새 데이터가 들어왔음을 알림 (수신 스레드에서 호출, 논블로킹)
+ * - 같은 키가 이미 대기 중이면 작업을 추가하지 않음 → 키당 대기 업데이트는 최대 1건
+ * - 실제 처리(consumer)는 키별로 고정된 스레드에서 실행되며, 그 시점의 최신 캐시 값을 읽어 전송
+ */
+@Slf4j
+public class CoalescingDispatcher<K> {
+
+    private final Set<K> pending = ConcurrentHashMap.newKeySet();
+    private final KeyedExecutor executor;
+    private final Consumer<K> consumer;
+    // 팬아웃 시간 기록 (null이면 기록하지 않음)
+    private final ChannelMeters meters;
+
+    public CoalescingDispatcher(KeyedExecutor executor, Consumer<K> consumer) {
+        this(executor, consumer, null);
+    }
+
+    public CoalescingDispatcher(KeyedExecutor executor, Consumer<K> consumer, ChannelMeters meters) {
+        this.executor = executor;
+        this.consumer = consumer;
+        this.meters = meters;
+    }
+
+    /**
+     * 키에 대한 업데이트 알림
+     */
+    public void signal(K key) {
+        if (!pending.add(key)) {
+            return;
+        }
+
+        try {
+            executor.execute(key, () -> drain(key));
+        } catch (RuntimeException e) {
+            pending.remove(key);
+            log.warn("[실시간 디스패처] 작업 등록 실패: {}", key, e);
+        }
+    }
+
+    private void drain(K key) {
+        // 처리 전에 대기 표시를 해제해야 처리 중 들어온 업데이트가 누락되지 않음
+        pending.remove(key);
+        long startNanos = System.nanoTime();
+        try {
+            consumer.accept(key);
+        } catch (Exception e) {
+            log.error("[실시간 디스패처] 처리 실패: {}", key, e);
+        }
+        if (meters != null) {
+            meters.recordFanOut(startNanos);
+        }
+    }
+
+    /**
+     * 현재 대기 중인 키 개수
+     */
+    public int pendingCount() {
+        return pending.size();
+    }
+}
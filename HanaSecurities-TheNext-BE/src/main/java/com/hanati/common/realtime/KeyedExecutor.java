@@ -0,0 +1,12 @@
+package com.hanati.common.realtime;
+
+/**
+ * 키 단위로 실행 스레드를 고정하는 실행기
+ *
+ * 같은 키의 작업은 항상 같은 스레드에서 순서대로 실행된다.
+ */
+@FunctionalInterface
+public interface KeyedExecutor {
+
+    void execute(Object key, Runnable task);
+}
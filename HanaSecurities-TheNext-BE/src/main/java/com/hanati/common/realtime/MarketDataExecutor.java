@@ -0,0 +1,117 @@
+package com.hanati.common.realtime;
+
+import com.hanati.common.config.RealtimeConfig;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * 실시간 시세 팬아웃 전용 실행기
+ *
+ * - Spring 스케줄러 풀(토큰 갱신 등 유지보수 작업)과 분리된 전용 스레드
+ * - 종목 키를 해시해 단일 스레드 샤드에 배정 → 같은 종목은 순서 보장, 서로 다른 종목은 코어 수만큼 병렬 처리
+ * - 샤드별 대기 작업 수, 완료/실패 건수를 조회할 수 있음
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class MarketDataExecutor implements KeyedExecutor {
+
+    private final RealtimeConfig realtimeConfig;
+
+    private ThreadPoolExecutor[] shards;
+    private final AtomicLong failedTasks = new AtomicLong();
+
+    @PostConstruct
+    public void init() {
+        int threads = realtimeConfig.getBroadcast().getThreads();
+        if (threads <= 0) {
+            threads = Runtime.getRuntime().availableProcessors();
+        }
+
+        shards = new ThreadPoolExecutor[threads];
+        for (int i = 0; i < threads; i++) {
+            String threadName = "market-data-" + i;
+            shards[i] = new ThreadPoolExecutor(1, 1, 0L, TimeUnit.MILLISECONDS,
+                    new LinkedBlockingQueue<>(), r -> {
+                        Thread thread = new Thread(r, threadName);
+                        thread.setDaemon(true);
+                        return thread;
+                    });
+        }
+        log.info("[시세 실행기] 초기화 완료 - 샤드: {}개", threads);
+    }
+
+    @Override
+    public void execute(Object key, Runnable task) {
+        shards[shardOf(key)].execute(() -> {
+            try {
+                task.run();
+            } catch (Exception e) {
+                failedTasks.incrementAndGet();
+                log.error("[시세 실행기] 작업 실패: {}", key, e);
+            }
+        });
+    }
+
+    private int shardOf(Object key) {
+        int hash = key.hashCode();
+        return Math.floorMod(hash ^ (hash >>> 16), shards.length);
+    }
+
+    public int getShardCount() {
+        return shards.length;
+    }
+
+    /**
+     * 전체 샤드의 대기 작업 수
+     */
+    public int getQueueDepth() {
+        int depth = 0;
+        for (ThreadPoolExecutor shard : shards) {
+            depth += shard.getQueue().size();
+        }
+        return depth;
+    }
+
+    /**
+     * 샤드별 대기 작업 수 (특정 종목 쏠림 확인용)
+     */
+    public int[] getShardQueueDepths() {
+        int[] depths = new int[shards.length];
+        for (int i = 0; i < shards.length; i++) {
+            depths[i] = shards[i].getQueue().size();
+        }
+        return depths;
+    }
+
+    public long getCompletedTasks() {
+        long completed = 0;
+        for (ThreadPoolExecutor shard : shards) {
+            completed += shard.getCompletedTaskCount();
+        }
+        return completed;
+    }
+
+    public long getFailedTasks() {
+        return failedTasks.get();
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (shards == null) {
+            return;
+        }
+        for (ThreadPoolExecutor shard : shards) {
+            shard.shutdownNow();
+        }
+        log.info("[시세 실행기] 종료");
+    }
+}
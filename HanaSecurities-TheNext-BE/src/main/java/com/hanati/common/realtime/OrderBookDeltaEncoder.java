@@ -0,0 +1,230 @@
+package com.hanati.common.realtime;
+
+import com.fasterxml.jackson.core.JsonFactory;
+import com.fasterxml.jackson.core.JsonGenerator;
+import org.springframework.web.socket.TextMessage;
+
+import java.io.IOException;
+import java.io.StringWriter;
+import java.io.UncheckedIOException;
+
+/**
+ * 종목별 호가 증분(delta) 인코더
+ *
+ * - 마지막으로 반영한 호가 단계를 보관하고, 새 호가와 비교해 바뀐 단계만 증분 프레임으로 만듦
+ * - 변경이 있을 때마다 종목별 일련번호(seq)가 1씩 증가 → 클라이언트는 누락(gap)을 감지하면 resync 요청
+ * - 스냅샷/증분 프레임은 요청될 때 한 번만 직렬화하고 같은 seq 동안 재사용
+ *
+ * 프레임 형식 (level은 0부터, 가격/잔량은 정수면 정수로 표기)
+ * <pre>
+ * {"type":"snapshot","symbol":"005930","seq":12,"timestamp":"...","asks":[[p,v],...],"bids":[[p,v],...],"totalAskVolume":n,"totalBidVolume":n}
+ * {"type":"delta","symbol":"005930","seq":13,"timestamp":"...","asks":[[level,p,v],...],"bids":[[level,p,v],...]}
+ * </pre>
+ * 총잔량은 바뀐 경우에만 증분 프레임에 포함
+ */
+public final class OrderBookDeltaEncoder {
+
+    private static final JsonFactory JSON_FACTORY = new JsonFactory();
+
+    private final String symbol;
+    private final int depth;
+
+    private final double[] askPrices;
+    private final double[] askVolumes;
+    private final double[] bidPrices;
+    private final double[] bidVolumes;
+    private double totalAskVolume = Double.NaN;
+    private double totalBidVolume = Double.NaN;
+    private String timestamp;
+
+    // 직전 update에서 바뀐 단계 (비트 i = 단계 i)
+    private long changedAsks;
+    private long changedBids;
+    private boolean totalsChanged;
+
+    private long sequence;
+    private TextMessage deltaFrame;
+    private TextMessage snapshotFrame;
+
+    public OrderBookDeltaEncoder(String symbol, int depth) {
+        if (depth > Long.SIZE) {
+            throw new IllegalArgumentException("호가 단계는 최대 " + Long.SIZE + "단계: " + depth);
+        }
+        this.symbol = symbol;
+        this.depth = depth;
+        this.askPrices = new double[depth];
+        this.askVolumes = new double[depth];
+        this.bidPrices = new double[depth];
+        this.bidVolumes = new double[depth];
+    }
+
+    /**
+     * 정수 호가 반영 (국내주식)
+     * @return 변경이 있어 seq가 증가했으면 true
+     */
+    public synchronized boolean update(String timestamp, long[] askPrices, long[] askVolumes,
+                                       long[] bidPrices, long[] bidVolumes,
+                                       long totalAskVolume, long totalBidVolume) {
+        long asks = 0;
+        long bids = 0;
+        for (int i = 0; i < depth; i++) {
+            if (set(this.askPrices, this.askVolumes, i, valueAt(askPrices, i), valueAt(askVolumes, i))) {
+                asks |= 1L << i;
+            }
+            if (set(this.bidPrices, this.bidVolumes, i, valueAt(bidPrices, i), valueAt(bidVolumes, i))) {
+                bids |= 1L << i;
+            }
+        }
+        return commit(timestamp, asks, bids, totalAskVolume, totalBidVolume);
+    }
+
+    /**
+     * 실수 호가 반영 (금현물 등)
+     * @param totalAskVolume 총잔량이 없으면 Double.NaN
+     * @return 변경이 있어 seq가 증가했으면 true
+     */
+    public synchronized boolean update(String timestamp, double[] askPrices, double[] askVolumes,
+                                       double[] bidPrices, double[] bidVolumes,
+                                       double totalAskVolume, double totalBidVolume) {
+        long asks = 0;
+        long bids = 0;
+        for (int i = 0; i < depth; i++) {
+            if (set(this.askPrices, this.askVolumes, i, valueAt(askPrices, i), valueAt(askVolumes, i))) {
+                asks |= 1L << i;
+            }
+            if (set(this.bidPrices, this.bidVolumes, i, valueAt(bidPrices, i), valueAt(bidVolumes, i))) {
+                bids |= 1L << i;
+            }
+        }
+        return commit(timestamp, asks, bids, totalAskVolume, totalBidVolume);
+    }
+
+    private boolean commit(String timestamp, long asks, long bids, double totalAsk, double totalBid) {
+        boolean totals = Double.compare(totalAskVolume, totalAsk) != 0
+                || Double.compare(totalBidVolume, totalBid) != 0;
+        if (sequence > 0 && asks == 0 && bids == 0 && !totals) {
+            return false;
+        }
+
+        this.timestamp = timestamp;
+        this.totalAskVolume = totalAsk;
+        this.totalBidVolume = totalBid;
+        this.changedAsks = asks;
+        this.changedBids = bids;
+        this.totalsChanged = totals;
+        sequence++;
+        deltaFrame = null;
+        snapshotFrame = null;
+        return true;
+    }
+
+    private static boolean set(double[] prices, double[] volumes, int level, double price, double volume) {
+        if (Double.compare(prices[level], price) == 0 && Double.compare(volumes[level], volume) == 0) {
+            return false;
+        }
+        prices[level] = price;
+        volumes[level] = volume;
+        return true;
+    }
+
+    private static double valueAt(long[] values, int index) {
+        return values != null && index < values.length ? values[index] : 0;
+    }
+
+    private static double valueAt(double[] values, int index) {
+        return values != null && index < values.length ? values[index] : 0;
+    }
+
+    public synchronized long sequence() {
+        return sequence;
+    }
+
+    /**
+     * 반영된 호가가 있는지 여부 (없으면 스냅샷을 보낼 수 없음)
+     */
+    public synchronized boolean hasData() {
+        return sequence > 0;
+    }
+
+    /**
+     * 직전 update의 증분 프레임 (첫 반영이면 스냅샷)
+     */
+    public synchronized TextMessage deltaFrame() {
+        if (sequence <= 1) {
+            return snapshotFrame();
+        }
+        if (deltaFrame == null) {
+            deltaFrame = encode(false);
+        }
+        return deltaFrame;
+    }
+
+    /**
+     * 현재 seq 기준 전체 스냅샷 프레임 (반영된 호가가 없으면 null)
+     */
+    public synchronized TextMessage snapshotFrame() {
+        if (sequence == 0) {
+            return null;
+        }
+        if (snapshotFrame == null) {
+            snapshotFrame = encode(true);
+        }
+        return snapshotFrame;
+    }
+
+    private TextMessage encode(boolean snapshot) {
+        StringWriter writer = new StringWriter(snapshot ? 512 : 128);
+        try (JsonGenerator json = JSON_FACTORY.createGenerator(writer)) {
+            json.writeStartObject();
+            json.writeStringField("type", snapshot ? "snapshot" : "delta");
+            json.writeStringField("symbol", symbol);
+            json.writeNumberField("seq", sequence);
+            if (timestamp != null) {
+                json.writeStringField("timestamp", timestamp);
+            }
+
+            json.writeArrayFieldStart("asks");
+            writeLevels(json, askPrices, askVolumes, snapshot ? -1L : changedAsks, snapshot);
+            json.writeEndArray();
+            json.writeArrayFieldStart("bids");
+            writeLevels(json, bidPrices, bidVolumes, snapshot ? -1L : changedBids, snapshot);
+            json.writeEndArray();
+
+            if ((snapshot || totalsChanged) && !Double.isNaN(totalAskVolume)) {
+                json.writeFieldName("totalAskVolume");
+                writeNumber(json, totalAskVolume);
+                json.writeFieldName("totalBidVolume");
+                writeNumber(json, totalBidVolume);
+            }
+            json.writeEndObject();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+        return new TextMessage(writer.toString());
+    }
+
+    private void writeLevels(JsonGenerator json, double[] prices, double[] volumes, long mask, boolean snapshot)
+            throws IOException {
+        for (int i = 0; i < depth; i++) {
+            if ((mask & (1L << i)) == 0) {
+                continue;
+            }
+            json.writeStartArray();
+            if (!snapshot) {
+                json.writeNumber(i);
+            }
+            writeNumber(json, prices[i]);
+            writeNumber(json, volumes[i]);
+            json.writeEndArray();
+        }
+    }
+
+    private static void writeNumber(JsonGenerator json, double value) throws IOException {
+        long integral = (long) value;
+        if (integral == value) {
+            json.writeNumber(integral);
+        } else {
+            json.writeNumber(value);
+        }
+    }
+}
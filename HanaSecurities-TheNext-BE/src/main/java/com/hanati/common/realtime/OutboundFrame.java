@@ -0,0 +1,72 @@
+package com.hanati.common.realtime;
+
+import com.fasterxml.jackson.core.JsonProcessingException;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import org.springframework.web.socket.TextMessage;
+
+/**
+ * 미리 직렬화된 실시간 전송 프레임
+ *
+ * - 업데이트 1건당 JSON 직렬화와 TextMessage 생성을 한 번만 수행
+ * - TextMessage는 불변이므로 같은 종목의 모든 구독 세션이 같은 인스턴스를 공유
+ * - 구독자 수가 늘어도 직렬화 비용은 늘지 않고 세션별 전송 비용만 남음
+ */
+public final class OutboundFrame {
+
+    private final TextMessage message;
+
+    private OutboundFrame(String json) {
+        this.message = new TextMessage(json);
+    }
+
+    /**
+     * {"type": type, "data": data} 형태로 직렬화
+     */
+    public static OutboundFrame encode(ObjectMapper objectMapper, String type, Object data) throws JsonProcessingException {
+        return new OutboundFrame(objectMapper.writeValueAsString(new Envelope(type, data)));
+    }
+
+    /**
+     * 데이터 객체를 그대로 직렬화 (금현물처럼 봉투 없이 전송하는 엔드포인트용)
+     */
+    public static OutboundFrame encode(ObjectMapper objectMapper, Object data) throws JsonProcessingException {
+        return new OutboundFrame(objectMapper.writeValueAsString(data));
+    }
+
+    /**
+     * 구독 직후 보내는 마지막 시세 - {"type": type, "data": data, "snapshot": true, "ageMs": n, "stale": b}
+     * @param ageMillis 수신 후 경과 시간
+     * @param stale TTL 경과 여부 (실시간 갱신이 멈춘 종목의 마지막 값)
+     */
+    public static OutboundFrame encodeSnapshot(ObjectMapper objectMapper, String type, Object data,
+                                               long ageMillis, boolean stale) throws JsonProcessingException {
+        return new OutboundFrame(objectMapper.writeValueAsString(new SnapshotEnvelope(type, data, true, ageMillis, stale)));
+    }
+
+    /**
+     * 봉투 없는 엔드포인트용 마지막 시세 - 데이터 필드에 snapshot/ageMs/stale 추가
+     */
+    public static OutboundFrame encodeSnapshot(ObjectMapper objectMapper, Object data,
+                                               long ageMillis, boolean stale) throws JsonProcessingException {
+        ObjectNode node = objectMapper.valueToTree(data);
+        node.put("snapshot", true);
+        node.put("ageMs", ageMillis);
+        node.put("stale", stale);
+        return new OutboundFrame(objectMapper.writeValueAsString(node));
+    }
+
+    public TextMessage message() {
+        return message;
+    }
+
+    public int length() {
+        return message.getPayloadLength();
+    }
+
+    private record Envelope(String type, Object data) {
+    }
+
+    private record SnapshotEnvelope(String type, Object data, boolean snapshot, long ageMs, boolean stale) {
+    }
+}
@@ -0,0 +1,375 @@
+package com.hanati.common.realtime;
+
+import com.hanati.common.metrics.ChannelMeters;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.function.Supplier;
+
+/**
+ * 세션별 전송 버퍼
+ *
+ * - 키(종목)별 최신 메시지만 유지 (latest-value-wins): 대기 중인 같은 종목 메시지는 새 값으로 교체
+ * - 키가 없는 제어 메시지(구독 응답, 에러)는 병합하지 않고 순서대로 전송
+ * - 버퍼 한도를 넘으면 offer가 false를 반환하고 세션은 느린 소비자로 정리됨
+ * - 전송은 세션당 한 스레드만 수행 (drain 중복 실행 방지)
+ * - 메시지마다 담긴 값의 업스트림 수신 시각을 함께 보관 → 전송 완료 시 수신 기준 지연 기록
+ * - 묶음 전송 세션: 연속으로 대기 중인 시세 메시지를 {"type":"batch","items":[...]} 한 프레임으로 전송
+ *   (이미 직렬화된 메시지를 이어 붙이기만 하므로 재직렬화 없음, 제어 메시지는 묶지 않고 순서대로 전송)
+ * - 갱신 빈도 제한(UpdateRate, 세션 기본값 + 키별): 키의 최소 전송 간격이 지나지 않은 메시지는 버퍼에 남겨 두고
+ *   그 사이 갱신은 최신 값으로 병합 → 간격이 지나면 sender가 다시 깨어나 전송
+ */
+final class OutboundSession {
+
+    private static final String BATCH_PREFIX = "{\"type\":\"batch\",\"items\":[";
+    private static final String BATCH_SUFFIX = "]}";
+
+    private final WebSocketSession session;
+    private final int bufferLimit;
+    private final ChannelMeters meters;
+
+    private final Map<Object, Pending> pending = new LinkedHashMap<>();
+    private final AtomicBoolean draining = new AtomicBoolean();
+
+    // 묶음 전송 여부 (묶음 구독 요청 시 켜짐)
+    private volatile boolean batching;
+    // 묶음에 담긴 시세별 수신 시각 (drain 권한을 가진 스레드만 사용)
+    private long[] batchNanos = new long[16];
+
+    // 갱신 빈도 제한 (pending 락으로 보호)
+    private UpdateRate defaultRate = UpdateRate.REALTIME;
+    private final Map<Object, UpdateRate> keyRates = new HashMap<>();
+    // 빈도 제한 키의 마지막 전송 (제한 없는 키는 기록하지 않음)
+    private final Map<Object, Sent> sent = new HashMap<>();
+    // 적재 횟수 (마지막 검사 이후 새 메시지가 들어왔는지 판단)
+    private long offers;
+    private long scannedOffers;
+    // 빈도 제한으로 남겨 둔 메시지 중 가장 이른 전송 가능 시각 (0: 없음) / 예약된 깨우기 시각
+    private long wakeNanos;
+    private long scheduledWakeNanos;
+
+    // 현재 진행 중인 전송 시작 시각 (0: 전송 중 아님)
+    private volatile long sendStartedNanos;
+    private volatile boolean closed;
+
+    private long conflatedCount;
+
+    OutboundSession(WebSocketSession session, int bufferLimit, ChannelMeters meters) {
+        this.session = session;
+        this.bufferLimit = bufferLimit;
+        this.meters = meters;
+    }
+
+    /**
+     * 메시지 적재
+     * @param key 병합 키 (null이면 병합하지 않는 제어 메시지)
+     * @return 버퍼 한도 초과 시 false
+     */
+    boolean offer(Object key, TextMessage message) {
+        return offer(key, message, null, 0);
+    }
+
+    /**
+     * 메시지 적재 (병합 시 대체 메시지 사용)
+     * - 증분 메시지는 앞선 증분을 덮어쓰면 클라이언트 상태가 어긋나므로, 병합될 때는 최신 전체 스냅샷으로 교체
+     * @param replacement 같은 키의 메시지가 대기 중일 때 대신 적재할 메시지 (null이면 message 사용)
+     * @param receivedNanos 메시지에 담긴 값의 업스트림 수신 시각 (제어 메시지는 0)
+     */
+    boolean offer(Object key, TextMessage message, Supplier<TextMessage> replacement, long receivedNanos) {
+        synchronized (pending) {
+            if (closed) {
+                return true;
+            }
+            offers++;
+            Object pendingKey = key != null ? key : new Object();
+            Pending waiting = pending.get(pendingKey);
+            if (waiting != null) {
+                // 대기 항목을 제자리에서 교체 (병합 시 추가 할당 없음)
+                waiting.message = replacement != null ? replacement.get() : message;
+                waiting.receivedNanos = receivedNanos;
+                conflatedCount++;
+                return true;
+            }
+            pending.put(pendingKey, new Pending(key, message, receivedNanos));
+            return pending.size() <= bufferLimit;
+        }
+    }
+
+    /**
+     * drain 실행 권한 획득 (이미 전송 중이면 false)
+     */
+    boolean tryStartDrain() {
+        return draining.compareAndSet(false, true);
+    }
+
+    /**
+     * 지금 보낼 수 있는 메시지가 없을 때까지 전송 (sender 스레드)
+     * - 빈도 제한으로 남은 메시지는 claimWake로 깨울 시각을 받아 다시 실행
+     */
+    void drain() throws Exception {
+        while (true) {
+            Pending next = poll(false);
+            if (next == null) {
+                draining.set(false);
+                // 해제 직후 들어온 메시지가 있으면 다시 권한을 얻어 이어서 전송
+                if (!hasNewOffers() || !tryStartDrain()) {
+                    return;
+                }
+                continue;
+            }
+
+            if (closed || !session.isOpen()) {
+                clear();
+                continue;
+            }
+
+            sendStartedNanos = System.nanoTime();
+            try {
+                if (batching && next.key != null) {
+                    sendBatch(next);
+                } else {
+                    session.sendMessage(next.message);
+                    meters.frameSent(next.receivedNanos);
+                }
+            } finally {
+                sendStartedNanos = 0;
+            }
+        }
+    }
+
+    /**
+     * 첫 시세 메시지에 이어 연속으로 대기 중인 시세 메시지를 한 프레임으로 전송 (sender 스레드)
+     */
+    private void sendBatch(Pending first) throws Exception {
+        StringBuilder json = new StringBuilder(BATCH_PREFIX.length() + first.message.getPayloadLength() * 4);
+        json.append(BATCH_PREFIX);
+        int count = 0;
+        for (Pending item = first; item != null; item = poll(true)) {
+            if (count > 0) {
+                json.append(',');
+            }
+            json.append(item.message.getPayload());
+            if (count == batchNanos.length) {
+                batchNanos = Arrays.copyOf(batchNanos, count * 2);
+            }
+            batchNanos[count++] = item.receivedNanos;
+        }
+        json.append(BATCH_SUFFIX);
+
+        session.sendMessage(new TextMessage(json));
+        meters.batchSent(batchNanos, count);
+    }
+
+    /**
+     * 지금 보낼 수 있는 맨 앞 메시지를 꺼냄
+     * - 최소 전송 간격이 남은 키는 건너뛰고(대기 순서 유지) 가장 이른 전송 가능 시각만 기록
+     * - onchange 키는 직전 전송과 내용이 같으면 버림
+     * @param dataOnly 묶음 이어 붙이기용 - 제어 메시지를 만나면 중단
+     */
+    private Pending poll(boolean dataOnly) {
+        synchronized (pending) {
+            scannedOffers = offers;
+            long now = System.nanoTime();
+            Iterator<Pending> iterator = pending.values().iterator();
+            while (iterator.hasNext()) {
+                Pending next = iterator.next();
+                if (next.key == null) {
+                    if (dataOnly) {
+                        return null;
+                    }
+                    iterator.remove();
+                    return next;
+                }
+
+                UpdateRate rate = rateOf(next.key);
+                if (!rate.isLimited()) {
+                    iterator.remove();
+                    return next;
+                }
+
+                Sent last = sent.get(next.key);
+                if (last != null && rate.intervalNanos() > 0) {
+                    long dueNanos = last.nanos + rate.intervalNanos();
+                    if (dueNanos - now > 0) {
+                        if (wakeNanos == 0 || dueNanos - wakeNanos < 0) {
+                            wakeNanos = dueNanos;
+                        }
+                        continue;
+                    }
+                }
+
+                iterator.remove();
+                if (rate.dedupe() && last != null && last.message.getPayload().equals(next.message.getPayload())) {
+                    conflatedCount++;
+                    continue;
+                }
+                if (last == null) {
+                    last = new Sent();
+                    sent.put(next.key, last);
+                }
+                last.nanos = now;
+                last.message = next.message;
+                return next;
+            }
+            return null;
+        }
+    }
+
+    /**
+     * 마지막 검사 이후 새로 적재된 메시지가 있는지
+     */
+    private boolean hasNewOffers() {
+        synchronized (pending) {
+            return offers != scannedOffers;
+        }
+    }
+
+    /**
+     * 빈도 제한으로 남겨 둔 메시지를 보낼 시각 (drain 종료 후 호출)
+     * @return 새로 예약할 깨우기 시각 (남은 메시지가 없거나 더 이른 예약이 있으면 0)
+     */
+    long claimWake() {
+        synchronized (pending) {
+            long wake = wakeNanos;
+            wakeNanos = 0;
+            if (wake == 0 || closed || (scheduledWakeNanos != 0 && scheduledWakeNanos - wake <= 0)) {
+                return 0;
+            }
+            scheduledWakeNanos = wake;
+            return wake;
+        }
+    }
+
+    /**
+     * 예약한 깨우기 실행 시점 (이후 drain이 새 예약을 걸 수 있도록 해제)
+     */
+    void wakeFired(long wake) {
+        synchronized (pending) {
+            if (scheduledWakeNanos == wake) {
+                scheduledWakeNanos = 0;
+            }
+        }
+    }
+
+    /**
+     * 세션 기본 갱신 빈도 (키별 설정이 없는 구독에 적용)
+     */
+    void setRate(UpdateRate rate) {
+        synchronized (pending) {
+            defaultRate = rate;
+        }
+    }
+
+    /**
+     * 키별 갱신 빈도 (null이면 키별 설정 제거 → 세션 기본값)
+     */
+    void setRate(Object key, UpdateRate rate) {
+        synchronized (pending) {
+            if (rate == null) {
+                keyRates.remove(key);
+                sent.remove(key);
+            } else {
+                keyRates.put(key, rate);
+            }
+        }
+    }
+
+    private UpdateRate rateOf(Object key) {
+        UpdateRate rate = keyRates.get(key);
+        return rate != null ? rate : defaultRate;
+    }
+
+    /**
+     * 묶음 전송 켜기 (이후 drain부터 적용)
+     */
+    void enableBatching() {
+        batching = true;
+    }
+
+    boolean isBatching() {
+        return batching;
+    }
+
+    void clear() {
+        synchronized (pending) {
+            pending.clear();
+        }
+    }
+
+    /**
+     * 현재 전송이 시작된 지 경과한 시간 (전송 중이 아니면 0)
+     */
+    long sendElapsedNanos(long nowNanos) {
+        long started = sendStartedNanos;
+        return started == 0 ? 0 : nowNanos - started;
+    }
+
+    /**
+     * 세션 종료 표시 및 버퍼 비우기
+     * @return 이번 호출로 처음 종료된 경우 true
+     */
+    boolean markClosed() {
+        synchronized (pending) {
+            if (closed) {
+                return false;
+            }
+            closed = true;
+            pending.clear();
+            return true;
+        }
+    }
+
+    boolean isClosed() {
+        return closed;
+    }
+
+    int pendingCount() {
+        synchronized (pending) {
+            return pending.size();
+        }
+    }
+
+    long getConflatedCount() {
+        synchronized (pending) {
+            return conflatedCount;
+        }
+    }
+
+    WebSocketSession session() {
+        return session;
+    }
+
+    ChannelMeters meters() {
+        return meters;
+    }
+
+    /**
+     * 대기 메시지 (버퍼에서 꺼낸 뒤에는 전송 스레드만 접근)
+     */
+    private static final class Pending {
+        // 병합 키 (제어 메시지는 null)
+        private final Object key;
+        private TextMessage message;
+        private long receivedNanos;
+
+        Pending(Object key, TextMessage message, long receivedNanos) {
+            this.key = key;
+            this.message = message;
+            this.receivedNanos = receivedNanos;
+        }
+    }
+
+    /**
+     * 빈도 제한 키의 마지막 전송 (pending 락 안에서만 접근)
+     */
+    private static final class Sent {
+        private long nanos;
+        private TextMessage message;
+    }
+}
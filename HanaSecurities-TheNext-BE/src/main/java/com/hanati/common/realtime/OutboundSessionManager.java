@@ -0,0 +1,296 @@
+package com.hanati.common.realtime;
+
+import com.hanati.common.config.RealtimeConfig;
+import com.hanati.common.metrics.MarketDataMetrics;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+
+/**
+ * 실시간 WebSocket 세션 전송 관리자
+ *
+ * - 브로드캐스트 스레드는 세션 버퍼에 적재만 하고 즉시 반환 (session.sendMessage 직접 호출 없음)
+ * - 실제 전송은 sender 스레드 풀이 세션별로 수행 → 느린 세션이 다른 세션 전송을 막지 않음
+ * - 버퍼 한도 초과 또는 전송 시간 한도 초과 세션은 종료하고 카운트
+ * - 묶음 전송 세션은 첫 시세 적재 후 batch-window-ms 동안 모았다가 한 프레임으로 전송
+ * - 세션/구독별 갱신 빈도(UpdateRate)를 넘는 시세는 세션 버퍼에서 최신 값으로 병합되고, 간격이 지나면 전송
+ */
+@Slf4j
+@Component
+@RequiredArgsConstructor
+public class OutboundSessionManager {
+
+    private static final long WATCHDOG_INTERVAL_MS = 500;
+
+    private final RealtimeConfig realtimeConfig;
+    private final MarketDataMetrics metrics;
+
+    private final Map<String, OutboundSession> outbounds = new ConcurrentHashMap<>();
+
+    private final AtomicLong droppedSessions = new AtomicLong();
+    private final AtomicLong sendFailures = new AtomicLong();
+
+    private ExecutorService senderExecutor;
+    private ScheduledExecutorService watchdog;
+    private ScheduledExecutorService delayScheduler;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadIndex = new AtomicInteger();
+        senderExecutor = Executors.newFixedThreadPool(realtimeConfig.getOutbound().getSenderThreads(), r -> {
+            Thread thread = new Thread(r, "ws-sender-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+        watchdog = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "ws-send-watchdog");
+            thread.setDaemon(true);
+            return thread;
+        });
+        delayScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "ws-delay-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        watchdog.scheduleAtFixedRate(this::checkSlowSessions,
+                WATCHDOG_INTERVAL_MS, WATCHDOG_INTERVAL_MS, TimeUnit.MILLISECONDS);
+
+        metrics.bindGauge("marketdata.outbound.sessions", "전송 관리 중인 세션 수 (전체 채널)",
+                outbounds, Map::size);
+        metrics.bindGauge("marketdata.outbound.conflated", "최신 값으로 교체된 대기 메시지 수 (연결 중인 세션 합계)",
+                this, OutboundSessionManager::getConflatedMessages);
+
+        log.info("[세션 전송] 초기화 완료 - 버퍼: {}건, 전송 한도: {}ms, 전송 스레드: {}개",
+                realtimeConfig.getOutbound().getBufferLimit(),
+                realtimeConfig.getOutbound().getSendTimeLimitMs(),
+                realtimeConfig.getOutbound().getSenderThreads());
+    }
+
+    /**
+     * 세션 등록 (afterConnectionEstablished)
+     * @param channel 지표 태그용 채널 이름 (quote, trade, foreign_quote, gold_quote, gold_trade)
+     */
+    public void register(WebSocketSession session, String channel) {
+        outbounds.put(session.getId(), new OutboundSession(session,
+                realtimeConfig.getOutbound().getBufferLimit(), metrics.channel(channel)));
+    }
+
+    /**
+     * 묶음 전송 켜기 (묶음 구독 요청 시) - 이후 시세 메시지는 {"type":"batch","items":[...]}로 묶여 전송
+     */
+    public void enableBatching(WebSocketSession session) {
+        OutboundSession outbound = outbounds.get(session.getId());
+        if (outbound != null) {
+            outbound.enableBatching();
+        }
+    }
+
+    /**
+     * 세션 기본 갱신 빈도 설정 (예: 백그라운드 탭 1Hz)
+     */
+    public void setRate(WebSocketSession session, UpdateRate rate) {
+        OutboundSession outbound = outbounds.get(session.getId());
+        if (outbound != null) {
+            outbound.setRate(rate);
+            wake(outbound, 0);
+        }
+    }
+
+    /**
+     * 구독(키)별 갱신 빈도 설정
+     * @param rate null이면 키별 설정 제거 (세션 기본값 적용)
+     */
+    public void setRate(WebSocketSession session, Object key, UpdateRate rate) {
+        OutboundSession outbound = outbounds.get(session.getId());
+        if (outbound != null) {
+            outbound.setRate(key, rate);
+        }
+    }
+
+    /**
+     * 세션 해제 (afterConnectionClosed)
+     */
+    public void unregister(WebSocketSession session) {
+        OutboundSession outbound = outbounds.remove(session.getId());
+        if (outbound != null) {
+            outbound.markClosed();
+        }
+    }
+
+    /**
+     * 시세 메시지 전송 - 같은 키의 대기 메시지는 최신 값으로 교체
+     * @param key 병합 키 (종목코드 등)
+     */
+    public void publish(WebSocketSession session, Object key, TextMessage message) {
+        enqueue(session, key, message, null, 0);
+    }
+
+    /**
+     * 시세 메시지 전송 (수신 시각 포함) - 전송 완료 시 수신 기준 지연을 채널 히스토그램에 기록
+     * @param receivedNanos 메시지에 담긴 값의 업스트림 수신 시각 (System.nanoTime)
+     */
+    public void publish(WebSocketSession session, Object key, TextMessage message, long receivedNanos) {
+        enqueue(session, key, message, null, receivedNanos);
+    }
+
+    /**
+     * 증분 메시지 전송 - 같은 키의 메시지가 대기 중이면 둘 다 버리고 최신 스냅샷으로 교체
+     * @param snapshot 병합 시에만 호출되는 최신 스냅샷 공급자
+     * @param receivedNanos 증분에 반영된 값의 업스트림 수신 시각
+     */
+    public void publishDelta(WebSocketSession session, Object key, TextMessage delta, Supplier<TextMessage> snapshot,
+                             long receivedNanos) {
+        enqueue(session, key, delta, snapshot, receivedNanos);
+    }
+
+    /**
+     * 제어 메시지 전송 (구독 응답, 에러) - 병합하지 않음
+     */
+    public void send(WebSocketSession session, TextMessage message) {
+        enqueue(session, null, message, null, 0);
+    }
+
+    private void enqueue(WebSocketSession session, Object key, TextMessage message, Supplier<TextMessage> replacement,
+                         long receivedNanos) {
+        OutboundSession outbound = outbounds.get(session.getId());
+        if (outbound == null || outbound.isClosed()) {
+            return;
+        }
+
+        if (!outbound.offer(key, message, replacement, receivedNanos)) {
+            drop(outbound, "전송 버퍼 초과");
+            return;
+        }
+
+        if (outbound.tryStartDrain()) {
+            if (key != null && outbound.isBatching()) {
+                // drain 권한을 쥔 채로 대기 → 그 사이 적재된 다른 종목 메시지가 같은 묶음에 포함
+                delayScheduler.schedule(() -> senderExecutor.execute(() -> drain(outbound)),
+                        realtimeConfig.getOutbound().getBatchWindowMs(), TimeUnit.MILLISECONDS);
+            } else {
+                senderExecutor.execute(() -> drain(outbound));
+            }
+        }
+    }
+
+    private void drain(OutboundSession outbound) {
+        try {
+            outbound.drain();
+            // 빈도 제한으로 남긴 메시지는 전송 가능 시각에 다시 drain
+            long wake = outbound.claimWake();
+            if (wake != 0) {
+                delayScheduler.schedule(() -> wake(outbound, wake),
+                        Math.max(0, wake - System.nanoTime()), TimeUnit.NANOSECONDS);
+            }
+        } catch (Exception e) {
+            if (outbound.markClosed()) {
+                sendFailures.incrementAndGet();
+                outbound.meters().sendFailed();
+                log.warn("[세션 전송] 전송 실패 - 세션: {}, 원인: {}", outbound.session().getId(), e.getMessage());
+                close(outbound, CloseStatus.SERVER_ERROR);
+            }
+        }
+    }
+
+    /**
+     * 빈도 제한 대기 메시지 전송 재개 (지연 예약 스레드)
+     * @param wake 예약한 깨우기 시각 (0: 예약 없이 즉시 재검사)
+     */
+    private void wake(OutboundSession outbound, long wake) {
+        if (wake != 0) {
+            outbound.wakeFired(wake);
+        }
+        if (!outbound.isClosed() && outbound.tryStartDrain()) {
+            senderExecutor.execute(() -> drain(outbound));
+        }
+    }
+
+    /**
+     * 전송 시간 한도를 넘긴 세션 정리 (watchdog 스레드)
+     */
+    private void checkSlowSessions() {
+        long limitNanos = TimeUnit.MILLISECONDS.toNanos(realtimeConfig.getOutbound().getSendTimeLimitMs());
+        long now = System.nanoTime();
+        for (OutboundSession outbound : outbounds.values()) {
+            if (outbound.sendElapsedNanos(now) > limitNanos) {
+                drop(outbound, "전송 시간 초과");
+            }
+        }
+    }
+
+    private void drop(OutboundSession outbound, String reason) {
+        int pending = outbound.pendingCount();
+        if (!outbound.markClosed()) {
+            return;
+        }
+        droppedSessions.incrementAndGet();
+        outbound.meters().sessionDropped();
+        log.warn("[세션 전송] 느린 세션 종료 - 세션: {}, 원인: {}, 대기: {}건",
+                outbound.session().getId(), reason, pending);
+        close(outbound, CloseStatus.SESSION_NOT_RELIABLE);
+    }
+
+    /**
+     * 세션 종료 - close 프레임 전송이 막힐 수 있으므로 watchdog 스레드에서 수행
+     */
+    private void close(OutboundSession outbound, CloseStatus status) {
+        outbounds.remove(outbound.session().getId(), outbound);
+        watchdog.execute(() -> {
+            try {
+                outbound.session().close(status);
+            } catch (Exception e) {
+                log.debug("[세션 전송] 세션 종료 실패 - 세션: {}", outbound.session().getId(), e);
+            }
+        });
+    }
+
+    public int getActiveSessions() {
+        return outbounds.size();
+    }
+
+    public long getDroppedSessions() {
+        return droppedSessions.get();
+    }
+
+    public long getSendFailures() {
+        return sendFailures.get();
+    }
+
+    public long getConflatedMessages() {
+        long total = 0;
+        for (OutboundSession outbound : outbounds.values()) {
+            total += outbound.getConflatedCount();
+        }
+        return total;
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (watchdog != null) {
+            watchdog.shutdownNow();
+        }
+        if (delayScheduler != null) {
+            delayScheduler.shutdownNow();
+        }
+        if (senderExecutor != null) {
+            senderExecutor.shutdownNow();
+        }
+        outbounds.values().forEach(OutboundSession::markClosed);
+        outbounds.clear();
+    }
+}
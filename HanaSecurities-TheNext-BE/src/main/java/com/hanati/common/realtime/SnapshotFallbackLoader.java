@@ -0,0 +1,63 @@
+package com.hanati.common.realtime;
+
+import com.hanati.common.cache.SingleFlight;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Component;
+
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * 구독 직후 보낼 마지막 시세가 없을 때의 REST 스냅샷 조회기
+ *
+ * - 키(채널:종목)별 single-flight → 같은 종목에 구독이 몰려도 REST 호출은 1회
+ * - 조회는 전용 스레드에서 수행 (WebSocket 수신 스레드/시세 실행기 샤드를 막지 않음)
+ * - 조회 작업은 결과를 캐시에 저장만 하고, 호출자는 완료 후 캐시의 마지막 값을 다시 읽어 전송
+ */
+@Slf4j
+@Component
+public class SnapshotFallbackLoader {
+
+    private static final int THREADS = 2;
+
+    private final SingleFlight<String, Void> flights = new SingleFlight<>();
+    private ExecutorService executor;
+
+    @PostConstruct
+    public void init() {
+        AtomicInteger threadIndex = new AtomicInteger();
+        executor = Executors.newFixedThreadPool(THREADS, r -> {
+            Thread thread = new Thread(r, "snapshot-fallback-" + threadIndex.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * 스냅샷 조회 (진행 중인 같은 키 조회가 있으면 그 완료를 공유)
+     * @param key 채널:종목 (예: quote:005930)
+     * @param fetch REST 조회 후 캐시 저장
+     * @return 완료 시점 (실패해도 정상 완료 - 실패는 여기서 로그만 남김)
+     */
+    public CompletableFuture<Void> load(String key, Runnable fetch) {
+        return flights.submit(key, () -> {
+            log.info("[스냅샷 대체 조회] 수신 이력 없음 - REST 조회: {}", key);
+            fetch.run();
+            return null;
+        }, executor).exceptionally(e -> {
+            log.warn("[스냅샷 대체 조회] 실패: {}, 원인: {}", key, e.getMessage());
+            return null;
+        });
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (executor != null) {
+            executor.shutdownNow();
+        }
+    }
+}
@@ -0,0 +1,142 @@
+package com.hanati.common.realtime;
+
+import lombok.extern.slf4j.Slf4j;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.function.Consumer;
+
+/**
+ * 실시간 구독 레지스트리 (종목 → 세션 역인덱스 + 참조 카운트)
+ *
+ * - 종목별 구독 세션 집합의 크기가 곧 참조 카운트
+ * - 0 → 1 전이 시 onFirstSubscriber(업스트림 구독), 1 → 0 전이 시 onLastUnsubscriber(업스트림 해제) 호출
+ * - 전이 콜백은 해당 종목의 compute 안에서 실행되어 같은 종목의 구독/해제 순서가 뒤바뀌지 않음
+ * - 세션 종료 비용은 그 세션이 구독한 종목 수에만 비례 (전체 세션 수와 무관)
+ *
+ * @param <K> 구독 키 (국내: 종목코드, 해외: 거래소+종목+데이터타입)
+ */
+@Slf4j
+public class SubscriptionRegistry<K> {
+
+    // 종목별 구독 세션
+    private final Map<K, Set<String>> subscribers = new ConcurrentHashMap<>();
+    // 세션별 구독 종목
+    private final Map<String, Set<K>> sessionKeys = new ConcurrentHashMap<>();
+
+    private final Consumer<K> onFirstSubscriber;
+    private final Consumer<K> onLastUnsubscriber;
+
+    public SubscriptionRegistry(Consumer<K> onFirstSubscriber, Consumer<K> onLastUnsubscriber) {
+        this.onFirstSubscriber = onFirstSubscriber;
+        this.onLastUnsubscriber = onLastUnsubscriber;
+    }
+
+    /**
+     * 세션의 종목 구독 추가
+     * @return 이 세션에 새로 추가된 구독이면 true (이미 구독 중이면 false)
+     */
+    public boolean subscribe(String sessionId, K key) {
+        Set<K> keys = sessionKeys.computeIfAbsent(sessionId, id -> ConcurrentHashMap.newKeySet());
+        if (!keys.add(key)) {
+            return false;
+        }
+
+        subscribers.compute(key, (k, sessionIds) -> {
+            if (sessionIds == null) {
+                sessionIds = ConcurrentHashMap.newKeySet();
+                notifyTransition(onFirstSubscriber, k, "구독");
+            }
+            sessionIds.add(sessionId);
+            return sessionIds;
+        });
+        return true;
+    }
+
+    /**
+     * 세션의 종목 구독 해제
+     * @return 이 세션이 구독 중이던 종목이면 true
+     */
+    public boolean unsubscribe(String sessionId, K key) {
+        Set<K> keys = sessionKeys.get(sessionId);
+        if (keys == null || !keys.remove(key)) {
+            return false;
+        }
+
+        release(sessionId, key);
+        return true;
+    }
+
+    /**
+     * 세션 종료 - 세션이 구독한 종목만 정리
+     * @return 세션이 구독 중이던 종목 (없으면 빈 집합)
+     */
+    public Set<K> removeSession(String sessionId) {
+        Set<K> keys = sessionKeys.remove(sessionId);
+        if (keys == null) {
+            return Collections.emptySet();
+        }
+
+        for (K key : keys) {
+            release(sessionId, key);
+        }
+        return keys;
+    }
+
+    private void release(String sessionId, K key) {
+        subscribers.computeIfPresent(key, (k, sessionIds) -> {
+            sessionIds.remove(sessionId);
+            if (sessionIds.isEmpty()) {
+                notifyTransition(onLastUnsubscriber, k, "해제");
+                return null;
+            }
+            return sessionIds;
+        });
+    }
+
+    private void notifyTransition(Consumer<K> callback, K key, String type) {
+        try {
+            callback.accept(key);
+        } catch (Exception e) {
+            log.error("[구독 레지스트리] 업스트림 {} 처리 실패: {}", type, key, e);
+        }
+    }
+
+    /**
+     * 종목을 구독 중인 세션 ID (읽기 전용 뷰, 없으면 빈 집합)
+     */
+    public Set<String> subscribers(K key) {
+        Set<String> sessionIds = subscribers.get(key);
+        return sessionIds == null ? Collections.emptySet() : Collections.unmodifiableSet(sessionIds);
+    }
+
+    public boolean hasSubscribers(K key) {
+        return subscribers.containsKey(key);
+    }
+
+    public int subscriberCount(K key) {
+        Set<String> sessionIds = subscribers.get(key);
+        return sessionIds == null ? 0 : sessionIds.size();
+    }
+
+    /**
+     * 세션이 구독 중인 종목 (읽기 전용 뷰, 없으면 빈 집합)
+     */
+    public Set<K> keysOf(String sessionId) {
+        Set<K> keys = sessionKeys.get(sessionId);
+        return keys == null ? Collections.emptySet() : Collections.unmodifiableSet(keys);
+    }
+
+    /**
+     * 구독자가 한 명 이상인 종목 (읽기 전용 뷰)
+     */
+    public Set<K> activeKeys() {
+        return Collections.unmodifiableSet(subscribers.keySet());
+    }
+
+    public int sessionCount() {
+        return sessionKeys.size();
+    }
+}
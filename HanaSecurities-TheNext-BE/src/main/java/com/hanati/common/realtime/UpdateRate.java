@@ -0,0 +1,67 @@
+package com.hanati.common.realtime;
+
+import java.util.Locale;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 클라이언트가 요청한 세션/구독별 최대 갱신 빈도
+ *
+ * - realtime: 수신되는 대로 전송 (기본)
+ * - 숫자 또는 "5hz": 같은 종목은 최소 1/N초 간격으로 전송, 그 사이 갱신은 최신 값으로 병합
+ * - onchange: 간격 제한 없이, 직전에 보낸 메시지와 내용이 같으면 전송 생략
+ *
+ * @param intervalNanos 같은 키의 최소 전송 간격 (0이면 제한 없음)
+ * @param dedupe 직전 전송과 같은 내용 생략 여부
+ */
+public record UpdateRate(long intervalNanos, boolean dedupe) {
+
+    public static final UpdateRate REALTIME = new UpdateRate(0, false);
+    public static final UpdateRate ON_CHANGE = new UpdateRate(0, true);
+
+    // 허용 범위 (0.1Hz ~ 50Hz)
+    private static final double MIN_HZ = 0.1;
+    private static final double MAX_HZ = 50;
+
+    /**
+     * 요청 값 해석 ("realtime", "onchange", 5, "5", "5hz")
+     * @return 해석할 수 없거나 범위를 벗어나면 null
+     */
+    public static UpdateRate parse(Object value) {
+        if (value == null) {
+            return REALTIME;
+        }
+        if (value instanceof Number number) {
+            return ofHz(number.doubleValue());
+        }
+
+        String text = value.toString().trim().toLowerCase(Locale.ROOT);
+        if (text.isEmpty() || "realtime".equals(text)) {
+            return REALTIME;
+        }
+        if ("onchange".equals(text)) {
+            return ON_CHANGE;
+        }
+        if (text.endsWith("hz")) {
+            text = text.substring(0, text.length() - 2).trim();
+        }
+        try {
+            return ofHz(Double.parseDouble(text));
+        } catch (NumberFormatException e) {
+            return null;
+        }
+    }
+
+    private static UpdateRate ofHz(double hz) {
+        if (!(hz >= MIN_HZ && hz <= MAX_HZ)) {
+            return null;
+        }
+        return new UpdateRate((long) (TimeUnit.SECONDS.toNanos(1) / hz), false);
+    }
+
+    /**
+     * 전송 이력 추적이 필요한지 (간격 제한 또는 중복 생략)
+     */
+    public boolean isLimited() {
+        return intervalNanos > 0 || dedupe;
+    }
+}
@@ -0,0 +1,301 @@
+package com.hanati.common.simulator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hanati.common.config.SimulatorConfig;
+import com.hanati.common.journal.JournalRecord;
+import com.hanati.common.journal.MarketDataJournalReader;
+import com.hanati.common.journal.MarketDataSource;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.handler.ConcurrentWebSocketSessionDecorator;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * 로컬 거래소 시뮬레이터 공통 처리 (KIS/키움 시뮬레이터의 상위 클래스)
+ *
+ * - 연결별 등록(스트림) 목록을 관리하고, 등록된 스트림에만 프레임을 송출 (실제 거래소와 동일)
+ * - 합성 모드: 송출 스레드가 tick마다 등록 1건당 framesPerSecond 비율로 합성 프레임 송출
+ * - 재생 모드: 저널(MarketDataJournal) 기록을 수신 간격 그대로(배속 적용) 읽어 등록된 스트림에 송출
+ * - 전송은 ConcurrentWebSocketSessionDecorator로 직렬화 (송출 스레드와 요청 응답 스레드 공용)
+ */
+@Slf4j
+abstract class ExchangeSimulator extends TextWebSocketHandler {
+
+    private static final int SEND_TIME_LIMIT_MS = 5000;
+    private static final int SEND_BUFFER_LIMIT = 64 * 1024 * 1024;
+
+    protected final SimulatorConfig config;
+    protected final ObjectMapper objectMapper = new ObjectMapper();
+
+    private final Map<String, SimulatedSession> sessions = new ConcurrentHashMap<>();
+    private final LongAdder framesSent = new LongAdder();
+
+    private ScheduledExecutorService ticker;
+    private Thread replayThread;
+    private volatile boolean running;
+
+    protected ExchangeSimulator(SimulatorConfig config) {
+        this.config = config;
+    }
+
+    /**
+     * 로그/스레드 이름용 거래소 이름
+     */
+    protected abstract String name();
+
+    /**
+     * 재생 모드에서 읽을 저널 출처
+     */
+    protected abstract MarketDataSource source();
+
+    /**
+     * 요청 메시지(JSON) 처리 - 등록/해제/인증
+     */
+    protected abstract void onRequest(SimulatedSession session, JsonNode request) throws IOException;
+
+    /**
+     * 스트림의 다음 합성 프레임 (송출 스레드)
+     */
+    protected abstract String syntheticFrame(Stream stream);
+
+    /**
+     * 재생할 원본 프레임의 스트림 키 (실시간 프레임이 아니면 null)
+     */
+    protected abstract String streamKey(String payload);
+
+    /**
+     * 연결 유지 메시지 (없으면 null) - heartbeat 주기마다 전체 연결에 송신
+     */
+    protected String heartbeat() {
+        return null;
+    }
+
+    @PostConstruct
+    public void start() {
+        ticker = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "simulator-" + name().toLowerCase());
+            thread.setDaemon(true);
+            return thread;
+        });
+        running = true;
+
+        if (config.isReplayEnabled()) {
+            replayThread = new Thread(this::runReplay, "simulator-" + name().toLowerCase() + "-replay");
+            replayThread.setDaemon(true);
+            replayThread.start();
+            log.info("[{} 시뮬레이터] 저널 재생 모드 - 경로: {}, 일자: {}, 배속: {}", name(),
+                    config.getReplay().getDirectory(), config.getReplay().getDate(), config.getReplay().getSpeed());
+        } else {
+            ticker.scheduleAtFixedRate(this::tick, config.getTickMs(), config.getTickMs(), TimeUnit.MILLISECONDS);
+            log.info("[{} 시뮬레이터] 합성 모드 - 등록당 초당 {}건, 연결당 등록 한도 {}건", name(),
+                    config.getFramesPerSecond(), config.getMaxRegistrations());
+        }
+        ticker.scheduleAtFixedRate(this::sendHeartbeat, 10, 10, TimeUnit.SECONDS);
+    }
+
+    @Override
+    public void afterConnectionEstablished(WebSocketSession session) {
+        sessions.put(session.getId(), new SimulatedSession(
+                new ConcurrentWebSocketSessionDecorator(session, SEND_TIME_LIMIT_MS, SEND_BUFFER_LIMIT)));
+        log.info("[{} 시뮬레이터] 연결 - 세션: {}", name(), session.getId());
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
+        SimulatedSession removed = sessions.remove(session.getId());
+        log.info("[{} 시뮬레이터] 연결 종료 - 세션: {}, 등록: {}건", name(), session.getId(),
+                removed != null ? removed.streams.size() : 0);
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+        SimulatedSession simulated = sessions.get(session.getId());
+        if (simulated == null) {
+            return;
+        }
+        try {
+            onRequest(simulated, objectMapper.readTree(message.getPayload()));
+        } catch (Exception e) {
+            log.warn("[{} 시뮬레이터] 요청 처리 실패: {}", name(), message.getPayload(), e);
+        }
+    }
+
+    /**
+     * 합성 프레임 송출 (송출 스레드)
+     * - 스트림별 송출량을 누적해 정수 건수만큼 송출 → 낮은 비율도 tick과 무관하게 유지
+     */
+    private void tick() {
+        double perTick = config.getFramesPerSecond() * config.getTickMs() / 1000.0;
+        for (SimulatedSession session : sessions.values()) {
+            for (Stream stream : session.streams.values()) {
+                stream.credit += perTick;
+                while (stream.credit >= 1) {
+                    stream.credit -= 1;
+                    sendFrame(session, syntheticFrame(stream));
+                }
+            }
+        }
+    }
+
+    /**
+     * 저널 재생 (재생 스레드)
+     * - 첫 레코드 기준 경과 시각을 배속으로 나눈 시점까지 대기 후 송출
+     */
+    private void runReplay() {
+        SimulatorConfig.Replay replay = config.getReplay();
+        Path root = Paths.get(replay.getDirectory());
+        LocalDate date = LocalDate.parse(replay.getDate());
+
+        try {
+            do {
+                List<Path> segments = MarketDataJournalReader.segments(root, date);
+                if (segments.isEmpty()) {
+                    log.warn("[{} 시뮬레이터] 재생할 저널 없음 - 경로: {}, 일자: {}", name(), root, date);
+                    return;
+                }
+
+                long firstNanos = -1;
+                long startNanoTime = System.nanoTime();
+                for (Path segment : segments) {
+                    try (MarketDataJournalReader reader = new MarketDataJournalReader(segment)) {
+                        JournalRecord record;
+                        while (running && (record = reader.next()) != null) {
+                            if (record.source() != source()) {
+                                continue;
+                            }
+                            String key = streamKey(record.payload());
+                            if (key == null) {
+                                continue;
+                            }
+                            if (firstNanos < 0) {
+                                firstNanos = record.receiveEpochNanos();
+                            }
+                            if (replay.getSpeed() > 0) {
+                                long due = startNanoTime + (long) ((record.receiveEpochNanos() - firstNanos) / replay.getSpeed());
+                                long wait = due - System.nanoTime();
+                                if (wait > 0) {
+                                    LockSupport.parkNanos(wait);
+                                }
+                            }
+                            for (SimulatedSession session : sessions.values()) {
+                                if (session.streams.containsKey(key)) {
+                                    sendFrame(session, record.payload());
+                                }
+                            }
+                        }
+                    }
+                }
+                if (firstNanos < 0) {
+                    log.warn("[{} 시뮬레이터] 재생할 {} 프레임 없음 - 일자: {}", name(), source(), date);
+                    return;
+                }
+                log.info("[{} 시뮬레이터] 저널 재생 완료 - 일자: {}", name(), date);
+            } while (running && replay.isLoop());
+        } catch (IOException e) {
+            log.error("[{} 시뮬레이터] 저널 재생 실패", name(), e);
+        }
+    }
+
+    private void sendHeartbeat() {
+        String message = heartbeat();
+        if (message == null) {
+            return;
+        }
+        for (SimulatedSession session : sessions.values()) {
+            send(session, message);
+        }
+    }
+
+    private void sendFrame(SimulatedSession session, String frame) {
+        if (send(session, frame)) {
+            framesSent.increment();
+        }
+    }
+
+    /**
+     * 메시지 전송 - 실패하거나 전송 한도를 넘긴 연결은 종료
+     */
+    protected boolean send(SimulatedSession session, String message) {
+        try {
+            session.session.sendMessage(new TextMessage(message));
+            return true;
+        } catch (Exception e) {
+            if (sessions.remove(session.session.getId()) != null) {
+                log.warn("[{} 시뮬레이터] 전송 실패로 연결 종료 - 세션: {}, 원인: {}",
+                        name(), session.session.getId(), e.getMessage());
+                try {
+                    session.session.close(CloseStatus.SESSION_NOT_RELIABLE);
+                } catch (IOException ignored) {
+                    // 이미 닫힌 연결
+                }
+            }
+            return false;
+        }
+    }
+
+    public int getSessionCount() {
+        return sessions.size();
+    }
+
+    public long getFramesSent() {
+        return framesSent.sum();
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        if (ticker != null) {
+            ticker.shutdownNow();
+        }
+        if (replayThread != null) {
+            replayThread.interrupt();
+        }
+        log.info("[{} 시뮬레이터] 종료 - 송출 {}건", name(), getFramesSent());
+    }
+
+    /**
+     * 시뮬레이터 연결 (등록 목록은 요청 스레드가 변경, 송출 스레드가 순회)
+     */
+    static final class SimulatedSession {
+        final WebSocketSession session;
+        final Map<String, Stream> streams = new ConcurrentHashMap<>();
+        // 키움 LOGIN 완료 여부
+        volatile boolean authenticated;
+
+        SimulatedSession(WebSocketSession session) {
+            this.session = session;
+        }
+    }
+
+    /**
+     * 등록 1건 (credit은 송출 스레드 전용)
+     */
+    static final class Stream {
+        final String type;
+        final String symbol;
+        double credit;
+
+        Stream(String type, String symbol) {
+            this.type = type;
+            this.symbol = symbol;
+        }
+    }
+}
@@ -0,0 +1,301 @@
+package com.hanati.common.simulator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.hanati.common.config.SimulatorConfig;
+import com.hanati.common.journal.MarketDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.UUID;
+
+/**
+ * KIS 실시간 WebSocket 시뮬레이터 (/sim/kis)
+ *
+ * - KisWebSocketRequest 형식의 등록(tr_type 1)/해제(tr_type 2) 요청에 KIS와 같은 JSON 응답
+ * - 연결당 등록 한도(maxRegistrations) 초과 시 MAX SUBSCRIBE OVER 응답
+ * - 등록된 TR_ID/TR_KEY에만 "0|TR_ID|001|필드^필드..." 형식 프레임 송출
+ *   (H0STASP0/H0UNASP0 호가, H0STCNT0/H0UNCNT0 체결, HDFSCNT0 해외 체결, HDFSASP0/HDFSASP1 해외 호가)
+ * - 10초마다 PINGPONG 송신 (클라이언트 응답은 무시)
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "simulator", name = "enabled", havingValue = "true")
+public class KisExchangeSimulator extends ExchangeSimulator {
+
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final DateTimeFormatter TIME = DateTimeFormatter.ofPattern("HHmmss");
+    private static final DateTimeFormatter DATETIME = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    private static final int DOMESTIC_DEPTH = 10;
+    private static final int ORDER_BOOK_FIELDS = 59;
+    private static final int TRADE_FIELDS = 46;
+
+    // 국내 1,000~101,000원, 해외 10~510달러 (소수 4자리)
+    private final SyntheticMarket domestic = new SyntheticMarket(1000, 100000, 0);
+    private final SyntheticMarket foreign = new SyntheticMarket(10_0000, 500_0000, 4);
+
+    public KisExchangeSimulator(SimulatorConfig config) {
+        super(config);
+    }
+
+    @Override
+    protected String name() {
+        return "KIS";
+    }
+
+    @Override
+    protected MarketDataSource source() {
+        return MarketDataSource.KIS_REALTIME;
+    }
+
+    @Override
+    protected String heartbeat() {
+        return "{\"header\":{\"tr_id\":\"PINGPONG\",\"datetime\":\"" + LocalDateTime.now().format(DATETIME) + "\"}}";
+    }
+
+    @Override
+    protected void onRequest(SimulatedSession session, JsonNode request) {
+        JsonNode header = request.path("header");
+        if ("PINGPONG".equals(header.path("tr_id").asText())) {
+            return;
+        }
+
+        String trType = header.path("tr_type").asText();
+        JsonNode input = request.path("body").path("input");
+        String trId = input.path("tr_id").asText();
+        String trKey = input.path("tr_key").asText();
+        String key = trId + "|" + trKey;
+
+        if (header.path("approval_key").asText().isEmpty()) {
+            reply(session, trId, trKey, "1", "OPSP0011", "invalid approval : NOT FOUND");
+        } else if ("1".equals(trType)) {
+            if (session.streams.containsKey(key)) {
+                reply(session, trId, trKey, "1", "OPSP0002", "ALREADY IN SUBSCRIBE");
+            } else if (session.streams.size() >= config.getMaxRegistrations()) {
+                reply(session, trId, trKey, "1", "OPSP0008", "MAX SUBSCRIBE OVER");
+            } else {
+                session.streams.put(key, new Stream(trId, trKey));
+                reply(session, trId, trKey, "0", "OPSP0000", "SUBSCRIBE SUCCESS");
+            }
+        } else if ("2".equals(trType)) {
+            if (session.streams.remove(key) != null) {
+                reply(session, trId, trKey, "0", "OPSP0001", "UNSUBSCRIBE SUCCESS");
+            } else {
+                reply(session, trId, trKey, "1", "OPSP0003", "UNSUBSCRIBE ERROR(not found!)");
+            }
+        } else {
+            reply(session, trId, trKey, "1", "OPSP0009", "INVALID TR_TYPE");
+        }
+    }
+
+    private void reply(SimulatedSession session, String trId, String trKey, String rtCd, String msgCd, String msg) {
+        ObjectNode response = objectMapper.createObjectNode();
+        ObjectNode header = response.putObject("header");
+        header.put("tr_id", trId);
+        header.put("tr_key", trKey);
+        header.put("encrypt", "N");
+        ObjectNode body = response.putObject("body");
+        body.put("rt_cd", rtCd);
+        body.put("msg_cd", msgCd);
+        body.put("msg1", msg);
+        if ("0".equals(rtCd)) {
+            String secret = UUID.randomUUID().toString().replace("-", "");
+            body.putObject("output")
+                    .put("iv", secret.substring(0, 16))
+                    .put("key", secret);
+        }
+        send(session, response.toString());
+    }
+
+    @Override
+    protected String streamKey(String payload) {
+        if (payload.isEmpty() || payload.charAt(0) == '{') {
+            return null;
+        }
+        // 0|TR_ID|건수|첫필드^... → TR_ID|첫필드 (국내는 종목코드, 해외는 TR_KEY와 같은 실시간종목코드)
+        int p1 = payload.indexOf('|');
+        int p2 = payload.indexOf('|', p1 + 1);
+        int p3 = p2 < 0 ? -1 : payload.indexOf('|', p2 + 1);
+        if (p1 < 0 || p2 < 0 || p3 < 0) {
+            return null;
+        }
+        int end = payload.indexOf('^', p3 + 1);
+        return payload.substring(p1 + 1, p2) + "|" + payload.substring(p3 + 1, end < 0 ? payload.length() : end);
+    }
+
+    @Override
+    protected String syntheticFrame(Stream stream) {
+        return switch (stream.type) {
+            case "H0STASP0", "H0UNASP0" -> domesticOrderBook(stream);
+            case "H0STCNT0", "H0UNCNT0" -> domesticTrade(stream);
+            case "HDFSCNT0" -> foreignTrade(stream);
+            case "HDFSASP0" -> foreignOrderBook(stream, 10);
+            default -> foreignOrderBook(stream, 1);
+        };
+    }
+
+    /**
+     * 국내 호가 (59개 필드: 0 종목코드, 1 시각, 3~12 매도호가, 13~22 매수호가, 23~42 잔량, 43~44 총잔량)
+     */
+    private String domesticOrderBook(Stream stream) {
+        SyntheticMarket.Instrument instrument = domestic.next(stream.symbol);
+        StringBuilder out = frameStart(stream.type, 512);
+        out.append(stream.symbol).append('^').append(instrument.time.format(TIME)).append("^0");
+
+        long[] askVolumes = new long[DOMESTIC_DEPTH];
+        long[] bidVolumes = new long[DOMESTIC_DEPTH];
+        long totalAsk = 0;
+        long totalBid = 0;
+        for (int i = 0; i < DOMESTIC_DEPTH; i++) {
+            askVolumes[i] = instrument.depthVolume();
+            bidVolumes[i] = instrument.depthVolume();
+            totalAsk += askVolumes[i];
+            totalBid += bidVolumes[i];
+        }
+        for (int i = 0; i < DOMESTIC_DEPTH; i++) {
+            out.append('^').append(instrument.price + i * instrument.tick);
+        }
+        for (int i = 0; i < DOMESTIC_DEPTH; i++) {
+            out.append('^').append(instrument.price - (i + 1) * instrument.tick);
+        }
+        for (long volume : askVolumes) {
+            out.append('^').append(volume);
+        }
+        for (long volume : bidVolumes) {
+            out.append('^').append(volume);
+        }
+        out.append('^').append(totalAsk).append('^').append(totalBid);
+        return padFields(out, 3 + DOMESTIC_DEPTH * 4 + 2, ORDER_BOOK_FIELDS);
+    }
+
+    /**
+     * 국내 체결 (46개 필드: 0 종목코드, 1 시각, 2 현재가, 3 부호, 4 대비, 5 등락률, 7~9 시고저, 10~11 1호가,
+     * 12 체결량, 13 누적거래량, 14 누적거래대금, 18 체결강도, 38~39 총잔량)
+     */
+    private String domesticTrade(Stream stream) {
+        SyntheticMarket.Instrument instrument = domestic.next(stream.symbol);
+        StringBuilder out = frameStart(stream.type, 384);
+        out.append(stream.symbol)
+                .append('^').append(instrument.time.format(TIME))
+                .append('^').append(instrument.price)
+                .append('^').append(instrument.sign())
+                .append('^').append(instrument.change())
+                .append('^');
+        SyntheticMarket.appendScaled(out, instrument.changeRateBasisPoints(), 2);
+        out.append('^').append(instrument.price)
+                .append('^').append(instrument.open)
+                .append('^').append(instrument.high)
+                .append('^').append(instrument.low)
+                .append('^').append(instrument.price + instrument.tick)
+                .append('^').append(instrument.price)
+                .append('^').append(instrument.lastVolume)
+                .append('^').append(instrument.accumulatedVolume)
+                .append('^').append(instrument.accumulatedAmount)
+                .append("^0^0^0^100.00");
+        padFields(out, 19, 38);
+        out.append('^').append(instrument.depthVolume()).append('^').append(instrument.depthVolume());
+        return padFields(out, 40, TRADE_FIELDS);
+    }
+
+    /**
+     * 해외 체결 (26개 필드: 0 실시간종목코드, 1 종목코드, 7 한국시각, 8~10 시고저, 11 현재가, 12 부호, 13 대비, 14 등락률,
+     * 15~16 1호가, 17~18 1호가 잔량, 19 체결량, 20 거래량, 21 거래대금)
+     */
+    private String foreignTrade(Stream stream) {
+        String symbol = foreignSymbol(stream.symbol);
+        SyntheticMarket.Instrument instrument = foreign.next(symbol);
+        int scale = foreign.scale();
+        String date = instrument.time.format(DATE);
+        String time = instrument.time.format(TIME);
+
+        StringBuilder out = frameStart(stream.type, 320);
+        out.append(stream.symbol).append('^').append(symbol).append("^4")
+                .append('^').append(date).append('^').append(date).append('^').append(time)
+                .append('^').append(date).append('^').append(time).append('^');
+        SyntheticMarket.appendScaled(out, instrument.open, scale);
+        out.append('^');
+        SyntheticMarket.appendScaled(out, instrument.high, scale);
+        out.append('^');
+        SyntheticMarket.appendScaled(out, instrument.low, scale);
+        out.append('^');
+        SyntheticMarket.appendScaled(out, instrument.price, scale);
+        out.append('^').append(instrument.sign()).append('^');
+        SyntheticMarket.appendScaled(out, Math.abs(instrument.change()), scale);
+        out.append('^');
+        SyntheticMarket.appendScaled(out, instrument.changeRateBasisPoints(), 2);
+        out.append('^');
+        SyntheticMarket.appendScaled(out, instrument.price - instrument.tick, scale);
+        out.append('^');
+        SyntheticMarket.appendScaled(out, instrument.price, scale);
+        out.append('^').append(instrument.depthVolume())
+                .append('^').append(instrument.depthVolume())
+                .append('^').append(instrument.lastVolume)
+                .append('^').append(instrument.accumulatedVolume)
+                .append('^');
+        SyntheticMarket.appendScaled(out, instrument.accumulatedAmount, scale);
+        out.append("^0^0^100.00^1");
+        return out.toString();
+    }
+
+    /**
+     * 해외 호가 (0 실시간종목코드, 1 종목코드, 6 한국시각, 7~10 총잔량/대비, 11부터 단계별 매수/매도호가, 잔량, 대비)
+     */
+    private String foreignOrderBook(Stream stream, int depth) {
+        String symbol = foreignSymbol(stream.symbol);
+        SyntheticMarket.Instrument instrument = foreign.next(symbol);
+        int scale = foreign.scale();
+        String date = instrument.time.format(DATE);
+        String time = instrument.time.format(TIME);
+
+        StringBuilder out = frameStart(stream.type, 128 + depth * 64);
+        out.append(stream.symbol).append('^').append(symbol).append("^4")
+                .append('^').append(date).append('^').append(time)
+                .append('^').append(date).append('^').append(time);
+        long totalBid = 0;
+        long totalAsk = 0;
+        long[] bidVolumes = new long[depth];
+        long[] askVolumes = new long[depth];
+        for (int i = 0; i < depth; i++) {
+            bidVolumes[i] = instrument.depthVolume();
+            askVolumes[i] = instrument.depthVolume();
+            totalBid += bidVolumes[i];
+            totalAsk += askVolumes[i];
+        }
+        out.append('^').append(totalBid).append('^').append(totalAsk).append("^0^0");
+        for (int i = 0; i < depth; i++) {
+            out.append('^');
+            SyntheticMarket.appendScaled(out, instrument.price - (i + 1) * instrument.tick, scale);
+            out.append('^');
+            SyntheticMarket.appendScaled(out, instrument.price + i * instrument.tick, scale);
+            out.append('^').append(bidVolumes[i]).append('^').append(askVolumes[i]).append("^0^0");
+        }
+        return out.toString();
+    }
+
+    /**
+     * 실시간종목코드(D + 시장코드 3자리 + 종목코드)에서 종목코드 추출
+     */
+    private static String foreignSymbol(String trKey) {
+        return trKey.length() > 4 ? trKey.substring(4) : trKey;
+    }
+
+    private static StringBuilder frameStart(String trId, int capacity) {
+        return new StringBuilder(capacity).append("0|").append(trId).append("|001|");
+    }
+
+    /**
+     * 값이 없는 필드를 "0"으로 채움
+     * @param written 지금까지 쓴 필드 수
+     * @param total 채운 뒤 필드 수
+     */
+    private static String padFields(StringBuilder out, int written, int total) {
+        for (int i = written; i < total; i++) {
+            out.append("^0");
+        }
+        return out.toString();
+    }
+}
@@ -0,0 +1,133 @@
+package com.hanati.common.simulator;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.node.ObjectNode;
+import com.hanati.common.config.SimulatorConfig;
+import com.hanati.common.journal.MarketDataSource;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.stereotype.Component;
+
+import java.time.format.DateTimeFormatter;
+
+/**
+ * 키움 금현물 실시간 WebSocket 시뮬레이터 (/sim/kiwoom)
+ *
+ * - GoldKiwoomWebSocketClient와 같은 2단계 프로토콜: LOGIN(토큰) 성공 후 REG(상품코드, 타입)
+ * - LOGIN 전 REG는 오류 응답, REMOVE는 등록 해제
+ * - 타입 "00" 체결: 00|상품코드|가격|수량|대비|등락률|거래량|시각
+ * - 타입 "01" 호가: 01|상품코드|매수호가1|매수잔량1|...|매수호가10|매수잔량10|매도호가1|매도잔량1|...|매도잔량10|시각
+ */
+@Slf4j
+@Component
+@ConditionalOnProperty(prefix = "simulator", name = "enabled", havingValue = "true")
+public class KiwoomExchangeSimulator extends ExchangeSimulator {
+
+    private static final DateTimeFormatter TIMESTAMP = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final int DEPTH = 10;
+
+    // 금 1g 140,000~160,000원
+    private final SyntheticMarket gold = new SyntheticMarket(140000, 20000, 0);
+
+    public KiwoomExchangeSimulator(SimulatorConfig config) {
+        super(config);
+    }
+
+    @Override
+    protected String name() {
+        return "키움";
+    }
+
+    @Override
+    protected MarketDataSource source() {
+        return MarketDataSource.KIWOOM_GOLD;
+    }
+
+    @Override
+    protected void onRequest(SimulatedSession session, JsonNode request) {
+        String trnm = request.path("trnm").asText();
+        switch (trnm) {
+            case "LOGIN" -> {
+                boolean success = !request.path("token").asText().isEmpty();
+                if (success) {
+                    session.authenticated = true;
+                }
+                reply(session, trnm, success ? 0 : 1, success ? "정상적으로 처리되었습니다" : "토큰이 없습니다");
+            }
+            case "REG", "REMOVE" -> {
+                if (!session.authenticated) {
+                    reply(session, trnm, 1, "LOGIN 후 요청하세요");
+                    return;
+                }
+                for (JsonNode data : request.path("data")) {
+                    for (JsonNode item : data.path("item")) {
+                        for (JsonNode type : data.path("type")) {
+                            String key = type.asText() + "|" + item.asText();
+                            if ("REMOVE".equals(trnm)) {
+                                session.streams.remove(key);
+                            } else if (session.streams.size() < config.getMaxRegistrations()) {
+                                session.streams.putIfAbsent(key, new Stream(type.asText(), item.asText()));
+                            }
+                        }
+                    }
+                }
+                reply(session, trnm, 0, "");
+            }
+            default -> log.debug("[키움 시뮬레이터] 처리하지 않는 요청: {}", request);
+        }
+    }
+
+    private void reply(SimulatedSession session, String trnm, int returnCode, String message) {
+        ObjectNode response = objectMapper.createObjectNode();
+        response.put("trnm", trnm);
+        response.put("return_code", returnCode);
+        response.put("return_msg", message);
+        if ("LOGIN".equals(trnm)) {
+            response.put("result", returnCode == 0 ? "success" : "fail");
+        }
+        send(session, response.toString());
+    }
+
+    @Override
+    protected String streamKey(String payload) {
+        // 타입|상품코드|... → 타입|상품코드
+        int p1 = payload.indexOf('|');
+        int p2 = p1 < 0 ? -1 : payload.indexOf('|', p1 + 1);
+        if (payload.isEmpty() || payload.charAt(0) == '{' || p2 < 0) {
+            return null;
+        }
+        return payload.substring(0, p2);
+    }
+
+    @Override
+    protected String syntheticFrame(Stream stream) {
+        SyntheticMarket.Instrument instrument = gold.next(stream.symbol);
+        String timestamp = instrument.time.format(TIMESTAMP);
+
+        if ("00".equals(stream.type)) {
+            StringBuilder out = new StringBuilder(128);
+            out.append("00|").append(stream.symbol)
+                    .append('|').append(instrument.price)
+                    .append('|').append(instrument.lastVolume)
+                    .append('|').append(instrument.change())
+                    .append('|');
+            SyntheticMarket.appendScaled(out, instrument.changeRateBasisPoints(), 2);
+            out.append('|').append(instrument.accumulatedVolume)
+                    .append('|').append(timestamp);
+            return out.toString();
+        }
+
+        StringBuilder out = new StringBuilder(512);
+        out.append("01|").append(stream.symbol);
+        for (int i = 0; i < DEPTH; i++) {
+            out.append('|').append(instrument.price - (i + 1) * instrument.tick)
+                    .append('|').append(instrument.depthVolume());
+        }
+        for (int i = 0; i < DEPTH; i++) {
+            out.append('|').append(instrument.price + i * instrument.tick)
+                    .append('|').append(instrument.depthVolume());
+        }
+        out.append('|').append(timestamp);
+        return out.toString();
+    }
+}
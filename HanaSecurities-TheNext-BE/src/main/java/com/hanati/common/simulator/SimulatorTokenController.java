@@ -0,0 +1,52 @@
+package com.hanati.common.simulator;
+
+import com.hanati.common.dto.KiwoomTokenResponse;
+import com.hanati.common.dto.RestApiTokenResponse;
+import com.hanati.common.dto.WebSocketTokenResponse;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDateTime;
+import java.time.format.DateTimeFormatter;
+import java.util.UUID;
+
+/**
+ * 시뮬레이터용 승인키/토큰 발급 (KIS /oauth2/Approval, /oauth2/tokenP, 키움 /oauth2/token 응답 형식)
+ * - 요청 본문은 검사하지 않고 항상 발급 (유효기간 24시간)
+ */
+@RestController
+@RequestMapping("/sim")
+@ConditionalOnProperty(prefix = "simulator", name = "enabled", havingValue = "true")
+public class SimulatorTokenController {
+
+    private static final DateTimeFormatter KIS_EXPIRED = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final DateTimeFormatter KIWOOM_EXPIRED = DateTimeFormatter.ofPattern("yyyyMMddHHmmss");
+
+    @PostMapping("/oauth2/Approval")
+    public WebSocketTokenResponse approval() {
+        return WebSocketTokenResponse.builder()
+                .approvalKey(UUID.randomUUID().toString())
+                .build();
+    }
+
+    @PostMapping("/oauth2/tokenP")
+    public RestApiTokenResponse token() {
+        return RestApiTokenResponse.builder()
+                .accessToken("simulator-" + UUID.randomUUID())
+                .tokenType("Bearer")
+                .expiresIn(86400L)
+                .accessTokenTokenExpired(LocalDateTime.now().plusDays(1).format(KIS_EXPIRED))
+                .build();
+    }
+
+    @PostMapping("/oauth2/token")
+    public KiwoomTokenResponse kiwoomToken() {
+        return KiwoomTokenResponse.builder()
+                .token("simulator-" + UUID.randomUUID())
+                .tokenType("Bearer")
+                .expiresDt(LocalDateTime.now().plusDays(1).format(KIWOOM_EXPIRED))
+                .build();
+    }
+}
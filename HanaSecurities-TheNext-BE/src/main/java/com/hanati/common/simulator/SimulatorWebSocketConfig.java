@@ -0,0 +1,35 @@
+package com.hanati.common.simulator;
+
+import lombok.RequiredArgsConstructor;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.web.socket.config.annotation.WebSocketConfigurer;
+import org.springframework.web.socket.config.annotation.WebSocketHandlerRegistry;
+
+/**
+ * 로컬 거래소 시뮬레이터 엔드포인트 (simulator.enabled=true일 때만 등록)
+ *
+ * 백엔드를 시뮬레이터에 연결하려면:
+ * - realtime.upstream.kis-ws-url = ws://{host}:{port}/sim/kis
+ * - realtime.upstream.kiwoom-ws-url = ws://{host}:{port}/sim/kiwoom
+ * - api.token.base-url / kiwoom-base-url = http://{host}:{port}/sim (승인키/토큰 발급, SimulatorTokenController)
+ */
+@Configuration
+@RequiredArgsConstructor
+@ConditionalOnProperty(prefix = "simulator", name = "enabled", havingValue = "true")
+public class SimulatorWebSocketConfig implements WebSocketConfigurer {
+
+    private final KisExchangeSimulator kisExchangeSimulator;
+    private final KiwoomExchangeSimulator kiwoomExchangeSimulator;
+
+    @Override
+    public void registerWebSocketHandlers(WebSocketHandlerRegistry registry) {
+        // KIS 실시간 시뮬레이터
+        registry.addHandler(kisExchangeSimulator, "/sim/kis")
+                .setAllowedOriginPatterns("*");
+
+        // 키움 금현물 실시간 시뮬레이터
+        registry.addHandler(kiwoomExchangeSimulator, "/sim/kiwoom")
+                .setAllowedOriginPatterns("*");
+    }
+}
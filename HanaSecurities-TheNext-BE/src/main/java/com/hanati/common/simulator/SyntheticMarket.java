@@ -0,0 +1,166 @@
+package com.hanati.common.simulator;
+
+import java.time.LocalDateTime;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * 합성 시세 상태 (종목별 임의 보행 가격)
+ *
+ * - 가격은 정수 단위로 보관 (국내/금현물은 원, 해외는 scale 자리 소수를 곱한 값)
+ * - 종목코드 해시로 기준가를 정해 같은 종목은 재기동해도 비슷한 가격대에서 시작
+ * - 송출 스레드 전용 (동기화 없음)
+ */
+final class SyntheticMarket {
+
+    private final Map<String, Instrument> instruments = new HashMap<>();
+    private final long minBase;
+    private final long baseRange;
+    private final int scale;
+
+    /**
+     * @param minBase 최저 기준가 (정수 단위)
+     * @param baseRange 기준가 범위 (정수 단위)
+     * @param scale 가격 소수 자리수 (국내 0, 해외 4)
+     */
+    SyntheticMarket(long minBase, long baseRange, int scale) {
+        this.minBase = minBase;
+        this.baseRange = baseRange;
+        this.scale = scale;
+    }
+
+    /**
+     * 종목의 다음 체결 (가격 이동 + 거래량 누적)
+     */
+    Instrument next(String symbol) {
+        Instrument instrument = instruments.computeIfAbsent(symbol, this::create);
+        instrument.step();
+        return instrument;
+    }
+
+    int scale() {
+        return scale;
+    }
+
+    private Instrument create(String symbol) {
+        long tick = scale > 0 ? pow10(scale) / 100 : 0;
+        long base = minBase + Math.floorMod(symbol.hashCode(), baseRange);
+        if (tick == 0) {
+            tick = domesticTick(base);
+        }
+        base = base - base % tick;
+        return new Instrument(base, tick);
+    }
+
+    /**
+     * 국내 호가가격단위 (2023년 기준 유가/코스닥 공통)
+     */
+    private static long domesticTick(long price) {
+        if (price < 2000) {
+            return 1;
+        } else if (price < 5000) {
+            return 5;
+        } else if (price < 20000) {
+            return 10;
+        } else if (price < 50000) {
+            return 50;
+        } else if (price < 200000) {
+            return 100;
+        } else if (price < 500000) {
+            return 500;
+        }
+        return 1000;
+    }
+
+    private static long pow10(int exponent) {
+        long value = 1;
+        for (int i = 0; i < exponent; i++) {
+            value *= 10;
+        }
+        return value;
+    }
+
+    /**
+     * 정수 단위 값을 소수 문자열로 추가 (scale 0이면 정수 그대로)
+     */
+    static void appendScaled(StringBuilder out, long value, int scale) {
+        if (scale == 0) {
+            out.append(value);
+            return;
+        }
+        if (value < 0) {
+            out.append('-');
+            value = -value;
+        }
+        long unit = pow10(scale);
+        out.append(value / unit).append('.');
+        String fraction = Long.toString(value % unit);
+        for (int i = fraction.length(); i < scale; i++) {
+            out.append('0');
+        }
+        out.append(fraction);
+    }
+
+    /**
+     * 종목 상태
+     */
+    static final class Instrument {
+        final long basePrice;
+        final long tick;
+        long price;
+        long open;
+        long high;
+        long low;
+        long lastVolume;
+        long accumulatedVolume;
+        long accumulatedAmount;
+        LocalDateTime time;
+
+        Instrument(long basePrice, long tick) {
+            this.basePrice = basePrice;
+            this.tick = tick;
+            this.price = basePrice;
+            this.open = basePrice;
+            this.high = basePrice;
+            this.low = basePrice;
+        }
+
+        private void step() {
+            ThreadLocalRandom random = ThreadLocalRandom.current();
+            // 기준가 ±10% 안에서 한 호가씩 이동
+            long moved = price + (random.nextInt(3) - 1) * tick;
+            if (moved > tick && Math.abs(moved - basePrice) * 10 <= basePrice) {
+                price = moved;
+            }
+            high = Math.max(high, price);
+            low = Math.min(low, price);
+            lastVolume = 1 + random.nextInt(500);
+            accumulatedVolume += lastVolume;
+            accumulatedAmount += lastVolume * price;
+            time = LocalDateTime.now();
+        }
+
+        long change() {
+            return price - basePrice;
+        }
+
+        /**
+         * 등락률 × 100 (소수 2자리 정수)
+         */
+        long changeRateBasisPoints() {
+            return change() * 10000 / basePrice;
+        }
+
+        String sign() {
+            return price > basePrice ? "2" : price < basePrice ? "5" : "3";
+        }
+
+        /**
+         * 호가 잔량 (단계별 임의값)
+         */
+        long depthVolume() {
+            return 100 + ThreadLocalRandom.current().nextInt(10000);
+        }
+    }
+}
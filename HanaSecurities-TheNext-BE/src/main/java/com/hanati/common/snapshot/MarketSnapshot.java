@@ -0,0 +1,143 @@
+package com.hanati.common.snapshot;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * 국내주식 종목별 최신 호가 슬롯 (seqlock)
+ *
+ * - 수신 스레드가 primitive 슬롯을 제자리 갱신 → 틱마다 DTO/배열을 새로 만들지 않음
+ * - 기록: version을 홀수로 올린 뒤(CAS, 기록자 간 배타) 슬롯 갱신 후 짝수로 올림
+ * - 읽기: 락 없이 version → 슬롯 복사 → version 재확인, 기록 중이거나 값이 바뀌었으면 다시 읽음
+ *
+ * 시각은 System.nanoTime 기준 (경과 시간/TTL 판단용)
+ * - 호가 시각은 업스트림 수신 시각 → 읽는 쪽에서 수신 기준 틱 지연 측정
+ */
+public final class MarketSnapshot {
+
+    public static final int MAX_DEPTH = 10;
+
+    private static final VarHandle VERSION;
+
+    static {
+        try {
+            VERSION = MethodHandles.lookup().findVarHandle(MarketSnapshot.class, "version", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final String symbol;
+
+    // 짝수: 안정, 홀수: 기록 중
+    private volatile long version;
+    // 마지막 기록 시각 (만료 판단용, 읽기 일관성 불필요)
+    private volatile long updatedNanos;
+
+    // 호가 슬롯
+    private final long[] askPrices = new long[MAX_DEPTH];
+    private final long[] askVolumes = new long[MAX_DEPTH];
+    private final long[] bidPrices = new long[MAX_DEPTH];
+    private final long[] bidVolumes = new long[MAX_DEPTH];
+    private int depth;
+    private long totalAskVolume;
+    private long totalBidVolume;
+    private String bookTimestamp;
+    private long bookNanos;
+    // 호가 기록 여부 (슬롯은 첫 기록 직전에 만들어지므로 읽는 쪽이 빈 슬롯을 구분)
+    private boolean hasBook;
+
+    MarketSnapshot(String symbol) {
+        this.symbol = symbol;
+    }
+
+    /**
+     * 호가 기록 (수신 시각 = 현재)
+     * @param timestamp 수신 시각 문자열 (RealtimeTimestamp처럼 초 단위로 재사용되는 문자열)
+     */
+    public void writeBook(OrderBookSource book, String timestamp) {
+        writeBook(book, timestamp, System.nanoTime());
+    }
+
+    /**
+     * 호가 기록
+     * @param timestamp 수신 시각 문자열 (RealtimeTimestamp처럼 초 단위로 재사용되는 문자열)
+     * @param receivedNanos 업스트림 수신 시각 (System.nanoTime)
+     */
+    public void writeBook(OrderBookSource book, String timestamp, long receivedNanos) {
+        int levels = Math.min(book.depth(), MAX_DEPTH);
+        long stable = beginWrite();
+        try {
+            for (int i = 0; i < levels; i++) {
+                askPrices[i] = book.askPrice(i);
+                askVolumes[i] = book.askVolume(i);
+                bidPrices[i] = book.bidPrice(i);
+                bidVolumes[i] = book.bidVolume(i);
+            }
+            depth = levels;
+            totalAskVolume = book.getTotalAskVolume();
+            totalBidVolume = book.getTotalBidVolume();
+            bookTimestamp = timestamp;
+            bookNanos = receivedNanos;
+            hasBook = true;
+        } finally {
+            endWrite(stable);
+        }
+    }
+
+    /**
+     * 호가 읽기 (락 없음, 일관된 스냅샷이 될 때까지 재시도)
+     * @return 읽은 시점의 version
+     */
+    public long readBook(OrderBookView view) {
+        while (true) {
+            long before = (long) VERSION.getAcquire(this);
+            if ((before & 1) != 0) {
+                Thread.onSpinWait();
+                continue;
+            }
+            int levels = depth;
+            System.arraycopy(askPrices, 0, view.askPrices, 0, MAX_DEPTH);
+            System.arraycopy(askVolumes, 0, view.askVolumes, 0, MAX_DEPTH);
+            System.arraycopy(bidPrices, 0, view.bidPrices, 0, MAX_DEPTH);
+            System.arraycopy(bidVolumes, 0, view.bidVolumes, 0, MAX_DEPTH);
+            long totalAsk = totalAskVolume;
+            long totalBid = totalBidVolume;
+            String timestamp = bookTimestamp;
+            long nanos = bookNanos;
+            boolean written = hasBook;
+            VarHandle.loadLoadFence();
+            if ((long) VERSION.getOpaque(this) == before) {
+                view.set(symbol, levels, totalAsk, totalBid, timestamp, nanos, written);
+                return before;
+            }
+        }
+    }
+
+    /**
+     * 기록 시작 - 짝수 version을 홀수로 CAS (동시 기록자는 대기)
+     */
+    private long beginWrite() {
+        while (true) {
+            long current = (long) VERSION.getAcquire(this);
+            if ((current & 1) == 0 && VERSION.compareAndSet(this, current, current + 1)) {
+                VarHandle.storeStoreFence();
+                return current;
+            }
+            Thread.onSpinWait();
+        }
+    }
+
+    private void endWrite(long stable) {
+        updatedNanos = System.nanoTime();
+        VERSION.setRelease(this, stable + 2);
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    long updatedNanos() {
+        return updatedNanos;
+    }
+}
@@ -0,0 +1,79 @@
+package com.hanati.common.snapshot;
+
+import com.hanati.common.cache.CacheSweeper;
+import com.hanati.common.config.RealtimeConfig;
+import org.springframework.stereotype.Component;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 국내주식 실시간 호가 스냅샷 저장소 (종목코드 → MarketSnapshot)
+ *
+ * - 종목 슬롯은 첫 기록 시 한 번만 만들고 이후에는 제자리 갱신
+ * - TTL + 보관 기간(realtime.cache) 동안 기록이 없는 슬롯은 CacheSweeper가 제거
+ */
+@Component
+public class MarketSnapshotStore {
+
+    private final Map<String, MarketSnapshot> snapshots = new ConcurrentHashMap<>();
+    private final CacheSweeper sweeper;
+    private final long idleNanos;
+
+    public MarketSnapshotStore(CacheSweeper sweeper, RealtimeConfig realtimeConfig) {
+        this.sweeper = sweeper;
+        RealtimeConfig.Cache cache = realtimeConfig.getCache();
+        this.idleNanos = TimeUnit.MILLISECONDS.toNanos(cache.getTtlMs() + Math.max(0, cache.getStaleRetentionMs()));
+    }
+
+    /**
+     * 기록용 슬롯 조회 (없으면 생성)
+     */
+    public MarketSnapshot snapshot(String symbol) {
+        MarketSnapshot snapshot = snapshots.get(symbol);
+        if (snapshot != null) {
+            return snapshot;
+        }
+        MarketSnapshot created = new MarketSnapshot(symbol);
+        snapshot = snapshots.putIfAbsent(symbol, created);
+        if (snapshot != null) {
+            return snapshot;
+        }
+        sweeper.schedule(new IdleNode(created), System.nanoTime() + idleNanos);
+        return created;
+    }
+
+    /**
+     * 읽기용 슬롯 조회 (없으면 null)
+     */
+    public MarketSnapshot find(String symbol) {
+        return snapshots.get(symbol);
+    }
+
+    public int size() {
+        return snapshots.size();
+    }
+
+    /**
+     * 슬롯별 만료 노드 - 마지막 기록 후 TTL + 보관 기간이 지났으면 제거
+     */
+    private final class IdleNode extends CacheSweeper.Node {
+        private final MarketSnapshot snapshot;
+
+        IdleNode(MarketSnapshot snapshot) {
+            this.snapshot = snapshot;
+        }
+
+        @Override
+        protected long expire(long nowNanos) {
+            long updated = snapshot.updatedNanos();
+            long deadline = (updated == 0 ? nowNanos : updated) + idleNanos;
+            if (updated != 0 && deadline - nowNanos > 0) {
+                return deadline;
+            }
+            snapshots.remove(snapshot.getSymbol(), snapshot);
+            return DONE;
+        }
+    }
+}
@@ -0,0 +1,24 @@
+package com.hanati.common.snapshot;
+
+/**
+ * 스냅샷에 기록할 호가 (파서의 재사용 버퍼가 구현 - 기록 시 DTO/배열 할당 없음)
+ */
+public interface OrderBookSource {
+
+    /**
+     * 호가 단계 수 (MarketSnapshot.MAX_DEPTH 이하)
+     */
+    int depth();
+
+    long askPrice(int level);
+
+    long askVolume(int level);
+
+    long bidPrice(int level);
+
+    long bidVolume(int level);
+
+    long getTotalAskVolume();
+
+    long getTotalBidVolume();
+}
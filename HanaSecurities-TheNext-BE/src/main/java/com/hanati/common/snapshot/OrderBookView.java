@@ -0,0 +1,93 @@
+package com.hanati.common.snapshot;
+
+import java.util.concurrent.TimeUnit;
+
+/**
+ * 호가 읽기 버퍼 (MarketSnapshot.readBook으로 채움, 읽는 스레드마다 하나씩 재사용)
+ */
+public final class OrderBookView {
+
+    final long[] askPrices = new long[MarketSnapshot.MAX_DEPTH];
+    final long[] askVolumes = new long[MarketSnapshot.MAX_DEPTH];
+    final long[] bidPrices = new long[MarketSnapshot.MAX_DEPTH];
+    final long[] bidVolumes = new long[MarketSnapshot.MAX_DEPTH];
+
+    private String symbol;
+    private int depth;
+    private long totalAskVolume;
+    private long totalBidVolume;
+    private String timestamp;
+    private long writtenNanos;
+    private boolean hasData;
+
+    void set(String symbol, int depth, long totalAskVolume, long totalBidVolume,
+             String timestamp, long writtenNanos, boolean hasData) {
+        this.symbol = symbol;
+        this.depth = depth;
+        this.totalAskVolume = totalAskVolume;
+        this.totalBidVolume = totalBidVolume;
+        this.timestamp = timestamp;
+        this.writtenNanos = writtenNanos;
+        this.hasData = hasData;
+    }
+
+    /**
+     * 기록된 호가가 있는지 (false = 아직 호가 미수신)
+     */
+    public boolean hasData() {
+        return hasData;
+    }
+
+    /**
+     * 호가 기록 후 경과 시간 (ms)
+     */
+    public long getAgeMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - writtenNanos);
+    }
+
+    public String getSymbol() {
+        return symbol;
+    }
+
+    public int getDepth() {
+        return depth;
+    }
+
+    /**
+     * 매도호가 (MAX_DEPTH 길이, 버퍼를 그대로 반환하므로 보관하려면 복사)
+     */
+    public long[] getAskPrices() {
+        return askPrices;
+    }
+
+    public long[] getAskVolumes() {
+        return askVolumes;
+    }
+
+    public long[] getBidPrices() {
+        return bidPrices;
+    }
+
+    public long[] getBidVolumes() {
+        return bidVolumes;
+    }
+
+    public long getTotalAskVolume() {
+        return totalAskVolume;
+    }
+
+    public long getTotalBidVolume() {
+        return totalBidVolume;
+    }
+
+    public String getTimestamp() {
+        return timestamp;
+    }
+
+    /**
+     * 호가 시각 (System.nanoTime, 수신 시각과 함께 기록한 경우 업스트림 수신 시각)
+     */
+    public long getWrittenNanos() {
+        return writtenNanos;
+    }
+}
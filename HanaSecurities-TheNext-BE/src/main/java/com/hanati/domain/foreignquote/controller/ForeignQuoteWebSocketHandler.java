@@ -1,18 +1,32 @@
 package com.hanati.domain.foreignquote.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hanati.common.cache.CacheEntry;
+import com.hanati.common.metrics.ChannelMeters;
+import com.hanati.common.metrics.MarketDataMetrics;
+import com.hanati.common.realtime.CoalescingDispatcher;
+import com.hanati.common.realtime.MarketDataExecutor;
+import com.hanati.common.realtime.OutboundFrame;
+import com.hanati.common.realtime.OutboundSessionManager;
+import com.hanati.common.realtime.SnapshotFallbackLoader;
+import com.hanati.common.realtime.SubscriptionRegistry;
+import com.hanati.common.realtime.UpdateRate;
 import com.hanati.domain.foreignquote.dto.ForeignQuoteData;
 import com.hanati.domain.foreignquote.service.ForeignQuoteCacheService;
 import com.hanati.domain.foreignquote.service.ForeignKisWebSocketClient;
+import com.hanati.domain.foreignquote.service.ForeignQuoteListener;
+import com.hanati.domain.quote.service.KisSubscriptionStatus;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.handler.TextWebSocketHandler;
 
+import java.util.LinkedHashMap;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -23,6 +37,11 @@ import java.util.concurrent.ConcurrentHashMap;
  * - 체결가: HDFSCNT0
  * - 호가(미국): HDFSASP0
  * - 호가(아시아): HDFSASP1
+ * - 구독 직후 마지막 시세를 "snapshot":true, "ageMs", "stale"과 함께 전송 (수신 이력이 없으면 REST 현재가)
+ * - 갱신 빈도: 구독 시 "maxRate"("realtime", 5, "1hz", "onchange")로 구독별 지정,
+ *   {"action":"rate","maxRate":...}로 세션 기본값 변경 - 초과분은 구독별 최신 값으로 병합
+ * - 등록 상태: 구독 응답은 KIS 등록 결과를 기다리지 않고 즉시 전송, 이후 결과를
+ *   {"type":"status","exchangeCode":...,"stockCode":...,"dataType":...,"status":"subscribed|standby|failed|pending"}로 전송
  */
 @Component
 @RequiredArgsConstructor
@@ -31,18 +50,39 @@ public class ForeignQuoteWebSocketHandler extends TextWebSocketHandler {
 
     private final ForeignKisWebSocketClient kisClient;
     private final ForeignQuoteCacheService cacheService;
+    private final OutboundSessionManager outboundManager;
+    private final MarketDataExecutor marketDataExecutor;
+    private final MarketDataMetrics metrics;
+    private final SnapshotFallbackLoader snapshotLoader;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
-    // 세션별 구독 종목 관리 (key: sessionId, value: Set<exchangeCode:stockCode>)
-    private final Map<String, Set<String>> sessionSubscriptions = new ConcurrentHashMap<>();
+    // 종목 ↔ 세션 구독 인덱스 (첫 구독/마지막 해제 시에만 KIS 구독 변경)
+    private final SubscriptionRegistry<Subscription> subscriptions =
+            new SubscriptionRegistry<>(this::subscribeUpstream, this::unsubscribeUpstream);
     // 세션 관리
     private final Map<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
 
+    // 시세 수신 → 구독 세션 푸시 (종목별 병합, 시세 전용 실행기에서 실행)
+    private CoalescingDispatcher<Subscription> dispatcher;
+    private ChannelMeters meters;
+    private final ForeignQuoteListener quoteListener = this::onQuote;
+
+    @PostConstruct
+    public void init() {
+        meters = metrics.channel("foreign_quote");
+        dispatcher = new CoalescingDispatcher<>(marketDataExecutor, this::pushQuote, meters);
+        metrics.bindSessions("foreign_quote", sessions, Map::size);
+        metrics.bindSubscriptions("foreign_quote", subscriptions, registry -> registry.activeKeys().size());
+        kisClient.addQuoteListener(quoteListener);
+        kisClient.addStatusListener(this::onStatus);
+        log.info("[해외주식 WebSocket] 푸시 핸들러 초기화 완료");
+    }
+
     @Override
     public void afterConnectionEstablished(WebSocketSession session) {
         log.info("[해외주식 WebSocket] 연결 성공: {}", session.getId());
         sessions.put(session.getId(), session);
-        sessionSubscriptions.put(session.getId(), ConcurrentHashMap.newKeySet());
+        outboundManager.register(session, "foreign_quote");
     }
 
     @Override
@@ -52,16 +92,24 @@ public class ForeignQuoteWebSocketHandler extends TextWebSocketHandler {
 
         try {
             @SuppressWarnings("unchecked")
-            Map<String, String> request = objectMapper.readValue(payload, Map.class);
-            String action = request.get("action");
-            String exchangeCode = request.get("exchangeCode");
-            String stockCode = request.get("stockCode");
-            String dataType = request.getOrDefault("dataType", "trade");  // trade 또는 quote
+            Map<String, Object> request = objectMapper.readValue(payload, Map.class);
+            Object action = request.get("action");
+            String exchangeCode = (String) request.get("exchangeCode");
+            String stockCode = (String) request.get("stockCode");
+            String dataType = (String) request.getOrDefault("dataType", "trade");  // trade 또는 quote
+            Object maxRate = request.get("maxRate");
+            UpdateRate rate = maxRate != null ? UpdateRate.parse(maxRate) : null;
+            if (maxRate != null && rate == null) {
+                sendError(session, "Invalid maxRate: " + maxRate);
+                return;
+            }
 
             if ("subscribe".equals(action)) {
-                handleSubscribe(session, exchangeCode, stockCode, dataType);
+                handleSubscribe(session, exchangeCode, stockCode, dataType, rate);
             } else if ("unsubscribe".equals(action)) {
                 handleUnsubscribe(session, exchangeCode, stockCode, dataType);
+            } else if ("rate".equals(action)) {
+                handleRate(session, exchangeCode, stockCode, dataType, rate != null ? rate : UpdateRate.REALTIME, maxRate);
             } else {
                 sendError(session, "Unknown action: " + action);
             }
@@ -75,25 +123,22 @@ public class ForeignQuoteWebSocketHandler extends TextWebSocketHandler {
     /**
      * 구독 처리
      * @param dataType "trade" 또는 "quote"
+     * @param rate 구독별 갱신 빈도 (null이면 세션 기본값)
      */
-    private void handleSubscribe(WebSocketSession session, String exchangeCode, String stockCode, String dataType) throws Exception {
-        String key = exchangeCode + ":" + stockCode + ":" + dataType;
+    private void handleSubscribe(WebSocketSession session, String exchangeCode, String stockCode, String dataType,
+                                 UpdateRate rate) throws Exception {
         log.info("[해외주식 구독] 세션: {}, 거래소: {}, 종목: {}, 타입: {}",
                 session.getId(), exchangeCode, stockCode, dataType);
 
-        if ("trade".equals(dataType)) {
-            // 체결가 구독 (HDFSCNT0)
-            kisClient.subscribeTrade(exchangeCode, stockCode);
-        } else if ("quote".equals(dataType)) {
-            // 호가 구독 (HDFSASP0 또는 HDFSASP1 - 자동 판별)
-            kisClient.subscribeQuote(exchangeCode, stockCode);
-        } else {
+        if (!"trade".equals(dataType) && !"quote".equals(dataType)) {
             sendError(session, "Invalid dataType: " + dataType);
             return;
         }
 
-        // 세션별 구독 종목 추가
-        sessionSubscriptions.get(session.getId()).add(key);
+        // 세션 구독 추가 (첫 구독자이면 KIS 구독)
+        Subscription subscription = new Subscription(exchangeCode, stockCode, dataType);
+        subscriptions.subscribe(session.getId(), subscription);
+        outboundManager.setRate(session, subscription, rate);
 
         // 확인 메시지 전송
         Map<String, String> response = Map.of(
@@ -104,29 +149,58 @@ public class ForeignQuoteWebSocketHandler extends TextWebSocketHandler {
                 "dataType", dataType,
                 "message", "해외주식 " + (dataType.equals("trade") ? "체결가" : "호가") + " 구독 완료"
         );
-        session.sendMessage(new TextMessage(objectMapper.writeValueAsString(response)));
+        outboundManager.send(session, new TextMessage(objectMapper.writeValueAsString(response)));
+
+        // KIS 등록 결과는 기다리지 않음 - 이미 결과가 난 구독은 현재 상태, 아니면 이후 상태 이벤트로 전달
+        marketDataExecutor.execute(subscription, () -> sendStatus(session, subscription));
+        // 다음 시세를 기다리지 않고 마지막 시세부터 전송 (같은 종목의 실시간 푸시와 같은 샤드)
+        marketDataExecutor.execute(subscription, () -> sendSnapshot(session, subscription, true));
+    }
+
+    /**
+     * 마지막 시세 스냅샷 전송 (시세 실행기 샤드 스레드)
+     * - 세션 버퍼에 구독 키로 적재 → 직후 실시간 시세가 오면 최신 값으로 교체
+     * @param fallback 시세 기록이 없을 때 REST 대체 조회 여부 (조회 완료 후 재시도는 false)
+     */
+    private void sendSnapshot(WebSocketSession session, Subscription subscription, boolean fallback) {
+        if (!session.isOpen() || !subscriptions.keysOf(session.getId()).contains(subscription)) {
+            return;
+        }
+
+        // TTL 경과 여부와 무관하게 보관 중인 마지막 시세
+        CacheEntry<ForeignQuoteData> entry = cacheService.getQuoteEntry(subscription.exchangeCode(), subscription.stockCode());
+        if (entry != null) {
+            try {
+                OutboundFrame frame = OutboundFrame.encodeSnapshot(objectMapper, subscription.dataType(),
+                        entry.getValue(), entry.getAgeMillis(), entry.isStale());
+                outboundManager.publish(session, subscription, frame.message());
+            } catch (Exception e) {
+                log.error("[해외주식 WebSocket] 스냅샷 전송 실패: {}:{}",
+                        subscription.exchangeCode(), subscription.stockCode(), e);
+            }
+            return;
+        }
+
+        if (fallback) {
+            // 체결가/호가 구독 모두 같은 현재가 캐시를 읽으므로 조회 키는 거래소:종목
+            snapshotLoader.load("foreign:" + subscription.exchangeCode() + ":" + subscription.stockCode(),
+                            () -> kisClient.loadPriceSnapshot(subscription.exchangeCode(), subscription.stockCode()))
+                    .thenRun(() -> marketDataExecutor.execute(subscription,
+                            () -> sendSnapshot(session, subscription, false)));
+        }
     }
 
     /**
      * 구독 해제 처리
      */
     private void handleUnsubscribe(WebSocketSession session, String exchangeCode, String stockCode, String dataType) throws Exception {
-        String key = exchangeCode + ":" + stockCode + ":" + dataType;
         log.info("[해외주식 구독 해제] 세션: {}, 거래소: {}, 종목: {}, 타입: {}",
                 session.getId(), exchangeCode, stockCode, dataType);
 
-        // 세션별 구독 종목 제거
-        Set<String> subscriptions = sessionSubscriptions.get(session.getId());
-        if (subscriptions != null) {
-            subscriptions.remove(key);
-
-            // 해당 종목을 구독하는 세션이 없으면 KIS 구독 해제
-            if (sessionSubscriptions.values().stream().noneMatch(set -> set.contains(key))) {
-                String trId = "trade".equals(dataType) ? "HDFSCNT0" :
-                             (isUsMarket(exchangeCode) ? "HDFSASP0" : "HDFSASP1");
-                kisClient.unsubscribe(exchangeCode, stockCode, trId);
-            }
-        }
+        // 세션 구독 제거 (마지막 구독자이면 KIS 구독 해제)
+        Subscription subscription = new Subscription(exchangeCode, stockCode, dataType);
+        subscriptions.unsubscribe(session.getId(), subscription);
+        outboundManager.setRate(session, subscription, null);
 
         // 확인 메시지 전송
         Map<String, String> response = Map.of(
@@ -137,7 +211,117 @@ public class ForeignQuoteWebSocketHandler extends TextWebSocketHandler {
                 "dataType", dataType,
                 "message", "구독 해제 완료"
         );
-        session.sendMessage(new TextMessage(objectMapper.writeValueAsString(response)));
+        outboundManager.send(session, new TextMessage(objectMapper.writeValueAsString(response)));
+    }
+
+    /**
+     * 갱신 빈도 변경 - 종목코드가 있으면 해당 구독만, 없으면 세션 기본값
+     */
+    private void handleRate(WebSocketSession session, String exchangeCode, String stockCode, String dataType,
+                            UpdateRate rate, Object maxRate) throws Exception {
+        log.info("[해외주식 갱신 빈도] 세션: {}, 거래소: {}, 종목: {}, 빈도: {}",
+                session.getId(), exchangeCode, stockCode, maxRate);
+
+        if (stockCode != null) {
+            outboundManager.setRate(session, new Subscription(exchangeCode, stockCode, dataType), rate);
+        } else {
+            outboundManager.setRate(session, rate);
+        }
+
+        Map<String, Object> response = Map.of(
+                "type", "rate",
+                "status", "success",
+                "maxRate", maxRate != null ? maxRate : "realtime"
+        );
+        outboundManager.send(session, new TextMessage(objectMapper.writeValueAsString(response)));
+    }
+
+    /**
+     * 종목의 첫 구독자 발생 시 KIS 구독
+     */
+    private void subscribeUpstream(Subscription subscription) {
+        if ("trade".equals(subscription.dataType())) {
+            // 체결가 구독 (HDFSCNT0)
+            kisClient.subscribeTrade(subscription.exchangeCode(), subscription.stockCode(),
+                    () -> subscriptions.subscriberCount(subscription));
+        } else {
+            // 호가 구독 (HDFSASP0 또는 HDFSASP1 - 자동 판별)
+            kisClient.subscribeQuote(subscription.exchangeCode(), subscription.stockCode(),
+                    () -> subscriptions.subscriberCount(subscription));
+        }
+    }
+
+    /**
+     * 종목의 마지막 구독자 해제 시 KIS 구독 해제
+     */
+    private void unsubscribeUpstream(Subscription subscription) {
+        String trId = "trade".equals(subscription.dataType()) ? "HDFSCNT0" :
+                     (isUsMarket(subscription.exchangeCode()) ? "HDFSASP0" : "HDFSASP1");
+        kisClient.unsubscribe(subscription.exchangeCode(), subscription.stockCode(), trId);
+    }
+
+    /**
+     * KIS 등록 상태 변경 알림 (KIS 수신/등록 관리 스레드) - 같은 구독 샤드에서 구독 세션에 전송해 순서 유지
+     */
+    private void onStatus(String exchangeCode, String stockCode, String dataType, KisSubscriptionStatus status,
+                          String message) {
+        Subscription subscription = new Subscription(exchangeCode, stockCode, dataType);
+        if (subscriptions.hasSubscribers(subscription)) {
+            marketDataExecutor.execute(subscription, () -> pushStatus(subscription, status, message));
+        }
+    }
+
+    /**
+     * 등록 상태를 구독 세션에게 전송 (시세 실행기 샤드 스레드)
+     */
+    private void pushStatus(Subscription subscription, KisSubscriptionStatus status, String message) {
+        TextMessage frame;
+        try {
+            frame = statusMessage(subscription, status, message);
+        } catch (Exception e) {
+            log.error("[해외주식 WebSocket] 등록 상태 직렬화 실패: {}:{}",
+                    subscription.exchangeCode(), subscription.stockCode(), e);
+            return;
+        }
+
+        for (String sessionId : subscriptions.subscribers(subscription)) {
+            WebSocketSession session = sessions.get(sessionId);
+            if (session != null && session.isOpen()) {
+                outboundManager.send(session, frame);
+            }
+        }
+    }
+
+    /**
+     * 구독 직후 현재 등록 상태 전송 (시세 실행기 샤드 스레드)
+     * - 등록 응답 대기 중이면 생략하고 결과는 상태 이벤트로 전달
+     */
+    private void sendStatus(WebSocketSession session, Subscription subscription) {
+        KisSubscriptionStatus status = kisClient.status(subscription.exchangeCode(), subscription.stockCode(),
+                subscription.dataType());
+        if (status == null || status == KisSubscriptionStatus.PENDING || !session.isOpen()) {
+            return;
+        }
+        try {
+            outboundManager.send(session, statusMessage(subscription, status, null));
+        } catch (Exception e) {
+            log.error("[해외주식 WebSocket] 등록 상태 전송 실패: {}:{}",
+                    subscription.exchangeCode(), subscription.stockCode(), e);
+        }
+    }
+
+    private TextMessage statusMessage(Subscription subscription, KisSubscriptionStatus status, String message)
+            throws Exception {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("type", "status");
+        response.put("exchangeCode", subscription.exchangeCode());
+        response.put("stockCode", subscription.stockCode());
+        response.put("dataType", subscription.dataType());
+        response.put("status", status.code());
+        if (message != null) {
+            response.put("message", message);
+        }
+        return new TextMessage(objectMapper.writeValueAsString(response));
     }
 
     /**
@@ -163,7 +347,7 @@ public class ForeignQuoteWebSocketHandler extends TextWebSocketHandler {
                     "type", "error",
                     "message", errorMessage
             );
-            session.sendMessage(new TextMessage(objectMapper.writeValueAsString(error)));
+            outboundManager.send(session, new TextMessage(objectMapper.writeValueAsString(error)));
         } catch (Exception e) {
             log.error("[해외주식 WebSocket] 에러 메시지 전송 실패", e);
         }
@@ -175,64 +359,76 @@ public class ForeignQuoteWebSocketHandler extends TextWebSocketHandler {
 
         // 세션 제거
         sessions.remove(session.getId());
+        outboundManager.unregister(session);
 
-        // 해당 세션의 모든 구독 종목 정리
-        Set<String> subscriptions = sessionSubscriptions.remove(session.getId());
-        if (subscriptions != null) {
-            for (String key : subscriptions) {
-                String[] parts = key.split(":");
-                if (parts.length == 3) {
-                    String exchangeCode = parts[0];
-                    String stockCode = parts[1];
-                    String dataType = parts[2];
-
-                    // 해당 종목을 구독하는 세션이 없으면 KIS 구독 해제
-                    if (sessionSubscriptions.values().stream().noneMatch(set -> set.contains(key))) {
-                        String trId = "trade".equals(dataType) ? "HDFSCNT0" :
-                                     (isUsMarket(exchangeCode) ? "HDFSASP0" : "HDFSASP1");
-                        kisClient.unsubscribe(exchangeCode, stockCode, trId);
-                    }
-                }
-            }
+        // 해당 세션의 구독 종목만 정리 (구독자가 없어진 종목은 KIS 구독 해제)
+        subscriptions.removeSession(session.getId());
+    }
+
+    /**
+     * KIS 시세 수신 알림 (KIS 수신 스레드)
+     * - 같은 종목의 체결가/호가 구독 모두 캐시된 시세를 받으므로 구독 중인 타입만 푸시 대기열에 등록
+     */
+    private void onQuote(String exchangeCode, String stockCode, ForeignQuoteData quote) {
+        Subscription trade = new Subscription(exchangeCode, stockCode, "trade");
+        if (subscriptions.hasSubscribers(trade)) {
+            dispatcher.signal(trade);
+        }
+        Subscription bookQuote = new Subscription(exchangeCode, stockCode, "quote");
+        if (subscriptions.hasSubscribers(bookQuote)) {
+            dispatcher.signal(bookQuote);
         }
     }
 
     /**
-     * 200ms마다 캐시된 데이터를 구독 중인 클라이언트에게 브로드캐스트
+     * 종목의 최신 시세를 구독 세션에게만 전송 (시세 실행기 샤드 스레드)
+     * - 종목별로 한 번만 직렬화하고 구독 세션이 같은 프레임을 공유
      */
-    @Scheduled(fixedRate = 200)
-    public void broadcastQuotes() {
-        sessionSubscriptions.forEach((sessionId, keys) -> {
-            keys.forEach(key -> {
-                String[] parts = key.split(":");
-                if (parts.length >= 3) {
-                    String exchangeCode = parts[0];  // 거래소코드
-                    String stockCode = parts[1];     // 종목코드
-                    String dataType = parts[2];      // "trade" 또는 "quote"
-
-                    ForeignQuoteData quote = cacheService.getQuote(exchangeCode, stockCode);
-
-                    if (quote != null) {
-                        try {
-                            WebSocketSession session = sessions.get(sessionId);
-                            if (session != null && session.isOpen()) {
-                                Map<String, Object> message = Map.of(
-                                        "type", dataType,  // "trade" 또는 "quote"
-                                        "data", quote
-                                );
-                                session.sendMessage(new TextMessage(objectMapper.writeValueAsString(message)));
-                            }
-                        } catch (Exception e) {
-                            log.error("[해외주식 WebSocket] 브로드캐스트 실패: {}:{}", exchangeCode, stockCode, e);
-                        }
-                    }
-                }
-            });
-        });
+    private void pushQuote(Subscription subscription) {
+        Set<String> sessionIds = subscriptions.subscribers(subscription);
+        if (sessionIds.isEmpty()) {
+            return;
+        }
+
+        // TTL 이내 시세만 (캐시 항목 저장 시각 = KIS 수신 시각)
+        CacheEntry<ForeignQuoteData> entry = cacheService.getQuoteEntry(subscription.exchangeCode(), subscription.stockCode());
+        if (entry == null || entry.isStale()) {
+            return;
+        }
+        ForeignQuoteData quote = entry.getValue();
+        long receivedNanos = entry.getStoredNanos();
+        meters.recordFanOutLatency(receivedNanos);
+
+        OutboundFrame frame;
+        try {
+            frame = OutboundFrame.encode(objectMapper, subscription.dataType(), quote);  // "trade" 또는 "quote"
+        } catch (Exception e) {
+            log.error("[해외주식 WebSocket] 직렬화 실패: {}:{}",
+                    subscription.exchangeCode(), subscription.stockCode(), e);
+            return;
+        }
+
+        for (String sessionId : sessionIds) {
+            WebSocketSession session = sessions.get(sessionId);
+            if (session != null && session.isOpen()) {
+                outboundManager.publish(session, subscription, frame.message(), receivedNanos);
+            }
+        }
     }
 
     @Override
     public void handleTransportError(WebSocketSession session, Throwable exception) {
         log.error("[해외주식 WebSocket] 전송 오류: {}", session.getId(), exception);
     }
+
+    @PreDestroy
+    public void destroy() {
+        kisClient.removeQuoteListener(quoteListener);
+    }
+
+    /**
+     * 구독 키 (거래소코드, 종목코드, 데이터타입 "trade"/"quote")
+     */
+    private record Subscription(String exchangeCode, String stockCode, String dataType) {
+    }
 }
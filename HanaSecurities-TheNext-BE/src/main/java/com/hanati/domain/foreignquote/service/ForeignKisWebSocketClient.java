@@ -1,128 +1,103 @@
 package com.hanati.domain.foreignquote.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.hanati.common.service.WebSocketApprovalService;
 import com.hanati.domain.foreignquote.dto.ForeignQuoteData;
-import com.hanati.domain.quote.dto.KisWebSocketRequest;
+import com.hanati.domain.quote.parser.KisRealtimeFrame;
+import com.hanati.domain.foreignstock.dto.ForeignCurrentPriceResponse;
+import com.hanati.domain.foreignstock.service.ForeignStockService;
+import com.hanati.domain.quote.service.KisSubscriptionScheduler;
+import com.hanati.domain.quote.service.KisSubscriptionStatus;
+import com.hanati.domain.quote.service.KisWebSocketConnectionManager;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.web.socket.CloseStatus;
-import org.springframework.web.socket.TextMessage;
-import org.springframework.web.socket.WebSocketSession;
-import org.springframework.web.socket.client.standard.StandardWebSocketClient;
-import org.springframework.web.socket.handler.TextWebSocketHandler;
 
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.IntSupplier;
 
 /**
- * 해외주식 통합 WebSocket 클라이언트
- * - 하나의 WebSocket 연결로 모든 해외주식 데이터 처리
+ * 해외주식 통합 실시간 클라이언트
+ * - KIS 연결은 국내 시세와 공용 (KisWebSocketConnectionManager)
  * - HDFSCNT0: 체결가 (미국/아시아 공통)
  * - HDFSASP0: 실시간 호가 (미국)
  * - HDFSASP1: 지연 호가 (아시아)
+ * - 구독 요청은 KIS 응답을 기다리지 않고 반환, 등록 결과는 상태 리스너로 통지
  */
 @Service
 @RequiredArgsConstructor
 @Slf4j
-public class ForeignKisWebSocketClient extends TextWebSocketHandler {
+public class ForeignKisWebSocketClient {
 
-    private final WebSocketApprovalService approvalService;
+    private final KisWebSocketConnectionManager connectionManager;
+    private final KisSubscriptionScheduler subscriptionScheduler;
     private final ForeignQuoteCacheService cacheService;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final ForeignStockService foreignStockService;
 
-    private WebSocketSession session;
     private final Set<String> subscribedStocks = ConcurrentHashMap.newKeySet();
     // stockCode -> exchangeCode 매핑
     private final Map<String, String> stockToExchangeMap = new ConcurrentHashMap<>();
 
-    private static final String KIS_WS_URL = "ws://ops.koreainvestment.com:21000";
+    // 시세 수신 리스너 (캐시 저장 직후 호출)
+    private final List<ForeignQuoteListener> quoteListeners = new CopyOnWriteArrayList<>();
+    // 등록 상태 리스너 / TR_ID:TR_KEY → 구독 요청 (상태 통지 시 거래소/종목/타입 복원)
+    private final List<ForeignStatusListener> statusListeners = new CopyOnWriteArrayList<>();
+    private final Map<String, StatusRoute> statusRoutes = new ConcurrentHashMap<>();
 
     /**
-     * WebSocket 연결
+     * 해외 체결가/호가 TR_ID 처리기 등록
      */
-    private synchronized void connect() {
-        try {
-            if (session != null && session.isOpen()) {
-                return;
-            }
-
-            log.info("[해외주식 통합 WebSocket] 연결 시도...");
-            StandardWebSocketClient client = new StandardWebSocketClient();
-            session = client.execute(this, KIS_WS_URL).get();
-            log.info("[해외주식 통합 WebSocket] 연결 성공");
-        } catch (Exception e) {
-            log.error("[해외주식 통합 WebSocket] 연결 실패", e);
-            throw new RuntimeException("해외주식 WebSocket 연결 실패", e);
-        }
+    @PostConstruct
+    public void init() {
+        connectionManager.register("HDFSCNT0", this::parseTradeData);
+        connectionManager.register("HDFSASP0", this::parseUsQuoteData);
+        connectionManager.register("HDFSASP1", this::parseAsiaQuoteData);
+        subscriptionScheduler.addStatusListener(this::onSubscriptionStatus);
     }
 
     /**
      * 체결가 구독 (HDFSCNT0)
+     * @param demand 현재 구독자 수 (실시간 등록 한도 초과 시 순위 산정용)
      */
-    public void subscribeTrade(String exchangeCode, String stockCode) {
-        subscribe(exchangeCode, stockCode, "HDFSCNT0", "trade");
+    public void subscribeTrade(String exchangeCode, String stockCode, IntSupplier demand) {
+        subscribe(exchangeCode, stockCode, "HDFSCNT0", "trade", demand);
     }
 
     /**
      * 호가 구독 (HDFSASP0 또는 HDFSASP1)
+     * @param demand 현재 구독자 수 (실시간 등록 한도 초과 시 순위 산정용)
      */
-    public void subscribeQuote(String exchangeCode, String stockCode) {
+    public void subscribeQuote(String exchangeCode, String stockCode, IntSupplier demand) {
         // 미국/아시아 자동 판별
         String trId = isUsMarket(exchangeCode) ? "HDFSASP0" : "HDFSASP1";
-        subscribe(exchangeCode, stockCode, trId, "quote");
+        subscribe(exchangeCode, stockCode, trId, "quote", demand);
     }
 
     /**
      * 통합 구독 메서드
      */
-    private void subscribe(String exchangeCode, String stockCode, String trId, String type) {
+    private void subscribe(String exchangeCode, String stockCode, String trId, String type, IntSupplier demand) {
         String key = exchangeCode + ":" + stockCode + ":" + trId;
 
-        if (subscribedStocks.contains(key)) {
+        if (!subscribedStocks.add(key)) {
             log.info("[해외주식 {}] 이미 구독 중: {}", type, key);
+            subscriptionScheduler.touch(trId, buildTrKey(exchangeCode, stockCode, trId));
             return;
         }
 
-        try {
-            ensureConnection();
-
-            String trKey = buildTrKey(exchangeCode, stockCode, trId);
-            log.info("[해외주식 {}] 구독 요청 - TR_ID: {}, TR_KEY: {}", type, trId, trKey);
-
-            String approvalKey = approvalService.getWebSocketApprovalKey();
-
-            KisWebSocketRequest request = KisWebSocketRequest.builder()
-                    .header(KisWebSocketRequest.Header.builder()
-                            .approvalKey(approvalKey)
-                            .custtype("P")
-                            .trType("1")  // 1: 등록
-                            .contentType("utf-8")
-                            .build())
-                    .body(KisWebSocketRequest.Body.builder()
-                            .input(KisWebSocketRequest.Input.builder()
-                                    .trId(trId)
-                                    .trKey(trKey)
-                                    .build())
-                            .build())
-                    .build();
-
-            String message = objectMapper.writeValueAsString(request);
-            log.info("[해외주식 구독 요청] {}", message);
-
-            synchronized (session) {
-                session.sendMessage(new TextMessage(message));
-            }
+        // 수신 프레임의 종목코드로 거래소를 찾기 위해 구독 전에 매핑
+        stockToExchangeMap.put(stockCode.toUpperCase(), exchangeCode.toUpperCase());
 
-            subscribedStocks.add(key);
-            stockToExchangeMap.put(stockCode.toUpperCase(), exchangeCode.toUpperCase());
-            log.info("[해외주식 {}] 구독 완료: {}", type, key);
-
-        } catch (Exception e) {
-            log.error("[해외주식 {}] 구독 실패: {}", type, key, e);
-        }
+        String trKey = buildTrKey(exchangeCode, stockCode, trId);
+        statusRoutes.put(trId + ":" + trKey, new StatusRoute(exchangeCode, stockCode, type));
+        log.info("[해외주식 {}] 구독 요청 - TR_ID: {}, TR_KEY: {}", type, trId, trKey);
+        // 대기 중에는 체결가/호가 모두 REST 현재가로 대체 (같은 종목 동시 조회는 게이트웨이에서 병합)
+        subscriptionScheduler.request(trId, trKey, demand, () -> refreshPriceSnapshot(exchangeCode, stockCode));
     }
 
     /**
@@ -131,39 +106,88 @@ public class ForeignKisWebSocketClient extends TextWebSocketHandler {
     public void unsubscribe(String exchangeCode, String stockCode, String trId) {
         String key = exchangeCode + ":" + stockCode + ":" + trId;
 
-        if (!subscribedStocks.contains(key)) {
+        if (!subscribedStocks.remove(key)) {
             return;
         }
 
-        try {
-            String trKey = buildTrKey(exchangeCode, stockCode, trId);
-            String approvalKey = approvalService.getWebSocketApprovalKey();
-
-            KisWebSocketRequest request = KisWebSocketRequest.builder()
-                    .header(KisWebSocketRequest.Header.builder()
-                            .approvalKey(approvalKey)
-                            .custtype("P")
-                            .trType("2")  // 2: 해제
-                            .contentType("utf-8")
-                            .build())
-                    .body(KisWebSocketRequest.Body.builder()
-                            .input(KisWebSocketRequest.Input.builder()
-                                    .trId(trId)
-                                    .trKey(trKey)
-                                    .build())
-                            .build())
-                    .build();
-
-            String message = objectMapper.writeValueAsString(request);
-            synchronized (session) {
-                session.sendMessage(new TextMessage(message));
+        String trKey = buildTrKey(exchangeCode, stockCode, trId);
+        subscriptionScheduler.release(trId, trKey);
+        statusRoutes.remove(trId + ":" + trKey);
+        log.info("[해외주식] 구독 해제: {}", key);
+    }
+
+    /**
+     * 현재 등록 상태 (구독 중이 아니면 null)
+     * @param dataType "trade" 또는 "quote"
+     */
+    public KisSubscriptionStatus status(String exchangeCode, String stockCode, String dataType) {
+        String trId = "trade".equals(dataType) ? "HDFSCNT0" : (isUsMarket(exchangeCode) ? "HDFSASP0" : "HDFSASP1");
+        if (!subscribedStocks.contains(exchangeCode + ":" + stockCode + ":" + trId)) {
+            return null;
+        }
+        return subscriptionScheduler.statusOf(trId, buildTrKey(exchangeCode, stockCode, trId));
+    }
+
+    /**
+     * 등록 상태 변경을 구독 요청 단위로 전달 (국내 등 다른 TR_ID는 무시)
+     */
+    private void onSubscriptionStatus(String trId, String trKey, KisSubscriptionStatus status, String message) {
+        StatusRoute route = statusRoutes.get(trId + ":" + trKey);
+        if (route == null) {
+            return;
+        }
+
+        for (ForeignStatusListener listener : statusListeners) {
+            try {
+                listener.onStatus(route.exchangeCode(), route.stockCode(), route.dataType(), status, message);
+            } catch (Exception e) {
+                log.error("[해외주식] 등록 상태 리스너 오류: {}:{}", route.exchangeCode(), route.stockCode(), e);
             }
+        }
+    }
 
-            subscribedStocks.remove(key);
-            log.info("[해외주식] 구독 해제: {}", key);
+    /**
+     * 실시간 등록 한도로 대기 중인 종목의 현재가를 REST로 갱신 (KIS 등록 관리 스케줄러 스레드)
+     */
+    private void refreshPriceSnapshot(String exchangeCode, String stockCode) {
+        ForeignQuoteData quoteData = fetchPriceSnapshot(exchangeCode, stockCode);
+        saveQuote(quoteData.getStockCode(), quoteData, "REST 현재가", System.nanoTime());
+    }
 
-        } catch (Exception e) {
-            log.error("[해외주식] 구독 해제 실패: {}", key, e);
+    /**
+     * 시세 수신 이력이 없는 종목의 REST 현재가를 캐시에 저장 (스냅샷 대체 조회 스레드)
+     * - 구독 요청의 거래소/종목코드 그대로 저장, 리스너 통지 없음 (요청한 세션에만 전송)
+     */
+    public void loadPriceSnapshot(String exchangeCode, String stockCode) {
+        cacheService.saveQuote(exchangeCode, stockCode, fetchPriceSnapshot(exchangeCode, stockCode), System.nanoTime());
+    }
+
+    private ForeignQuoteData fetchPriceSnapshot(String exchangeCode, String stockCode) {
+        ForeignCurrentPriceResponse price = foreignStockService.getCurrentPrice(getMarketCode(exchangeCode), stockCode.toUpperCase());
+
+        return ForeignQuoteData.builder()
+                .stockCode(stockCode.toUpperCase())
+                .currentPrice(price.getLast())
+                .volume(price.getTvol())
+                .changeRate(calculateChangeRate(price.getLast(), price.getBase()))
+                .build();
+    }
+
+    /**
+     * 전일종가 대비 등락률 (소수 2자리)
+     */
+    private String calculateChangeRate(String last, String base) {
+        try {
+            BigDecimal basePrice = new BigDecimal(base.trim());
+            if (basePrice.signum() == 0) {
+                return "0";
+            }
+            return new BigDecimal(last.trim()).subtract(basePrice)
+                    .multiply(BigDecimal.valueOf(100))
+                    .divide(basePrice, 2, RoundingMode.HALF_UP)
+                    .toPlainString();
+        } catch (RuntimeException e) {
+            return "0";
         }
     }
 
@@ -230,254 +254,167 @@ public class ForeignKisWebSocketClient extends TextWebSocketHandler {
         return exchangeCode.matches("(?i)(NYS|NYSE|NAS|NASD|AMS|AMEX)");
     }
 
-    /**
-     * WebSocket 연결 확인
-     */
-    private void ensureConnection() {
-        if (session == null || !session.isOpen()) {
-            log.warn("[해외주식 WebSocket] 연결이 끊어짐. 재연결 시도...");
-            connect();
-        }
-    }
-
-    @Override
-    public void handleTextMessage(WebSocketSession session, TextMessage message) {
-        try {
-            String payload = message.getPayload();
-            log.info("[해외주식 WebSocket 수신] {}", payload);
-
-            // JSON 응답 (연결 확인)
-            if (payload.startsWith("{")) {
-                log.info("[해외주식 WebSocket] JSON 응답: {}", payload);
-                return;
-            }
-
-            // 실시간 데이터 (| 구분)
-            if (payload.contains("|")) {
-                String[] parts = payload.split("\\|");
-                if (parts.length >= 2) {
-                    String trId = parts[1];
-                    log.info("[해외주식 실시간 데이터 수신] TR_ID: {}, parts.length: {}", trId, parts.length);
-
-                    if ("HDFSCNT0".equals(trId)) {
-                        log.info("[해외주식] 체결가 데이터 파싱 시작");
-                        parseTradeData(payload);
-                    } else if ("HDFSASP0".equals(trId)) {
-                        log.info("[해외주식] 미국 호가 데이터 파싱 시작");
-                        parseUsQuoteData(payload);
-                    } else if ("HDFSASP1".equals(trId)) {
-                        log.info("[해외주식] 아시아 호가 데이터 파싱 시작");
-                        parseAsiaQuoteData(payload);
-                    } else {
-                        log.warn("[해외주식] 알 수 없는 TR_ID: {}", trId);
-                    }
-                }
-            }
-
-        } catch (Exception e) {
-            log.error("[해외주식 WebSocket] 메시지 처리 실패", e);
-        }
-    }
-
     /**
      * 체결가 데이터 파싱 (HDFSCNT0)
      */
-    private void parseTradeData(String data) {
-        String[] parts = data.split("\\|");
-        if (parts.length < 4) {
-            log.warn("[해외주식 체결] parts 부족: {}", parts.length);
+    private void parseTradeData(KisRealtimeFrame frame) {
+        if (frame.fieldCount() < 24) {
+            log.warn("[해외주식 체결] 데이터 필드 부족: {}, 전체 데이터: {}", frame.fieldCount(), frame.payload());
             return;
         }
 
-        String[] fields = parts[3].split("\\^");
-        if (fields.length < 24) {
-            log.warn("[해외주식 체결] 데이터 필드 부족: {}, 전체 데이터: {}", fields.length, data);
-            return;
-        }
-
-        String stockCode = fields[1];
-        String currentPrice = fields.length > 11 ? fields[11] : "0";
-        String changeRate = fields.length > 14 ? fields[14] : "0";
-        String volume = fields.length > 20 ? fields[20] : "0";
-        String executionTime = fields.length > 7 ? fields[7] : "";
-        String bidPrice1 = fields.length > 15 ? fields[15] : "0";
-        String askPrice1 = fields.length > 16 ? fields[16] : "0";
-        String bidQuantity1 = fields.length > 17 ? fields[17] : "0";
-        String askQuantity1 = fields.length > 18 ? fields[18] : "0";
-
-        log.info("[해외주식 체결] 파싱 완료 - stockCode: {}, currentPrice: {}, volume: {}",
-                stockCode, currentPrice, volume);
+        String stockCode = frame.symbolField(1);
 
         ForeignQuoteData quoteData = ForeignQuoteData.builder()
                 .stockCode(stockCode)
-                .currentPrice(currentPrice)
-                .changeRate(changeRate)
-                .volume(volume)
-                .executionTime(executionTime)
-                .bidPrice1(bidPrice1)
-                .bidQuantity1(bidQuantity1)
-                .askPrice1(askPrice1)
-                .askQuantity1(askQuantity1)
+                .currentPrice(frame.field(11))
+                .changeRate(frame.field(14))
+                .volume(frame.field(20))
+                .executionTime(frame.field(7))
+                .bidPrice1(frame.field(15))
+                .bidQuantity1(frame.field(17))
+                .askPrice1(frame.field(16))
+                .askQuantity1(frame.field(18))
                 .build();
 
-        String exchangeCode = stockToExchangeMap.get(stockCode.toUpperCase());
-        log.info("[해외주식 체결] exchangeCode 조회: stockCode={}, found={}",
-                stockCode.toUpperCase(), exchangeCode);
-
-        if (exchangeCode != null) {
-            cacheService.saveQuote(exchangeCode, stockCode, quoteData);
-            log.info("[해외주식 체결] 캐시 저장 완료: {}:{}", exchangeCode, stockCode);
-        } else {
-            log.error("[해외주식 체결] exchangeCode를 찾을 수 없음. stockCode: {}, map: {}",
-                    stockCode, stockToExchangeMap);
-        }
+        saveQuote(stockCode, quoteData, "체결", frame.receivedNanos());
     }
 
     /**
      * 미국 호가 데이터 파싱 (HDFSASP0)
      */
-    private void parseUsQuoteData(String data) {
-        String[] parts = data.split("\\|");
-        if (parts.length < 4) {
-            log.warn("[해외주식 미국 호가] parts 부족: {}", parts.length);
+    private void parseUsQuoteData(KisRealtimeFrame frame) {
+        if (frame.fieldCount() < 20) {
+            log.warn("[해외주식 미국 호가] 데이터 필드 부족: {}, 전체 데이터: {}", frame.fieldCount(), frame.payload());
             return;
         }
 
-        String[] fields = parts[3].split("\\^");
-        if (fields.length < 20) {
-            log.warn("[해외주식 미국 호가] 데이터 필드 부족: {}, 전체 데이터: {}", fields.length, data);
+        saveQuote(frame.symbolField(1), buildBookQuote(frame), "미국 호가", frame.receivedNanos());
+    }
+
+    /**
+     * 아시아 지연 호가 데이터 파싱 (HDFSASP1)
+     */
+    private void parseAsiaQuoteData(KisRealtimeFrame frame) {
+        if (frame.fieldCount() < 15) {
+            log.warn("[해외주식 아시아 호가] 데이터 필드 부족: {}, 전체 데이터: {}", frame.fieldCount(), frame.payload());
             return;
         }
 
-        String stockCode = fields[1];
-        String bidPrice1 = fields.length > 11 ? fields[11] : "0";
-        String askPrice1 = fields.length > 12 ? fields[12] : "0";
-        String bidQuantity1 = fields.length > 13 ? fields[13] : "0";
-        String askQuantity1 = fields.length > 14 ? fields[14] : "0";
-        String executionTime = fields.length > 6 ? fields[6] : "";
-
-        String currentPrice = calculateMidPrice(bidPrice1, askPrice1);
+        saveQuote(frame.symbolField(1), buildBookQuote(frame), "아시아 호가", frame.receivedNanos());
+    }
 
-        log.info("[해외주식 미국 호가] 파싱 완료 - stockCode: {}, bid: {}, ask: {}",
-                stockCode, bidPrice1, askPrice1);
+    /**
+     * 호가 프레임(HDFSASP0/HDFSASP1) 공통 변환
+     * - 1: 종목코드, 6: 현지시간, 11: 매수1호가, 12: 매도1호가, 13: 매수1잔량, 14: 매도1잔량
+     * - 상태가 없으므로 static (벤치마크에서 직접 호출)
+     */
+    static ForeignQuoteData buildBookQuote(KisRealtimeFrame frame) {
+        String bidPrice1 = frame.field(11);
+        String askPrice1 = frame.field(12);
 
-        ForeignQuoteData quoteData = ForeignQuoteData.builder()
-                .stockCode(stockCode)
-                .currentPrice(currentPrice)
+        return ForeignQuoteData.builder()
+                .stockCode(frame.symbolField(1))
+                .currentPrice(calculateMidPrice(frame, bidPrice1))
                 .bidPrice1(bidPrice1)
-                .bidQuantity1(bidQuantity1)
+                .bidQuantity1(frame.field(13))
                 .askPrice1(askPrice1)
-                .askQuantity1(askQuantity1)
-                .executionTime(executionTime)
+                .askQuantity1(frame.field(14))
+                .executionTime(frame.field(6))
                 .volume("0")
                 .changeRate("0")
                 .build();
+    }
 
-        String exchangeCode = stockToExchangeMap.get(stockCode.toUpperCase());
-        log.info("[해외주식 미국 호가] exchangeCode 조회: stockCode={}, found={}",
-                stockCode.toUpperCase(), exchangeCode);
+    /**
+     * 캐시 저장 (종목코드 → 거래소코드 매핑 필요)
+     * @param receivedNanos 수신 시각 (틱 지연 측정 기준)
+     */
+    private void saveQuote(String stockCode, ForeignQuoteData quoteData, String type, long receivedNanos) {
+        String exchangeCode = stockToExchangeMap.get(stockCode);
+        if (exchangeCode == null) {
+            exchangeCode = stockToExchangeMap.get(stockCode.toUpperCase());
+        }
 
         if (exchangeCode != null) {
-            cacheService.saveQuote(exchangeCode, stockCode, quoteData);
-            log.info("[해외주식 미국 호가] 캐시 저장 완료: {}:{}", exchangeCode, stockCode);
+            cacheService.saveQuote(exchangeCode, stockCode, quoteData, receivedNanos);
+            log.trace("[해외주식 {}] 캐시 저장 완료: {}:{}", type, exchangeCode, stockCode);
+            notifyListeners(exchangeCode, stockCode, quoteData);
         } else {
-            log.error("[해외주식 미국 호가] exchangeCode를 찾을 수 없음. stockCode: {}, map: {}",
-                    stockCode, stockToExchangeMap);
+            log.error("[해외주식 {}] exchangeCode를 찾을 수 없음. stockCode: {}, map: {}",
+                    type, stockCode, stockToExchangeMap);
         }
     }
 
-    /**
-     * 아시아 지연 호가 데이터 파싱 (HDFSASP1)
-     */
-    private void parseAsiaQuoteData(String data) {
-        String[] parts = data.split("\\|");
-        if (parts.length < 4) {
-            log.warn("[해외주식 아시아 호가] parts 부족: {}", parts.length);
-            return;
+    private void notifyListeners(String exchangeCode, String stockCode, ForeignQuoteData quoteData) {
+        for (ForeignQuoteListener listener : quoteListeners) {
+            try {
+                listener.onQuote(exchangeCode, stockCode, quoteData);
+            } catch (Exception e) {
+                log.error("[해외주식] 시세 리스너 오류: {}:{}", exchangeCode, stockCode, e);
+            }
         }
+    }
 
-        String[] fields = parts[3].split("\\^");
-        if (fields.length < 15) {
-            log.warn("[해외주식 아시아 호가] 데이터 필드 부족: {}, 전체 데이터: {}", fields.length, data);
-            return;
+    /**
+     * 시세 리스너 등록
+     */
+    public void addQuoteListener(ForeignQuoteListener listener) {
+        if (listener != null) {
+            quoteListeners.add(listener);
         }
+    }
 
-        String stockCode = fields[1];
-        String bidPrice1 = fields.length > 11 ? fields[11] : "0";
-        String askPrice1 = fields.length > 12 ? fields[12] : "0";
-        String bidQuantity1 = fields.length > 13 ? fields[13] : "0";
-        String askQuantity1 = fields.length > 14 ? fields[14] : "0";
-        String executionTime = fields.length > 6 ? fields[6] : "";
-
-        String currentPrice = calculateMidPrice(bidPrice1, askPrice1);
-
-        log.info("[해외주식 아시아 호가] 파싱 완료 - stockCode: {}, bid: {}, ask: {} (15분 지연)",
-                stockCode, bidPrice1, askPrice1);
-
-        ForeignQuoteData quoteData = ForeignQuoteData.builder()
-                .stockCode(stockCode)
-                .currentPrice(currentPrice)
-                .bidPrice1(bidPrice1)
-                .bidQuantity1(bidQuantity1)
-                .askPrice1(askPrice1)
-                .askQuantity1(askQuantity1)
-                .executionTime(executionTime)
-                .volume("0")
-                .changeRate("0")
-                .build();
-
-        String exchangeCode = stockToExchangeMap.get(stockCode.toUpperCase());
-        log.info("[해외주식 아시아 호가] exchangeCode 조회: stockCode={}, found={}",
-                stockCode.toUpperCase(), exchangeCode);
+    /**
+     * 시세 리스너 제거
+     */
+    public void removeQuoteListener(ForeignQuoteListener listener) {
+        quoteListeners.remove(listener);
+    }
 
-        if (exchangeCode != null) {
-            cacheService.saveQuote(exchangeCode, stockCode, quoteData);
-            log.info("[해외주식 아시아 호가] 캐시 저장 완료: {}:{} (15분 지연)", exchangeCode, stockCode);
-        } else {
-            log.error("[해외주식 아시아 호가] exchangeCode를 찾을 수 없음. stockCode: {}, map: {}",
-                    stockCode, stockToExchangeMap);
+    /**
+     * 등록 상태 리스너 등록
+     */
+    public void addStatusListener(ForeignStatusListener listener) {
+        if (listener != null) {
+            statusListeners.add(listener);
         }
     }
 
     /**
-     * 중간가격 계산
+     * 중간가격 계산 (매수1호가/매도1호가 필드 11, 12)
+     * 소수 4자리 정수로 계산하여 Double 변환/String.format 없이 문자열 생성
      */
-    private String calculateMidPrice(String bid, String ask) {
-        try {
-            double bidPrice = Double.parseDouble(bid);
-            double askPrice = Double.parseDouble(ask);
-            double midPrice = (bidPrice + askPrice) / 2.0;
-            return String.format("%.4f", midPrice);
-        } catch (Exception e) {
+    private static String calculateMidPrice(KisRealtimeFrame frame, String bid) {
+        long bidPrice = frame.scaledField(11, 4);
+        long askPrice = frame.scaledField(12, 4);
+        if (bidPrice == KisRealtimeFrame.INVALID || askPrice == KisRealtimeFrame.INVALID) {
             return bid;
         }
-    }
 
-    @Override
-    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
-        log.warn("[해외주식 WebSocket] 연결 종료: {}", status);
-        this.session = null;
-        // 자동 재연결 시도
-        try {
-            Thread.sleep(3000);
-            connect();
-        } catch (Exception e) {
-            log.error("[해외주식 WebSocket] 재연결 실패", e);
-        }
-    }
+        long sum = bidPrice + askPrice;
+        long mid = sum / 2 + (sum % 2 != 0 ? (sum > 0 ? 1 : -1) : 0);  // HALF_UP
 
-    public void disconnect() {
-        if (session != null && session.isOpen()) {
-            try {
-                session.close();
-                log.info("[해외주식 WebSocket] 연결 종료");
-            } catch (Exception e) {
-                log.error("[해외주식 WebSocket] 종료 실패", e);
-            }
+        long abs = Math.abs(mid);
+        long fraction = abs % 10000;
+        StringBuilder sb = new StringBuilder(16);
+        if (mid < 0) {
+            sb.append('-');
         }
+        sb.append(abs / 10000).append('.');
+        for (long pad = 1000; pad > 1 && fraction < pad; pad /= 10) {
+            sb.append('0');
+        }
+        return sb.append(fraction).toString();
     }
 
     public Set<String> getSubscribedStocks() {
         return subscribedStocks;
     }
+
+    /**
+     * 등록 상태 통지 대상 구독 (구독 요청의 거래소코드/종목코드, "trade"/"quote")
+     */
+    private record StatusRoute(String exchangeCode, String stockCode, String dataType) {
+    }
 }
@@ -1,13 +1,16 @@
 package com.hanati.domain.foreignquote.service;
 
+import com.hanati.common.cache.CacheEntry;
+import com.hanati.common.cache.CacheSweeper;
+import com.hanati.common.cache.TtlCache;
+import com.hanati.common.config.RealtimeConfig;
+import com.hanati.common.metrics.ChannelMeters;
+import com.hanati.common.metrics.MarketDataMetrics;
 import com.hanati.domain.foreignquote.dto.ForeignQuoteData;
+import io.micrometer.core.instrument.Counter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-
 /**
  * 해외주식 실시간 호가 캐시 서비스
  */
@@ -15,18 +18,31 @@ import java.util.concurrent.ConcurrentHashMap;
 @Slf4j
 public class ForeignQuoteCacheService {
 
-    // 종목별 실시간 호가 데이터 캐시
-    private final Map<String, CachedQuote> quoteCache = new ConcurrentHashMap<>();
+    // 종목별 실시간 호가 데이터 캐시 (만료 항목은 CacheSweeper가 정리)
+    private final TtlCache<String, ForeignQuoteData> quoteCache;
+    private final Counter writes;
+    private final ChannelMeters meters;
+
+    public ForeignQuoteCacheService(CacheSweeper cacheSweeper, RealtimeConfig realtimeConfig,
+                                    MarketDataMetrics metrics) {
+        RealtimeConfig.Cache cache = realtimeConfig.getCache();
+        this.quoteCache = new TtlCache<>(cacheSweeper, cache.getTtlMs(), cache.getStaleRetentionMs());
+        this.writes = metrics.cacheWrites("foreign_quote");
+        this.meters = metrics.channel("foreign_quote");
+    }
 
     /**
      * 실시간 호가 데이터 저장 (2초 TTL)
      * @param exchangeCode 거래소코드
      * @param stockCode 종목코드
      * @param quote 호가 데이터
+     * @param receivedNanos KIS 프레임 수신 시각 (캐시 항목에 함께 저장, /ws/foreign-quote 틱 지연 기준)
      */
-    public void saveQuote(String exchangeCode, String stockCode, ForeignQuoteData quote) {
+    public void saveQuote(String exchangeCode, String stockCode, ForeignQuoteData quote, long receivedNanos) {
         String key = exchangeCode + ":" + stockCode;
-        quoteCache.put(key, new CachedQuote(quote, LocalDateTime.now()));
+        quoteCache.put(key, quote, receivedNanos);
+        writes.increment();
+        meters.recordCacheLatency(receivedNanos);
         log.debug("[해외주식 호가 캐시] 저장: {}", key);
     }
 
@@ -37,50 +53,17 @@ public class ForeignQuoteCacheService {
      * @return 호가 데이터
      */
     public ForeignQuoteData getQuote(String exchangeCode, String stockCode) {
-        String key = exchangeCode + ":" + stockCode;
-        CachedQuote cached = quoteCache.get(key);
-
-        if (cached == null) {
-            return null;
-        }
-
-        // 2초 TTL 체크
-        if (cached.isExpired()) {
-            quoteCache.remove(key);
-            log.debug("[해외주식 호가 캐시] 만료된 데이터 삭제: {}", key);
-            return null;
-        }
-
-        return cached.getQuote();
-    }
-
-    /**
-     * 캐시된 데이터 클래스
-     */
-    private static class CachedQuote {
-        private final ForeignQuoteData quote;
-        private final LocalDateTime createdAt;
-
-        public CachedQuote(ForeignQuoteData quote, LocalDateTime createdAt) {
-            this.quote = quote;
-            this.createdAt = createdAt;
-        }
-
-        public ForeignQuoteData getQuote() {
-            return quote;
-        }
-
-        public boolean isExpired() {
-            return LocalDateTime.now().isAfter(createdAt.plusSeconds(2));
-        }
+        return quoteCache.get(exchangeCode + ":" + stockCode);
     }
 
     /**
-     * 만료된 캐시 정리 (주기적으로 호출)
+     * 최근 호가 데이터 조회 (TTL 경과 데이터 포함, isStale/getAgeMillis로 판단)
+     * @param exchangeCode 거래소코드
+     * @param stockCode 종목코드
+     * @return 캐시 항목 (보관 기간이 지났으면 null)
      */
-    public void cleanExpiredCache() {
-        quoteCache.entrySet().removeIf(entry -> entry.getValue().isExpired());
-        log.debug("[해외주식 호가 캐시] 만료된 캐시 정리 완료");
+    public CacheEntry<ForeignQuoteData> getQuoteEntry(String exchangeCode, String stockCode) {
+        return quoteCache.getEntry(exchangeCode + ":" + stockCode);
     }
 
     /**
@@ -0,0 +1,22 @@
+package com.hanati.domain.foreignquote.service;
+
+import com.hanati.domain.foreignquote.dto.ForeignQuoteData;
+
+/**
+ * 해외주식 실시간 시세 리스너 인터페이스
+ *
+ * KIS WebSocket으로부터 체결가/호가를 수신하여 캐시에 저장한 직후 호출됩니다.
+ * (KIS 수신 스레드에서 호출되므로 블로킹 작업 금지)
+ */
+@FunctionalInterface
+public interface ForeignQuoteListener {
+
+    /**
+     * 시세 데이터 수신 시 호출
+     *
+     * @param exchangeCode 거래소코드 (캐시 키와 동일)
+     * @param stockCode    종목코드
+     * @param quote        시세 데이터
+     */
+    void onQuote(String exchangeCode, String stockCode, ForeignQuoteData quote);
+}
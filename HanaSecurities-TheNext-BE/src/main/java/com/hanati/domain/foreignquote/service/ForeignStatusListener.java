@@ -0,0 +1,24 @@
+package com.hanati.domain.foreignquote.service;
+
+import com.hanati.domain.quote.service.KisSubscriptionStatus;
+
+/**
+ * 해외주식 실시간 등록 상태 리스너 인터페이스
+ *
+ * 구독 요청 후 KIS 등록 결과(승인/대기/거부)가 바뀔 때 호출됩니다.
+ * (KIS 수신 스레드 또는 등록 관리 스레드에서 호출되므로 블로킹 작업 금지)
+ */
+@FunctionalInterface
+public interface ForeignStatusListener {
+
+    /**
+     * 등록 상태 변경 시 호출
+     *
+     * @param exchangeCode 거래소코드 (구독 요청 값 그대로)
+     * @param stockCode    종목코드 (구독 요청 값 그대로)
+     * @param dataType     "trade" 또는 "quote"
+     * @param status       변경된 상태
+     * @param message      KIS 응답 메시지 또는 사유 (없으면 null)
+     */
+    void onStatus(String exchangeCode, String stockCode, String dataType, KisSubscriptionStatus status, String message);
+}
@@ -2,6 +2,8 @@ package com.hanati.domain.foreignstock.service;
 
 import com.fasterxml.jackson.annotation.JsonProperty;
 import com.hanati.common.config.TokenConfig;
+import com.hanati.common.gateway.KisPriority;
+import com.hanati.common.gateway.KisRestGateway;
 import com.hanati.common.service.TokenService;
 import com.hanati.domain.foreignstock.dto.ForeignCurrentPriceResponse;
 import com.hanati.domain.foreignstock.dto.ForeignIntradayChartResponse;
@@ -21,7 +23,6 @@ import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.client.RestClientException;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
 @Service
@@ -32,7 +33,7 @@ public class ForeignStockService {
 
     private final TokenConfig tokenConfig;
     private final TokenService tokenService;
-    private final RestTemplate restTemplate;
+    private final KisRestGateway kisRestGateway;
 
     /**
      * 해외주식 API 공통 헤더 생성
@@ -139,7 +140,8 @@ public class ForeignStockService {
             HttpEntity<Void> httpRequest = new HttpEntity<>(headers);
 
             // API 호출
-            ResponseEntity<KisForeignCurrentPriceApiResponse> response = restTemplate.exchange(
+            ResponseEntity<KisForeignCurrentPriceApiResponse> response = kisRestGateway.exchange(
+                    KisPriority.QUOTE,
                     url,
                     HttpMethod.GET,
                     httpRequest,
@@ -257,7 +259,8 @@ public class ForeignStockService {
             HttpEntity<Void> httpRequest = new HttpEntity<>(headers);
 
             // API 호출
-            ResponseEntity<KisForeignIntradayChartApiResponse> response = restTemplate.exchange(
+            ResponseEntity<KisForeignIntradayChartApiResponse> response = kisRestGateway.exchange(
+                    KisPriority.CHART,
                     url,
                     HttpMethod.GET,
                     httpRequest,
@@ -365,7 +368,8 @@ public class ForeignStockService {
             HttpEntity<Void> httpRequest = new HttpEntity<>(headers);
 
             // API 호출
-            ResponseEntity<KisForeignPeriodChartApiResponse> response = restTemplate.exchange(
+            ResponseEntity<KisForeignPeriodChartApiResponse> response = kisRestGateway.exchange(
+                    KisPriority.CHART,
                     url,
                     HttpMethod.GET,
                     httpRequest,
@@ -514,7 +518,8 @@ public class ForeignStockService {
             HttpEntity<KisForeignStockOrderApiRequest> httpRequest = new HttpEntity<>(apiRequest, headers);
 
             // API 호출
-            ResponseEntity<KisForeignStockOrderApiResponse> response = restTemplate.exchange(
+            ResponseEntity<KisForeignStockOrderApiResponse> response = kisRestGateway.exchange(
+                    KisPriority.ORDER,
                     url,
                     HttpMethod.POST,
                     httpRequest,
@@ -665,7 +670,8 @@ public class ForeignStockService {
             HttpEntity<Void> httpRequest = new HttpEntity<>(headers);
 
             // API 호출
-            ResponseEntity<KisForeignStockBalanceApiResponse> response = restTemplate.exchange(
+            ResponseEntity<KisForeignStockBalanceApiResponse> response = kisRestGateway.exchange(
+                    KisPriority.BALANCE,
                     url,
                     HttpMethod.GET,
                     httpRequest,
@@ -850,7 +856,8 @@ public class ForeignStockService {
             HttpEntity<Void> httpRequest = new HttpEntity<>(headers);
 
             // API 호출
-            ResponseEntity<KisForeignStockBasicInfoApiResponse> response = restTemplate.exchange(
+            ResponseEntity<KisForeignStockBasicInfoApiResponse> response = kisRestGateway.exchange(
+                    KisPriority.QUOTE,
                     url,
                     HttpMethod.GET,
                     httpRequest,
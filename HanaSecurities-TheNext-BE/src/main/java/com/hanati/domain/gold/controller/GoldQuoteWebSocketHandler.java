@@ -1,8 +1,20 @@
 package com.hanati.domain.gold.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hanati.common.cache.CacheEntry;
+import com.hanati.common.metrics.ChannelMeters;
+import com.hanati.common.metrics.MarketDataMetrics;
+import com.hanati.common.realtime.CoalescingDispatcher;
+import com.hanati.common.realtime.MarketDataExecutor;
+import com.hanati.common.realtime.OrderBookDeltaEncoder;
+import com.hanati.common.realtime.OutboundFrame;
+import com.hanati.common.realtime.OutboundSessionManager;
+import com.hanati.common.realtime.SnapshotFallbackLoader;
+import com.hanati.common.realtime.UpdateRate;
 import com.hanati.domain.gold.dto.GoldQuoteData;
+import com.hanati.domain.gold.service.GoldKiwoomWebSocketClient;
 import com.hanati.domain.gold.service.GoldQuoteCacheService;
+import com.hanati.domain.gold.service.QuoteDataListener;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
@@ -13,14 +25,19 @@ import org.springframework.web.socket.handler.TextWebSocketHandler;
 
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
+import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 금현물 실시간 호가 데이터 브로드캐스트 WebSocket 핸들러
  *
  * 엔드포인트: ws://localhost:8080/ws/gold-quote
  * 기능: 키움증권에서 수신한 실시간 호가 데이터(5단 호가)를 연결된 모든 클라이언트에게 브로드캐스트
+ * 증분 프로토콜(선택): {"action":"protocol","protocol":"delta"} 전송 시 상품별 스냅샷 1회 후 바뀐 단계만 seq와 함께 전송
+ *                    seq 누락 시 {"action":"resync","productCode":...}로 스냅샷 재요청 (기본 세션은 전체 호가 JSON 스냅샷으로 응답)
+ * 연결 직후: 상품별 마지막 호가를 "snapshot":true, "ageMs", "stale"과 함께 전송 (수신 이력이 없으면 REST 호가)
+ * 갱신 빈도: {"action":"rate","maxRate":"1hz"} (productCode를 주면 해당 상품만) - 초과분은 상품별 최신 값으로 병합
  */
 @Slf4j
 @Component
@@ -28,38 +45,85 @@ import java.util.concurrent.*;
 public class GoldQuoteWebSocketHandler extends TextWebSocketHandler {
 
     private final GoldQuoteCacheService cacheService;
+    private final OutboundSessionManager outboundManager;
+    private final MarketDataExecutor marketDataExecutor;
+    private final MarketDataMetrics metrics;
+    private final GoldKiwoomWebSocketClient kiwoomClient;
+    private final SnapshotFallbackLoader snapshotLoader;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     // 연결된 클라이언트 세션 관리 (스레드 안전)
     private final Set<WebSocketSession> sessions = ConcurrentHashMap.newKeySet();
+    // 증분 프로토콜을 선택한 세션
+    private final Set<String> deltaSessions = ConcurrentHashMap.newKeySet();
+    // 상품별 호가 증분 인코더
+    private final Map<String, OrderBookDeltaEncoder> encoders = new ConcurrentHashMap<>();
 
-    // 브로드캐스트 스케줄러
-    private ScheduledExecutorService broadcastScheduler;
-    private static final long BROADCAST_INTERVAL_MS = 200; // 200ms 간격
+    // 호가 수신 → 전체 세션 푸시 (상품별 병합, 시세 전용 실행기에서 실행)
+    private CoalescingDispatcher<String> dispatcher;
+    private ChannelMeters meters;
+    private final QuoteDataListener quoteDataListener = this::onQuoteData;
 
     // 금현물 상품 코드
     private static final String GOLD_1KG = "M04020000";
     private static final String GOLD_100G = "M04020100";
 
+    private static final String PROTOCOL_DELTA = "delta";
+    private static final int ORDER_BOOK_DEPTH = 10;
+
     @PostConstruct
     public void init() {
-        startBroadcastScheduler();
+        meters = metrics.channel("gold_quote");
+        dispatcher = new CoalescingDispatcher<>(marketDataExecutor, this::pushLatest, meters);
+        metrics.bindSessions("gold_quote", sessions, Set::size);
+        kiwoomClient.addQuoteDataListener(quoteDataListener);
         log.info("[금현물 호가 WebSocket] 브로드캐스트 핸들러 초기화 완료");
     }
 
     @Override
     public void afterConnectionEstablished(WebSocketSession session) throws Exception {
         sessions.add(session);
+        outboundManager.register(session, "gold_quote");
         log.info("[금현물 호가 WebSocket] 클라이언트 연결: {} (총 {}명)",
                 session.getId(), sessions.size());
 
-        // 연결 즉시 현재 캐시된 데이터 전송
-        sendCachedData(session);
+        // 연결 즉시 상품별 마지막 호가 전송 (같은 상품의 실시간 푸시와 같은 샤드)
+        for (String productCode : new String[]{GOLD_1KG, GOLD_100G}) {
+            marketDataExecutor.execute(productCode, () -> sendSnapshot(session, productCode, true));
+        }
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+        try {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> request = objectMapper.readValue(message.getPayload(), Map.class);
+            Object action = request.get("action");
+
+            if ("protocol".equals(action) && PROTOCOL_DELTA.equals(request.get("protocol"))) {
+                deltaSessions.add(session.getId());
+                sendControl(session, Map.of("type", "protocol", "status", "success", "protocol", PROTOCOL_DELTA));
+                // 기준이 되는 전체 스냅샷부터 전송
+                requestSnapshot(session, GOLD_1KG);
+                requestSnapshot(session, GOLD_100G);
+            } else if ("resync".equals(action)) {
+                handleResync(session, (String) request.get("productCode"));
+            } else if ("rate".equals(action)) {
+                handleRate(session, (String) request.get("productCode"), request.get("maxRate"));
+            } else {
+                sendControl(session, Map.of("type", "error", "message", "Unknown action: " + action));
+            }
+        } catch (Exception e) {
+            log.warn("[금현물 호가 WebSocket] 메시지 처리 실패 - 세션: {}, 원인: {}", session.getId(), e.getMessage());
+            sendControl(session, Map.of("type", "error", "message", "Invalid message format"));
+        }
     }
 
     @Override
     public void afterConnectionClosed(WebSocketSession session, CloseStatus status) throws Exception {
         sessions.remove(session);
+        deltaSessions.remove(session.getId());
+        outboundManager.unregister(session);
         log.info("[금현물 호가 WebSocket] 클라이언트 연결 해제: {} (총 {}명)",
                 session.getId(), sessions.size());
     }
@@ -77,126 +141,206 @@ public class GoldQuoteWebSocketHandler extends TextWebSocketHandler {
             log.error("[금현물 호가 WebSocket] 전송 오류 - 세션: {}", session.getId(), exception);
         }
         sessions.remove(session);
+        deltaSessions.remove(session.getId());
+        outboundManager.unregister(session);
     }
 
     /**
-     * 브로드캐스트 스케줄러 시작
+     * 키움 호가 수신 알림 (키움 수신 스레드) - 연결된 세션이 있을 때만 푸시 대기열에 등록
      */
-    private void startBroadcastScheduler() {
-        broadcastScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
-            Thread thread = new Thread(r, "gold-quote-broadcast");
-            thread.setDaemon(true);
-            return thread;
-        });
+    private void onQuoteData(GoldQuoteData quoteData) {
+        if (!sessions.isEmpty()) {
+            dispatcher.signal(quoteData.getProductCode());
+        }
+    }
+
+    /**
+     * 상품의 최신 호가 데이터를 모든 클라이언트에게 브로드캐스트 (시세 실행기 샤드 스레드)
+     */
+    private void pushLatest(String productCode) {
+        // 캐시 항목 저장 시각 = 키움 수신 시각
+        CacheEntry<GoldQuoteData> entry = cacheService.getQuoteEntry(productCode);
+        if (entry != null) {
+            meters.recordFanOutLatency(entry.getStoredNanos());
+            broadcastToAll(entry.getValue(), entry.getStoredNanos());
+        }
+    }
 
-        // 200ms마다 캐시된 데이터를 모든 클라이언트에게 브로드캐스트
-        broadcastScheduler.scheduleAtFixedRate(() -> {
+    /**
+     * 특정 세션에 상품의 마지막 호가 전송 (연결 직후, 시세 실행기 샤드 스레드)
+     * @param fallback 호가 기록이 없을 때 REST 대체 조회 여부 (조회 완료 후 재시도는 false)
+     */
+    private void sendSnapshot(WebSocketSession session, String productCode, boolean fallback) {
+        if (!session.isOpen()) {
+            return;
+        }
+
+        // TTL 경과 여부와 무관하게 마지막 호가
+        CacheEntry<GoldQuoteData> entry = cacheService.getLastQuoteEntry(productCode);
+        if (entry != null) {
             try {
-                if (!sessions.isEmpty()) {
-                    broadcastCachedData();
-                }
+                OutboundFrame frame = OutboundFrame.encodeSnapshot(objectMapper, entry.getValue(),
+                        entry.getAgeMillis(), entry.isStale());
+                outboundManager.publish(session, productCode, frame.message());
             } catch (Exception e) {
-                log.error("[금현물 호가 WebSocket] 브로드캐스트 오류", e);
+                log.error("[금현물 호가 WebSocket] 스냅샷 전송 실패 - 세션: {}", session.getId(), e);
             }
-        }, 0, BROADCAST_INTERVAL_MS, TimeUnit.MILLISECONDS);
+            return;
+        }
 
-        log.info("[금현물 호가 WebSocket] 브로드캐스트 스케줄러 시작 ({}ms 간격)", BROADCAST_INTERVAL_MS);
+        if (fallback) {
+            snapshotLoader.load("gold_quote:" + productCode, () -> kiwoomClient.loadQuoteSnapshot(productCode))
+                    .thenRun(() -> marketDataExecutor.execute(productCode, () -> sendSnapshot(session, productCode, false)));
+        }
     }
 
     /**
-     * 캐시된 데이터를 모든 클라이언트에게 브로드캐스트
+     * 스냅샷 재요청 - 증분 세션은 seq 기준 스냅샷, 기본 세션은 연결 직후와 같은 마지막 호가 스냅샷
      */
-    private void broadcastCachedData() {
-        // 금 1kg 호가 데이터
-        GoldQuoteData gold1kg = cacheService.getQuoteData(GOLD_1KG);
-        if (gold1kg != null) {
-            broadcastToAll(gold1kg);
+    private void handleResync(WebSocketSession session, String productCode) {
+        if (!GOLD_1KG.equals(productCode) && !GOLD_100G.equals(productCode)) {
+            sendControl(session, Map.of("type", "error", "message", "Invalid productCode: " + productCode));
+            return;
         }
 
-        // 미니금 100g 호가 데이터
-        GoldQuoteData gold100g = cacheService.getQuoteData(GOLD_100G);
-        if (gold100g != null) {
-            broadcastToAll(gold100g);
+        if (deltaSessions.contains(session.getId())) {
+            requestSnapshot(session, productCode);
+        } else {
+            marketDataExecutor.execute(productCode, () -> sendSnapshot(session, productCode, true));
         }
     }
 
     /**
-     * 특정 세션에 캐시된 데이터 전송 (연결 직후)
+     * 스냅샷 전송 요청 - 같은 상품의 증분과 순서가 섞이지 않도록 해당 상품 샤드에서 실행
      */
-    private void sendCachedData(WebSocketSession session) {
-        try {
-            // 금 1kg 호가 데이터
-            GoldQuoteData gold1kg = cacheService.getQuoteData(GOLD_1KG);
-            if (gold1kg != null) {
-                sendToSession(session, gold1kg);
+    private void requestSnapshot(WebSocketSession session, String productCode) {
+        if (productCode == null) {
+            return;
+        }
+        marketDataExecutor.execute(productCode, () -> {
+            OrderBookDeltaEncoder encoder = encoders.computeIfAbsent(productCode,
+                    code -> new OrderBookDeltaEncoder(code, ORDER_BOOK_DEPTH));
+            if (!encoder.hasData()) {
+                // 아직 반영된 호가가 없으면 마지막 호가로 인코더를 채워 기준 스냅샷 생성
+                CacheEntry<GoldQuoteData> entry = cacheService.getLastQuoteEntry(productCode);
+                if (entry == null) {
+                    return;
+                }
+                updateEncoder(encoder, entry.getValue());
             }
-
-            // 미니금 100g 호가 데이터
-            GoldQuoteData gold100g = cacheService.getQuoteData(GOLD_100G);
-            if (gold100g != null) {
-                sendToSession(session, gold100g);
+            if (session.isOpen()) {
+                outboundManager.publish(session, productCode, encoder.snapshotFrame());
             }
-        } catch (Exception e) {
-            log.error("[금현물 호가 WebSocket] 캐시 데이터 전송 실패 - 세션: {}", session.getId(), e);
-        }
+        });
     }
 
     /**
-     * 모든 세션에 데이터 브로드캐스트
+     * 모든 세션에 데이터 브로드캐스트 (시세 실행기 샤드 스레드)
+     * - 기본 세션: 전체 호가 JSON, 증분 세션: 바뀐 단계만
+     * @param receivedNanos 키움 수신 시각 (전송 완료 시 틱 지연 기록)
      */
-    private void broadcastToAll(GoldQuoteData data) {
-        String message = toJson(data);
-        if (message == null) {
-            return;
-        }
+    private void broadcastToAll(GoldQuoteData data, long receivedNanos) {
+        String productCode = data.getProductCode();
+        OrderBookDeltaEncoder encoder = encoders.computeIfAbsent(productCode,
+                code -> new OrderBookDeltaEncoder(code, ORDER_BOOK_DEPTH));
+        boolean changed = updateEncoder(encoder, data);
 
-        Set<WebSocketSession> closedSessions = new CopyOnWriteArraySet<>();
+        // 한 번만 직렬화한 프레임을 모든 세션이 공유 (필요한 형식만 직렬화)
+        OutboundFrame frame = null;
+        TextMessage delta = null;
 
+        // 세션 버퍼에 적재만 하고 반환 (느린 세션은 전송 관리자가 정리)
         for (WebSocketSession session : sessions) {
-            if (session.isOpen()) {
-                try {
-                    synchronized (session) {
-                        session.sendMessage(new TextMessage(message));
-                    }
-                } catch (Exception e) {
-                    log.error("[금현물 호가 WebSocket] 메시지 전송 실패 - 세션: {}", session.getId(), e);
-                    closedSessions.add(session);
+            if (!session.isOpen()) {
+                sessions.remove(session);
+                continue;
+            }
+
+            if (deltaSessions.contains(session.getId())) {
+                if (!changed) {
+                    continue;
                 }
+                if (delta == null) {
+                    delta = encoder.deltaFrame();
+                }
+                // 대기 중인 프레임과 병합되면 최신 스냅샷으로 교체되어 seq 연속성 유지
+                outboundManager.publishDelta(session, productCode, delta, encoder::snapshotFrame, receivedNanos);
             } else {
-                closedSessions.add(session);
+                if (frame == null) {
+                    frame = toFrame(data);
+                    if (frame == null) {
+                        return;
+                    }
+                }
+                outboundManager.publish(session, productCode, frame.message(), receivedNanos);
             }
         }
+    }
 
-        // 닫힌 세션 정리
-        sessions.removeAll(closedSessions);
+    /**
+     * 호가 DTO를 단계 배열로 변환해 증분 인코더에 반영 (값이 없는 단계는 0)
+     */
+    private boolean updateEncoder(OrderBookDeltaEncoder encoder, GoldQuoteData d) {
+        double[] askPrices = {
+                value(d.getAskPrice1()), value(d.getAskPrice2()), value(d.getAskPrice3()), value(d.getAskPrice4()),
+                value(d.getAskPrice5()), value(d.getAskPrice6()), value(d.getAskPrice7()), value(d.getAskPrice8()),
+                value(d.getAskPrice9()), value(d.getAskPrice10())};
+        double[] askVolumes = {
+                value(d.getAskQuantity1()), value(d.getAskQuantity2()), value(d.getAskQuantity3()), value(d.getAskQuantity4()),
+                value(d.getAskQuantity5()), value(d.getAskQuantity6()), value(d.getAskQuantity7()), value(d.getAskQuantity8()),
+                value(d.getAskQuantity9()), value(d.getAskQuantity10())};
+        double[] bidPrices = {
+                value(d.getBidPrice1()), value(d.getBidPrice2()), value(d.getBidPrice3()), value(d.getBidPrice4()),
+                value(d.getBidPrice5()), value(d.getBidPrice6()), value(d.getBidPrice7()), value(d.getBidPrice8()),
+                value(d.getBidPrice9()), value(d.getBidPrice10())};
+        double[] bidVolumes = {
+                value(d.getBidQuantity1()), value(d.getBidQuantity2()), value(d.getBidQuantity3()), value(d.getBidQuantity4()),
+                value(d.getBidQuantity5()), value(d.getBidQuantity6()), value(d.getBidQuantity7()), value(d.getBidQuantity8()),
+                value(d.getBidQuantity9()), value(d.getBidQuantity10())};
+
+        return encoder.update(d.getTimestamp(), askPrices, askVolumes, bidPrices, bidVolumes, Double.NaN, Double.NaN);
+    }
+
+    private static double value(Number number) {
+        return number != null ? number.doubleValue() : 0;
     }
 
     /**
-     * 특정 세션에 데이터 전송
+     * 갱신 빈도 변경 - 상품 코드가 있으면 해당 상품만, 없으면 세션 기본값
      */
-    private void sendToSession(WebSocketSession session, GoldQuoteData data) {
-        String message = toJson(data);
-        if (message == null) {
+    private void handleRate(WebSocketSession session, String productCode, Object maxRate) {
+        UpdateRate rate = UpdateRate.parse(maxRate);
+        if (rate == null) {
+            sendControl(session, Map.of("type", "error", "message", "Invalid maxRate: " + maxRate));
             return;
         }
 
+        if (productCode != null) {
+            outboundManager.setRate(session, productCode, rate);
+        } else {
+            outboundManager.setRate(session, rate);
+        }
+        sendControl(session, Map.of("type", "rate", "status", "success",
+                "maxRate", maxRate != null ? maxRate.toString() : "realtime"));
+    }
+
+    /**
+     * 제어 메시지 전송 (프로토콜 응답, 에러)
+     */
+    private void sendControl(WebSocketSession session, Map<String, String> body) {
         try {
-            if (session.isOpen()) {
-                synchronized (session) {
-                    session.sendMessage(new TextMessage(message));
-                }
-            }
+            outboundManager.send(session, new TextMessage(objectMapper.writeValueAsString(body)));
         } catch (Exception e) {
-            log.error("[금현물 호가 WebSocket] 메시지 전송 실패 - 세션: {}", session.getId(), e);
+            log.error("[금현물 호가 WebSocket] 제어 메시지 전송 실패 - 세션: {}", session.getId(), e);
         }
     }
 
     /**
-     * 객체를 JSON 문자열로 변환
+     * 객체를 전송 프레임으로 직렬화
      */
-    private String toJson(Object obj) {
+    private OutboundFrame toFrame(Object obj) {
         try {
-            return objectMapper.writeValueAsString(obj);
+            return OutboundFrame.encode(objectMapper, obj);
         } catch (Exception e) {
             log.error("[금현물 호가 WebSocket] JSON 변환 실패", e);
             return null;
@@ -205,18 +349,8 @@ public class GoldQuoteWebSocketHandler extends TextWebSocketHandler {
 
     @PreDestroy
     public void destroy() {
-        // 스케줄러 중지
-        if (broadcastScheduler != null && !broadcastScheduler.isShutdown()) {
-            broadcastScheduler.shutdown();
-            try {
-                if (!broadcastScheduler.awaitTermination(5, TimeUnit.SECONDS)) {
-                    broadcastScheduler.shutdownNow();
-                }
-            } catch (InterruptedException e) {
-                broadcastScheduler.shutdownNow();
-                Thread.currentThread().interrupt();
-            }
-        }
+        // 리스너 해제
+        kiwoomClient.removeQuoteDataListener(quoteDataListener);
 
         // 모든 세션 종료
         for (WebSocketSession session : sessions) {
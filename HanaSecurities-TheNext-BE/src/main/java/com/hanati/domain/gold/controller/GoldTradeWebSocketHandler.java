@@ -1,8 +1,19 @@
 package com.hanati.domain.gold.controller;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hanati.common.cache.CacheEntry;
+import com.hanati.common.metrics.ChannelMeters;
+import com.hanati.common.metrics.MarketDataMetrics;
+import com.hanati.common.realtime.CoalescingDispatcher;
+import com.hanati.common.realtime.MarketDataExecutor;
+import com.hanati.common.realtime.OutboundFrame;
+import com.hanati.common.realtime.OutboundSessionManager;
+import com.hanati.common.realtime.SnapshotFallbackLoader;
+import com.hanati.common.realtime.UpdateRate;
 import com.hanati.domain.gold.dto.GoldTradeData;
+import com.hanati.domain.gold.service.GoldKiwoomWebSocketClient;
 import com.hanati.domain.gold.service.GoldQuoteCacheService;
+import com.hanati.domain.gold.service.TradeDataListener;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Component;
@@ -13,14 +24,17 @@ import org.springframework.web.socket.handler.TextWebSocketHandler;
 
 import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
+import java.util.Map;
 import java.util.Set;
-import java.util.concurrent.*;
+import java.util.concurrent.ConcurrentHashMap;
 
 /**
  * 금현물 실시간 체결 데이터 브로드캐스트 WebSocket 핸들러
  *
  * 엔드포인트: ws://localhost:8080/ws/gold-trade
  * 기능: 키움증권에서 수신한 실시간 체결 데이터를 연결된 모든 클라이언트에게 브로드캐스트
+ * 연결 직후: 상품별 마지막 체결을 "snapshot":true, "ageMs", "stale"과 함께 전송 (수신 이력이 없으면 REST 현재가)
+ * 갱신 빈도: {"action":"rate","maxRate":"1hz"} (productCode를 주면 해당 상품만) - 초과분은 상품별 최신 값으로 병합
  */
 @Slf4j
 @Component
@@ -28,14 +42,20 @@ import java.util.concurrent.*;
 public class GoldTradeWebSocketHandler extends TextWebSocketHandler {
 
     private final GoldQuoteCacheService cacheService;
+    private final OutboundSessionManager outboundManager;
+    private final MarketDataExecutor marketDataExecutor;
+    private final MarketDataMetrics metrics;
+    private final GoldKiwoomWebSocketClient kiwoomClient;
+    private final SnapshotFallbackLoader snapshotLoader;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     // 연결된 클라이언트 세션 관리 (스레드 안전)
     private final Set<WebSocketSession> sessions = ConcurrentHashMap.newKeySet();
 
-    // 브로드캐스트 스케줄러
-    private ScheduledExecutorService broadcastScheduler;
-    private static final long BROADCAST_INTERVAL_MS = 200; // 200ms 간격
+    // 체결 수신 → 전체 세션 푸시 (상품별 병합, 시세 전용 실행기에서 실행)
+    private CoalescingDispatcher<String> dispatcher;
+    private ChannelMeters meters;
+    private final TradeDataListener tradeDataListener = this::onTradeData;
 
     // 금현물 상품 코드
     private static final String GOLD_1KG = "M04020000";
@@ -43,23 +63,48 @@ public class GoldTradeWebSocketHandler extends TextWebSocketHandler {
 
     @PostConstruct
     public void init() {
-        startBroadcastScheduler();
+        meters = metrics.channel("gold_trade");
+        dispatcher = new CoalescingDispatcher<>(marketDataExecutor, this::pushLatest, meters);
+        metrics.bindSessions("gold_trade", sessions, Set::size);
+        kiwoomClient.addTradeDataListener(tradeDataListener);
         log.info("[금현물 체결 WebSocket] 브로드캐스트 핸들러 초기화 완료");
     }
 
     @Override
     public void afterConnectionEstablished(WebSocketSession session) throws Exception {
         sessions.add(session);
+        outboundManager.register(session, "gold_trade");
         log.info("[금현물 체결 WebSocket] 클라이언트 연결: {} (총 {}명)",
                 session.getId(), sessions.size());
 
-        // 연결 즉시 현재 캐시된 데이터 전송
-        sendCachedData(session);
+        // 연결 즉시 상품별 마지막 체결 전송 (같은 상품의 실시간 푸시와 같은 샤드)
+        for (String productCode : new String[]{GOLD_1KG, GOLD_100G}) {
+            marketDataExecutor.execute(productCode, () -> sendSnapshot(session, productCode, true));
+        }
+    }
+
+    @Override
+    protected void handleTextMessage(WebSocketSession session, TextMessage message) {
+        try {
+            @SuppressWarnings("unchecked")
+            Map<String, Object> request = objectMapper.readValue(message.getPayload(), Map.class);
+            Object action = request.get("action");
+
+            if ("rate".equals(action)) {
+                handleRate(session, (String) request.get("productCode"), request.get("maxRate"));
+            } else {
+                sendControl(session, Map.of("type", "error", "message", "Unknown action: " + action));
+            }
+        } catch (Exception e) {
+            log.warn("[금현물 체결 WebSocket] 메시지 처리 실패 - 세션: {}, 원인: {}", session.getId(), e.getMessage());
+            sendControl(session, Map.of("type", "error", "message", "Invalid message format"));
+        }
     }
 
     @Override
     public void afterConnectionClosed(WebSocketSession session, CloseStatus status) throws Exception {
         sessions.remove(session);
+        outboundManager.unregister(session);
         log.info("[금현물 체결 WebSocket] 클라이언트 연결 해제: {} (총 {}명)",
                 session.getId(), sessions.size());
     }
@@ -77,126 +122,115 @@ public class GoldTradeWebSocketHandler extends TextWebSocketHandler {
             log.error("[금현물 체결 WebSocket] 전송 오류 - 세션: {}", session.getId(), exception);
         }
         sessions.remove(session);
+        outboundManager.unregister(session);
     }
 
     /**
-     * 브로드캐스트 스케줄러 시작
+     * 키움 체결 수신 알림 (키움 수신 스레드) - 연결된 세션이 있을 때만 푸시 대기열에 등록
      */
-    private void startBroadcastScheduler() {
-        broadcastScheduler = Executors.newSingleThreadScheduledExecutor(r -> {
-            Thread thread = new Thread(r, "gold-trade-broadcast");
-            thread.setDaemon(true);
-            return thread;
-        });
-
-        // 200ms마다 캐시된 데이터를 모든 클라이언트에게 브로드캐스트
-        broadcastScheduler.scheduleAtFixedRate(() -> {
-            try {
-                if (!sessions.isEmpty()) {
-                    broadcastCachedData();
-                }
-            } catch (Exception e) {
-                log.error("[금현물 체결 WebSocket] 브로드캐스트 오류", e);
-            }
-        }, 0, BROADCAST_INTERVAL_MS, TimeUnit.MILLISECONDS);
-
-        log.info("[금현물 체결 WebSocket] 브로드캐스트 스케줄러 시작 ({}ms 간격)", BROADCAST_INTERVAL_MS);
+    private void onTradeData(GoldTradeData tradeData) {
+        if (!sessions.isEmpty()) {
+            dispatcher.signal(tradeData.getProductCode());
+        }
     }
 
     /**
-     * 캐시된 데이터를 모든 클라이언트에게 브로드캐스트
+     * 상품의 최신 체결 데이터를 모든 클라이언트에게 브로드캐스트 (시세 실행기 샤드 스레드)
      */
-    private void broadcastCachedData() {
-        // 금 1kg 데이터
-        GoldTradeData gold1kg = cacheService.getTradeData(GOLD_1KG);
-        if (gold1kg != null) {
-            broadcastToAll(gold1kg);
-        }
-
-        // 미니금 100g 데이터
-        GoldTradeData gold100g = cacheService.getTradeData(GOLD_100G);
-        if (gold100g != null) {
-            broadcastToAll(gold100g);
+    private void pushLatest(String productCode) {
+        // 캐시 항목 저장 시각 = 키움 수신 시각
+        CacheEntry<GoldTradeData> entry = cacheService.getTradeEntry(productCode);
+        if (entry != null) {
+            meters.recordFanOutLatency(entry.getStoredNanos());
+            broadcastToAll(entry.getValue(), entry.getStoredNanos());
         }
     }
 
     /**
-     * 특정 세션에 캐시된 데이터 전송 (연결 직후)
+     * 특정 세션에 상품의 마지막 체결 전송 (연결 직후, 시세 실행기 샤드 스레드)
+     * @param fallback 체결 기록이 없을 때 REST 대체 조회 여부 (조회 완료 후 재시도는 false)
      */
-    private void sendCachedData(WebSocketSession session) {
-        try {
-            // 금 1kg 데이터
-            GoldTradeData gold1kg = cacheService.getTradeData(GOLD_1KG);
-            if (gold1kg != null) {
-                sendToSession(session, gold1kg);
-            }
+    private void sendSnapshot(WebSocketSession session, String productCode, boolean fallback) {
+        if (!session.isOpen()) {
+            return;
+        }
 
-            // 미니금 100g 데이터
-            GoldTradeData gold100g = cacheService.getTradeData(GOLD_100G);
-            if (gold100g != null) {
-                sendToSession(session, gold100g);
+        // TTL 경과 여부와 무관하게 마지막 체결
+        CacheEntry<GoldTradeData> entry = cacheService.getLastTradeEntry(productCode);
+        if (entry != null) {
+            try {
+                OutboundFrame frame = OutboundFrame.encodeSnapshot(objectMapper, entry.getValue(),
+                        entry.getAgeMillis(), entry.isStale());
+                outboundManager.publish(session, productCode, frame.message());
+            } catch (Exception e) {
+                log.error("[금현물 체결 WebSocket] 스냅샷 전송 실패 - 세션: {}", session.getId(), e);
             }
-        } catch (Exception e) {
-            log.error("[금현물 체결 WebSocket] 캐시 데이터 전송 실패 - 세션: {}", session.getId(), e);
+            return;
+        }
+
+        if (fallback) {
+            snapshotLoader.load("gold_trade:" + productCode, () -> kiwoomClient.loadTradeSnapshot(productCode))
+                    .thenRun(() -> marketDataExecutor.execute(productCode, () -> sendSnapshot(session, productCode, false)));
         }
     }
 
     /**
      * 모든 세션에 데이터 브로드캐스트
+     * @param receivedNanos 키움 수신 시각 (전송 완료 시 틱 지연 기록)
      */
-    private void broadcastToAll(GoldTradeData data) {
-        String message = toJson(data);
-        if (message == null) {
+    private void broadcastToAll(GoldTradeData data, long receivedNanos) {
+        // 한 번만 직렬화한 프레임을 모든 세션이 공유 (세션별 TextMessage 생성 없음)
+        OutboundFrame frame = toFrame(data);
+        if (frame == null) {
             return;
         }
 
-        Set<WebSocketSession> closedSessions = new CopyOnWriteArraySet<>();
-
+        // 세션 버퍼에 적재만 하고 반환 (느린 세션은 전송 관리자가 정리)
         for (WebSocketSession session : sessions) {
             if (session.isOpen()) {
-                try {
-                    synchronized (session) {
-                        session.sendMessage(new TextMessage(message));
-                    }
-                } catch (Exception e) {
-                    log.error("[금현물 체결 WebSocket] 메시지 전송 실패 - 세션: {}", session.getId(), e);
-                    closedSessions.add(session);
-                }
+                outboundManager.publish(session, data.getProductCode(), frame.message(), receivedNanos);
             } else {
-                closedSessions.add(session);
+                sessions.remove(session);
             }
         }
-
-        // 닫힌 세션 정리
-        sessions.removeAll(closedSessions);
     }
 
     /**
-     * 특정 세션에 데이터 전송
+     * 갱신 빈도 변경 - 상품 코드가 있으면 해당 상품만, 없으면 세션 기본값
      */
-    private void sendToSession(WebSocketSession session, GoldTradeData data) {
-        String message = toJson(data);
-        if (message == null) {
+    private void handleRate(WebSocketSession session, String productCode, Object maxRate) {
+        UpdateRate rate = UpdateRate.parse(maxRate);
+        if (rate == null) {
+            sendControl(session, Map.of("type", "error", "message", "Invalid maxRate: " + maxRate));
             return;
         }
 
+        if (productCode != null) {
+            outboundManager.setRate(session, productCode, rate);
+        } else {
+            outboundManager.setRate(session, rate);
+        }
+        sendControl(session, Map.of("type", "rate", "status", "success",
+                "maxRate", maxRate != null ? maxRate.toString() : "realtime"));
+    }
+
+    /**
+     * 제어 메시지 전송 (빈도 응답, 에러)
+     */
+    private void sendControl(WebSocketSession session, Map<String, String> body) {
         try {
-            if (session.isOpen()) {
-                synchronized (session) {
-                    session.sendMessage(new TextMessage(message));
-                }
-            }
+            outboundManager.send(session, new TextMessage(objectMapper.writeValueAsString(body)));
         } catch (Exception e) {
-            log.error("[금현물 체결 WebSocket] 메시지 전송 실패 - 세션: {}", session.getId(), e);
+            log.error("[금현물 체결 WebSocket] 제어 메시지 전송 실패 - 세션: {}", session.getId(), e);
         }
     }
 
     /**
-     * 객체를 JSON 문자열로 변환
+     * 객체를 전송 프레임으로 직렬화
      */
-    private String toJson(Object obj) {
+    private OutboundFrame toFrame(Object obj) {
         try {
-            return objectMapper.writeValueAsString(obj);
+            return OutboundFrame.encode(objectMapper, obj);
         } catch (Exception e) {
             log.error("[금현물 체결 WebSocket] JSON 변환 실패", e);
             return null;
@@ -205,18 +239,8 @@ public class GoldTradeWebSocketHandler extends TextWebSocketHandler {
 
     @PreDestroy
     public void destroy() {
-        // 스케줄러 중지
-        if (broadcastScheduler != null && !broadcastScheduler.isShutdown()) {
-            broadcastScheduler.shutdown();
-            try {
-                if (!broadcastScheduler.awaitTermination(5, TimeUnit.SECONDS)) {
-                    broadcastScheduler.shutdownNow();
-                }
-            } catch (InterruptedException e) {
-                broadcastScheduler.shutdownNow();
-                Thread.currentThread().interrupt();
-            }
-        }
+        // 리스너 해제
+        kiwoomClient.removeTradeDataListener(tradeDataListener);
 
         // 모든 세션 종료
         for (WebSocketSession session : sessions) {
@@ -1,8 +1,14 @@
 package com.hanati.domain.gold.service;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hanati.common.config.RealtimeConfig;
 import com.hanati.common.config.TokenConfig;
+import com.hanati.common.journal.MarketDataJournal;
+import com.hanati.common.journal.MarketDataSource;
+import com.hanati.common.metrics.MarketDataMetrics;
+import com.hanati.common.metrics.UpstreamMeters;
 import com.hanati.common.service.KiwoomTokenService;
+import com.hanati.domain.gold.dto.GoldCurrentPriceResponse;
 import com.hanati.domain.gold.dto.GoldQuoteData;
 import com.hanati.domain.gold.dto.GoldTradeData;
 import lombok.RequiredArgsConstructor;
@@ -14,6 +20,7 @@ import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.client.standard.StandardWebSocketClient;
 import org.springframework.web.socket.handler.TextWebSocketHandler;
 
+import jakarta.annotation.PostConstruct;
 import jakarta.annotation.PreDestroy;
 import java.time.LocalDateTime;
 import java.time.format.DateTimeFormatter;
@@ -41,12 +48,20 @@ public class GoldKiwoomWebSocketClient extends TextWebSocketHandler {
 
     private final KiwoomTokenService kiwoomTokenService;
     private final TokenConfig tokenConfig;
+    private final RealtimeConfig realtimeConfig;
     private final GoldQuoteCacheService cacheService;
+    private final GoldService goldService;
+    private final MarketDataJournal journal;
+    private final MarketDataMetrics metrics;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
     private WebSocketSession session;
     private final Set<String> subscribedProducts = ConcurrentHashMap.newKeySet();
 
+    // 수신 지표 (type별 1회 생성 후 재사용)
+    private UpstreamMeters tradeMeters;
+    private UpstreamMeters quoteMeters;
+
     // 리스너 리스트 (스레드 안전)
     private final java.util.List<TradeDataListener> tradeDataListeners = new java.util.concurrent.CopyOnWriteArrayList<>();
     private final java.util.List<QuoteDataListener> quoteDataListeners = new java.util.concurrent.CopyOnWriteArrayList<>();
@@ -75,8 +90,14 @@ public class GoldKiwoomWebSocketClient extends TextWebSocketHandler {
 
     private volatile ConnectionState connectionState = ConnectionState.DISCONNECTED;
 
-    // 키움증권 WebSocket URL
-    private static final String KIWOOM_WS_URL = "wss://api.kiwoom.com:10000/api/dostk/websocket";
+    /**
+     * 수신 지표 등록 (체결 "00" / 호가 "01")
+     */
+    @PostConstruct
+    public void initMetrics() {
+        tradeMeters = metrics.upstream("kiwoom", "00");
+        quoteMeters = metrics.upstream("kiwoom", "01");
+    }
 
     /**
      * WebSocket 연결 및 LOGIN
@@ -94,12 +115,14 @@ public class GoldKiwoomWebSocketClient extends TextWebSocketHandler {
                 throw new RuntimeException("Circuit Breaker가 활성화되어 연결할 수 없습니다");
             }
 
+            // 키움증권 WebSocket URL (부하 시험 시 로컬 시뮬레이터 주소로 교체)
+            String url = realtimeConfig.getUpstream().getKiwoomWsUrl();
             connectionState = ConnectionState.CONNECTING;
             log.info("[금현물 WebSocket] 연결 시도: {} (재연결 시도: {})",
-                    KIWOOM_WS_URL, reconnectAttempts.get());
+                    url, reconnectAttempts.get());
 
             StandardWebSocketClient client = new StandardWebSocketClient();
-            session = client.execute(this, KIWOOM_WS_URL).get();
+            session = client.execute(this, url).get();
 
             connectionState = ConnectionState.CONNECTED;
             log.info("[금현물 WebSocket] 연결 성공");
@@ -207,6 +230,30 @@ public class GoldKiwoomWebSocketClient extends TextWebSocketHandler {
         subscribe(productCode, "01");
     }
 
+    /**
+     * 체결 수신 이력이 없는 상품의 REST 현재가(ka50100)를 캐시에 저장 (스냅샷 대체 조회 스레드)
+     * - 리스너 통지 없음: 연결 직후 스냅샷은 요청한 세션에만 전송
+     */
+    public void loadTradeSnapshot(String productCode) {
+        GoldCurrentPriceResponse price = goldService.getCurrentPrice(productCode);
+        GoldTradeData tradeData = GoldTradeData.builder()
+                .productCode(productCode)
+                .price(price.getCurrentPrice())
+                .changeAmount(price.getChangeAmount())
+                .changeRate(price.getChangeRate())
+                .volume(price.getVolume())
+                .timestamp(price.getTimestamp())
+                .build();
+        cacheService.cacheTradeData(tradeData, System.nanoTime());
+    }
+
+    /**
+     * 호가 수신 이력이 없는 상품의 REST 호가(ka50101)를 캐시에 저장 (스냅샷 대체 조회 스레드)
+     */
+    public void loadQuoteSnapshot(String productCode) {
+        cacheService.cacheQuoteData(goldService.getOrderBook(productCode), System.nanoTime());
+    }
+
     /**
      * 인증 상태 확인
      */
@@ -224,9 +271,13 @@ public class GoldKiwoomWebSocketClient extends TextWebSocketHandler {
 
     @Override
     public void handleTextMessage(WebSocketSession session, TextMessage message) {
+        // 틱 지연 측정 기준 시각 (캐시 → 팬아웃 → 클라이언트 전송까지 전달)
+        long receivedNanos = System.nanoTime();
         try {
             String payload = message.getPayload();
             log.debug("[금현물 WebSocket 수신] {}", payload);
+            // 원본 프레임 저널 기록 (대기열 적재만, 비활성 시 무시)
+            journal.record(MarketDataSource.KIWOOM_GOLD, payload);
 
             // JSON 응답 처리 (LOGIN 응답 등)
             if (payload.startsWith("{")) {
@@ -236,7 +287,7 @@ public class GoldKiwoomWebSocketClient extends TextWebSocketHandler {
 
             // 실시간 데이터 처리 (파이프 구분자)
             if (payload.contains("|")) {
-                handleRealtimeData(payload);
+                handleRealtimeData(payload, receivedNanos);
                 return;
             }
 
@@ -250,8 +301,10 @@ public class GoldKiwoomWebSocketClient extends TextWebSocketHandler {
     /**
      * 실시간 데이터 처리
      * 형식: type|productCode|data1|data2|...
+     * @param receivedNanos 수신 시각 (System.nanoTime)
      */
-    private void handleRealtimeData(String payload) {
+    private void handleRealtimeData(String payload, long receivedNanos) {
+        long startNanos = System.nanoTime();
         try {
             String[] fields = payload.split("\\|");
 
@@ -266,10 +319,10 @@ public class GoldKiwoomWebSocketClient extends TextWebSocketHandler {
             if ("00".equals(type)) {
                 // 체결 데이터
                 GoldTradeData tradeData = parseTradeData(productCode, fields);
-                log.info("[금현물 체결] {}", tradeData);
+                log.debug("[금현물 체결] {}", tradeData);
 
                 // 캐시에 저장
-                cacheService.cacheTradeData(tradeData);
+                cacheService.cacheTradeData(tradeData, receivedNanos);
 
                 // 등록된 리스너들에게 통지
                 for (TradeDataListener listener : tradeDataListeners) {
@@ -279,14 +332,15 @@ public class GoldKiwoomWebSocketClient extends TextWebSocketHandler {
                         log.error("[금현물 WebSocket] 체결 데이터 리스너 오류", e);
                     }
                 }
+                tradeMeters.record(startNanos);
 
             } else if ("01".equals(type)) {
                 // 호가 데이터
                 GoldQuoteData quoteData = parseQuoteData(productCode, fields);
-                log.info("[금현물 호가] {}", quoteData);
+                log.debug("[금현물 호가] {}", quoteData);
 
                 // 캐시에 저장
-                cacheService.cacheQuoteData(quoteData);
+                cacheService.cacheQuoteData(quoteData, receivedNanos);
 
                 // 등록된 리스너들에게 통지
                 for (QuoteDataListener listener : quoteDataListeners) {
@@ -296,6 +350,7 @@ public class GoldKiwoomWebSocketClient extends TextWebSocketHandler {
                         log.error("[금현물 WebSocket] 호가 데이터 리스너 오류", e);
                     }
                 }
+                quoteMeters.record(startNanos);
 
             } else {
                 log.warn("[금현물 WebSocket] 알 수 없는 데이터 타입: {}", type);
@@ -309,8 +364,9 @@ public class GoldKiwoomWebSocketClient extends TextWebSocketHandler {
     /**
      * 체결 데이터 파싱 (type: "00")
      * 형식: 00|productCode|price|quantity|changeAmount|changeRate|volume|timestamp
+     * - 상태가 없으므로 static (벤치마크에서 직접 호출)
      */
-    private GoldTradeData parseTradeData(String productCode, String[] fields) {
+    static GoldTradeData parseTradeData(String productCode, String[] fields) {
         try {
             return GoldTradeData.builder()
                     .productCode(productCode)
@@ -330,8 +386,9 @@ public class GoldKiwoomWebSocketClient extends TextWebSocketHandler {
     /**
      * 호가 데이터 파싱 (type: "01")
      * 형식: 01|productCode|bidPrice1|bidQty1|bidPrice2|bidQty2|...|bidPrice10|bidQty10|askPrice1|askQty1|...|askPrice10|askQty10|timestamp
+     * - 상태가 없으므로 static (벤치마크에서 직접 호출)
      */
-    private GoldQuoteData parseQuoteData(String productCode, String[] fields) {
+    static GoldQuoteData parseQuoteData(String productCode, String[] fields) {
         try {
             return GoldQuoteData.builder()
                     .productCode(productCode)
@@ -388,7 +445,7 @@ public class GoldKiwoomWebSocketClient extends TextWebSocketHandler {
     /**
      * Double 파싱 헬퍼
      */
-    private Double parseDouble(String[] fields, int index) {
+    private static Double parseDouble(String[] fields, int index) {
         if (index >= fields.length || fields[index] == null || fields[index].trim().isEmpty()) {
             return null;
         }
@@ -403,7 +460,7 @@ public class GoldKiwoomWebSocketClient extends TextWebSocketHandler {
     /**
      * Long 파싱 헬퍼
      */
-    private Long parseLong(String[] fields, int index) {
+    private static Long parseLong(String[] fields, int index) {
         if (index >= fields.length || fields[index] == null || fields[index].trim().isEmpty()) {
             return null;
         }
@@ -419,7 +476,7 @@ public class GoldKiwoomWebSocketClient extends TextWebSocketHandler {
      * Timestamp 파싱 헬퍼
      * 키움증권 형식이 확정되지 않아 현재 시각을 반환하거나, 있으면 그대로 사용
      */
-    private String parseTimestamp(String[] fields, int index) {
+    private static String parseTimestamp(String[] fields, int index) {
         if (index >= fields.length || fields[index] == null || fields[index].trim().isEmpty()) {
             return LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss"));
         }
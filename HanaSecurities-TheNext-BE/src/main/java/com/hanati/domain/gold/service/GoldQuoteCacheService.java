@@ -1,12 +1,17 @@
 package com.hanati.domain.gold.service;
 
+import com.hanati.common.cache.CacheEntry;
+import com.hanati.common.metrics.ChannelMeters;
+import com.hanati.common.metrics.MarketDataMetrics;
 import com.hanati.domain.gold.dto.GoldQuoteData;
 import com.hanati.domain.gold.dto.GoldTradeData;
+import io.micrometer.core.instrument.Counter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
 
 /**
  * 금현물 실시간 데이터 캐시 서비스
@@ -18,37 +23,55 @@ import java.util.concurrent.ConcurrentHashMap;
 @Service
 public class GoldQuoteCacheService {
 
-    private static final long TTL_MILLIS = 2000; // 2초
+    private static final long TTL_NANOS = TimeUnit.SECONDS.toNanos(2); // 2초
 
-    // 체결 데이터 캐시 (productCode -> CachedData<GoldTradeData>)
-    private final Map<String, CachedData<GoldTradeData>> tradeCache = new ConcurrentHashMap<>();
+    // 체결 데이터 캐시 (productCode -> 체결 데이터 + 수신 시각)
+    private final Map<String, CacheEntry<GoldTradeData>> tradeCache = new ConcurrentHashMap<>();
 
-    // 호가 데이터 캐시 (productCode -> CachedData<GoldQuoteData>)
-    private final Map<String, CachedData<GoldQuoteData>> quoteCache = new ConcurrentHashMap<>();
+    // 호가 데이터 캐시 (productCode -> 호가 데이터 + 수신 시각)
+    private final Map<String, CacheEntry<GoldQuoteData>> quoteCache = new ConcurrentHashMap<>();
+
+    private final Counter tradeWrites;
+    private final Counter quoteWrites;
+    private final ChannelMeters tradeMeters;
+    private final ChannelMeters quoteMeters;
+
+    public GoldQuoteCacheService(MarketDataMetrics metrics) {
+        this.tradeWrites = metrics.cacheWrites("gold_trade");
+        this.quoteWrites = metrics.cacheWrites("gold_quote");
+        this.tradeMeters = metrics.channel("gold_trade");
+        this.quoteMeters = metrics.channel("gold_quote");
+    }
 
     /**
      * 체결 데이터 캐시 저장
+     * @param receivedNanos 키움 프레임 수신 시각 (System.nanoTime, /ws/gold-trade 틱 지연 기준)
      */
-    public void cacheTradeData(GoldTradeData tradeData) {
+    public void cacheTradeData(GoldTradeData tradeData, long receivedNanos) {
         if (tradeData == null || tradeData.getProductCode() == null) {
             log.warn("[금현물 캐시] 체결 데이터가 null이거나 상품 코드가 없습니다");
             return;
         }
 
-        tradeCache.put(tradeData.getProductCode(), new CachedData<>(tradeData));
+        tradeCache.put(tradeData.getProductCode(), new CacheEntry<>(tradeData, receivedNanos, receivedNanos + TTL_NANOS));
+        tradeWrites.increment();
+        tradeMeters.recordCacheLatency(receivedNanos);
         log.debug("[금현물 캐시] 체결 데이터 저장: {}", tradeData.getProductCode());
     }
 
     /**
      * 호가 데이터 캐시 저장
+     * @param receivedNanos 키움 프레임 수신 시각 (System.nanoTime, /ws/gold-quote 틱 지연 기준)
      */
-    public void cacheQuoteData(GoldQuoteData quoteData) {
+    public void cacheQuoteData(GoldQuoteData quoteData, long receivedNanos) {
         if (quoteData == null || quoteData.getProductCode() == null) {
             log.warn("[금현물 캐시] 호가 데이터가 null이거나 상품 코드가 없습니다");
             return;
         }
 
-        quoteCache.put(quoteData.getProductCode(), new CachedData<>(quoteData));
+        quoteCache.put(quoteData.getProductCode(), new CacheEntry<>(quoteData, receivedNanos, receivedNanos + TTL_NANOS));
+        quoteWrites.increment();
+        quoteMeters.recordCacheLatency(receivedNanos);
         log.debug("[금현물 캐시] 호가 데이터 저장: {}", quoteData.getProductCode());
     }
 
@@ -56,38 +79,48 @@ public class GoldQuoteCacheService {
      * 체결 데이터 조회 (TTL 체크)
      */
     public GoldTradeData getTradeData(String productCode) {
-        CachedData<GoldTradeData> cached = tradeCache.get(productCode);
-
-        if (cached == null) {
-            return null;
-        }
+        CacheEntry<GoldTradeData> cached = getTradeEntry(productCode);
+        return cached != null ? cached.getValue() : null;
+    }
 
-        if (cached.isExpired()) {
-            tradeCache.remove(productCode);
-            log.debug("[금현물 캐시] 체결 데이터 만료: {}", productCode);
-            return null;
-        }
+    /**
+     * 체결 데이터 캐시 항목 조회 (TTL 체크, 수신 시각 포함)
+     * - 만료 항목은 지우지 않음 (구독 직후 마지막 값 전송용, 상품 2종 고정이라 누적 없음)
+     */
+    public CacheEntry<GoldTradeData> getTradeEntry(String productCode) {
+        CacheEntry<GoldTradeData> cached = tradeCache.get(productCode);
+        return cached != null && !cached.isStale() ? cached : null;
+    }
 
-        return cached.getData();
+    /**
+     * 마지막 체결 데이터 캐시 항목 조회 (TTL 무관, 구독 직후 전송용)
+     */
+    public CacheEntry<GoldTradeData> getLastTradeEntry(String productCode) {
+        return tradeCache.get(productCode);
     }
 
     /**
      * 호가 데이터 조회 (TTL 체크)
      */
     public GoldQuoteData getQuoteData(String productCode) {
-        CachedData<GoldQuoteData> cached = quoteCache.get(productCode);
-
-        if (cached == null) {
-            return null;
-        }
+        CacheEntry<GoldQuoteData> cached = getQuoteEntry(productCode);
+        return cached != null ? cached.getValue() : null;
+    }
 
-        if (cached.isExpired()) {
-            quoteCache.remove(productCode);
-            log.debug("[금현물 캐시] 호가 데이터 만료: {}", productCode);
-            return null;
-        }
+    /**
+     * 호가 데이터 캐시 항목 조회 (TTL 체크, 수신 시각 포함)
+     * - 만료 항목은 지우지 않음 (구독 직후 마지막 값 전송용, 상품 2종 고정이라 누적 없음)
+     */
+    public CacheEntry<GoldQuoteData> getQuoteEntry(String productCode) {
+        CacheEntry<GoldQuoteData> cached = quoteCache.get(productCode);
+        return cached != null && !cached.isStale() ? cached : null;
+    }
 
-        return cached.getData();
+    /**
+     * 마지막 호가 데이터 캐시 항목 조회 (TTL 무관, 구독 직후 전송용)
+     */
+    public CacheEntry<GoldQuoteData> getLastQuoteEntry(String productCode) {
+        return quoteCache.get(productCode);
     }
 
     /**
@@ -103,29 +136,8 @@ public class GoldQuoteCacheService {
      * 만료된 캐시 정리
      */
     public void cleanupExpired() {
-        tradeCache.entrySet().removeIf(entry -> entry.getValue().isExpired());
-        quoteCache.entrySet().removeIf(entry -> entry.getValue().isExpired());
+        tradeCache.entrySet().removeIf(entry -> entry.getValue().isStale());
+        quoteCache.entrySet().removeIf(entry -> entry.getValue().isStale());
         log.debug("[금현물 캐시] 만료된 캐시 정리 완료");
     }
-
-    /**
-     * 캐시 데이터 래퍼 (타임스탬프 포함)
-     */
-    private class CachedData<T> {
-        private final T data;
-        private final long timestamp;
-
-        public CachedData(T data) {
-            this.data = data;
-            this.timestamp = System.currentTimeMillis();
-        }
-
-        public T getData() {
-            return data;
-        }
-
-        public boolean isExpired() {
-            return (System.currentTimeMillis() - timestamp) > TTL_MILLIS;
-        }
-    }
 }
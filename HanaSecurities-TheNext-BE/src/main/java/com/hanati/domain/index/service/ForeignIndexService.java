@@ -1,13 +1,14 @@
 package com.hanati.domain.index.service;
 
 import com.hanati.common.config.TokenConfig;
+import com.hanati.common.gateway.KisPriority;
+import com.hanati.common.gateway.KisRestGateway;
 import com.hanati.common.service.TokenService;
 import com.hanati.domain.index.dto.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.util.UriComponentsBuilder;
 
@@ -20,7 +21,7 @@ public class ForeignIndexService {
 
     private final TokenConfig tokenConfig;
     private final TokenService tokenService;
-    private final RestTemplate restTemplate;
+    private final KisRestGateway kisRestGateway;
 
     // 해외 지수 코드 매핑 (4개 지수)
     private static final Map<String, IndexInfo> FOREIGN_INDEX_MAP = new HashMap<>() {{
@@ -124,7 +125,8 @@ public class ForeignIndexService {
             HttpEntity<Void> request = new HttpEntity<>(headers);
 
             // API 호출
-            ResponseEntity<KisForeignIndexTimeApiResponse> response = restTemplate.exchange(
+            ResponseEntity<KisForeignIndexTimeApiResponse> response = kisRestGateway.exchange(
+                    KisPriority.CHART,
                     url,
                     HttpMethod.GET,
                     request,
@@ -191,8 +193,8 @@ public class ForeignIndexService {
             String changeRate = output1 != null ? output1.getPrdyCtrt() : "0";
             String changeSign = output1 != null ? output1.getPrdyVrssSign() : "3";
 
-            // 최신 데이터가 먼저 오는 경우 역순으로 정렬
-            List<KisForeignIndexTimeApiResponse.TimeData> dataList = apiResponse.getOutput2();
+            // 최신 데이터가 먼저 오는 경우 역순으로 정렬 (병합된 호출과 공유하는 응답이므로 복사본 정렬)
+            List<KisForeignIndexTimeApiResponse.TimeData> dataList = new ArrayList<>(apiResponse.getOutput2());
             Collections.reverse(dataList);  // 시간 순서대로 정렬
 
             for (KisForeignIndexTimeApiResponse.TimeData timeData : dataList) {
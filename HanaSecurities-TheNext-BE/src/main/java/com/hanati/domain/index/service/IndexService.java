@@ -1,13 +1,14 @@
 package com.hanati.domain.index.service;
 
 import com.hanati.common.config.TokenConfig;
+import com.hanati.common.gateway.KisPriority;
+import com.hanati.common.gateway.KisRestGateway;
 import com.hanati.common.service.TokenService;
 import com.hanati.domain.index.dto.*;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.client.RestClientException;
 import org.springframework.web.util.UriComponentsBuilder;
 
@@ -25,7 +26,7 @@ public class IndexService {
 
     private final TokenConfig tokenConfig;
     private final TokenService tokenService;
-    private final RestTemplate restTemplate;
+    private final KisRestGateway kisRestGateway;
 
     // 지수 코드 매핑
     private static final Map<String, String> INDEX_CODES = new HashMap<>() {{
@@ -131,7 +132,8 @@ public class IndexService {
             HttpEntity<Void> request = new HttpEntity<>(headers);
 
             // API 호출
-            ResponseEntity<KisIndexApiResponse> response = restTemplate.exchange(
+            ResponseEntity<KisIndexApiResponse> response = kisRestGateway.exchange(
+                    KisPriority.QUOTE,
                     url,
                     HttpMethod.GET,
                     request,
@@ -186,7 +188,8 @@ public class IndexService {
             HttpEntity<Void> request = new HttpEntity<>(headers);
 
             // API 호출
-            ResponseEntity<KisIndexTimeApiResponse> response = restTemplate.exchange(
+            ResponseEntity<KisIndexTimeApiResponse> response = kisRestGateway.exchange(
+                    KisPriority.CHART,
                     url,
                     HttpMethod.GET,
                     request,
@@ -1,22 +1,54 @@
 package com.hanati.domain.quote.handler;
 
 import com.fasterxml.jackson.databind.ObjectMapper;
-import com.hanati.domain.quote.dto.RealtimeQuoteResponse;
+import com.hanati.common.metrics.ChannelMeters;
+import com.hanati.common.metrics.MarketDataMetrics;
+import com.hanati.common.realtime.CoalescingDispatcher;
+import com.hanati.common.realtime.MarketDataExecutor;
+import com.hanati.common.realtime.OrderBookDeltaEncoder;
+import com.hanati.common.realtime.OutboundFrame;
+import com.hanati.common.realtime.OutboundSessionManager;
+import com.hanati.common.realtime.SnapshotFallbackLoader;
+import com.hanati.common.realtime.SubscriptionRegistry;
+import com.hanati.common.realtime.UpdateRate;
+import com.hanati.common.snapshot.OrderBookView;
+import com.hanati.domain.quote.service.KisSubscriptionStatus;
 import com.hanati.domain.quote.service.KisWebSocketClient;
 import com.hanati.domain.quote.service.QuoteCacheService;
+import com.hanati.domain.quote.service.RealtimeQuoteListener;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
-import org.springframework.scheduling.annotation.Scheduled;
 import org.springframework.stereotype.Component;
 import org.springframework.web.socket.CloseStatus;
 import org.springframework.web.socket.TextMessage;
 import org.springframework.web.socket.WebSocketSession;
 import org.springframework.web.socket.handler.TextWebSocketHandler;
 
+import java.util.LinkedHashMap;
+import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 
+/**
+ * 국내주식 실시간 호가 WebSocket Handler (/ws/quote)
+ *
+ * - 기본: 호가 갱신마다 10단계 전체를 {"type":"quote","data":{...}}로 전송
+ * - 증분 프로토콜(선택): 구독 시 "protocol":"delta"를 보내면 전체 스냅샷 1회 후 바뀐 단계만 seq와 함께 전송
+ *   클라이언트가 seq 누락을 감지하면 {"action":"resync","stockCode":...}로 스냅샷 재요청
+ *   (스냅샷 수신 전 증분과 스냅샷 seq 이하의 증분은 클라이언트가 무시)
+ * - 구독 직후: 마지막 호가를 "snapshot":true, "ageMs", "stale"과 함께 즉시 전송
+ *   (수신 이력이 없는 종목은 REST 호가를 single-flight로 조회해 전송, 증분 세션은 seq 기준 스냅샷 프레임)
+ * - 묶음 구독: "stockCodes":[...]로 여러 종목을 한 번에 구독 → 응답 1건, 이후 전송 주기마다 바뀐 종목을
+ *   {"type":"batch","items":[...]} 한 프레임으로 전송 (증분 프로토콜과 함께 사용 가능)
+ * - 갱신 빈도: 구독 시 "maxRate"("realtime", 5, "1hz", "onchange")로 종목별 지정,
+ *   {"action":"rate","maxRate":...}로 세션 기본값 변경 - 초과분은 종목별 최신 값으로 병합 (증분은 스냅샷으로 교체)
+ * - 등록 상태: 구독 응답은 KIS 등록 결과를 기다리지 않고 즉시 전송, 이후 결과를
+ *   {"type":"status","stockCode":...,"status":"subscribed|standby|failed|pending"}로 전송
+ *   (standby/failed는 실시간 호가 없이 마지막 호가 유지, 이미 결과가 난 종목은 구독 직후 현재 상태 전송)
+ */
 @Component
 @RequiredArgsConstructor
 @Slf4j
@@ -24,18 +56,49 @@ public class SimpleQuoteWebSocketHandler extends TextWebSocketHandler {
 
     private final KisWebSocketClient kisWebSocketClient;
     private final QuoteCacheService cacheService;
+    private final OutboundSessionManager outboundManager;
+    private final MarketDataExecutor marketDataExecutor;
+    private final MarketDataMetrics metrics;
+    private final SnapshotFallbackLoader snapshotLoader;
     private final ObjectMapper objectMapper = new ObjectMapper();
 
-    // 세션별 구독 종목 관리
-    private final Map<String, Set<String>> sessionSubscriptions = new ConcurrentHashMap<>();
+    private static final String PROTOCOL_DELTA = "delta";
+    private static final int ORDER_BOOK_DEPTH = 10;
+
+    // 시세 실행기 샤드 스레드별 호가 읽기 버퍼
+    private static final ThreadLocal<OrderBookView> BOOK_VIEW = ThreadLocal.withInitial(OrderBookView::new);
+
+    // 종목 ↔ 세션 구독 인덱스 (첫 구독/마지막 해제 시에만 KIS 구독 변경)
+    private final SubscriptionRegistry<String> subscriptions =
+            new SubscriptionRegistry<>(this::subscribeUpstream, this::unsubscribeUpstream);
     // 세션 관리
     private final Map<String, WebSocketSession> sessions = new ConcurrentHashMap<>();
+    // 증분 프로토콜을 선택한 세션
+    private final Set<String> deltaSessions = ConcurrentHashMap.newKeySet();
+    // 종목별 호가 증분 인코더 (구독 중인 종목만 유지)
+    private final Map<String, OrderBookDeltaEncoder> encoders = new ConcurrentHashMap<>();
+
+    // 호가 수신 → 구독 세션 푸시 (종목별 병합, 시세 전용 실행기에서 실행)
+    private CoalescingDispatcher<String> dispatcher;
+    private ChannelMeters meters;
+    private final RealtimeQuoteListener quoteListener = this::onQuote;
+
+    @PostConstruct
+    public void init() {
+        meters = metrics.channel("quote");
+        dispatcher = new CoalescingDispatcher<>(marketDataExecutor, this::pushQuote, meters);
+        metrics.bindSessions("quote", sessions, Map::size);
+        metrics.bindSubscriptions("quote", subscriptions, registry -> registry.activeKeys().size());
+        kisWebSocketClient.addQuoteListener(quoteListener);
+        kisWebSocketClient.addQuoteStatusListener(this::onStatus);
+        log.info("호가 푸시 핸들러 초기화 완료");
+    }
 
     @Override
     public void afterConnectionEstablished(WebSocketSession session) {
         log.info("WebSocket 연결 성공: {}", session.getId());
         sessions.put(session.getId(), session);
-        sessionSubscriptions.put(session.getId(), ConcurrentHashMap.newKeySet());
+        outboundManager.register(session, "quote");
     }
 
     @Override
@@ -44,14 +107,40 @@ public class SimpleQuoteWebSocketHandler extends TextWebSocketHandler {
         log.info("수신 메시지: {}", payload);
 
         try {
-            Map<String, String> request = objectMapper.readValue(payload, Map.class);
-            String action = request.get("action");
-            String stockCode = request.get("stockCode");
+            @SuppressWarnings("unchecked")
+            Map<String, Object> request = objectMapper.readValue(payload, Map.class);
+            Object action = request.get("action");
+            String stockCode = (String) request.get("stockCode");
+            List<String> stockCodes = stockCodes(request.get("stockCodes"));
+            Object maxRate = request.get("maxRate");
+            UpdateRate rate = maxRate != null ? UpdateRate.parse(maxRate) : null;
+            if (maxRate != null && rate == null) {
+                sendError(session, "Invalid maxRate: " + maxRate);
+                return;
+            }
+            // 구독/해제 대상은 상태를 바꾸기 전에 확인 (null 종목코드는 구독 인덱스와 응답 생성에서 실패)
+            if (("subscribe".equals(action) || "unsubscribe".equals(action)) && !hasStockCode(stockCode, stockCodes)) {
+                sendError(session, "stockCode required");
+                return;
+            }
 
             if ("subscribe".equals(action)) {
-                handleSubscribe(session, stockCode);
+                if (PROTOCOL_DELTA.equals(request.get("protocol"))) {
+                    deltaSessions.add(session.getId());
+                }
+                if (stockCodes != null) {
+                    handleBatchSubscribe(session, stockCodes, rate);
+                } else {
+                    handleSubscribe(session, stockCode, rate);
+                }
+            } else if ("unsubscribe".equals(action) && stockCodes != null) {
+                handleBatchUnsubscribe(session, stockCodes);
             } else if ("unsubscribe".equals(action)) {
                 handleUnsubscribe(session, stockCode);
+            } else if ("resync".equals(action)) {
+                requestSnapshot(session, stockCode);
+            } else if ("rate".equals(action)) {
+                handleRate(session, stockCode, rate != null ? rate : UpdateRate.REALTIME, maxRate);
             } else {
                 sendError(session, "Unknown action: " + action);
             }
@@ -62,14 +151,15 @@ public class SimpleQuoteWebSocketHandler extends TextWebSocketHandler {
         }
     }
 
-    private void handleSubscribe(WebSocketSession session, String stockCode) throws Exception {
+    /**
+     * @param rate 종목별 갱신 빈도 (null이면 세션 기본값)
+     */
+    private void handleSubscribe(WebSocketSession session, String stockCode, UpdateRate rate) throws Exception {
         log.info("호가 구독 요청 - 세션: {}, 종목: {}", session.getId(), stockCode);
 
-        // KIS WebSocket에 호가 구독
-        kisWebSocketClient.subscribeQuote(stockCode);
-
-        // 세션별 구독 종목 추가
-        sessionSubscriptions.get(session.getId()).add(stockCode);
+        // 세션 구독 추가 (종목의 첫 구독자이면 KIS 호가 구독)
+        subscriptions.subscribe(session.getId(), stockCode);
+        outboundManager.setRate(session, stockCode, rate);
 
         // 확인 메시지 전송
         Map<String, String> response = Map.of(
@@ -78,22 +168,112 @@ public class SimpleQuoteWebSocketHandler extends TextWebSocketHandler {
                 "stockCode", stockCode,
                 "message", "호가 구독 완료"
         );
-        session.sendMessage(new TextMessage(objectMapper.writeValueAsString(response)));
+        send(session, new TextMessage(objectMapper.writeValueAsString(response)));
+
+        // KIS 등록 결과는 기다리지 않음 - 이미 결과가 난 종목은 현재 상태, 아니면 이후 상태 이벤트로 전달
+        marketDataExecutor.execute(stockCode, () -> sendStatus(session, stockCode));
+        // 다음 호가를 기다리지 않고 마지막 호가부터 전송 (증분 세션은 기준 스냅샷)
+        requestSnapshot(session, stockCode);
     }
 
-    private void handleUnsubscribe(WebSocketSession session, String stockCode) throws Exception {
-        log.info("구독 해제 - 세션: {}, 종목: {}", session.getId(), stockCode);
+    /**
+     * 묶음 구독 (관심종목 화면) - 응답 1건, 이후 호가는 세션 단위 묶음 프레임으로 전송
+     * - 첫 구독자가 생긴 종목의 KIS 등록 요청은 전송 스레드에서 응답 대기 없이 연속 전송
+     */
+    private void handleBatchSubscribe(WebSocketSession session, List<String> stockCodes, UpdateRate rate) throws Exception {
+        log.info("호가 묶음 구독 요청 - 세션: {}, 종목: {}건", session.getId(), stockCodes.size());
 
-        // 세션별 구독 종목 제거
-        Set<String> subscriptions = sessionSubscriptions.get(session.getId());
-        if (subscriptions != null) {
-            subscriptions.remove(stockCode);
+        outboundManager.enableBatching(session);
+        for (String stockCode : stockCodes) {
+            subscriptions.subscribe(session.getId(), stockCode);
+            outboundManager.setRate(session, stockCode, rate);
+        }
+
+        Map<String, Object> response = Map.of(
+                "type", "subscribe",
+                "status", "success",
+                "stockCodes", stockCodes,
+                "message", "호가 구독 완료"
+        );
+        send(session, new TextMessage(objectMapper.writeValueAsString(response)));
+
+        // 종목별 등록 상태와 마지막 호가 (호가는 묶음 대기 시간 안에 적재되어 한 프레임으로 전송)
+        for (String stockCode : stockCodes) {
+            marketDataExecutor.execute(stockCode, () -> sendStatus(session, stockCode));
+            requestSnapshot(session, stockCode);
+        }
+    }
+
+    /**
+     * 스냅샷 전송 요청 - 같은 종목의 증분과 순서가 섞이지 않도록 해당 종목 샤드에서 실행
+     */
+    private void requestSnapshot(WebSocketSession session, String stockCode) {
+        if (stockCode == null || !subscriptions.keysOf(session.getId()).contains(stockCode)) {
+            return;
+        }
+        marketDataExecutor.execute(stockCode, () -> sendSnapshot(session, stockCode, true));
+    }
 
-            // 해당 종목을 구독하는 세션이 없으면 KIS 구독 해제
-            if (sessionSubscriptions.values().stream().noneMatch(set -> set.contains(stockCode))) {
-                kisWebSocketClient.unsubscribeQuote(stockCode);
+    /**
+     * 마지막 호가 스냅샷 전송 (시세 실행기 샤드 스레드)
+     * - 세션 버퍼에 종목 키로 적재 → 직후 실시간 호가가 오면 최신 값으로 교체
+     * @param fallback 호가 기록이 없을 때 REST 대체 조회 여부 (조회 완료 후 재시도는 false)
+     */
+    private void sendSnapshot(WebSocketSession session, String stockCode, boolean fallback) {
+        if (!session.isOpen() || !subscriptions.keysOf(session.getId()).contains(stockCode)) {
+            return;
+        }
+
+        try {
+            if (deltaSessions.contains(session.getId())) {
+                // 증분 세션: 현재 seq 기준 전체 스냅샷 (인코더가 비어 있으면 마지막 호가로 채움)
+                OrderBookDeltaEncoder encoder = encoders.computeIfAbsent(stockCode,
+                        code -> new OrderBookDeltaEncoder(code, ORDER_BOOK_DEPTH));
+                if (encoder.hasData() || seedEncoder(encoder, stockCode)) {
+                    outboundManager.publish(session, stockCode, encoder.snapshotFrame());
+                    return;
+                }
+            } else {
+                OrderBookView quote = BOOK_VIEW.get();
+                if (cacheService.readLastQuote(stockCode, quote)) {
+                    OutboundFrame frame = OutboundFrame.encodeSnapshot(objectMapper, "quote",
+                            QuoteCacheService.toResponse(quote), quote.getAgeMillis(), !cacheService.isFresh(quote));
+                    outboundManager.publish(session, stockCode, frame.message());
+                    return;
+                }
             }
+        } catch (Exception e) {
+            log.error("호가 스냅샷 전송 실패: {}", stockCode, e);
+            return;
+        }
+
+        if (fallback) {
+            snapshotLoader.load("quote:" + stockCode, () -> kisWebSocketClient.loadQuoteSnapshot(stockCode))
+                    .thenRun(() -> marketDataExecutor.execute(stockCode, () -> sendSnapshot(session, stockCode, false)));
+        }
+    }
+
+    /**
+     * 빈 증분 인코더를 마지막 호가로 초기화 (시세 실행기 샤드 스레드)
+     * @return 호가 기록이 있어 초기화했으면 true
+     */
+    private boolean seedEncoder(OrderBookDeltaEncoder encoder, String stockCode) {
+        OrderBookView quote = BOOK_VIEW.get();
+        if (!cacheService.readLastQuote(stockCode, quote)) {
+            return false;
         }
+        encoder.update(quote.getTimestamp(),
+                quote.getAskPrices(), quote.getAskVolumes(), quote.getBidPrices(), quote.getBidVolumes(),
+                quote.getTotalAskVolume(), quote.getTotalBidVolume());
+        return true;
+    }
+
+    private void handleUnsubscribe(WebSocketSession session, String stockCode) throws Exception {
+        log.info("구독 해제 - 세션: {}, 종목: {}", session.getId(), stockCode);
+
+        // 세션 구독 제거 (종목의 마지막 구독자이면 KIS 구독 해제)
+        subscriptions.unsubscribe(session.getId(), stockCode);
+        outboundManager.setRate(session, stockCode, null);
 
         // 확인 메시지 전송
         Map<String, String> response = Map.of(
@@ -102,7 +282,64 @@ public class SimpleQuoteWebSocketHandler extends TextWebSocketHandler {
                 "stockCode", stockCode,
                 "message", "구독 해제 완료"
         );
-        session.sendMessage(new TextMessage(objectMapper.writeValueAsString(response)));
+        send(session, new TextMessage(objectMapper.writeValueAsString(response)));
+    }
+
+    private void handleBatchUnsubscribe(WebSocketSession session, List<String> stockCodes) throws Exception {
+        log.info("호가 묶음 구독 해제 - 세션: {}, 종목: {}건", session.getId(), stockCodes.size());
+
+        for (String stockCode : stockCodes) {
+            subscriptions.unsubscribe(session.getId(), stockCode);
+            outboundManager.setRate(session, stockCode, null);
+        }
+
+        Map<String, Object> response = Map.of(
+                "type", "unsubscribe",
+                "status", "success",
+                "stockCodes", stockCodes,
+                "message", "구독 해제 완료"
+        );
+        send(session, new TextMessage(objectMapper.writeValueAsString(response)));
+    }
+
+    /**
+     * 갱신 빈도 변경 - 종목코드가 있으면 해당 종목만, 없으면 세션 기본값
+     */
+    private void handleRate(WebSocketSession session, String stockCode, UpdateRate rate, Object maxRate) throws Exception {
+        log.info("호가 갱신 빈도 변경 - 세션: {}, 종목: {}, 빈도: {}", session.getId(), stockCode, maxRate);
+
+        if (stockCode != null) {
+            outboundManager.setRate(session, stockCode, rate);
+        } else {
+            outboundManager.setRate(session, rate);
+        }
+
+        Map<String, Object> response = Map.of(
+                "type", "rate",
+                "status", "success",
+                "maxRate", maxRate != null ? maxRate : "realtime"
+        );
+        send(session, new TextMessage(objectMapper.writeValueAsString(response)));
+    }
+
+    /**
+     * "stockCodes" 배열 → 종목코드 목록 (중복 제거, 문자열이 아닌 항목은 null, 배열이 아니면 null)
+     */
+    private static List<String> stockCodes(Object value) {
+        if (!(value instanceof List<?> list)) {
+            return null;
+        }
+        return list.stream().map(code -> code instanceof String s ? s : null).distinct().toList();
+    }
+
+    /**
+     * 구독/해제 요청의 종목코드 확인 - 묶음이면 1건 이상이고 빈 항목이 없어야 함
+     */
+    private static boolean hasStockCode(String stockCode, List<String> stockCodes) {
+        if (stockCodes != null) {
+            return !stockCodes.isEmpty() && stockCodes.stream().noneMatch(code -> code == null || code.isBlank());
+        }
+        return stockCode != null && !stockCode.isBlank();
     }
 
     private void sendError(WebSocketSession session, String errorMessage) throws Exception {
@@ -110,7 +347,7 @@ public class SimpleQuoteWebSocketHandler extends TextWebSocketHandler {
                 "type", "error",
                 "message", errorMessage
         );
-        session.sendMessage(new TextMessage(objectMapper.writeValueAsString(error)));
+        send(session, new TextMessage(objectMapper.writeValueAsString(error)));
     }
 
     @Override
@@ -119,43 +356,147 @@ public class SimpleQuoteWebSocketHandler extends TextWebSocketHandler {
 
         // 세션 제거
         sessions.remove(session.getId());
+        deltaSessions.remove(session.getId());
+        outboundManager.unregister(session);
 
-        // 해당 세션의 모든 구독 종목 정리
-        Set<String> subscriptions = sessionSubscriptions.remove(session.getId());
-        if (subscriptions != null) {
-            for (String stockCode : subscriptions) {
-                // 해당 종목을 구독하는 세션이 없으면 KIS 구독 해제
-                if (sessionSubscriptions.values().stream().noneMatch(set -> set.contains(stockCode))) {
-                    kisWebSocketClient.unsubscribeQuote(stockCode);
-                }
+        // 해당 세션의 구독 종목만 정리 (구독자가 없어진 종목은 KIS 구독 해제)
+        subscriptions.removeSession(session.getId());
+    }
+
+    private void subscribeUpstream(String stockCode) {
+        kisWebSocketClient.subscribeQuote(stockCode, () -> subscriptions.subscriberCount(stockCode));
+    }
+
+    private void unsubscribeUpstream(String stockCode) {
+        kisWebSocketClient.unsubscribeQuote(stockCode);
+        encoders.remove(stockCode);
+    }
+
+    /**
+     * KIS 등록 상태 변경 알림 (KIS 수신/등록 관리 스레드) - 같은 종목 샤드에서 구독 세션에 전송해 순서 유지
+     */
+    private void onStatus(String stockCode, KisSubscriptionStatus status, String message) {
+        if (subscriptions.hasSubscribers(stockCode)) {
+            marketDataExecutor.execute(stockCode, () -> pushStatus(stockCode, status, message));
+        }
+    }
+
+    /**
+     * {"type":"status","stockCode":...,"status":"subscribed|standby|failed|pending","message":...} 전송 (시세 실행기 샤드 스레드)
+     */
+    private void pushStatus(String stockCode, KisSubscriptionStatus status, String message) {
+        TextMessage frame;
+        try {
+            frame = statusMessage(stockCode, status, message);
+        } catch (Exception e) {
+            log.error("호가 등록 상태 직렬화 실패: {}", stockCode, e);
+            return;
+        }
+
+        for (String sessionId : subscriptions.subscribers(stockCode)) {
+            WebSocketSession session = findSessionById(sessionId);
+            if (session != null && session.isOpen()) {
+                send(session, frame);
             }
         }
     }
 
     /**
-     * 200ms마다 캐시된 데이터를 구독 중인 클라이언트에게 브로드캐스트
+     * 구독 직후 현재 등록 상태 전송 (시세 실행기 샤드 스레드)
+     * - 등록 응답 대기 중이면 생략하고 결과는 상태 이벤트로 전달
      */
-    @Scheduled(fixedRate = 200)
-    public void broadcastQuotes() {
-        sessionSubscriptions.forEach((sessionId, stockCodes) -> {
-            stockCodes.forEach(stockCode -> {
-                RealtimeQuoteResponse quote = cacheService.getQuote(stockCode);
-                if (quote != null) {
-                    try {
-                        WebSocketSession session = findSessionById(sessionId);
-                        if (session != null && session.isOpen()) {
-                            Map<String, Object> message = Map.of(
-                                    "type", "quote",
-                                    "data", quote
-                            );
-                            session.sendMessage(new TextMessage(objectMapper.writeValueAsString(message)));
-                        }
-                    } catch (Exception e) {
-                        log.error("브로드캐스트 실패: {}", stockCode, e);
+    private void sendStatus(WebSocketSession session, String stockCode) {
+        KisSubscriptionStatus status = kisWebSocketClient.quoteStatus(stockCode);
+        if (status == null || status == KisSubscriptionStatus.PENDING || !session.isOpen()) {
+            return;
+        }
+        try {
+            send(session, statusMessage(stockCode, status, null));
+        } catch (Exception e) {
+            log.error("호가 등록 상태 전송 실패: {}", stockCode, e);
+        }
+    }
+
+    private TextMessage statusMessage(String stockCode, KisSubscriptionStatus status, String message) throws Exception {
+        Map<String, Object> response = new LinkedHashMap<>();
+        response.put("type", "status");
+        response.put("stockCode", stockCode);
+        response.put("status", status.code());
+        if (message != null) {
+            response.put("message", message);
+        }
+        return new TextMessage(objectMapper.writeValueAsString(response));
+    }
+
+    /**
+     * KIS 호가 수신 알림 (KIS 수신 스레드) - 구독 세션이 있는 종목만 푸시 대기열에 등록
+     */
+    private void onQuote(String stockCode) {
+        if (subscriptions.hasSubscribers(stockCode)) {
+            dispatcher.signal(stockCode);
+        }
+    }
+
+    /**
+     * 종목의 최신 호가를 구독 세션에게만 전송 (시세 실행기 샤드 스레드)
+     */
+    private void pushQuote(String stockCode) {
+        Set<String> sessionIds = subscriptions.subscribers(stockCode);
+        if (sessionIds.isEmpty()) {
+            return;
+        }
+
+        // 스냅샷 슬롯에서 락 없이 복사 (2초 이내 호가만)
+        OrderBookView quote = BOOK_VIEW.get();
+        if (!cacheService.readQuote(stockCode, quote)) {
+            return;
+        }
+        // 스냅샷 슬롯의 호가 시각 = KIS 수신 시각
+        long receivedNanos = quote.getWrittenNanos();
+        meters.recordFanOutLatency(receivedNanos);
+
+        // 증분 인코더에 반영 (바뀐 단계가 없으면 증분 세션에는 보내지 않음)
+        OrderBookDeltaEncoder encoder = encoders.computeIfAbsent(stockCode,
+                code -> new OrderBookDeltaEncoder(code, ORDER_BOOK_DEPTH));
+        boolean changed = encoder.update(quote.getTimestamp(),
+                quote.getAskPrices(), quote.getAskVolumes(), quote.getBidPrices(), quote.getBidVolumes(),
+                quote.getTotalAskVolume(), quote.getTotalBidVolume());
+
+        // 업데이트당 한 번만 직렬화하고 모든 구독 세션이 같은 프레임을 공유 (필요한 형식만 직렬화)
+        OutboundFrame frame = null;
+        TextMessage delta = null;
+
+        for (String sessionId : sessionIds) {
+            try {
+                WebSocketSession session = findSessionById(sessionId);
+                if (session == null || !session.isOpen()) {
+                    continue;
+                }
+
+                if (deltaSessions.contains(sessionId)) {
+                    if (!changed) {
+                        continue;
                     }
+                    if (delta == null) {
+                        delta = encoder.deltaFrame();
+                    }
+                    // 대기 중인 프레임과 병합되면 최신 스냅샷으로 교체되어 seq 연속성 유지
+                    outboundManager.publishDelta(session, stockCode, delta, encoder::snapshotFrame, receivedNanos);
+                } else {
+                    if (frame == null) {
+                        frame = OutboundFrame.encode(objectMapper, "quote", QuoteCacheService.toResponse(quote));
+                    }
+                    // 세션 버퍼에 적재만 하고 반환 (대기 중인 같은 종목 메시지는 최신 값으로 교체)
+                    outboundManager.publish(session, stockCode, frame.message(), receivedNanos);
                 }
-            });
-        });
+            } catch (Exception e) {
+                log.error("호가 푸시 실패: {}", stockCode, e);
+            }
+        }
+    }
+
+    private void send(WebSocketSession session, TextMessage message) {
+        outboundManager.send(session, message);
     }
 
     private WebSocketSession findSessionById(String sessionId) {
@@ -166,4 +507,9 @@ public class SimpleQuoteWebSocketHandler extends TextWebSocketHandler {
     public void handleTransportError(WebSocketSession session, Throwable exception) {
         log.error("WebSocket 전송 오류: {}", session.getId(), exception);
     }
+
+    @PreDestroy
+    public void destroy() {
+        kisWebSocketClient.removeQuoteListener(quoteListener);
+    }
 }
@@ -0,0 +1,114 @@
+package com.hanati.domain.quote.parser;
+
+import com.hanati.common.snapshot.OrderBookSource;
+import com.hanati.domain.quote.dto.RealtimeQuoteResponse;
+
+import java.util.Arrays;
+
+/**
+ * 국내주식 10단 호가 (H0STASP0 / H0UNASP0) 재사용 버퍼
+ *
+ * 필드 위치:
+ * - 0: 종목코드, 1: 영업시간, 2: 시간구분코드
+ * - 3~12: 매도호가 1~10, 13~22: 매수호가 1~10
+ * - 23~32: 매도호가 잔량 1~10, 33~42: 매수호가 잔량 1~10
+ * - 43: 총 매도호가 잔량, 44: 총 매수호가 잔량
+ *
+ * 수신 스레드에서 재사용하며, MarketSnapshot에 제자리 기록한다 (불변 DTO는 {@link #toResponse(String)}).
+ */
+public final class KisOrderBook implements OrderBookSource {
+
+    public static final int DEPTH = 10;
+    public static final int MIN_FIELDS = 45;
+
+    private static final int ASK_PRICE_OFFSET = 3;
+    private static final int BID_PRICE_OFFSET = 13;
+    private static final int ASK_VOLUME_OFFSET = 23;
+    private static final int BID_VOLUME_OFFSET = 33;
+    private static final int TOTAL_ASK_VOLUME = 43;
+    private static final int TOTAL_BID_VOLUME = 44;
+
+    private String stockCode;
+    private final long[] askPrices = new long[DEPTH];
+    private final long[] bidPrices = new long[DEPTH];
+    private final long[] askVolumes = new long[DEPTH];
+    private final long[] bidVolumes = new long[DEPTH];
+    private long totalAskVolume;
+    private long totalBidVolume;
+
+    /**
+     * 프레임의 첫 레코드를 호가 버퍼로 읽기
+     * @return 필드 수가 충분하면 true
+     */
+    public boolean readFrom(KisRealtimeFrame frame) {
+        if (frame.fieldCount() < MIN_FIELDS) {
+            return false;
+        }
+
+        stockCode = frame.symbolField(0);
+        for (int i = 0; i < DEPTH; i++) {
+            askPrices[i] = frame.longField(ASK_PRICE_OFFSET + i);
+            bidPrices[i] = frame.longField(BID_PRICE_OFFSET + i);
+            askVolumes[i] = frame.longField(ASK_VOLUME_OFFSET + i);
+            bidVolumes[i] = frame.longField(BID_VOLUME_OFFSET + i);
+        }
+        totalAskVolume = frame.longField(TOTAL_ASK_VOLUME);
+        totalBidVolume = frame.longField(TOTAL_BID_VOLUME);
+        return true;
+    }
+
+    /**
+     * 불변 DTO 생성 (배열은 복사)
+     */
+    public RealtimeQuoteResponse toResponse(String timestamp) {
+        return RealtimeQuoteResponse.builder()
+                .stockCode(stockCode)
+                .timestamp(timestamp)
+                .askPrices(Arrays.copyOf(askPrices, DEPTH))
+                .bidPrices(Arrays.copyOf(bidPrices, DEPTH))
+                .askVolumes(Arrays.copyOf(askVolumes, DEPTH))
+                .bidVolumes(Arrays.copyOf(bidVolumes, DEPTH))
+                .totalAskVolume(totalAskVolume)
+                .totalBidVolume(totalBidVolume)
+                .build();
+    }
+
+    public String getStockCode() {
+        return stockCode;
+    }
+
+    @Override
+    public int depth() {
+        return DEPTH;
+    }
+
+    @Override
+    public long askPrice(int level) {
+        return askPrices[level];
+    }
+
+    @Override
+    public long bidPrice(int level) {
+        return bidPrices[level];
+    }
+
+    @Override
+    public long askVolume(int level) {
+        return askVolumes[level];
+    }
+
+    @Override
+    public long bidVolume(int level) {
+        return bidVolumes[level];
+    }
+
+    @Override
+    public long getTotalAskVolume() {
+        return totalAskVolume;
+    }
+
+    @Override
+    public long getTotalBidVolume() {
+        return totalBidVolume;
+    }
+}
@@ -0,0 +1,327 @@
+package com.hanati.domain.quote.parser;
+
+/**
+ * KIS 실시간 데이터 프레임 커서
+ *
+ * 형식: 암호화여부|TR_ID|데이터건수|필드0^필드1^필드2^...
+ *
+ * - split 없이 payload를 한 번만 스캔하여 필드 경계(offset)만 int 배열에 기록
+ * - 숫자 필드는 substring 없이 바로 long/double로 변환
+ * - 인스턴스를 재사용하므로 수신 스레드당 하나씩 사용 (스레드 안전하지 않음)
+ *
+ * 국내(H0STASP0/H0UNASP0/H0STCNT0/H0UNCNT0)와 해외(HDFSCNT0/HDFSASP0/HDFSASP1) 프레임 공용
+ */
+public final class KisRealtimeFrame {
+
+    /**
+     * 첫 레코드에서 기록하는 최대 필드 수 (H0STASP0 59개, H0STCNT0 46개)
+     */
+    public static final int MAX_FIELDS = 64;
+
+    /**
+     * 숫자 필드 변환 실패 시 반환값 (scaledField 전용)
+     */
+    public static final long INVALID = Long.MIN_VALUE;
+
+    private static final int SYMBOL_CACHE_SIZE = 512;
+
+    private final int[] fieldStart = new int[MAX_FIELDS];
+    private final int[] fieldEnd = new int[MAX_FIELDS];
+
+    // 종목코드 문자열 재사용 (동일 종목 반복 수신 시 substring 생략)
+    private final String[] symbolCache = new String[SYMBOL_CACHE_SIZE];
+
+    private String payload;
+    private int trIdStart;
+    private int trIdEnd;
+    private int recordCount;
+    private int fieldCount;
+    // 업스트림 수신 시각 (System.nanoTime, 틱 지연 측정 기준)
+    private long receivedNanos;
+
+    /**
+     * 새 프레임으로 커서 초기화 (수신 시각 = 현재)
+     * @return 실시간 데이터 프레임(TR_ID와 데이터부 존재) 여부
+     */
+    public boolean wrap(String payload) {
+        return wrap(payload, System.nanoTime());
+    }
+
+    /**
+     * 새 프레임으로 커서 초기화
+     * @param receivedNanos handleTextMessage 진입 시각 (System.nanoTime)
+     * @return 실시간 데이터 프레임(TR_ID와 데이터부 존재) 여부
+     */
+    public boolean wrap(String payload, long receivedNanos) {
+        this.payload = payload;
+        this.receivedNanos = receivedNanos;
+        this.fieldCount = 0;
+        this.recordCount = 0;
+        this.trIdStart = 0;
+        this.trIdEnd = 0;
+
+        int p1 = payload.indexOf('|');
+        if (p1 < 0) {
+            return false;
+        }
+        int p2 = payload.indexOf('|', p1 + 1);
+        if (p2 < 0) {
+            return false;
+        }
+        trIdStart = p1 + 1;
+        trIdEnd = p2;
+
+        int p3 = payload.indexOf('|', p2 + 1);
+        if (p3 < 0) {
+            return false;
+        }
+        recordCount = (int) parseLong(p2 + 1, p3);
+
+        int length = payload.length();
+        int start = p3 + 1;
+        int n = 0;
+        for (int i = start; i < length && n < MAX_FIELDS; i++) {
+            if (payload.charAt(i) == '^') {
+                fieldStart[n] = start;
+                fieldEnd[n] = i;
+                n++;
+                start = i + 1;
+            }
+        }
+        if (n < MAX_FIELDS) {
+            fieldStart[n] = start;
+            fieldEnd[n] = length;
+            n++;
+        }
+        fieldCount = n;
+        return true;
+    }
+
+    public String payload() {
+        return payload;
+    }
+
+    /**
+     * 암호화 프레임 여부 (첫 글자 '1')
+     */
+    public boolean isEncrypted() {
+        return payload != null && !payload.isEmpty() && payload.charAt(0) == '1';
+    }
+
+    /**
+     * TR_ID 비교 (문자열 할당 없음)
+     */
+    public boolean isTrId(String trId) {
+        return trIdEnd - trIdStart == trId.length()
+                && payload.regionMatches(trIdStart, trId, 0, trId.length());
+    }
+
+    /**
+     * TR_ID 문자열 (로깅 등 비 핫패스 용도)
+     */
+    public String trId() {
+        return payload.substring(trIdStart, trIdEnd);
+    }
+
+    /**
+     * 업스트림 수신 시각 (System.nanoTime)
+     */
+    public long receivedNanos() {
+        return receivedNanos;
+    }
+
+    public int recordCount() {
+        return recordCount;
+    }
+
+    public int fieldCount() {
+        return fieldCount;
+    }
+
+    /**
+     * 필드 문자열
+     */
+    public String field(int index) {
+        return payload.substring(fieldStart[index], fieldEnd[index]);
+    }
+
+    /**
+     * 필드 문자열 (필드가 없으면 기본값)
+     */
+    public String fieldOrDefault(int index, String defaultValue) {
+        return index < fieldCount ? field(index) : defaultValue;
+    }
+
+    /**
+     * 필드가 주어진 문자열과 같은지 비교 (문자열 할당 없음)
+     */
+    public boolean fieldEquals(int index, String value) {
+        return index < fieldCount
+                && fieldEnd[index] - fieldStart[index] == value.length()
+                && payload.regionMatches(fieldStart[index], value, 0, value.length());
+    }
+
+    /**
+     * 종목코드 필드 - 같은 종목이 반복되면 이전에 만든 문자열을 재사용
+     */
+    public String symbolField(int index) {
+        int start = fieldStart[index];
+        int end = fieldEnd[index];
+
+        int hash = 0;
+        for (int i = start; i < end; i++) {
+            hash = 31 * hash + payload.charAt(i);
+        }
+        int slot = (hash ^ (hash >>> 16)) & (SYMBOL_CACHE_SIZE - 1);
+
+        String cached = symbolCache[slot];
+        if (cached != null && cached.length() == end - start
+                && payload.regionMatches(start, cached, 0, cached.length())) {
+            return cached;
+        }
+        String symbol = payload.substring(start, end);
+        symbolCache[slot] = symbol;
+        return symbol;
+    }
+
+    /**
+     * 정수 필드 (변환 실패 시 0, 기존 parseLong 동작과 동일)
+     */
+    public long longField(int index) {
+        if (index >= fieldCount) {
+            return 0L;
+        }
+        return parseLong(fieldStart[index], fieldEnd[index]);
+    }
+
+    /**
+     * 소수 필드를 10^scale 배 정수로 변환 (예: "189.25", scale 4 → 1892500)
+     * 변환 실패 시 {@link #INVALID}
+     */
+    public long scaledField(int index, int scale) {
+        if (index >= fieldCount) {
+            return INVALID;
+        }
+        return parseScaled(fieldStart[index], fieldEnd[index], scale);
+    }
+
+    /**
+     * 소수 필드 (변환 실패 시 0)
+     * - 10^8배 정수로 표현할 수 없는 큰 값(누적 거래대금 등)은 문자열 변환으로 처리
+     */
+    public double doubleField(int index) {
+        long scaled = scaledField(index, 8);
+        if (scaled != INVALID) {
+            return scaled / 1e8;
+        }
+        if (index >= fieldCount) {
+            return 0.0;
+        }
+        try {
+            return Double.parseDouble(field(index).trim());
+        } catch (NumberFormatException e) {
+            return 0.0;
+        }
+    }
+
+    private long parseLong(int start, int end) {
+        while (start < end && payload.charAt(start) == ' ') {
+            start++;
+        }
+        while (end > start && payload.charAt(end - 1) == ' ') {
+            end--;
+        }
+        if (start >= end) {
+            return 0L;
+        }
+
+        boolean negative = false;
+        char first = payload.charAt(start);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            start++;
+            if (start >= end) {
+                return 0L;
+            }
+        }
+
+        long value = 0L;
+        for (int i = start; i < end; i++) {
+            int digit = payload.charAt(i) - '0';
+            if (digit < 0 || digit > 9 || value > (Long.MAX_VALUE - digit) / 10) {
+                return 0L;
+            }
+            value = value * 10 + digit;
+        }
+        return negative ? -value : value;
+    }
+
+    private long parseScaled(int start, int end, int scale) {
+        while (start < end && payload.charAt(start) == ' ') {
+            start++;
+        }
+        while (end > start && payload.charAt(end - 1) == ' ') {
+            end--;
+        }
+        if (start >= end) {
+            return INVALID;
+        }
+
+        boolean negative = false;
+        char first = payload.charAt(start);
+        if (first == '-' || first == '+') {
+            negative = first == '-';
+            start++;
+        }
+
+        long value = 0L;
+        int fractionDigits = -1;
+        boolean hasDigit = false;
+        boolean roundUp = false;
+        for (int i = start; i < end; i++) {
+            char c = payload.charAt(i);
+            if (c == '.') {
+                if (fractionDigits >= 0) {
+                    return INVALID;
+                }
+                fractionDigits = 0;
+                continue;
+            }
+            int digit = c - '0';
+            if (digit < 0 || digit > 9) {
+                return INVALID;
+            }
+            hasDigit = true;
+            if (fractionDigits >= scale) {
+                // 지정 자릿수 이후는 반올림만 반영
+                if (fractionDigits == scale) {
+                    roundUp = digit >= 5;
+                }
+                fractionDigits++;
+                continue;
+            }
+            if (value > (Long.MAX_VALUE - digit) / 10) {
+                return INVALID;
+            }
+            value = value * 10 + digit;
+            if (fractionDigits >= 0) {
+                fractionDigits++;
+            }
+        }
+        if (!hasDigit) {
+            return INVALID;
+        }
+
+        int usedFraction = fractionDigits < 0 ? 0 : Math.min(fractionDigits, scale);
+        for (int i = usedFraction; i < scale; i++) {
+            if (value > Long.MAX_VALUE / 10) {
+                return INVALID;
+            }
+            value *= 10;
+        }
+        if (roundUp) {
+            value++;
+        }
+        return negative ? -value : value;
+    }
+}
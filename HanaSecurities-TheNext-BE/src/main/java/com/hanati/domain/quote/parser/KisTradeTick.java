@@ -0,0 +1,115 @@
+package com.hanati.domain.quote.parser;
+
+import com.hanati.domain.quote.dto.RealtimeTradeData;
+
+/**
+ * 국내주식 실시간 체결 (H0STCNT0 / H0UNCNT0) 재사용 레코드
+ *
+ * 필드 위치:
+ * - 0: 종목코드, 1: 체결시간(HHMMSS), 2: 현재가, 3: 전일대비부호, 4: 전일대비, 5: 전일대비율
+ * - 7: 시가, 8: 고가, 9: 저가, 10: 매도호가1, 11: 매수호가1
+ * - 12: 체결거래량, 13: 누적거래량, 14: 누적거래대금
+ * - 15: 매도체결건수, 16: 매수체결건수, 18: 체결강도
+ * - 38: 총 매도호가 잔량, 39: 총 매수호가 잔량
+ *
+ * 가격/수량은 primitive로 보관하고, 클라이언트 전송용 DTO는 {@link #toTradeData(KisRealtimeFrame, String)}로 만든다.
+ */
+public final class KisTradeTick {
+
+    public static final int MIN_FIELDS = 40;
+
+    private String stockCode;
+    private int tradeTime;            // HHMMSS
+    private long currentPrice;
+    private long openPrice;
+    private long highPrice;
+    private long lowPrice;
+    private long tradeVolume;
+    private long accumulatedVolume;
+    private long accumulatedAmount;
+
+    /**
+     * 프레임의 첫 레코드를 체결 레코드로 읽기
+     * @return 필드 수가 충분하면 true
+     */
+    public boolean readFrom(KisRealtimeFrame frame) {
+        if (frame.fieldCount() < MIN_FIELDS) {
+            return false;
+        }
+
+        stockCode = frame.symbolField(0);
+        tradeTime = (int) frame.longField(1);
+        currentPrice = frame.longField(2);
+        openPrice = frame.longField(7);
+        highPrice = frame.longField(8);
+        lowPrice = frame.longField(9);
+        tradeVolume = frame.longField(12);
+        accumulatedVolume = frame.longField(13);
+        accumulatedAmount = frame.longField(14);
+        return true;
+    }
+
+    /**
+     * 캐시 저장용 DTO 생성 (원문 문자열 필드 유지)
+     */
+    public RealtimeTradeData toTradeData(KisRealtimeFrame frame, String timestamp) {
+        return RealtimeTradeData.builder()
+                .stockCode(stockCode)
+                .timestamp(timestamp)
+                .tradeTime(frame.field(1))
+                .currentPrice(frame.field(2))
+                .priceChangeSign(frame.field(3))
+                .priceChange(frame.field(4))
+                .changeRate(frame.field(5))
+                .openPrice(frame.field(7))
+                .highPrice(frame.field(8))
+                .lowPrice(frame.field(9))
+                .askPrice1(frame.field(10))
+                .bidPrice1(frame.field(11))
+                .tradeVolume(frame.field(12))
+                .accumulatedVolume(frame.field(13))
+                .accumulatedAmount(frame.field(14))
+                .sellCount(frame.field(15))
+                .buyCount(frame.field(16))
+                .tradeStrength(frame.field(18))
+                .totalAskRemain(frame.fieldOrDefault(38, "0"))
+                .totalBidRemain(frame.fieldOrDefault(39, "0"))
+                .build();
+    }
+
+    public String getStockCode() {
+        return stockCode;
+    }
+
+    public int getTradeTime() {
+        return tradeTime;
+    }
+
+    public long getCurrentPrice() {
+        return currentPrice;
+    }
+
+    public long getOpenPrice() {
+        return openPrice;
+    }
+
+    public long getHighPrice() {
+        return highPrice;
+    }
+
+    public long getLowPrice() {
+        return lowPrice;
+    }
+
+    public long getTradeVolume() {
+        return tradeVolume;
+    }
+
+    public long getAccumulatedVolume() {
+        return accumulatedVolume;
+    }
+
+    public long getAccumulatedAmount() {
+        return accumulatedAmount;
+    }
+}
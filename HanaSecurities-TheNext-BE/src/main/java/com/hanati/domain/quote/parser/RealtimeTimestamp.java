@@ -0,0 +1,38 @@
+package com.hanati.domain.quote.parser;
+
+import java.time.Instant;
+import java.time.LocalDateTime;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+
+/**
+ * 실시간 데이터 타임스탬프 ("yyyy-MM-dd HH:mm:ss")
+ *
+ * 초 단위 문자열이므로 같은 초 안에서는 이전에 만든 문자열을 그대로 반환한다.
+ * (틱마다 DateTimeFormatter.ofPattern + format 하던 비용 제거)
+ */
+public final class RealtimeTimestamp {
+
+    private static final DateTimeFormatter FORMATTER = DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss");
+    private static final ZoneId ZONE = ZoneId.systemDefault();
+
+    private static volatile Cached cached = new Cached(Long.MIN_VALUE, "");
+
+    private RealtimeTimestamp() {
+    }
+
+    public static String now() {
+        long epochSecond = System.currentTimeMillis() / 1000;
+        Cached current = cached;
+        if (current.epochSecond == epochSecond) {
+            return current.text;
+        }
+
+        String text = LocalDateTime.ofInstant(Instant.ofEpochSecond(epochSecond), ZONE).format(FORMATTER);
+        cached = new Cached(epochSecond, text);
+        return text;
+    }
+
+    private record Cached(long epochSecond, String text) {
+    }
+}
@@ -0,0 +1,485 @@
+package com.hanati.domain.quote.service;
+
+import com.hanati.domain.quote.dto.RealtimeTradeData;
+import com.hanati.domain.quote.parser.KisTradeTick;
+import com.hanati.domain.stock.dto.IntradayChartResponse;
+import com.hanati.domain.stock.dto.KisIntradayChartApiResponse;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+import java.time.format.DateTimeFormatter;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * 실시간 체결로 만드는 당일 분봉 (1/3/5/10/30/60분)
+ *
+ * - 수신 스레드가 체결 1건을 모든 주기의 봉에 바로 반영 (primitive 배열, 객체 할당 없음)
+ * - 봉 배열은 08:00~20:00 (NXT 포함) 구간을 주기별 칸으로 나눈 일자별 순환 버퍼 - 날짜가 바뀌면 비움
+ * - 실시간 이전 구간은 REST 당일 분봉(FHKST03010200)으로 한 번 채우고(backfill), 이후 조회는 메모리에서 응답
+ * - 긴 주기가 연속 구간보다 과거를 요구하면 과거 1분봉을 이어서 채워 연속 구간을 넓힘 (종목당 1회, 이후 메모리 응답)
+ * - 실시간이 끊긴 종목(등록 한도로 대기 전환)은 invalidate → 다음 조회 시 다시 backfill
+ */
+@Slf4j
+@Service
+public class IntradayCandleAggregator {
+
+    public static final int[] INTERVALS = {1, 3, 5, 10, 30, 60};
+    // KIS 당일 분봉 API와 같은 최대 봉 수
+    public static final int MAX_BARS = 30;
+
+    private static final ZoneId ZONE = ZoneId.of("Asia/Seoul");
+    private static final DateTimeFormatter DATE = DateTimeFormatter.ofPattern("yyyyMMdd");
+    private static final int SESSION_START_MINUTE = 8 * 60;
+    private static final int SESSION_MINUTES = 12 * 60;
+
+    private final Map<String, SymbolCandles> symbols = new ConcurrentHashMap<>();
+
+    /**
+     * 체결 반영 (수신 스레드)
+     */
+    public void onTrade(KisTradeTick tick, RealtimeTradeData data) {
+        SymbolCandles candles = symbols.computeIfAbsent(tick.getStockCode(), code -> new SymbolCandles());
+        candles.onTrade(tick, data);
+    }
+
+    /**
+     * 실시간 체결이 끊긴 종목 표시 (등록 한도 대기 중 REST 갱신 시) - 끊긴 구간은 다음 조회 때 다시 채움
+     */
+    public void invalidate(String stockCode) {
+        SymbolCandles candles = symbols.get(stockCode);
+        if (candles != null) {
+            candles.invalidate();
+        }
+    }
+
+    /**
+     * 체결가 구독 해제 시 종목 상태 제거
+     */
+    public void release(String stockCode) {
+        symbols.remove(stockCode);
+    }
+
+    /**
+     * 오늘 실시간 체결을 받고 있는 종목인지 여부
+     */
+    public boolean isStreaming(String stockCode) {
+        SymbolCandles candles = symbols.get(stockCode);
+        return candles != null && candles.isStreaming(today());
+    }
+
+    /**
+     * backfill 필요 여부 (실시간 시작 이전 구간을 REST로 채우지 않았으면 true)
+     */
+    public boolean needsBackfill(String stockCode) {
+        SymbolCandles candles = symbols.get(stockCode);
+        return candles != null && candles.needsBackfill();
+    }
+
+    /**
+     * REST 당일 분봉으로 실시간 이전 구간 채우기
+     * - 첫 backfill은 실시간 시작 분 이하의 봉만 REST 값으로 덮어씀 (그 이후는 실시간 봉이 더 정확)
+     * - 이후 받은 과거 구간(olderBackfillTime 기준 조회)은 연속 구간 이전 분만 기록하고 연속 구간 시작을 앞당김
+     */
+    public void backfill(String stockCode, KisIntradayChartApiResponse apiResponse) {
+        SymbolCandles candles = symbols.get(stockCode);
+        if (candles == null) {
+            return;
+        }
+        candles.backfill(apiResponse, today());
+    }
+
+    /**
+     * 연속 구간을 과거로 넓힐 다음 REST 조회 기준 시각 (HHMMSS, 연속 구간 시작 직전 분)
+     * @return 첫 backfill 전이거나 장 시작까지 채웠으면 null
+     */
+    public String olderBackfillTime(String stockCode) {
+        SymbolCandles candles = symbols.get(stockCode);
+        return candles != null ? candles.olderBackfillTime() : null;
+    }
+
+    /**
+     * 메모리 분봉 응답 (요청 구간을 메모리가 모두 보유하지 않으면 null → REST 조회)
+     * @param inputTime 기준 시각 (HHMMSS) - 이 시각 이하의 봉부터 과거 방향으로 최대 MAX_BARS개
+     * @param interval 봉 주기 (분)
+     */
+    public IntradayChartResponse chart(String stockCode, String inputTime, int interval) {
+        SymbolCandles candles = symbols.get(stockCode);
+        if (candles == null) {
+            return null;
+        }
+        return candles.chart(stockCode, toMinute(Integer.parseInt(inputTime)), intervalIndex(interval), today());
+    }
+
+    public int getSymbolCount() {
+        return symbols.size();
+    }
+
+    private static int intervalIndex(int interval) {
+        for (int i = 0; i < INTERVALS.length; i++) {
+            if (INTERVALS[i] == interval) {
+                return i;
+            }
+        }
+        throw new IllegalArgumentException("지원하지 않는 분봉 주기: " + interval);
+    }
+
+    public static boolean isSupportedInterval(int interval) {
+        for (int supported : INTERVALS) {
+            if (supported == interval) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * 1분봉 목록(최신순, 같은 일자)을 N분봉 목록(최신순, 최대 MAX_BARS개)으로 합침 (실시간이 아닌 종목의 REST 응답용)
+     * - 가장 오래된 봉이 구간 시작 분부터 채워지지 않았으면 일부 분만 합친 봉이므로 버림 (장 시작까지 조회한 경우는 유지)
+     * @param fromDayStart 1분봉이 당일 첫 봉부터 포함되어 있는지 여부
+     */
+    public static List<IntradayChartResponse.ChartItem> fold(List<IntradayChartResponse.ChartItem> minuteItems, int interval,
+                                                            boolean fromDayStart) {
+        List<IntradayChartResponse.ChartItem> folded = new ArrayList<>();
+        IntradayChartResponse.ChartItem current = null;
+        String currentKey = null;
+        boolean oldestPartial = false;
+        // 오래된 봉부터 합쳐야 시가/종가가 맞으므로 역순 순회 후 뒤집음
+        for (int i = minuteItems.size() - 1; i >= 0; i--) {
+            IntradayChartResponse.ChartItem item = minuteItems.get(i);
+            int minute = toMinute((int) parseLong(item.getTime()));
+            int bucket = minute - minute % interval;
+            String key = item.getDate() + bucket;
+            if (!key.equals(currentKey)) {
+                if (current == null) {
+                    oldestPartial = !fromDayStart && minute != bucket;
+                }
+                current = IntradayChartResponse.ChartItem.builder()
+                        .date(item.getDate())
+                        .time(formatMinute(bucket))
+                        .open(item.getOpen())
+                        .high(item.getHigh())
+                        .low(item.getLow())
+                        .volume("0")
+                        .build();
+                currentKey = key;
+                folded.add(current);
+            }
+            current.setHigh(Long.toString(Math.max(parseLong(current.getHigh()), parseLong(item.getHigh()))));
+            current.setLow(Long.toString(Math.min(parseLong(current.getLow()), parseLong(item.getLow()))));
+            current.setClose(item.getClose());
+            current.setVolume(Long.toString(parseLong(current.getVolume()) + parseLong(item.getVolume())));
+            current.setTradingValue(item.getTradingValue());
+        }
+        if (oldestPartial) {
+            folded.remove(0);
+        }
+        Collections.reverse(folded);
+        return folded.size() > MAX_BARS ? new ArrayList<>(folded.subList(0, MAX_BARS)) : folded;
+    }
+
+    private static String today() {
+        return LocalDate.now(ZONE).format(DATE);
+    }
+
+    /**
+     * HHMMSS → 자정 기준 분
+     */
+    public static int toMinute(int hhmmss) {
+        return hhmmss / 10000 * 60 + hhmmss / 100 % 100;
+    }
+
+    /**
+     * 자정 기준 분 → HHMM00
+     */
+    public static String formatMinute(int minute) {
+        int hhmm = minute / 60 * 100 + minute % 60;
+        return (hhmm < 1000 ? "0" : "") + hhmm + "00";
+    }
+
+    private static long parseLong(String value) {
+        if (value == null || value.isEmpty()) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
+    /**
+     * 한 주기의 봉 배열 (칸 = 구간 시작 이후 경과 분 / 주기)
+     */
+    private static final class Bars {
+        final int interval;
+        final long[] open;
+        final long[] high;
+        final long[] low;
+        final long[] close;
+        final long[] volume;
+        final long[] tradingValue;
+
+        Bars(int interval) {
+            int slots = SESSION_MINUTES / interval;
+            this.interval = interval;
+            this.open = new long[slots];
+            this.high = new long[slots];
+            this.low = new long[slots];
+            this.close = new long[slots];
+            this.volume = new long[slots];
+            this.tradingValue = new long[slots];
+        }
+
+        void clear() {
+            Arrays.fill(open, 0);
+            Arrays.fill(volume, 0);
+        }
+
+        void add(int slot, long price, long tradeVolume, long accumulatedAmount) {
+            if (open[slot] == 0) {
+                open[slot] = price;
+                high[slot] = price;
+                low[slot] = price;
+                volume[slot] = 0;
+            } else {
+                high[slot] = Math.max(high[slot], price);
+                low[slot] = Math.min(low[slot], price);
+            }
+            close[slot] = price;
+            volume[slot] += tradeVolume;
+            tradingValue[slot] = accumulatedAmount;
+        }
+
+        /**
+         * 1분봉 1개를 이 주기의 봉에 합침 (backfill 후 재계산용)
+         */
+        void merge(int slot, long o, long h, long l, long c, long v, long value) {
+            if (open[slot] == 0) {
+                open[slot] = o;
+                high[slot] = h;
+                low[slot] = l;
+                volume[slot] = 0;
+            } else {
+                high[slot] = Math.max(high[slot], h);
+                low[slot] = Math.min(low[slot], l);
+            }
+            close[slot] = c;
+            volume[slot] += v;
+            tradingValue[slot] = value;
+        }
+    }
+
+    /**
+     * 종목별 분봉 상태 (수신 스레드가 갱신, 조회 스레드가 읽음 - 종목 단위 동기화)
+     */
+    private static final class SymbolCandles {
+        private final Bars[] bars = new Bars[INTERVALS.length];
+
+        private String tradingDate;
+        private String stockName;
+        private RealtimeTradeData latest;
+        private int lastTradeTime = -1;
+        // 이번 실시간 구간의 첫 체결 분 (-1: 실시간 아님)
+        private int liveFromMinute = -1;
+        // 메모리 봉이 끊김 없이 이어지는 첫 분 (backfill 전에는 -1)
+        private int coveredFromMinute = -1;
+
+        SymbolCandles() {
+            for (int i = 0; i < INTERVALS.length; i++) {
+                bars[i] = new Bars(INTERVALS[i]);
+            }
+        }
+
+        synchronized void onTrade(KisTradeTick tick, RealtimeTradeData data) {
+            int tradeTime = tick.getTradeTime();
+            // 체결 시각이 크게 되돌아가면 다음 영업일로 보고 초기화
+            if (tradingDate == null || tradeTime < lastTradeTime - 10000) {
+                reset();
+            }
+            lastTradeTime = tradeTime;
+            latest = data;
+
+            int minute = toMinute(tradeTime);
+            int offset = minute - SESSION_START_MINUTE;
+            if (offset < 0 || offset >= SESSION_MINUTES) {
+                return;
+            }
+            if (liveFromMinute < 0) {
+                liveFromMinute = minute;
+            }
+            for (Bars series : bars) {
+                series.add(offset / series.interval, tick.getCurrentPrice(), tick.getTradeVolume(),
+                        tick.getAccumulatedAmount());
+            }
+        }
+
+        private void reset() {
+            for (Bars series : bars) {
+                series.clear();
+            }
+            tradingDate = today();
+            liveFromMinute = -1;
+            coveredFromMinute = -1;
+        }
+
+        synchronized void invalidate() {
+            liveFromMinute = -1;
+            coveredFromMinute = -1;
+        }
+
+        synchronized boolean isStreaming(String today) {
+            return liveFromMinute >= 0 && today.equals(tradingDate);
+        }
+
+        synchronized boolean needsBackfill() {
+            return liveFromMinute >= 0 && coveredFromMinute < 0;
+        }
+
+        synchronized String olderBackfillTime() {
+            if (liveFromMinute < 0 || coveredFromMinute <= SESSION_START_MINUTE) {
+                return null;
+            }
+            return formatMinute(coveredFromMinute - 1);
+        }
+
+        synchronized void backfill(KisIntradayChartApiResponse apiResponse, String today) {
+            if (liveFromMinute < 0 || !today.equals(tradingDate) || apiResponse.getOutput2() == null) {
+                return;
+            }
+
+            // REST 응답 구간: 최신 봉부터 과거 방향으로 연속 (과거 일자 봉이 섞이거나 MAX_BARS개 미만이면 장 시작까지 포함)
+            int latestMinute = -1;
+            int earliestMinute = Integer.MAX_VALUE;
+            int todayBars = 0;
+            boolean reachedDayStart = false;
+            for (KisIntradayChartApiResponse.ChartData data : apiResponse.getOutput2()) {
+                if (!today.equals(data.getStckBsopDate())) {
+                    reachedDayStart = true;
+                    continue;
+                }
+                int minute = toMinute((int) parseLong(data.getStckCntgHour()));
+                latestMinute = Math.max(latestMinute, minute);
+                earliestMinute = Math.min(earliestMinute, minute);
+                todayBars++;
+            }
+            reachedDayStart |= todayBars < MAX_BARS;
+
+            // 연속 구간이 이미 있으면 그 이전 구간을 이어서 받은 응답
+            boolean older = coveredFromMinute >= 0;
+            // 실시간 시작 분이 아직 진행 중이면 REST 봉도 미완성이므로 다음 조회 때 다시 시도
+            if (!older && latestMinute <= liveFromMinute && !(reachedDayStart && todayBars == 0)) {
+                return;
+            }
+
+            // 첫 backfill은 실시간 시작 분까지(시작 분 포함, 일부 체결만 받았으므로), 과거 구간은 연속 구간 직전 분까지 REST 값으로 교체
+            int lastMinute = older ? coveredFromMinute - 1 : liveFromMinute;
+            Bars minuteBars = bars[0];
+            for (KisIntradayChartApiResponse.ChartData data : apiResponse.getOutput2()) {
+                int minute = toMinute((int) parseLong(data.getStckCntgHour()));
+                int offset = minute - SESSION_START_MINUTE;
+                if (!today.equals(data.getStckBsopDate()) || offset < 0 || offset >= SESSION_MINUTES
+                        || minute > lastMinute) {
+                    continue;
+                }
+                minuteBars.open[offset] = parseLong(data.getStckOprc());
+                minuteBars.high[offset] = parseLong(data.getStckHgpr());
+                minuteBars.low[offset] = parseLong(data.getStckLwpr());
+                minuteBars.close[offset] = parseLong(data.getStckPrpr());
+                minuteBars.volume[offset] = parseLong(data.getCntgVol());
+                minuteBars.tradingValue[offset] = parseLong(data.getAcmlTrPbmn());
+            }
+            rebuildFromMinuteBars();
+
+            if (apiResponse.getOutput1() != null) {
+                stockName = apiResponse.getOutput1().getHtsKorIsnm();
+            }
+            int fromMinute = reachedDayStart ? SESSION_START_MINUTE : earliestMinute;
+            coveredFromMinute = older ? Math.min(coveredFromMinute, fromMinute) : fromMinute;
+            log.debug("당일 분봉 backfill - 실시간 시작: {}, 연속 구간 시작: {}",
+                    formatMinute(liveFromMinute), formatMinute(coveredFromMinute));
+        }
+
+        /**
+         * 1분봉으로 다른 주기 봉 재계산
+         */
+        private void rebuildFromMinuteBars() {
+            Bars minuteBars = bars[0];
+            for (int i = 1; i < bars.length; i++) {
+                bars[i].clear();
+            }
+            for (int offset = 0; offset < SESSION_MINUTES; offset++) {
+                if (minuteBars.open[offset] == 0) {
+                    continue;
+                }
+                for (int i = 1; i < bars.length; i++) {
+                    bars[i].merge(offset / bars[i].interval, minuteBars.open[offset], minuteBars.high[offset],
+                            minuteBars.low[offset], minuteBars.close[offset], minuteBars.volume[offset],
+                            minuteBars.tradingValue[offset]);
+                }
+            }
+        }
+
+        synchronized IntradayChartResponse chart(String stockCode, int endMinute, int intervalIndex, String today) {
+            if (liveFromMinute < 0 || coveredFromMinute < 0 || latest == null || !today.equals(tradingDate)) {
+                return null;
+            }
+
+            Bars series = bars[intervalIndex];
+            int endOffset = Math.min(endMinute, toMinute(lastTradeTime)) - SESSION_START_MINUTE;
+            if (endOffset < 0) {
+                return null;
+            }
+            endOffset = Math.min(endOffset, SESSION_MINUTES - 1);
+
+            List<IntradayChartResponse.ChartItem> items = new ArrayList<>(MAX_BARS);
+            int slot = endOffset / series.interval;
+            int firstSlot = -1;
+            for (; slot >= 0 && items.size() < MAX_BARS; slot--) {
+                if (series.open[slot] == 0) {
+                    continue;
+                }
+                firstSlot = slot;
+                items.add(IntradayChartResponse.ChartItem.builder()
+                        .date(tradingDate)
+                        .time(formatMinute(SESSION_START_MINUTE + slot * series.interval))
+                        .close(Long.toString(series.close[slot]))
+                        .open(Long.toString(series.open[slot]))
+                        .high(Long.toString(series.high[slot]))
+                        .low(Long.toString(series.low[slot]))
+                        .volume(Long.toString(series.volume[slot]))
+                        .tradingValue(Long.toString(series.tradingValue[slot]))
+                        .build());
+            }
+
+            // 가장 오래된 응답 봉이 연속 구간 밖이면 빠진 봉이 있을 수 있으므로 REST로 조회
+            // (봉이 MAX_BARS개보다 적으면 응답 구간이 장 시작까지이므로 연속 구간이 처음부터여야 함)
+            int oldestMinute = items.size() < MAX_BARS
+                    ? SESSION_START_MINUTE
+                    : SESSION_START_MINUTE + firstSlot * series.interval;
+            if (oldestMinute < coveredFromMinute) {
+                return null;
+            }
+
+            return IntradayChartResponse.builder()
+                    .stockCode(stockCode)
+                    .stockName(stockName)
+                    .currentPrice(latest.getCurrentPrice())
+                    .changeSign(latest.getPriceChangeSign())
+                    .changePrice(latest.getPriceChange())
+                    .changeRate(latest.getChangeRate())
+                    .volume(latest.getAccumulatedVolume())
+                    .tradingValue(latest.getAccumulatedAmount())
+                    .totalShares("0")  // 분봉에는 상장 주수 정보 없음
+                    .chartData(items)
+                    .timestamp(latest.getTimestamp())
+                    .build();
+        }
+    }
+}
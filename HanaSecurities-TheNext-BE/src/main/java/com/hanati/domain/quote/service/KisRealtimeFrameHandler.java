@@ -0,0 +1,13 @@
+package com.hanati.domain.quote.service;
+
+import com.hanati.domain.quote.parser.KisRealtimeFrame;
+
+/**
+ * TR_ID별 KIS 실시간 프레임 처리기
+ * - KIS 수신 스레드에서 호출되며, 프레임 커서는 반환 직후 다음 프레임에 재사용되므로 보관하지 않음
+ */
+@FunctionalInterface
+public interface KisRealtimeFrameHandler {
+
+    void onFrame(KisRealtimeFrame frame);
+}
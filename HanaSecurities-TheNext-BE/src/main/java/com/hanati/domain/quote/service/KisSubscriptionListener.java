@@ -0,0 +1,20 @@
+package com.hanati.domain.quote.service;
+
+/**
+ * KIS 실시간 등록 상태 변경 리스너
+ *
+ * 등록 관리/연결 관리 스레드에서 호출되므로 블로킹 작업 금지
+ */
+@FunctionalInterface
+public interface KisSubscriptionListener {
+
+    /**
+     * 등록 상태 변경 시 호출
+     *
+     * @param trId    TR_ID
+     * @param trKey   TR_KEY (국내는 종목코드, 해외는 거래소 접두어 + 종목코드)
+     * @param status  변경된 상태
+     * @param message KIS 응답 메시지 또는 사유 (없으면 null)
+     */
+    void onStatus(String trId, String trKey, KisSubscriptionStatus status, String message);
+}
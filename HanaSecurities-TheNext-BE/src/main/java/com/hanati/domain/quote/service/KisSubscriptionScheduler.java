@@ -0,0 +1,441 @@
+package com.hanati.domain.quote.service;
+
+import com.hanati.common.config.RealtimeConfig;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.function.IntSupplier;
+
+/**
+ * KIS 실시간 등록 한도 관리
+ *
+ * - 국내 호가/체결가, 해외 시세 등록을 합산해 승인키당 한도(realtime.upstream.max-registrations) 이내로 유지
+ * - 순위: 현재 구독자 수가 많을수록, 같으면 최근 사용(재요청/구독자 수 변화)된 종목일수록 우선, 그래도 같으면 기존 실시간 유지
+ * - 한도 초과 시 가장 차가운 실시간 등록(최소 유지 시간 경과분)을 해제하고 더 뜨거운 종목을 등록
+ * - 실시간 등록을 받지 못한 대기 종목은 주기적으로 REST 스냅샷을 갱신해 캐시/리스너로 전달
+ * - 구독자 수가 가장 많은 종목은 더 차가운 종목에 밀려 해제되지 않음
+ * - 등록 요청은 즉시 반환하고, 등록 상태(PENDING → SUBSCRIBED/STANDBY/FAILED) 변경을 리스너로 통지
+ * - KIS가 거부한 등록은 REST 스냅샷으로 대체하고 자동 승격 대상에서 제외
+ *   재시도 간격(연속 거부마다 2배, 상한 있음)이 지난 뒤 같은 종목 구독을 다시 요청하면 재등록 시도
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class KisSubscriptionScheduler {
+
+    private final KisWebSocketConnectionManager connectionManager;
+    private final RealtimeConfig realtimeConfig;
+
+    // 등록 요청 전체 (실시간 + 대기), this 락으로 보호
+    private final Map<Registration, Entry> entries = new HashMap<>();
+    private int activeCount;
+    private long evictions;
+
+    // 등록 상태 리스너 (스레드 안전)
+    private final List<KisSubscriptionListener> statusListeners = new CopyOnWriteArrayList<>();
+
+    private ScheduledExecutorService scheduler;
+
+    @PostConstruct
+    public void init() {
+        RealtimeConfig.Upstream upstream = realtimeConfig.getUpstream();
+        scheduler = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "kis-subscription-scheduler");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(this::rebalance,
+                upstream.getRebalanceIntervalMs(), upstream.getRebalanceIntervalMs(), TimeUnit.MILLISECONDS);
+        scheduler.scheduleWithFixedDelay(this::refreshStandby,
+                upstream.getFallbackIntervalMs(), upstream.getFallbackIntervalMs(), TimeUnit.MILLISECONDS);
+        connectionManager.setResponseListener(this::onResponse);
+        log.info("[KIS 등록 관리] 초기화 완료 - 한도: {}건", upstream.getMaxRegistrations());
+    }
+
+    /**
+     * 실시간 등록 요청
+     * @param demand 현재 구독자 수 (순위 산정용)
+     * @param snapshotFallback 대기 상태일 때 주기적으로 실행할 REST 스냅샷 갱신 (없으면 null)
+     */
+    public synchronized void request(String trId, String trKey, IntSupplier demand, Runnable snapshotFallback) {
+        Registration registration = new Registration(trId, trKey);
+        long now = System.nanoTime();
+        Entry existing = entries.get(registration);
+        if (existing != null) {
+            existing.lastUsedNanos = now;
+            retryFailed(existing, now);
+            return;
+        }
+
+        Entry entry = new Entry(registration, demand, snapshotFallback, now);
+        entries.put(registration, entry);
+        observeDemand(now);
+
+        if (!tryActivate(entry, now)) {
+            log.info("[KIS 등록 관리] 한도 초과로 대기 - TR_ID: {}, TR_KEY: {} (REST 스냅샷 대체)", trId, trKey);
+            setStatus(entry, KisSubscriptionStatus.STANDBY, "실시간 등록 한도 초과");
+            runFallbackAsync(entry);
+        }
+    }
+
+    /**
+     * 사용 시각 갱신 (이미 등록 요청된 종목을 다시 요청했을 때)
+     */
+    public synchronized void touch(String trId, String trKey) {
+        Entry entry = entries.get(new Registration(trId, trKey));
+        if (entry != null) {
+            long now = System.nanoTime();
+            entry.lastUsedNanos = now;
+            retryFailed(entry, now);
+        }
+    }
+
+    /**
+     * 등록 해제 (마지막 구독자 해제 시)
+     * - 실시간 등록이 비면 가장 뜨거운 대기 종목을 승격
+     */
+    public synchronized void release(String trId, String trKey) {
+        Entry entry = entries.remove(new Registration(trId, trKey));
+        if (entry == null || !entry.active) {
+            return;
+        }
+
+        deactivate(entry);
+        observeDemand(System.nanoTime());
+        Entry hottest = hottestStandby();
+        if (hottest != null) {
+            activate(hottest);
+        }
+    }
+
+    /**
+     * 대기 종목과 실시간 종목 순위 재평가 (구독자 수 변화 반영)
+     */
+    synchronized void rebalance() {
+        try {
+            long now = System.nanoTime();
+            observeDemand(now);
+            while (activeCount < maxRegistrations()) {
+                Entry hottest = hottestStandby();
+                if (hottest == null) {
+                    return;
+                }
+                activate(hottest);
+            }
+
+            while (true) {
+                Entry hottest = hottestStandby();
+                Entry coldest = coldestEvictable(now);
+                if (hottest == null || coldest == null || !isHotter(hottest, coldest)) {
+                    return;
+                }
+                evict(coldest, hottest);
+                activate(hottest);
+            }
+        } catch (Exception e) {
+            log.error("[KIS 등록 관리] 재평가 실패", e);
+        }
+    }
+
+    /**
+     * KIS 등록 응답 처리 (연결 관리자 수신/전송 스레드)
+     * - 거부 시 실시간 등록을 반납하고 REST 스냅샷으로 대체, 빈 자리는 다음 재평가에서 대기 종목으로 채움
+     */
+    synchronized void onResponse(String trId, String trKey, KisSubscriptionStatus status, String message) {
+        Entry entry = entries.get(new Registration(trId, trKey));
+        if (entry == null || !entry.active) {
+            return;
+        }
+
+        if (status == KisSubscriptionStatus.FAILED) {
+            deactivate(entry);
+            entry.failures++;
+            entry.retryAtNanos = System.nanoTime() + retryDelayNanos(entry.failures);
+            setStatus(entry, KisSubscriptionStatus.FAILED, message);
+            runFallbackAsync(entry);
+            return;
+        }
+        if (status == KisSubscriptionStatus.SUBSCRIBED) {
+            entry.failures = 0;
+        }
+        setStatus(entry, status, message);
+    }
+
+    /**
+     * 거부된 등록 재시도 (같은 종목 재요청 시, 재시도 간격이 지난 경우만)
+     * - 빈 자리가 있거나 더 차가운 실시간 등록이 있으면 바로 재등록, 아니면 대기 종목으로 되돌려 자동 승격 대상에 포함
+     */
+    private void retryFailed(Entry entry, long nowNanos) {
+        if (entry.status != KisSubscriptionStatus.FAILED || nowNanos - entry.retryAtNanos < 0) {
+            return;
+        }
+
+        log.info("[KIS 등록 관리] 거부된 등록 재시도 - TR_ID: {}, TR_KEY: {} (연속 거부 {}회)",
+                entry.registration.trId(), entry.registration.trKey(), entry.failures);
+        observeDemand(nowNanos);
+        if (!tryActivate(entry, nowNanos)) {
+            setStatus(entry, KisSubscriptionStatus.STANDBY, "실시간 등록 한도 초과");
+        }
+    }
+
+    /**
+     * 연속 거부 횟수별 재시도 간격 (최초 간격에서 2배씩, 상한 이내)
+     */
+    private long retryDelayNanos(int failures) {
+        RealtimeConfig.Upstream upstream = realtimeConfig.getUpstream();
+        long delayMs = upstream.getFailedRetryMs() << Math.min(failures - 1, 20);
+        return TimeUnit.MILLISECONDS.toNanos(Math.min(delayMs, upstream.getFailedRetryMaxMs()));
+    }
+
+    /**
+     * 빈 자리가 있으면 등록, 없으면 더 차가운 실시간 등록과 교체
+     * @return 실시간 등록 여부
+     */
+    private boolean tryActivate(Entry entry, long nowNanos) {
+        if (activeCount < maxRegistrations()) {
+            activate(entry);
+            return true;
+        }
+
+        Entry coldest = coldestEvictable(nowNanos);
+        if (coldest != null && isHotter(entry, coldest)) {
+            evict(coldest, entry);
+            activate(entry);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * 대기 종목 REST 스냅샷 갱신 (스케줄러 스레드, 락 밖에서 호출)
+     */
+    private void refreshStandby() {
+        List<Entry> standby = new ArrayList<>();
+        synchronized (this) {
+            for (Entry entry : entries.values()) {
+                if (!entry.active && entry.snapshotFallback != null) {
+                    standby.add(entry);
+                }
+            }
+        }
+
+        for (Entry entry : standby) {
+            runFallback(entry);
+        }
+    }
+
+    private void runFallbackAsync(Entry entry) {
+        if (entry.snapshotFallback != null) {
+            scheduler.execute(() -> runFallback(entry));
+        }
+    }
+
+    private void runFallback(Entry entry) {
+        synchronized (this) {
+            // 그 사이 해제되었거나 실시간으로 승격되었으면 생략
+            if (entry.active || entries.get(entry.registration) != entry) {
+                return;
+            }
+        }
+        try {
+            entry.snapshotFallback.run();
+        } catch (Exception e) {
+            log.warn("[KIS 등록 관리] REST 스냅샷 갱신 실패 - TR_ID: {}, TR_KEY: {}, 원인: {}",
+                    entry.registration.trId(), entry.registration.trKey(), e.getMessage());
+        }
+    }
+
+    private void activate(Entry entry) {
+        entry.active = true;
+        entry.activatedNanos = System.nanoTime();
+        activeCount++;
+        setStatus(entry, KisSubscriptionStatus.PENDING, null);
+        connectionManager.subscribe(entry.registration.trId(), entry.registration.trKey());
+    }
+
+    private void deactivate(Entry entry) {
+        entry.active = false;
+        activeCount--;
+        connectionManager.unsubscribe(entry.registration.trId(), entry.registration.trKey());
+    }
+
+    private void evict(Entry coldest, Entry hotter) {
+        deactivate(coldest);
+        evictions++;
+        setStatus(coldest, KisSubscriptionStatus.STANDBY, "더 많이 구독된 종목에 실시간 등록 양보");
+        log.info("[KIS 등록 관리] 실시간 교체 - 해제: {}:{} (구독자 {}), 등록: {}:{} (구독자 {})",
+                coldest.registration.trId(), coldest.registration.trKey(), coldest.observedDemand,
+                hotter.registration.trId(), hotter.registration.trKey(), hotter.observedDemand);
+        runFallbackAsync(coldest);
+    }
+
+    /**
+     * 상태 변경 시에만 리스너 통지 (락 안에서 호출, 리스너는 블로킹 금지)
+     */
+    private void setStatus(Entry entry, KisSubscriptionStatus status, String message) {
+        if (entry.status == status) {
+            return;
+        }
+        entry.status = status;
+        for (KisSubscriptionListener listener : statusListeners) {
+            try {
+                listener.onStatus(entry.registration.trId(), entry.registration.trKey(), status, message);
+            } catch (Exception e) {
+                log.error("[KIS 등록 관리] 상태 리스너 오류 - TR_ID: {}, TR_KEY: {}",
+                        entry.registration.trId(), entry.registration.trKey(), e);
+            }
+        }
+    }
+
+    /**
+     * 교체 가능한(최소 유지 시간이 지난) 실시간 등록 중 가장 차가운 항목
+     */
+    private Entry coldestEvictable(long nowNanos) {
+        long minResidencyNanos = TimeUnit.MILLISECONDS.toNanos(realtimeConfig.getUpstream().getMinResidencyMs());
+        Entry coldest = null;
+        for (Entry entry : entries.values()) {
+            if (!entry.active || nowNanos - entry.activatedNanos < minResidencyNanos) {
+                continue;
+            }
+            if (coldest == null || isHotter(coldest, entry)) {
+                coldest = entry;
+            }
+        }
+        return coldest;
+    }
+
+    private Entry hottestStandby() {
+        Entry hottest = null;
+        for (Entry entry : entries.values()) {
+            if (entry.active || entry.status == KisSubscriptionStatus.FAILED) {
+                continue;
+            }
+            if (hottest == null || isHotter(entry, hottest)) {
+                hottest = entry;
+            }
+        }
+        return hottest;
+    }
+
+    /**
+     * 순위 산정 전 구독자 수 스냅샷 갱신 - 구독자 수가 바뀐 종목은 사용 시각도 갱신
+     * (한 번의 재평가 동안 순위가 흔들리지 않도록 비교는 스냅샷 값으로)
+     */
+    private void observeDemand(long nowNanos) {
+        for (Entry entry : entries.values()) {
+            int demand = entry.demand();
+            if (demand != entry.observedDemand) {
+                entry.observedDemand = demand;
+                entry.lastUsedNanos = nowNanos;
+            }
+        }
+    }
+
+    /**
+     * 구독자 수 우선, 같으면 최근 사용 우선 (완전히 같으면 false - 비교 대상인 기존 항목 유지)
+     */
+    private static boolean isHotter(Entry a, Entry b) {
+        if (a.observedDemand != b.observedDemand) {
+            return a.observedDemand > b.observedDemand;
+        }
+        return a.lastUsedNanos - b.lastUsedNanos > 0;
+    }
+
+    private int maxRegistrations() {
+        return realtimeConfig.getUpstream().getMaxRegistrations();
+    }
+
+    public synchronized int getActiveCount() {
+        return activeCount;
+    }
+
+    public synchronized int getStandbyCount() {
+        return entries.size() - activeCount;
+    }
+
+    public synchronized long getEvictions() {
+        return evictions;
+    }
+
+    /**
+     * 실시간 등록 여부 (false면 REST 스냅샷으로 대체 중이거나 미요청)
+     */
+    public synchronized boolean isRealtime(String trId, String trKey) {
+        Entry entry = entries.get(new Registration(trId, trKey));
+        return entry != null && entry.active;
+    }
+
+    /**
+     * 현재 등록 상태 (요청이 없으면 null)
+     */
+    public synchronized KisSubscriptionStatus statusOf(String trId, String trKey) {
+        Entry entry = entries.get(new Registration(trId, trKey));
+        return entry != null ? entry.status : null;
+    }
+
+    /**
+     * 등록 상태 리스너 등록
+     */
+    public void addStatusListener(KisSubscriptionListener listener) {
+        if (listener != null) {
+            statusListeners.add(listener);
+        }
+    }
+
+    @PreDestroy
+    public void destroy() {
+        if (scheduler != null) {
+            scheduler.shutdownNow();
+        }
+    }
+
+    private record Registration(String trId, String trKey) {
+    }
+
+    private static final class Entry {
+        private final Registration registration;
+        private final IntSupplier demand;
+        private final Runnable snapshotFallback;
+        // 마지막 사용 시각 (요청/재요청/구독자 수 변화)
+        private long lastUsedNanos;
+        // 마지막으로 관측한 구독자 수 (순위 비교용)
+        private int observedDemand;
+        private long activatedNanos;
+        private boolean active;
+        private KisSubscriptionStatus status;
+        // 연속 거부 횟수와 재시도 가능 시각 (FAILED 상태에서만 사용)
+        private int failures;
+        private long retryAtNanos;
+
+        private Entry(Registration registration, IntSupplier demand, Runnable snapshotFallback, long requestedNanos) {
+            this.registration = registration;
+            this.demand = demand;
+            this.snapshotFallback = snapshotFallback;
+            this.lastUsedNanos = requestedNanos;
+            this.observedDemand = demand();
+        }
+
+        /**
+         * 등록 요청이 살아 있는 동안 구독자는 최소 1명
+         * (첫 구독 콜백 안에서는 구독 인덱스 반영 전이라 0으로 보일 수 있음)
+         */
+        private int demand() {
+            try {
+                return Math.max(1, demand.getAsInt());
+            } catch (Exception e) {
+                return 1;
+            }
+        }
+    }
+}
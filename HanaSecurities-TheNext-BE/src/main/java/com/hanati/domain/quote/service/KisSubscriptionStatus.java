@@ -0,0 +1,25 @@
+package com.hanati.domain.quote.service;
+
+import java.util.Locale;
+
+/**
+ * KIS 실시간 등록 상태
+ *
+ * - PENDING: 등록 요청 전송 대기 또는 응답 대기
+ * - SUBSCRIBED: KIS가 등록을 승인 (실시간 수신 중)
+ * - STANDBY: 등록 한도 초과로 대기 (REST 스냅샷으로 대체)
+ * - FAILED: KIS가 등록을 거부 (REST 스냅샷으로 대체, 구독을 다시 요청해야 재시도)
+ */
+public enum KisSubscriptionStatus {
+    PENDING,
+    SUBSCRIBED,
+    STANDBY,
+    FAILED;
+
+    /**
+     * 클라이언트 응답용 코드 (소문자)
+     */
+    public String code() {
+        return name().toLowerCase(Locale.ROOT);
+    }
+}
@@ -1,206 +1,117 @@
 package com.hanati.domain.quote.service;
 
-import com.fasterxml.jackson.databind.ObjectMapper;
-import com.hanati.common.service.WebSocketApprovalService;
-import com.hanati.domain.quote.dto.KisWebSocketRequest;
-import com.hanati.domain.quote.dto.RealtimeQuoteResponse;
 import com.hanati.domain.quote.dto.RealtimeTradeData;
+import com.hanati.domain.quote.parser.KisOrderBook;
+import com.hanati.domain.quote.parser.KisRealtimeFrame;
+import com.hanati.domain.quote.parser.KisTradeTick;
+import com.hanati.domain.quote.parser.RealtimeTimestamp;
 import com.hanati.domain.stock.dto.StockInfoResponse;
+import com.hanati.domain.stock.service.StockNxtAttributeCache;
 import com.hanati.domain.stock.service.StockService;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
-import org.springframework.web.socket.CloseStatus;
-import org.springframework.web.socket.TextMessage;
-import org.springframework.web.socket.WebSocketSession;
-import org.springframework.web.socket.client.standard.StandardWebSocketClient;
-import org.springframework.web.socket.handler.TextWebSocketHandler;
-
-import java.time.LocalDateTime;
-import java.time.format.DateTimeFormatter;
-import java.util.Arrays;
+
 import java.util.List;
-import java.util.Set;
+import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
-
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.IntSupplier;
+
+/**
+ * 국내주식 실시간 호가/체결가 클라이언트
+ * - 구독 상태와 TR_ID 판별만 담당하고 KIS 연결/전송은 KisWebSocketConnectionManager에 위임
+ * - 구독 요청은 KIS 응답을 기다리지 않고 반환, 등록 결과는 상태 리스너로 통지
+ */
 @Service
 @RequiredArgsConstructor
 @Slf4j
-public class KisWebSocketClient extends TextWebSocketHandler {
+public class KisWebSocketClient {
 
-    private final WebSocketApprovalService approvalService;
+    private final KisWebSocketConnectionManager connectionManager;
+    private final KisSubscriptionScheduler subscriptionScheduler;
+    private final StockService stockService;
     private final QuoteCacheService quoteCacheService;
     private final TradeCacheService tradeCacheService;
-    private final StockService stockService;
-    private final ObjectMapper objectMapper = new ObjectMapper();
+    private final StockNxtAttributeCache nxtAttributeCache;
+    private final IntradayCandleAggregator candleAggregator;
 
-    private WebSocketSession session;
-    private final Set<String> subscribedQuoteStocks = ConcurrentHashMap.newKeySet();
-    private final Set<String> subscribedTradeStocks = ConcurrentHashMap.newKeySet();
+    // 구독 중인 종목 → 구독에 사용한 TR_ID와 구독자 수 (해제 시 같은 TR_ID 사용, NXT 판정 변경 시 재등록)
+    private final Map<String, Registration> subscribedQuoteStocks = new ConcurrentHashMap<>();
+    private final Map<String, Registration> subscribedTradeStocks = new ConcurrentHashMap<>();
 
-    private static final String KIS_WS_URL = "ws://ops.koreainvestment.com:21000";
+    // 수신 스레드 전용 파싱 버퍼 (프레임마다 재사용)
+    private final KisOrderBook orderBook = new KisOrderBook();
+    private final KisTradeTick tradeTick = new KisTradeTick();
+
+    // 리스너 리스트 (스레드 안전)
+    private final List<RealtimeQuoteListener> quoteListeners = new CopyOnWriteArrayList<>();
+    private final List<RealtimeTradeListener> tradeListeners = new CopyOnWriteArrayList<>();
+    private final List<RealtimeStatusListener> quoteStatusListeners = new CopyOnWriteArrayList<>();
+    private final List<RealtimeStatusListener> tradeStatusListeners = new CopyOnWriteArrayList<>();
 
     /**
-     * WebSocket 연결 (필요 시에만)
+     * 국내 호가/체결가 TR_ID 처리기 등록 (연결은 공용 연결 관리자가 소유)
      */
-    private synchronized void connect() {
-        try {
-            if (session != null && session.isOpen()) {
-                return;
-            }
-
-            log.info("KIS WebSocket 연결 시도...");
-            StandardWebSocketClient client = new StandardWebSocketClient();
-            session = client.execute(this, KIS_WS_URL).get();
-            log.info("KIS WebSocket 연결 성공");
-        } catch (Exception e) {
-            log.error("KIS WebSocket 연결 실패", e);
-            throw new RuntimeException("KIS WebSocket 연결 실패", e);
-        }
+    @PostConstruct
+    public void init() {
+        connectionManager.register("H0UNASP0", this::parseRealtimeQuoteData);
+        connectionManager.register("H0STASP0", this::parseRealtimeQuoteData);
+        connectionManager.register("H0UNCNT0", this::parseRealtimeTradeData);
+        connectionManager.register("H0STCNT0", this::parseRealtimeTradeData);
+        subscriptionScheduler.addStatusListener(this::onSubscriptionStatus);
+        nxtAttributeCache.addFeedChangeListener(this::onFeedChange);
     }
 
     /**
      * 호가 구독
+     * @param demand 현재 구독자 수 (실시간 등록 한도 초과 시 순위 산정용)
      */
-    public void subscribeQuote(String stockCode) {
-        if (subscribedQuoteStocks.contains(stockCode)) {
+    public void subscribeQuote(String stockCode, IntSupplier demand) {
+        // NXT 지원 여부 확인 (로컬 캐시 조회, KIS 호출 없음)
+        boolean integrated = nxtAttributeCache.useIntegratedFeed(stockCode);
+        String trId = integrated ? "H0UNASP0" : "H0STASP0";
+
+        Registration subscribed = subscribedQuoteStocks.putIfAbsent(stockCode, new Registration(trId, demand));
+        if (subscribed != null) {
             log.info("이미 호가 구독 중인 종목: {}", stockCode);
+            subscriptionScheduler.touch(subscribed.trId(), stockCode);
             return;
         }
 
-        try {
-            ensureConnection();
-
-            // NXT 지원 여부 확인
-            StockInfoResponse stockInfo = stockService.getStockInfo(stockCode);
-            String trId = stockInfo.isNxtSupported() ? "H0UNASP0" : "H0STASP0";
-
-            log.info("종목 {} NXT 지원 여부: {} -> 호가 TR_ID: {}",
-                    stockCode, stockInfo.isNxtSupported(), trId);
-
-            // TokenScheduler에서 이미 발급받은 approval key 재사용
-            String approvalKey = approvalService.getWebSocketApprovalKey();
-
-            KisWebSocketRequest request = KisWebSocketRequest.builder()
-                    .header(KisWebSocketRequest.Header.builder()
-                            .approvalKey(approvalKey)
-                            .custtype("P")
-                            .trType("1")  // 1: 등록
-                            .contentType("utf-8")
-                            .build())
-                    .body(KisWebSocketRequest.Body.builder()
-                            .input(KisWebSocketRequest.Input.builder()
-                                    .trId(trId)
-                                    .trKey(stockCode)
-                                    .build())
-                            .build())
-                    .build();
-
-            String message = objectMapper.writeValueAsString(request);
-            log.info("=== 호가 구독 요청 ===");
-            log.info("메시지: {}", message);
-
-            synchronized (session) {
-                session.sendMessage(new TextMessage(message));
-            }
-
-            subscribedQuoteStocks.add(stockCode);
-            log.info("호가 구독 완료: {}", stockCode);
-
-        } catch (Exception e) {
-            log.error("호가 구독 실패: {}", stockCode, e);
-        }
+        log.info("종목 {} NXT 통합 시세: {} -> 호가 TR_ID: {}", stockCode, integrated, trId);
+        subscriptionScheduler.request(trId, stockCode, demand, () -> refreshQuoteSnapshot(stockCode));
     }
 
     /**
      * 체결가 구독
+     * @param demand 현재 구독자 수 (실시간 등록 한도 초과 시 순위 산정용)
      */
-    public void subscribeTrade(String stockCode) {
-        if (subscribedTradeStocks.contains(stockCode)) {
+    public void subscribeTrade(String stockCode, IntSupplier demand) {
+        // NXT 지원 여부 확인 (로컬 캐시 조회, KIS 호출 없음)
+        boolean integrated = nxtAttributeCache.useIntegratedFeed(stockCode);
+        String trId = integrated ? "H0UNCNT0" : "H0STCNT0";
+
+        Registration subscribed = subscribedTradeStocks.putIfAbsent(stockCode, new Registration(trId, demand));
+        if (subscribed != null) {
             log.info("이미 체결가 구독 중인 종목: {}", stockCode);
+            subscriptionScheduler.touch(subscribed.trId(), stockCode);
             return;
         }
 
-        try {
-            ensureConnection();
-
-            // NXT 지원 여부 확인
-            StockInfoResponse stockInfo = stockService.getStockInfo(stockCode);
-            String trId = stockInfo.isNxtSupported() ? "H0UNCNT0" : "H0STCNT0";
-
-            log.info("종목 {} NXT 지원 여부: {} -> TR_ID: {}",
-                    stockCode, stockInfo.isNxtSupported(), trId);
-
-            // TokenScheduler에서 이미 발급받은 approval key 재사용
-            String approvalKey = approvalService.getWebSocketApprovalKey();
-
-            KisWebSocketRequest request = KisWebSocketRequest.builder()
-                    .header(KisWebSocketRequest.Header.builder()
-                            .approvalKey(approvalKey)
-                            .custtype("P")
-                            .trType("1")  // 1: 등록
-                            .contentType("utf-8")
-                            .build())
-                    .body(KisWebSocketRequest.Body.builder()
-                            .input(KisWebSocketRequest.Input.builder()
-                                    .trId(trId)
-                                    .trKey(stockCode)
-                                    .build())
-                            .build())
-                    .build();
-
-            String message = objectMapper.writeValueAsString(request);
-            log.info("=== 체결가 구독 요청 ===");
-            log.info("메시지: {}", message);
-
-            synchronized (session) {
-                session.sendMessage(new TextMessage(message));
-            }
-
-            subscribedTradeStocks.add(stockCode);
-            log.info("체결가 구독 완료: {}", stockCode);
-
-        } catch (Exception e) {
-            log.error("체결가 구독 실패: {}", stockCode, e);
-        }
+        log.info("종목 {} NXT 통합 시세: {} -> TR_ID: {}", stockCode, integrated, trId);
+        subscriptionScheduler.request(trId, stockCode, demand, () -> refreshTradeSnapshot(stockCode));
     }
 
     /**
      * 호가 구독 해제
      */
     public void unsubscribeQuote(String stockCode) {
-        if (!subscribedQuoteStocks.contains(stockCode)) {
-            return;
-        }
-
-        try {
-            String approvalKey = approvalService.getWebSocketApprovalKey();
-
-            KisWebSocketRequest request = KisWebSocketRequest.builder()
-                    .header(KisWebSocketRequest.Header.builder()
-                            .approvalKey(approvalKey)
-                            .custtype("P")
-                            .trType("2")  // 2: 해제
-                            .contentType("utf-8")
-                            .build())
-                    .body(KisWebSocketRequest.Body.builder()
-                            .input(KisWebSocketRequest.Input.builder()
-                                    .trId("H0UNASP0")
-                                    .trKey(stockCode)
-                                    .build())
-                            .build())
-                    .build();
-
-            String message = objectMapper.writeValueAsString(request);
-            synchronized (session) {
-                session.sendMessage(new TextMessage(message));
-            }
-
-            subscribedQuoteStocks.remove(stockCode);
+        Registration subscribed = subscribedQuoteStocks.remove(stockCode);
+        if (subscribed != null) {
+            subscriptionScheduler.release(subscribed.trId(), stockCode);
             log.info("호가 구독 해제: {}", stockCode);
-
-        } catch (Exception e) {
-            log.error("호가 구독 해제 실패: {}", stockCode, e);
         }
     }
 
@@ -208,217 +119,257 @@ public class KisWebSocketClient extends TextWebSocketHandler {
      * 체결가 구독 해제
      */
     public void unsubscribeTrade(String stockCode) {
-        if (!subscribedTradeStocks.contains(stockCode)) {
-            return;
+        Registration subscribed = subscribedTradeStocks.remove(stockCode);
+        if (subscribed != null) {
+            subscriptionScheduler.release(subscribed.trId(), stockCode);
+            candleAggregator.release(stockCode);
+            log.info("체결가 구독 해제: {}", stockCode);
         }
+    }
 
-        try {
-            String approvalKey = approvalService.getWebSocketApprovalKey();
-
-            KisWebSocketRequest request = KisWebSocketRequest.builder()
-                    .header(KisWebSocketRequest.Header.builder()
-                            .approvalKey(approvalKey)
-                            .custtype("P")
-                            .trType("2")  // 2: 해제
-                            .contentType("utf-8")
-                            .build())
-                    .body(KisWebSocketRequest.Body.builder()
-                            .input(KisWebSocketRequest.Input.builder()
-                                    .trId("H0UNCNT0")
-                                    .trKey(stockCode)
-                                    .build())
-                            .build())
-                    .build();
-
-            String message = objectMapper.writeValueAsString(request);
-            synchronized (session) {
-                session.sendMessage(new TextMessage(message));
-            }
-
-            subscribedTradeStocks.remove(stockCode);
-            log.info("체결가 구독 해제: {}", stockCode);
+    /**
+     * 현재 호가 등록 상태 (구독 중이 아니면 null)
+     */
+    public KisSubscriptionStatus quoteStatus(String stockCode) {
+        Registration subscribed = subscribedQuoteStocks.get(stockCode);
+        return subscribed != null ? subscriptionScheduler.statusOf(subscribed.trId(), stockCode) : null;
+    }
 
-        } catch (Exception e) {
-            log.error("체결가 구독 해제 실패: {}", stockCode, e);
-        }
+    /**
+     * 현재 체결가 등록 상태 (구독 중이 아니면 null)
+     */
+    public KisSubscriptionStatus tradeStatus(String stockCode) {
+        Registration subscribed = subscribedTradeStocks.get(stockCode);
+        return subscribed != null ? subscriptionScheduler.statusOf(subscribed.trId(), stockCode) : null;
     }
 
     /**
-     * WebSocket 연결 확인
+     * 등록 상태 변경을 호가/체결가 상태 리스너로 전달 (해외 등 다른 TR_ID는 무시)
      */
-    private void ensureConnection() {
-        if (session == null || !session.isOpen()) {
-            log.warn("WebSocket 연결이 끊어짐. 재연결 시도...");
-            connect();
+    private void onSubscriptionStatus(String trId, String trKey, KisSubscriptionStatus status, String message) {
+        List<RealtimeStatusListener> listeners;
+        if (isSubscribed(subscribedQuoteStocks, trKey, trId)) {
+            listeners = quoteStatusListeners;
+        } else if (isSubscribed(subscribedTradeStocks, trKey, trId)) {
+            listeners = tradeStatusListeners;
+        } else {
+            return;
         }
-    }
 
-    @Override
-    public void handleTextMessage(WebSocketSession session, TextMessage message) {
-        try {
-            String payload = message.getPayload();
-            log.info("=== KIS WebSocket 수신 ===");
-            log.info("메시지: {}", payload);
-
-            // JSON 응답 (연결 확인)
-            if (payload.startsWith("{")) {
-                log.info("KIS WebSocket JSON 응답: {}", payload);
-                return;
+        for (RealtimeStatusListener listener : listeners) {
+            try {
+                listener.onStatus(trKey, status, message);
+            } catch (Exception e) {
+                log.error("등록 상태 리스너 오류: {}", trKey, e);
             }
+        }
+    }
 
-            // 실시간 데이터 (| 구분)
-            if (payload.contains("|")) {
-                String[] parts = payload.split("\\|");
-                if (parts.length >= 2) {
-                    String trId = parts[1];
-                    log.info("실시간 데이터 수신 - TR_ID: {}", trId);
-
-                    if ("H0UNASP0".equals(trId) || "H0STASP0".equals(trId)) {
-                        parseRealtimeQuoteData(payload);
-                    } else if ("H0UNCNT0".equals(trId) || "H0STCNT0".equals(trId)) {
-                        parseRealtimeTradeData(payload);
-                    }
-                }
-            }
+    private static boolean isSubscribed(Map<String, Registration> subscriptions, String stockCode, String trId) {
+        Registration subscribed = subscriptions.get(stockCode);
+        return subscribed != null && subscribed.trId().equals(trId);
+    }
 
-        } catch (Exception e) {
-            log.error("메시지 처리 실패", e);
+    /**
+     * NXT 속성 재확인으로 통합 시세 여부가 바뀐 종목의 등록을 새 TR_ID로 교체 (NXT 속성 재확인 스레드)
+     * - 미확인 종목은 KRX 시세(H0ST*)로 먼저 등록되므로, NXT 거래 가능으로 확인되면 통합 시세(H0UN*)로 재등록
+     */
+    private void onFeedChange(String stockCode) {
+        boolean integrated = nxtAttributeCache.useIntegratedFeed(stockCode);
+        boolean quoteChanged = resubscribe(subscribedQuoteStocks, stockCode, integrated ? "H0UNASP0" : "H0STASP0",
+                () -> refreshQuoteSnapshot(stockCode));
+        boolean tradeChanged = resubscribe(subscribedTradeStocks, stockCode, integrated ? "H0UNCNT0" : "H0STCNT0",
+                () -> refreshTradeSnapshot(stockCode));
+        if (tradeChanged) {
+            // 다른 시장 체결로 쌓인 분봉은 버리고 다음 조회 때 REST로 다시 채움
+            candleAggregator.invalidate(stockCode);
+        }
+        if (quoteChanged || tradeChanged) {
+            log.info("종목 {} NXT 통합 시세 판정 변경: {} -> 실시간 등록 교체 (호가: {}, 체결가: {})",
+                    stockCode, integrated, quoteChanged, tradeChanged);
         }
     }
 
     /**
-     * 실시간 호가 데이터 파싱 (H0UNASP0)
+     * 구독 중인 종목의 등록을 새 TR_ID로 교체
+     * @return 교체 여부 (구독 중이 아니거나 이미 같은 TR_ID면 false)
      */
-    private void parseRealtimeQuoteData(String data) {
-        String[] parts = data.split("\\|");
-        if (parts.length < 4) {
-            return;
+    private boolean resubscribe(Map<String, Registration> subscriptions, String stockCode, String trId,
+                                Runnable snapshotFallback) {
+        Registration current = subscriptions.get(stockCode);
+        if (current == null || current.trId().equals(trId)) {
+            return false;
         }
 
-        String[] fields = parts[3].split("\\^");
-        if (fields.length < 44) {
-            log.warn("호가 데이터 필드 부족: {}", fields.length);
-            return;
+        // 먼저 교체해 두어야 새 등록의 상태 통지가 호가/체결가 리스너로 전달됨
+        Registration next = new Registration(trId, current.demand());
+        if (!subscriptions.replace(stockCode, current, next)) {
+            return false;
         }
+        subscriptionScheduler.release(current.trId(), stockCode);
+        subscriptionScheduler.request(trId, stockCode, next.demand(), snapshotFallback);
 
-        String stockCode = fields[0];
+        // 교체 도중 구독이 해제됐으면 방금 만든 등록도 정리
+        if (subscriptions.get(stockCode) != next) {
+            subscriptionScheduler.release(trId, stockCode);
+        }
+        return true;
+    }
 
-        List<Long> askPrices = Arrays.asList(
-                parseLong(fields[3]), parseLong(fields[4]), parseLong(fields[5]), parseLong(fields[6]),
-                parseLong(fields[7]), parseLong(fields[8]), parseLong(fields[9]), parseLong(fields[10]),
-                parseLong(fields[11]), parseLong(fields[12])
-        );
+    /**
+     * 실시간 등록 한도로 대기 중인 종목의 현재가를 REST로 갱신 (KIS 등록 관리 스케줄러 스레드)
+     */
+    private void refreshTradeSnapshot(String stockCode) {
+        // 실시간 체결이 끊긴 구간이 생기므로 분봉은 다시 실시간이 되면 REST로 채움
+        candleAggregator.invalidate(stockCode);
+        RealtimeTradeData tradeData = fetchTradeSnapshot(stockCode);
+        tradeCacheService.saveTrade(stockCode, tradeData);
+        notifyTradeListeners(tradeData);
+    }
 
-        List<Long> bidPrices = Arrays.asList(
-                parseLong(fields[13]), parseLong(fields[14]), parseLong(fields[15]), parseLong(fields[16]),
-                parseLong(fields[17]), parseLong(fields[18]), parseLong(fields[19]), parseLong(fields[20]),
-                parseLong(fields[21]), parseLong(fields[22])
-        );
+    /**
+     * 실시간 등록 한도로 대기 중인 종목의 10단계 호가를 REST로 갱신 (KIS 등록 관리 스케줄러 스레드)
+     */
+    private void refreshQuoteSnapshot(String stockCode) {
+        loadQuoteSnapshot(stockCode);
+        notifyQuoteListeners(stockCode);
+    }
 
-        List<Long> askVolumes = Arrays.asList(
-                parseLong(fields[23]), parseLong(fields[24]), parseLong(fields[25]), parseLong(fields[26]),
-                parseLong(fields[27]), parseLong(fields[28]), parseLong(fields[29]), parseLong(fields[30]),
-                parseLong(fields[31]), parseLong(fields[32])
-        );
+    /**
+     * 체결 수신 이력이 없는 종목의 REST 현재가를 캐시에 저장 (스냅샷 대체 조회 스레드)
+     * - 리스너 통지 없음: 구독 직후 스냅샷은 요청한 세션에만 전송
+     */
+    public void loadTradeSnapshot(String stockCode) {
+        tradeCacheService.saveTrade(stockCode, fetchTradeSnapshot(stockCode));
+    }
 
-        List<Long> bidVolumes = Arrays.asList(
-                parseLong(fields[33]), parseLong(fields[34]), parseLong(fields[35]), parseLong(fields[36]),
-                parseLong(fields[37]), parseLong(fields[38]), parseLong(fields[39]), parseLong(fields[40]),
-                parseLong(fields[41]), parseLong(fields[42])
-        );
+    /**
+     * 호가 수신 이력이 없는 종목의 REST 10단계 호가를 스냅샷 슬롯에 저장 (스냅샷 대체 조회 스레드)
+     */
+    public void loadQuoteSnapshot(String stockCode) {
+        quoteCacheService.saveQuote(stockService.getOrderBook(stockCode));
+    }
 
-        Long totalAskVolume = parseLong(fields[43]);
-        Long totalBidVolume = parseLong(fields[44]);
+    private RealtimeTradeData fetchTradeSnapshot(String stockCode) {
+        StockInfoResponse info = stockService.getStockInfo(stockCode);
 
-        RealtimeQuoteResponse quote = RealtimeQuoteResponse.builder()
+        return RealtimeTradeData.builder()
                 .stockCode(stockCode)
-                .timestamp(LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")))
-                .askPrices(askPrices)
-                .bidPrices(bidPrices)
-                .askVolumes(askVolumes)
-                .bidVolumes(bidVolumes)
-                .totalAskVolume(totalAskVolume)
-                .totalBidVolume(totalBidVolume)
+                .timestamp(RealtimeTimestamp.now())
+                .currentPrice(info.getCurrentPrice())
+                .priceChangeSign(info.getChangeSign())
+                .priceChange(info.getChangePrice())
+                .changeRate(info.getChangeRate())
                 .build();
-
-        quoteCacheService.saveQuote(stockCode, quote);
-        log.info("실시간 호가 캐시 저장 완료: {}", stockCode);
     }
 
     /**
-     * 실시간 체결가 데이터 파싱 (H0UNCNT0)
+     * 실시간 호가 데이터 파싱 (H0UNASP0 / H0STASP0)
      */
-    private void parseRealtimeTradeData(String data) {
-        String[] parts = data.split("\\|");
-        if (parts.length < 4) {
+    private void parseRealtimeQuoteData(KisRealtimeFrame frame) {
+        if (!orderBook.readFrom(frame)) {
+            log.warn("호가 데이터 필드 부족: {}", frame.fieldCount());
             return;
         }
 
-        String[] fields = parts[3].split("\\^");
-        if (fields.length < 40) {
-            log.warn("체결가 데이터 필드 부족: {}", fields.length);
+        String stockCode = orderBook.getStockCode();
+        quoteCacheService.saveQuote(orderBook, RealtimeTimestamp.now(), frame.receivedNanos());
+        log.trace("실시간 호가 스냅샷 기록 완료: {}", stockCode);
+        notifyQuoteListeners(stockCode);
+    }
+
+    private void notifyQuoteListeners(String stockCode) {
+        // 등록된 리스너들에게 통지
+        for (RealtimeQuoteListener listener : quoteListeners) {
+            try {
+                listener.onQuote(stockCode);
+            } catch (Exception e) {
+                log.error("호가 리스너 오류: {}", stockCode, e);
+            }
+        }
+    }
+
+    /**
+     * 실시간 체결가 데이터 파싱 (H0UNCNT0 / H0STCNT0)
+     */
+    private void parseRealtimeTradeData(KisRealtimeFrame frame) {
+        if (!tradeTick.readFrom(frame)) {
+            log.warn("체결가 데이터 필드 부족: {}", frame.fieldCount());
             return;
         }
 
-        RealtimeTradeData tradeData = RealtimeTradeData.builder()
-                .stockCode(fields[0])
-                .timestamp(LocalDateTime.now().format(DateTimeFormatter.ofPattern("yyyy-MM-dd HH:mm:ss")))
-                .tradeTime(fields[1])
-                .currentPrice(fields[2])
-                .priceChangeSign(fields[3])
-                .priceChange(fields[4])
-                .changeRate(fields[5])
-                .openPrice(fields[7])
-                .highPrice(fields[8])
-                .lowPrice(fields[9])
-                .askPrice1(fields[10])
-                .bidPrice1(fields[11])
-                .tradeVolume(fields[12])
-                .accumulatedVolume(fields[13])
-                .accumulatedAmount(fields[14])
-                .sellCount(fields[15])
-                .buyCount(fields[16])
-                .tradeStrength(fields[18])
-                .totalAskRemain(fields.length > 38 ? fields[38] : "0")
-                .totalBidRemain(fields.length > 39 ? fields[39] : "0")
-                .build();
+        String timestamp = RealtimeTimestamp.now();
+        RealtimeTradeData tradeData = tradeTick.toTradeData(frame, timestamp);
+        tradeCacheService.saveTrade(tradeData.getStockCode(), tradeData, frame.receivedNanos());
+        candleAggregator.onTrade(tradeTick, tradeData);
+        log.trace("실시간 체결가 캐시 저장 완료: {}", tradeData.getStockCode());
+        notifyTradeListeners(tradeData);
+    }
+
+    private void notifyTradeListeners(RealtimeTradeData tradeData) {
+        // 등록된 리스너들에게 통지
+        for (RealtimeTradeListener listener : tradeListeners) {
+            try {
+                listener.onTrade(tradeData);
+            } catch (Exception e) {
+                log.error("체결가 리스너 오류: {}", tradeData.getStockCode(), e);
+            }
+        }
+    }
 
-        tradeCacheService.saveTrade(tradeData.getStockCode(), tradeData);
-        log.info("실시간 체결가 캐시 저장 완료: {}", tradeData.getStockCode());
+    /**
+     * 호가 리스너 등록
+     */
+    public void addQuoteListener(RealtimeQuoteListener listener) {
+        if (listener != null) {
+            quoteListeners.add(listener);
+        }
     }
 
-    private Long parseLong(String value) {
-        try {
-            return Long.parseLong(value.trim());
-        } catch (NumberFormatException e) {
-            return 0L;
+    /**
+     * 호가 리스너 제거
+     */
+    public void removeQuoteListener(RealtimeQuoteListener listener) {
+        quoteListeners.remove(listener);
+    }
+
+    /**
+     * 체결가 리스너 등록
+     */
+    public void addTradeListener(RealtimeTradeListener listener) {
+        if (listener != null) {
+            tradeListeners.add(listener);
         }
     }
 
-    @Override
-    public void afterConnectionClosed(WebSocketSession session, CloseStatus status) {
-        log.warn("KIS WebSocket 연결 종료: {}", status);
-        this.session = null;
-        // 자동 재연결 시도
-        try {
-            Thread.sleep(3000);
-            connect();
-        } catch (Exception e) {
-            log.error("WebSocket 재연결 실패", e);
+    /**
+     * 체결가 리스너 제거
+     */
+    public void removeTradeListener(RealtimeTradeListener listener) {
+        tradeListeners.remove(listener);
+    }
+
+    /**
+     * 호가 등록 상태 리스너 등록
+     */
+    public void addQuoteStatusListener(RealtimeStatusListener listener) {
+        if (listener != null) {
+            quoteStatusListeners.add(listener);
         }
     }
 
     /**
-     * 애플리케이션 종료 시 WebSocket 연결 종료
+     * 체결가 등록 상태 리스너 등록
      */
-    public void disconnect() {
-        if (session != null && session.isOpen()) {
-            try {
-                session.close();
-                log.info("KIS WebSocket 연결 종료");
-            } catch (Exception e) {
-                log.error("WebSocket 종료 실패", e);
-            }
+    public void addTradeStatusListener(RealtimeStatusListener listener) {
+        if (listener != null) {
+            tradeStatusListeners.add(listener);
         }
     }
+
+    /**
+     * 종목별 실시간 등록 (구독에 사용한 TR_ID, 현재 구독자 수)
+     */
+    private record Registration(String trId, IntSupplier demand) {
+    }
 }
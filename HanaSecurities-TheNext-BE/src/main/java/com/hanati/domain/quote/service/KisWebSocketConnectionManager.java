@@ -0,0 +1,511 @@
+package com.hanati.domain.quote.service;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import com.hanati.common.config.RealtimeConfig;
+import com.hanati.common.journal.MarketDataJournal;
+import com.hanati.common.journal.MarketDataSource;
+import com.hanati.common.metrics.MarketDataMetrics;
+import com.hanati.common.metrics.UpstreamMeters;
+import com.hanati.common.service.WebSocketApprovalService;
+import com.hanati.domain.quote.dto.KisWebSocketRequest;
+import com.hanati.domain.quote.parser.KisRealtimeFrame;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.stereotype.Service;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+import org.springframework.web.socket.client.standard.StandardWebSocketClient;
+import org.springframework.web.socket.handler.TextWebSocketHandler;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executors;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * KIS 실시간 WebSocket 단일 연결 관리자
+ *
+ * - 국내/해외 실시간 클라이언트가 하나의 KIS 연결을 공유
+ * - 수신 프레임은 TR_ID로 등록된 처리기에 전달 (TR_ID 문자열 생성 없이 비교)
+ * - 연결/구독 등록·해제/PINGPONG 응답/재연결은 전송 전용 스레드 하나에서만 수행 (송신 락 불필요)
+ * - 연결 종료 시 지터를 준 지수 백오프로 재연결하고, 연결 직후 전체 등록을 응답 대기 없이 연속 전송
+ * - 연결 종료부터 재연결 후 첫 실시간 프레임 수신까지의 복구 시간을 측정
+ * - 등록 응답(성공/거부)과 등록 요청 전송 실패를 등록 결과 리스너에 전달
+ * - 수신 프레임 수/바이트, TR_ID별 프레임 수, 전송 요청 수를 한 곳에서 집계
+ */
+@Slf4j
+@Service
+@RequiredArgsConstructor
+public class KisWebSocketConnectionManager extends TextWebSocketHandler {
+
+    private static final long CONNECT_TIMEOUT_SECONDS = 10;
+    private static final long[] BACKOFF_DELAYS = {1000, 2000, 4000, 8000, 16000, 30000}; // 밀리초
+
+    private final WebSocketApprovalService approvalService;
+    private final RealtimeConfig realtimeConfig;
+    private final MarketDataJournal journal;
+    private final MarketDataMetrics metrics;
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    // TR_ID별 처리기 (기동 시에만 등록, 수신 스레드는 배열 스냅샷을 락 없이 순회)
+    private volatile Route[] routes = new Route[0];
+    // 현재 등록된 구독 (재연결 시 재등록 대상)
+    private final Set<Registration> registrations = ConcurrentHashMap.newKeySet();
+    // 등록 결과 리스너 (등록 관리자가 기동 시 설정)
+    private volatile KisSubscriptionListener responseListener;
+
+    // 수신 스레드 전용 프레임 커서 (프레임마다 재사용)
+    private final KisRealtimeFrame frame = new KisRealtimeFrame();
+
+    // 전송 전용 스레드 (session과 아래 연결 상태 필드는 이 스레드에서만 변경)
+    private ScheduledExecutorService writer;
+    private volatile WebSocketSession session;
+    private boolean connecting;
+    private boolean reconnectScheduled;
+    private int reconnectAttempts;
+
+    // 연결 종료 시각 (0: 복구 대기 없음) - 재연결 후 첫 실시간 프레임에서 복구 시간 산출
+    private final AtomicLong disconnectedNanos = new AtomicLong();
+    private volatile long lastRecoveryNanos;
+    private volatile long maxRecoveryNanos;
+
+    // 업스트림 처리량 집계
+    private final LongAdder framesReceived = new LongAdder();
+    private final LongAdder bytesReceived = new LongAdder();
+    private final LongAdder unroutedFrames = new LongAdder();
+    private final LongAdder requestsSent = new LongAdder();
+    private final LongAdder reconnects = new LongAdder();
+    private final LongAdder recoveries = new LongAdder();
+
+    @PostConstruct
+    public void init() {
+        writer = Executors.newSingleThreadScheduledExecutor(r -> {
+            Thread thread = new Thread(r, "kis-ws-writer");
+            thread.setDaemon(true);
+            return thread;
+        });
+
+        metrics.bindCounter("marketdata.upstream.unrouted", "처리기 없는 TR_ID 프레임 수",
+                unroutedFrames, LongAdder::sum, "source", "kis");
+        metrics.bindCounter("marketdata.upstream.reconnects", "업스트림 재연결 시도 수",
+                reconnects, LongAdder::sum, "source", "kis");
+    }
+
+    /**
+     * TR_ID 처리기 등록 (클라이언트 초기화 시)
+     */
+    public synchronized void register(String trId, KisRealtimeFrameHandler handler) {
+        for (Route route : routes) {
+            if (route.trId.equals(trId)) {
+                throw new IllegalStateException("이미 등록된 TR_ID: " + trId);
+            }
+        }
+        Route[] updated = Arrays.copyOf(routes, routes.length + 1);
+        updated[routes.length] = new Route(trId, handler, metrics.upstream("kis", trId));
+        routes = updated;
+        log.info("[KIS WebSocket] TR_ID 처리기 등록: {}", trId);
+    }
+
+    /**
+     * 등록 결과 리스너 설정 (SUBSCRIBED/FAILED만 전달, 수신 스레드 또는 전송 스레드에서 호출)
+     */
+    public void setResponseListener(KisSubscriptionListener listener) {
+        this.responseListener = listener;
+    }
+
+    /**
+     * 실시간 구독 등록 (전송 스레드에 위임하고 즉시 반환)
+     * - 결과는 KIS 응답 수신 시 등록 결과 리스너로 전달
+     */
+    public void subscribe(String trId, String trKey) {
+        Registration registration = new Registration(trId, trKey);
+        if (registrations.add(registration)) {
+            writer.execute(() -> sendRequest(registration, "1"));
+        }
+    }
+
+    /**
+     * 실시간 구독 해제 (전송 스레드에 위임하고 즉시 반환)
+     */
+    public void unsubscribe(String trId, String trKey) {
+        Registration registration = new Registration(trId, trKey);
+        if (registrations.remove(registration)) {
+            writer.execute(() -> sendRequest(registration, "2"));
+        }
+    }
+
+    /**
+     * 등록/해제 요청 전송 (전송 스레드)
+     * - 연결이 없으면 연결하면서 현재 등록 전체를 재등록하므로 이 요청은 별도 전송하지 않음
+     */
+    private void sendRequest(Registration registration, String trType) {
+        if (!isConnected()) {
+            connect();
+            return;
+        }
+
+        try {
+            String message = buildRequest(registration, trType);
+            session.sendMessage(new TextMessage(message));
+            requestsSent.increment();
+            log.info("[KIS WebSocket] {} 요청 - TR_ID: {}, TR_KEY: {}",
+                    "1".equals(trType) ? "등록" : "해제", registration.trId(), registration.trKey());
+        } catch (Exception e) {
+            log.error("[KIS WebSocket] 요청 전송 실패 - TR_ID: {}, TR_KEY: {}",
+                    registration.trId(), registration.trKey(), e);
+            if ("1".equals(trType)) {
+                notifyResponse(registration.trId(), registration.trKey(), KisSubscriptionStatus.FAILED,
+                        "등록 요청 전송 실패: " + e.getMessage());
+            }
+        }
+    }
+
+    /**
+     * 연결 시작 (전송 스레드)
+     * - 연결 완료를 기다리지 않고 반환하며, 완료 처리는 다시 전송 스레드에서 수행
+     */
+    private void connect() {
+        if (connecting || isConnected()) {
+            return;
+        }
+        if (registrations.isEmpty()) {
+            // 구독이 없으면 다음 구독 요청 시 연결
+            return;
+        }
+
+        connecting = true;
+        String url = realtimeConfig.getUpstream().getKisWsUrl();
+        log.info("[KIS WebSocket] 연결 시도: {} (재시도 {}회차)", url, reconnectAttempts);
+        try {
+            new StandardWebSocketClient().execute(this, url)
+                    .orTimeout(CONNECT_TIMEOUT_SECONDS, TimeUnit.SECONDS)
+                    .whenComplete((newSession, e) -> runOnWriter(() -> onConnectComplete(newSession, e)));
+        } catch (Exception e) {
+            onConnectComplete(null, e);
+        }
+    }
+
+    /**
+     * 연결 완료 처리 (전송 스레드)
+     */
+    private void onConnectComplete(WebSocketSession newSession, Throwable error) {
+        connecting = false;
+        if (error != null) {
+            log.error("[KIS WebSocket] 연결 실패: {}", error.getMessage());
+            scheduleReconnect();
+            return;
+        }
+
+        session = newSession;
+        reconnectAttempts = 0;
+        replayRegistrations();
+    }
+
+    /**
+     * 현재 등록 전체를 응답 대기 없이 연속 전송 (전송 스레드)
+     */
+    private void replayRegistrations() {
+        int sent = 0;
+        try {
+            for (Registration registration : registrations) {
+                session.sendMessage(new TextMessage(buildRequest(registration, "1")));
+                sent++;
+            }
+        } catch (Exception e) {
+            log.error("[KIS WebSocket] 재등록 전송 실패 - {}/{}건 전송", sent, registrations.size(), e);
+        }
+        requestsSent.add(sent);
+        log.info("[KIS WebSocket] 연결 성공 - 등록 {}건 전송", sent);
+    }
+
+    private String buildRequest(Registration registration, String trType) throws Exception {
+        KisWebSocketRequest request = KisWebSocketRequest.builder()
+                .header(KisWebSocketRequest.Header.builder()
+                        .approvalKey(approvalService.getWebSocketApprovalKey())
+                        .custtype("P")
+                        .trType(trType)  // 1: 등록, 2: 해제
+                        .contentType("utf-8")
+                        .build())
+                .body(KisWebSocketRequest.Body.builder()
+                        .input(KisWebSocketRequest.Input.builder()
+                                .trId(registration.trId())
+                                .trKey(registration.trKey())
+                                .build())
+                        .build())
+                .build();
+        return objectMapper.writeValueAsString(request);
+    }
+
+    /**
+     * 지터를 준 지수 백오프로 재연결 예약 (전송 스레드)
+     * - 지연 = 단계별 기준값의 50~100% 사이 임의값 (동시 재연결 분산)
+     */
+    private void scheduleReconnect() {
+        if (reconnectScheduled) {
+            return;
+        }
+
+        long base = BACKOFF_DELAYS[Math.min(reconnectAttempts, BACKOFF_DELAYS.length - 1)];
+        long delay = base / 2 + ThreadLocalRandom.current().nextLong(base / 2 + 1);
+        reconnectAttempts++;
+        reconnectScheduled = true;
+        log.info("[KIS WebSocket] {}ms 후 재연결 시도 ({}회차)", delay, reconnectAttempts);
+
+        writer.schedule(() -> {
+            reconnectScheduled = false;
+            reconnects.increment();
+            connect();
+        }, delay, TimeUnit.MILLISECONDS);
+    }
+
+    private void runOnWriter(Runnable task) {
+        try {
+            writer.execute(task);
+        } catch (RejectedExecutionException e) {
+            log.debug("[KIS WebSocket] 종료 중 - 작업 생략");
+        }
+    }
+
+    /**
+     * 연결 종료 후 첫 실시간 프레임 수신 시 복구 시간 기록 (수신 스레드)
+     */
+    private void recordRecovery() {
+        long disconnectedAt = disconnectedNanos.getAndSet(0);
+        if (disconnectedAt == 0) {
+            return;
+        }
+        long elapsed = System.nanoTime() - disconnectedAt;
+        lastRecoveryNanos = elapsed;
+        if (elapsed > maxRecoveryNanos) {
+            maxRecoveryNanos = elapsed;
+        }
+        recoveries.increment();
+        log.info("[KIS WebSocket] 실시간 수신 복구 - 연결 종료 후 {}ms", TimeUnit.NANOSECONDS.toMillis(elapsed));
+    }
+
+    @Override
+    public void handleTextMessage(WebSocketSession session, TextMessage message) {
+        // 틱 지연 측정 기준 시각 (캐시 → 팬아웃 → 클라이언트 전송까지 전달)
+        long receivedNanos = System.nanoTime();
+        try {
+            String payload = message.getPayload();
+            framesReceived.increment();
+            bytesReceived.add(payload.length());
+            // 원본 프레임 저널 기록 (대기열 적재만, 비활성 시 무시)
+            journal.record(MarketDataSource.KIS_REALTIME, payload);
+
+            // JSON 응답 (구독 결과, PINGPONG)
+            if (payload.startsWith("{")) {
+                if (payload.contains("PINGPONG")) {
+                    runOnWriter(() -> sendPong(session, payload));
+                } else {
+                    log.info("[KIS WebSocket] JSON 응답: {}", payload);
+                    handleResponse(payload);
+                }
+                return;
+            }
+
+            // 실시간 데이터 (| 구분) - 수신 스레드 하나에서만 호출되므로 프레임 커서 재사용
+            if (!frame.wrap(payload, receivedNanos)) {
+                return;
+            }
+            if (disconnectedNanos.get() != 0) {
+                recordRecovery();
+            }
+
+            for (Route route : routes) {
+                if (frame.isTrId(route.trId)) {
+                    long startNanos = System.nanoTime();
+                    route.frames.increment();
+                    route.handler.onFrame(frame);
+                    route.meters.record(startNanos);
+                    return;
+                }
+            }
+
+            unroutedFrames.increment();
+            if (log.isDebugEnabled()) {
+                log.debug("[KIS WebSocket] 처리기 없는 TR_ID: {}", frame.trId());
+            }
+
+        } catch (Exception e) {
+            log.error("[KIS WebSocket] 메시지 처리 실패", e);
+        }
+    }
+
+    /**
+     * 등록 응답 처리 (수신 스레드)
+     * - 해제 응답은 무시, 이미 등록된 종목(재연결 재등록 중복 등)은 성공으로 간주
+     */
+    private void handleResponse(String payload) throws Exception {
+        JsonNode root = objectMapper.readTree(payload);
+        String trId = root.path("header").path("tr_id").asText(null);
+        String trKey = root.path("header").path("tr_key").asText(null);
+        JsonNode body = root.path("body");
+        String message = body.path("msg1").asText("");
+        if (trId == null || trKey == null || message.contains("UNSUBSCRIBE")) {
+            return;
+        }
+        // 해제 후 늦게 도착한 응답은 무시
+        if (!registrations.contains(new Registration(trId, trKey))) {
+            return;
+        }
+
+        boolean success = "0".equals(body.path("rt_cd").asText()) || message.contains("ALREADY IN SUBSCRIBE");
+        if (!success) {
+            log.warn("[KIS WebSocket] 등록 거부 - TR_ID: {}, TR_KEY: {}, 사유: {}", trId, trKey, message);
+        }
+        notifyResponse(trId, trKey, success ? KisSubscriptionStatus.SUBSCRIBED : KisSubscriptionStatus.FAILED, message);
+    }
+
+    private void notifyResponse(String trId, String trKey, KisSubscriptionStatus status, String message) {
+        KisSubscriptionListener listener = responseListener;
+        if (listener == null) {
+            return;
+        }
+        try {
+            listener.onStatus(trId, trKey, status, message);
+        } catch (Exception e) {
+            log.error("[KIS WebSocket] 등록 결과 처리 실패 - TR_ID: {}, TR_KEY: {}", trId, trKey, e);
+        }
+    }
+
+    /**
+     * PINGPONG 수신 시 같은 내용으로 응답 (전송 스레드)
+     */
+    private void sendPong(WebSocketSession pingSession, String payload) {
+        try {
+            if (pingSession.isOpen()) {
+                pingSession.sendMessage(new TextMessage(payload));
+            }
+        } catch (Exception e) {
+            log.warn("[KIS WebSocket] PINGPONG 응답 실패: {}", e.getMessage());
+        }
+    }
+
+    @Override
+    public void afterConnectionClosed(WebSocketSession closedSession, CloseStatus status) {
+        log.warn("[KIS WebSocket] 연결 종료: {}", status);
+        // 재연결 실패가 이어져도 최초 종료 시각 기준으로 복구 시간 측정
+        disconnectedNanos.compareAndSet(0, System.nanoTime());
+        // 수신 스레드를 막지 않도록 재연결은 전송 스레드에서 지연 실행
+        runOnWriter(() -> {
+            if (session == closedSession) {
+                session = null;
+            }
+            scheduleReconnect();
+        });
+    }
+
+    @Override
+    public void handleTransportError(WebSocketSession errorSession, Throwable exception) {
+        log.error("[KIS WebSocket] 전송 오류", exception);
+    }
+
+    public boolean isConnected() {
+        WebSocketSession current = session;
+        return current != null && current.isOpen();
+    }
+
+    public int getActiveRegistrations() {
+        return registrations.size();
+    }
+
+    public long getFramesReceived() {
+        return framesReceived.sum();
+    }
+
+    public long getBytesReceived() {
+        return bytesReceived.sum();
+    }
+
+    public long getUnroutedFrames() {
+        return unroutedFrames.sum();
+    }
+
+    public long getRequestsSent() {
+        return requestsSent.sum();
+    }
+
+    public long getReconnects() {
+        return reconnects.sum();
+    }
+
+    /**
+     * 연결 종료 → 재연결 후 첫 실시간 프레임까지 걸린 시간 (최근값/최대값, 밀리초)
+     */
+    public long getLastRecoveryMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(lastRecoveryNanos);
+    }
+
+    public long getMaxRecoveryMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(maxRecoveryNanos);
+    }
+
+    public long getRecoveries() {
+        return recoveries.sum();
+    }
+
+    /**
+     * 복구 대기 중이면 연결 종료 후 경과 시간 (밀리초), 아니면 0
+     */
+    public long getRecoveryPendingMillis() {
+        long disconnectedAt = disconnectedNanos.get();
+        return disconnectedAt == 0 ? 0 : TimeUnit.NANOSECONDS.toMillis(System.nanoTime() - disconnectedAt);
+    }
+
+    /**
+     * TR_ID별 수신 프레임 수
+     */
+    public Map<String, Long> getFramesByTrId() {
+        Map<String, Long> counts = new LinkedHashMap<>();
+        for (Route route : routes) {
+            counts.put(route.trId, route.frames.sum());
+        }
+        return counts;
+    }
+
+    @PreDestroy
+    public void disconnect() {
+        if (writer != null) {
+            writer.shutdownNow();
+        }
+        WebSocketSession current = session;
+        if (current != null && current.isOpen()) {
+            try {
+                current.close();
+                log.info("[KIS WebSocket] 연결 종료");
+            } catch (Exception e) {
+                log.error("[KIS WebSocket] 종료 실패", e);
+            }
+        }
+    }
+
+    private static final class Route {
+        private final String trId;
+        private final KisRealtimeFrameHandler handler;
+        private final LongAdder frames = new LongAdder();
+        private final UpstreamMeters meters;
+
+        private Route(String trId, KisRealtimeFrameHandler handler, UpstreamMeters meters) {
+            this.trId = trId;
+            this.handler = handler;
+            this.meters = meters;
+        }
+    }
+
+    private record Registration(String trId, String trKey) {
+    }
+}
@@ -1,74 +1,171 @@
 package com.hanati.domain.quote.service;
 
+import com.hanati.common.cache.CacheEntry;
+import com.hanati.common.config.RealtimeConfig;
+import com.hanati.common.metrics.ChannelMeters;
+import com.hanati.common.metrics.MarketDataMetrics;
+import com.hanati.common.snapshot.MarketSnapshot;
+import com.hanati.common.snapshot.MarketSnapshotStore;
+import com.hanati.common.snapshot.OrderBookSource;
+import com.hanati.common.snapshot.OrderBookView;
 import com.hanati.domain.quote.dto.RealtimeQuoteResponse;
+import com.hanati.domain.quote.parser.KisOrderBook;
+import io.micrometer.core.instrument.Counter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
 
+/**
+ * 국내주식 실시간 호가 캐시
+ * - 호가는 MarketSnapshotStore 종목 슬롯에 제자리 기록 (틱마다 DTO/배열 할당 없음)
+ * - 응답 DTO는 조회 시에만 생성
+ */
 @Service
 @Slf4j
 public class QuoteCacheService {
 
-    // 종목별 실시간 호가 데이터 캐시
-    private final Map<String, CachedQuote> quoteCache = new ConcurrentHashMap<>();
+    private final MarketSnapshotStore snapshotStore;
+    private final long ttlMillis;
+    private final Counter writes;
+    private final ChannelMeters meters;
+
+    public QuoteCacheService(MarketSnapshotStore snapshotStore, RealtimeConfig realtimeConfig,
+                             MarketDataMetrics metrics) {
+        this.snapshotStore = snapshotStore;
+        this.ttlMillis = realtimeConfig.getCache().getTtlMs();
+        this.writes = metrics.cacheWrites("domestic_quote");
+        this.meters = metrics.channel("quote");
+    }
+
+    /**
+     * 실시간 호가 저장 (KIS 수신 스레드)
+     * @param receivedNanos KIS 프레임 수신 시각 (스냅샷에 함께 기록, /ws/quote 틱 지연 기준)
+     */
+    public void saveQuote(KisOrderBook orderBook, String timestamp, long receivedNanos) {
+        snapshotStore.snapshot(orderBook.getStockCode()).writeBook(orderBook, timestamp, receivedNanos);
+        writes.increment();
+        meters.recordCacheLatency(receivedNanos);
+    }
+
+    /**
+     * REST 호가 스냅샷 저장 (실시간 수신 이력이 없는 종목, 수신 시각 = 저장 시각)
+     */
+    public void saveQuote(RealtimeQuoteResponse quote) {
+        snapshotStore.snapshot(quote.getStockCode()).writeBook(new ResponseBook(quote), quote.getTimestamp());
+        writes.increment();
+    }
+
+    /**
+     * 실시간 호가를 읽기 버퍼로 복사 (2초 이내 데이터만)
+     * @return 복사했으면 true
+     */
+    public boolean readQuote(String stockCode, OrderBookView view) {
+        return readLastQuote(stockCode, view) && isFresh(view);
+    }
+
+    /**
+     * 마지막 호가를 읽기 버퍼로 복사 (TTL 경과 여부와 무관, 스냅샷 보관 기간 이내)
+     * @return 호가 기록이 있으면 true
+     */
+    public boolean readLastQuote(String stockCode, OrderBookView view) {
+        MarketSnapshot snapshot = snapshotStore.find(stockCode);
+        if (snapshot == null) {
+            return false;
+        }
+        snapshot.readBook(view);
+        return view.hasData();
+    }
 
     /**
-     * 실시간 호가 데이터 저장 (2초 TTL)
+     * 읽은 호가가 TTL(2초) 이내인지
      */
-    public void saveQuote(String stockCode, RealtimeQuoteResponse quote) {
-        quoteCache.put(stockCode, new CachedQuote(quote, LocalDateTime.now()));
-        log.debug("실시간 호가 캐시 저장: {}", stockCode);
+    public boolean isFresh(OrderBookView view) {
+        return view.getAgeMillis() <= ttlMillis;
     }
 
     /**
      * 실시간 호가 데이터 조회 (2초 이내 데이터만 반환)
      */
     public RealtimeQuoteResponse getQuote(String stockCode) {
-        CachedQuote cached = quoteCache.get(stockCode);
+        OrderBookView view = new OrderBookView();
+        return readQuote(stockCode, view) ? toResponse(view) : null;
+    }
 
-        if (cached == null) {
+    /**
+     * 최근 호가 데이터 조회 (TTL 경과 데이터 포함, isStale/getAgeMillis로 판단)
+     */
+    public CacheEntry<RealtimeQuoteResponse> getQuoteEntry(String stockCode) {
+        MarketSnapshot snapshot = snapshotStore.find(stockCode);
+        if (snapshot == null) {
             return null;
         }
-
-        // 2초 TTL 체크
-        if (cached.isExpired()) {
-            quoteCache.remove(stockCode);
-            log.debug("만료된 호가 데이터 삭제: {}", stockCode);
+        OrderBookView view = new OrderBookView();
+        snapshot.readBook(view);
+        if (!view.hasData()) {
             return null;
         }
+        long writtenNanos = view.getWrittenNanos();
+        return new CacheEntry<>(toResponse(view), writtenNanos,
+                writtenNanos + TimeUnit.MILLISECONDS.toNanos(ttlMillis));
+    }
 
-        return cached.getQuote();
+    /**
+     * 읽기 버퍼 → 응답 DTO (배열은 복사)
+     */
+    public static RealtimeQuoteResponse toResponse(OrderBookView view) {
+        int depth = view.getDepth();
+        return RealtimeQuoteResponse.builder()
+                .stockCode(view.getSymbol())
+                .timestamp(view.getTimestamp())
+                .askPrices(Arrays.copyOf(view.getAskPrices(), depth))
+                .bidPrices(Arrays.copyOf(view.getBidPrices(), depth))
+                .askVolumes(Arrays.copyOf(view.getAskVolumes(), depth))
+                .bidVolumes(Arrays.copyOf(view.getBidVolumes(), depth))
+                .totalAskVolume(view.getTotalAskVolume())
+                .totalBidVolume(view.getTotalBidVolume())
+                .build();
     }
 
     /**
-     * 캐시된 데이터 클래스
+     * REST 호가 DTO → 스냅샷 기록용 호가 (조회 경로 전용)
      */
-    private static class CachedQuote {
-        private final RealtimeQuoteResponse quote;
-        private final LocalDateTime createdAt;
+    private record ResponseBook(RealtimeQuoteResponse quote) implements OrderBookSource {
 
-        public CachedQuote(RealtimeQuoteResponse quote, LocalDateTime createdAt) {
-            this.quote = quote;
-            this.createdAt = createdAt;
+        @Override
+        public int depth() {
+            return Math.min(quote.getAskPrices().length, MarketSnapshot.MAX_DEPTH);
         }
 
-        public RealtimeQuoteResponse getQuote() {
-            return quote;
+        @Override
+        public long askPrice(int level) {
+            return quote.getAskPrices()[level];
         }
 
-        public boolean isExpired() {
-            return LocalDateTime.now().isAfter(createdAt.plusSeconds(2));
+        @Override
+        public long askVolume(int level) {
+            return quote.getAskVolumes()[level];
         }
-    }
 
-    /**
-     * 만료된 캐시 정리 (주기적으로 호출)
-     */
-    public void cleanExpiredCache() {
-        quoteCache.entrySet().removeIf(entry -> entry.getValue().isExpired());
-        log.debug("만료된 캐시 정리 완료");
+        @Override
+        public long bidPrice(int level) {
+            return quote.getBidPrices()[level];
+        }
+
+        @Override
+        public long bidVolume(int level) {
+            return quote.getBidVolumes()[level];
+        }
+
+        @Override
+        public long getTotalAskVolume() {
+            return quote.getTotalAskVolume();
+        }
+
+        @Override
+        public long getTotalBidVolume() {
+            return quote.getTotalBidVolume();
+        }
     }
 }
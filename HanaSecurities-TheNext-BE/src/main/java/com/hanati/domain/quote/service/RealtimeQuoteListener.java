@@ -0,0 +1,18 @@
+package com.hanati.domain.quote.service;
+
+/**
+ * 국내주식 실시간 호가 리스너 인터페이스
+ *
+ * KIS WebSocket으로부터 호가를 수신하여 스냅샷 저장소에 기록한 직후 호출됩니다.
+ * (KIS 수신 스레드에서 호출되므로 블로킹 작업 금지, 호가 값은 QuoteCacheService로 조회)
+ */
+@FunctionalInterface
+public interface RealtimeQuoteListener {
+
+    /**
+     * 호가 데이터 수신 시 호출
+     *
+     * @param stockCode 종목코드
+     */
+    void onQuote(String stockCode);
+}
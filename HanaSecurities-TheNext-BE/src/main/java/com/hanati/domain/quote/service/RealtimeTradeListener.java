@@ -0,0 +1,20 @@
+package com.hanati.domain.quote.service;
+
+import com.hanati.domain.quote.dto.RealtimeTradeData;
+
+/**
+ * 국내주식 실시간 체결 리스너 인터페이스
+ *
+ * KIS WebSocket으로부터 체결가를 수신하여 캐시에 저장한 직후 호출됩니다.
+ * (KIS 수신 스레드에서 호출되므로 블로킹 작업 금지)
+ */
+@FunctionalInterface
+public interface RealtimeTradeListener {
+
+    /**
+     * 체결 데이터 수신 시 호출
+     *
+     * @param trade 체결 데이터
+     */
+    void onTrade(RealtimeTradeData trade);
+}
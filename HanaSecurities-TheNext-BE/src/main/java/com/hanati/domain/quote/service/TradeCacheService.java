@@ -1,88 +1,69 @@
 package com.hanati.domain.quote.service;
 
+import com.hanati.common.cache.CacheEntry;
+import com.hanati.common.cache.CacheSweeper;
+import com.hanati.common.cache.TtlCache;
+import com.hanati.common.config.RealtimeConfig;
+import com.hanati.common.metrics.ChannelMeters;
+import com.hanati.common.metrics.MarketDataMetrics;
 import com.hanati.domain.quote.dto.RealtimeTradeData;
+import io.micrometer.core.instrument.Counter;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.stereotype.Service;
 
-import java.time.LocalDateTime;
-import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-
 @Service
 @Slf4j
 public class TradeCacheService {
 
-    private final Map<String, CachedTradeData> cache = new ConcurrentHashMap<>();
-    private static final long TTL_SECONDS = 2;
+    // 종목별 실시간 체결가 캐시 (만료 항목은 CacheSweeper가 정리)
+    private final TtlCache<String, RealtimeTradeData> cache;
+    private final Counter writes;
+    private final ChannelMeters meters;
+
+    public TradeCacheService(CacheSweeper cacheSweeper, RealtimeConfig realtimeConfig, MarketDataMetrics metrics) {
+        RealtimeConfig.Cache config = realtimeConfig.getCache();
+        this.cache = new TtlCache<>(cacheSweeper, config.getTtlMs(), config.getStaleRetentionMs());
+        this.writes = metrics.cacheWrites("domestic_trade");
+        this.meters = metrics.channel("trade");
+    }
 
     /**
-     * 체결가 데이터 저장
+     * 체결가 데이터 저장 (REST 대체 조회 등 수신 시각이 없는 경우 저장 시각 사용)
      */
     public void saveTrade(String stockCode, RealtimeTradeData data) {
-        cache.put(stockCode, new CachedTradeData(data, LocalDateTime.now()));
-        log.debug("체결가 캐시 저장: {}", stockCode);
+        saveTrade(stockCode, data, System.nanoTime());
     }
 
     /**
-     * 체결가 데이터 조회
+     * 체결가 데이터 저장
+     * @param receivedNanos KIS 프레임 수신 시각 (캐시 항목에 함께 저장, /ws/trade 틱 지연 기준)
      */
-    public RealtimeTradeData getTrade(String stockCode) {
-        CachedTradeData cached = cache.get(stockCode);
-
-        if (cached == null) {
-            return null;
-        }
-
-        // TTL 체크
-        if (cached.getCachedAt().plusSeconds(TTL_SECONDS).isBefore(LocalDateTime.now())) {
-            cache.remove(stockCode);
-            log.debug("체결가 캐시 만료: {}", stockCode);
-            return null;
-        }
-
-        return cached.getData();
+    public void saveTrade(String stockCode, RealtimeTradeData data, long receivedNanos) {
+        cache.put(stockCode, data, receivedNanos);
+        writes.increment();
+        meters.recordCacheLatency(receivedNanos);
+        log.debug("체결가 캐시 저장: {}", stockCode);
     }
 
     /**
-     * 체결가 데이터 삭제
+     * 체결가 데이터 조회 (TTL 이내 데이터만 반환)
      */
-    public void removeTrade(String stockCode) {
-        cache.remove(stockCode);
-        log.debug("체결가 캐시 삭제: {}", stockCode);
+    public RealtimeTradeData getTrade(String stockCode) {
+        return cache.get(stockCode);
     }
 
     /**
-     * 만료된 캐시 정리
+     * 최근 체결가 데이터 조회 (TTL 경과 데이터 포함, isStale/getAgeMillis로 판단)
      */
-    public void cleanupExpiredCache() {
-        LocalDateTime now = LocalDateTime.now();
-        cache.entrySet().removeIf(entry -> {
-            boolean expired = entry.getValue().getCachedAt().plusSeconds(TTL_SECONDS).isBefore(now);
-            if (expired) {
-                log.debug("체결가 캐시 자동 정리: {}", entry.getKey());
-            }
-            return expired;
-        });
+    public CacheEntry<RealtimeTradeData> getTradeEntry(String stockCode) {
+        return cache.getEntry(stockCode);
     }
 
     /**
-     * 캐시된 체결가 데이터
+     * 체결가 데이터 삭제
      */
-    private static class CachedTradeData {
-        private final RealtimeTradeData data;
-        private final LocalDateTime cachedAt;
-
-        public CachedTradeData(RealtimeTradeData data, LocalDateTime cachedAt) {
-            this.data = data;
-            this.cachedAt = cachedAt;
-        }
-
-        public RealtimeTradeData getData() {
-            return data;
-        }
-
-        public LocalDateTime getCachedAt() {
-            return cachedAt;
-        }
+    public void removeTrade(String stockCode) {
+        cache.remove(stockCode);
+        log.debug("체결가 캐시 삭제: {}", stockCode);
     }
 }
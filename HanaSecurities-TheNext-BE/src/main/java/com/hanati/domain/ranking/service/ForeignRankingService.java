@@ -1,6 +1,8 @@
 package com.hanati.domain.ranking.service;
 
 import com.hanati.common.config.TokenConfig;
+import com.hanati.common.gateway.KisPriority;
+import com.hanati.common.gateway.KisRestGateway;
 import com.hanati.common.service.TokenService;
 import com.hanati.domain.ranking.dto.*;
 import lombok.RequiredArgsConstructor;
@@ -8,7 +10,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClientException;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.time.LocalDateTime;
@@ -23,7 +24,7 @@ public class ForeignRankingService {
 
     private final TokenConfig tokenConfig;
     private final TokenService tokenService;
-    private final RestTemplate restTemplate;
+    private final KisRestGateway kisRestGateway;
 
     // 랭킹 타입 상수
     public static final String RANKING_VOLUME = "VOLUME";
@@ -99,7 +100,8 @@ public class ForeignRankingService {
         HttpEntity<Void> httpRequest = new HttpEntity<>(headers);
 
         // API 호출
-        ResponseEntity<KisForeignVolumeRankApiResponse> response = restTemplate.exchange(
+        ResponseEntity<KisForeignVolumeRankApiResponse> response = kisRestGateway.exchange(
+                KisPriority.RANKING,
                 url,
                 HttpMethod.GET,
                 httpRequest,
@@ -165,7 +167,8 @@ public class ForeignRankingService {
         HttpEntity<Void> httpRequest = new HttpEntity<>(headers);
 
         // API 호출
-        ResponseEntity<KisForeignTradingValueRankApiResponse> response = restTemplate.exchange(
+        ResponseEntity<KisForeignTradingValueRankApiResponse> response = kisRestGateway.exchange(
+                KisPriority.RANKING,
                 url,
                 HttpMethod.GET,
                 httpRequest,
@@ -237,7 +240,8 @@ public class ForeignRankingService {
         HttpEntity<Void> httpRequest = new HttpEntity<>(headers);
 
         // API 호출
-        ResponseEntity<KisForeignUpDownRankApiResponse> response = restTemplate.exchange(
+        ResponseEntity<KisForeignUpDownRankApiResponse> response = kisRestGateway.exchange(
+                KisPriority.RANKING,
                 url,
                 HttpMethod.GET,
                 httpRequest,
@@ -1,6 +1,8 @@
 package com.hanati.domain.ranking.service;
 
 import com.hanati.common.config.TokenConfig;
+import com.hanati.common.gateway.KisPriority;
+import com.hanati.common.gateway.KisRestGateway;
 import com.hanati.common.service.TokenService;
 import com.hanati.domain.ranking.dto.*;
 import lombok.RequiredArgsConstructor;
@@ -8,7 +10,6 @@ import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.web.client.RestClientException;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.time.LocalDateTime;
@@ -23,7 +24,7 @@ public class RankingService {
 
     private final TokenConfig tokenConfig;
     private final TokenService tokenService;
-    private final RestTemplate restTemplate;
+    private final KisRestGateway kisRestGateway;
 
     // 랭킹 타입 상수
     public static final String RANKING_VOLUME = "VOLUME";
@@ -83,7 +84,8 @@ public class RankingService {
             HttpEntity<Void> httpRequest = new HttpEntity<>(headers);
 
             // API 호출
-            ResponseEntity<KisVolumeRankApiResponse> response = restTemplate.exchange(
+            ResponseEntity<KisVolumeRankApiResponse> response = kisRestGateway.exchange(
+                    KisPriority.RANKING,
                     url,
                     HttpMethod.GET,
                     httpRequest,
@@ -142,7 +144,8 @@ public class RankingService {
             HttpEntity<Void> httpRequest = new HttpEntity<>(headers);
 
             // API 호출
-            ResponseEntity<KisFluctuationRankApiResponse> response = restTemplate.exchange(
+            ResponseEntity<KisFluctuationRankApiResponse> response = kisRestGateway.exchange(
+                    KisPriority.RANKING,
                     url,
                     HttpMethod.GET,
                     httpRequest,
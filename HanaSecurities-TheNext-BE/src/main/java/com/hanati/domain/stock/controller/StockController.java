@@ -1,5 +1,6 @@
 package com.hanati.domain.stock.controller;
 
+import com.hanati.domain.quote.service.IntradayCandleAggregator;
 import com.hanati.domain.stock.dto.*;
 import com.hanati.domain.stock.service.StockService;
 import io.swagger.v3.oas.annotations.Operation;
@@ -28,7 +29,7 @@ public class StockController {
 
     @Operation(
             summary = "국내 주식 당일 분봉 조회",
-            description = "국내 주식의 당일 분봉 데이터를 조회합니다. 최대 30건까지 확인 가능합니다."
+            description = "국내 주식의 당일 분봉 데이터를 조회합니다. 최대 30건까지 확인 가능합니다. 실시간 체결 수신 중인 종목은 메모리 분봉으로 응답합니다."
     )
     @ApiResponses(value = {
             @ApiResponse(responseCode = "200", description = "조회 성공",
@@ -46,9 +47,13 @@ public class StockController {
             @Parameter(description = "입력시간 (HHMMSS 형식, ex: 100000은 10시)",
                     required = true,
                     example = "100000")
-            @RequestParam String inputTime
+            @RequestParam String inputTime,
+
+            @Parameter(description = "봉 주기 (분, 1/3/5/10/30/60)",
+                    example = "1")
+            @RequestParam(defaultValue = "1") int interval
     ) {
-        log.info("주식 당일 분봉 조회 요청 - 종목코드: {}, 입력시간: {}", stockCode, inputTime);
+        log.info("주식 당일 분봉 조회 요청 - 종목코드: {}, 입력시간: {}, 주기: {}분", stockCode, inputTime, interval);
 
         try {
             // 입력 검증
@@ -62,7 +67,12 @@ public class StockController {
                 return ResponseEntity.badRequest().build();
             }
 
-            IntradayChartResponse response = stockService.getIntradayChart(stockCode, inputTime);
+            if (!IntradayCandleAggregator.isSupportedInterval(interval)) {
+                log.error("지원하지 않는 분봉 주기: {}", interval);
+                return ResponseEntity.badRequest().build();
+            }
+
+            IntradayChartResponse response = stockService.getIntradayChart(stockCode, inputTime, interval);
             return ResponseEntity.ok(response);
         } catch (IllegalArgumentException e) {
             log.error("잘못된 요청 파라미터", e);
@@ -0,0 +1,32 @@
+package com.hanati.domain.stock.dto;
+
+import com.fasterxml.jackson.annotation.JsonProperty;
+import lombok.AllArgsConstructor;
+import lombok.Builder;
+import lombok.Data;
+import lombok.NoArgsConstructor;
+
+import java.util.Map;
+
+/**
+ * 주식현재가 호가/예상체결 API 응답 (FHKST01010200)
+ * - output1은 단계별 필드(askp1~10, bidp1~10, askp_rsqn1~10, bidp_rsqn1~10 등)가 많아 Map으로 수신
+ */
+@Data
+@Builder
+@NoArgsConstructor
+@AllArgsConstructor
+public class KisAskingPriceApiResponse {
+
+    @JsonProperty("rt_cd")
+    private String rtCd;
+
+    @JsonProperty("msg_cd")
+    private String msgCd;
+
+    @JsonProperty("msg1")
+    private String msg1;
+
+    @JsonProperty("output1")
+    private Map<String, String> output1;  // 호가 (askp{n}, bidp{n}, askp_rsqn{n}, bidp_rsqn{n}, total_askp_rsqn, total_bidp_rsqn)
+}
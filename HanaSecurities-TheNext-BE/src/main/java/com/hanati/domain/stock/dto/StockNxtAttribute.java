@@ -0,0 +1,42 @@
+package com.hanati.domain.stock.dto;
+
+import java.time.LocalDate;
+import java.time.ZoneId;
+
+/**
+ * 종목 NXT 속성 (STOCK 마스터 일괄 조회용)
+ *
+ * @param stockCode      종목코드
+ * @param nxtTrdPsblYn   NXT 거래가능여부 (Y/N, null: 미확인)
+ * @param nxtTrStopYn    NXT 거래정지여부 (Y/N)
+ * @param nxtCheckedDate NXT 속성 마지막 확인 일자
+ */
+public record StockNxtAttribute(
+        String stockCode,
+        String nxtTrdPsblYn,
+        String nxtTrStopYn,
+        LocalDate nxtCheckedDate
+) {
+
+    public boolean isNxtSupported() {
+        return "Y".equals(nxtTrdPsblYn);
+    }
+
+    public boolean isNxtTradeStopped() {
+        return "Y".equals(nxtTrStopYn);
+    }
+
+    /**
+     * NXT 통합 시세(H0UN*) 구독 대상 여부 - NXT 거래 가능하고 거래정지가 아닌 종목
+     */
+    public boolean useIntegratedFeed() {
+        return isNxtSupported() && !isNxtTradeStopped();
+    }
+
+    /**
+     * 오늘(한국 시간) 확인되지 않은 속성이면 재확인 필요
+     */
+    public boolean needsRefresh() {
+        return nxtCheckedDate == null || !nxtCheckedDate.isEqual(LocalDate.now(ZoneId.of("Asia/Seoul")));
+    }
+}
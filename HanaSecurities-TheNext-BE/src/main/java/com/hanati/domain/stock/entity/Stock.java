@@ -8,6 +8,7 @@ import lombok.NoArgsConstructor;
 import org.hibernate.annotations.CreationTimestamp;
 import org.hibernate.annotations.UpdateTimestamp;
 
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 /**
@@ -33,6 +34,16 @@ public class Stock {
     @Column(name = "market_type", length = 10)
     private String marketType;                     // 시장구분 (KOSPI/KOSDAQ)
 
+    // 실시간 구독 TR_ID 판별용 (H0UN* / H0ST*)
+    @Column(name = "nxt_trd_psbl_yn", length = 1)
+    private String nxtTrdPsblYn;                   // NXT 거래가능여부 (null: 미확인)
+
+    @Column(name = "nxt_tr_stop_yn", length = 1)
+    private String nxtTrStopYn;                    // NXT 거래정지여부
+
+    @Column(name = "nxt_checked_date")
+    private LocalDate nxtCheckedDate;              // NXT 속성 마지막 확인 일자
+
     @CreationTimestamp
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;               // 생성일시
@@ -1,11 +1,14 @@
 package com.hanati.domain.stock.repository;
 
+import com.hanati.domain.stock.dto.StockNxtAttribute;
 import com.hanati.domain.stock.entity.Stock;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
 
+import java.time.LocalDate;
 import java.util.List;
 import java.util.Optional;
 
@@ -44,4 +47,22 @@ public interface StockRepository extends JpaRepository<Stock, String> {
             @Param("marketType") String marketType,
             @Param("keyword") String keyword
     );
+
+    /**
+     * 전 종목 NXT 속성 일괄 조회 (실시간 TR_ID 캐시 적재용, 연관 엔티티 로딩 없음)
+     */
+    @Query("SELECT new com.hanati.domain.stock.dto.StockNxtAttribute(s.stockCode, s.nxtTrdPsblYn, s.nxtTrStopYn, s.nxtCheckedDate) FROM Stock s")
+    List<StockNxtAttribute> findAllNxtAttributes();
+
+    /**
+     * 종목 NXT 속성 갱신
+     */
+    @Modifying
+    @Query("UPDATE Stock s SET s.nxtTrdPsblYn = :nxtTrdPsblYn, s.nxtTrStopYn = :nxtTrStopYn, s.nxtCheckedDate = :checkedDate WHERE s.stockCode = :stockCode")
+    int updateNxtAttributes(
+            @Param("stockCode") String stockCode,
+            @Param("nxtTrdPsblYn") String nxtTrdPsblYn,
+            @Param("nxtTrStopYn") String nxtTrStopYn,
+            @Param("checkedDate") LocalDate checkedDate
+    );
 }
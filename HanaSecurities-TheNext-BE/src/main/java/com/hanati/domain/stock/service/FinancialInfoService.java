@@ -1,18 +1,23 @@
 package com.hanati.domain.stock.service;
 
+import com.hanati.common.cache.SingleFlight;
+import com.hanati.common.config.SingleFlightConfig;
 import com.hanati.common.config.TokenConfig;
+import com.hanati.common.gateway.KisPriority;
+import com.hanati.common.gateway.KisRestGateway;
 import com.hanati.common.service.TokenService;
 import com.hanati.domain.stock.dto.*;
 import com.hanati.domain.stock.entity.StockFinancialInfo;
 import com.hanati.domain.stock.repository.StockFinancialInfoRepository;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.util.*;
+import java.util.concurrent.TimeUnit;
 
 /**
  * [국내주식] 재무정보 조회 서비스 (DB 우선 조회 + 백그라운드 동기화)
@@ -24,12 +29,21 @@ public class FinancialInfoService {
 
     private final TokenConfig tokenConfig;
     private final TokenService tokenService;
-    private final RestTemplate restTemplate;
+    private final KisRestGateway kisRestGateway;
 
     // DB 우선 조회 패턴을 위한 의존성
     private final StockFinancialInfoRepository stockFinancialInfoRepository;
     private final StockDataSyncService stockDataSyncService;
 
+    // 같은 종목 재무정보 동시 요청의 DB 조회/API 호출/저장을 키별 1회로 병합
+    private final SingleFlightConfig singleFlightConfig;
+    private SingleFlight<String, FinancialInfoResponse> financialInfoFlights;
+
+    @PostConstruct
+    public void init() {
+        financialInfoFlights = new SingleFlight<>(singleFlightConfig.getReadShareMs(), TimeUnit.MILLISECONDS);
+    }
+
     /**
      * 통합 재무정보 조회 (DB 우선 조회 + 백그라운드 동기화)
      * @param stockCode 종목코드
@@ -37,6 +51,14 @@ public class FinancialInfoService {
      * @return 통합 재무정보
      */
     public FinancialInfoResponse getFinancialInfo(String stockCode, String divisionCode) {
+        return financialInfoFlights.execute(stockCode + ":" + divisionCode,
+                () -> loadFinancialInfo(stockCode, divisionCode));
+    }
+
+    /**
+     * 재무정보 조회 (키별 single-flight 안에서 1회 실행)
+     */
+    private FinancialInfoResponse loadFinancialInfo(String stockCode, String divisionCode) {
         log.info("[DB 우선 조회] 재무정보 시작 - 종목코드: {}, 분류구분: {}", stockCode, divisionCode);
 
         try {
@@ -261,7 +283,8 @@ public class FinancialInfoService {
 
         HttpEntity<Void> httpRequest = new HttpEntity<>(headers);
 
-        ResponseEntity<KisFinancialRatioApiResponse> response = restTemplate.exchange(
+        ResponseEntity<KisFinancialRatioApiResponse> response = kisRestGateway.exchange(
+                KisPriority.QUOTE,
                 url,
                 HttpMethod.GET,
                 httpRequest,
@@ -293,7 +316,8 @@ public class FinancialInfoService {
 
         HttpEntity<Void> httpRequest = new HttpEntity<>(headers);
 
-        ResponseEntity<KisIncomeStatementApiResponse> response = restTemplate.exchange(
+        ResponseEntity<KisIncomeStatementApiResponse> response = kisRestGateway.exchange(
+                KisPriority.QUOTE,
                 url,
                 HttpMethod.GET,
                 httpRequest,
@@ -325,7 +349,8 @@ public class FinancialInfoService {
 
         HttpEntity<Void> httpRequest = new HttpEntity<>(headers);
 
-        ResponseEntity<KisBalanceSheetApiResponse> response = restTemplate.exchange(
+        ResponseEntity<KisBalanceSheetApiResponse> response = kisRestGateway.exchange(
+                KisPriority.QUOTE,
                 url,
                 HttpMethod.GET,
                 httpRequest,
@@ -1,6 +1,8 @@
 package com.hanati.domain.stock.service;
 
 import com.hanati.common.config.TokenConfig;
+import com.hanati.common.gateway.KisPriority;
+import com.hanati.common.gateway.KisRestGateway;
 import com.hanati.common.service.TokenService;
 import com.hanati.domain.stock.dto.*;
 import com.hanati.domain.stock.entity.StockChartData;
@@ -11,16 +13,19 @@ import com.hanati.domain.stock.repository.StockChartDataRepository;
 import com.hanati.domain.stock.repository.StockFinancialInfoRepository;
 import com.hanati.domain.stock.repository.StockInvestOpinionRepository;
 import com.hanati.domain.stock.repository.StockOverviewRepository;
+import com.hanati.domain.stock.repository.StockRepository;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.*;
 import org.springframework.scheduling.annotation.Async;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
+import java.time.LocalDate;
+import java.time.ZoneId;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
 
 /**
  * 주식 데이터 동기화 전담 서비스
@@ -34,13 +39,14 @@ public class StockDataSyncService {
 
     private final TokenConfig tokenConfig;
     private final TokenService tokenService;
-    private final RestTemplate restTemplate;
+    private final KisRestGateway kisRestGateway;
 
     // Repositories
     private final StockOverviewRepository stockOverviewRepository;
     private final StockFinancialInfoRepository stockFinancialInfoRepository;
     private final StockInvestOpinionRepository stockInvestOpinionRepository;
     private final StockChartDataRepository stockChartDataRepository;
+    private final StockRepository stockRepository;
 
     /**
      * 종목 기본정보 비동기 동기화
@@ -75,6 +81,46 @@ public class StockDataSyncService {
         }
     }
 
+    /**
+     * 종목 NXT 속성 비동기 동기화 (실시간 구독 TR_ID 판별용)
+     * - 주식기본정보(CTPF1002R)의 NXT 거래가능/거래정지 여부를 STOCK 마스터에 저장
+     * @param stockCode 종목코드
+     * @return 갱신된 속성 (실패 시 null)
+     */
+    @Async("apiSyncExecutor")
+    @Transactional
+    public CompletableFuture<StockNxtAttribute> syncNxtAttributesAsync(String stockCode) {
+        log.info("[비동기 동기화] NXT 속성 시작 - 종목코드: {}", stockCode);
+
+        try {
+            KisStockBasicInfoApiResponse apiResponse = callStockBasicInfoApi(stockCode, "300");
+
+            if (apiResponse == null || !"0".equals(apiResponse.getRtCd()) || apiResponse.getOutput() == null) {
+                log.error("[비동기 동기화 실패] NXT 속성 - 종목코드: {}", stockCode);
+                return CompletableFuture.completedFuture(null);
+            }
+
+            StockNxtAttribute attribute = new StockNxtAttribute(
+                    stockCode,
+                    apiResponse.getOutput().getCpttTradTrPsblYn(),
+                    apiResponse.getOutput().getNxtTrStopYn(),
+                    LocalDate.now(ZoneId.of("Asia/Seoul"))
+            );
+
+            // STOCK 마스터에 없는 종목이면 갱신 0건 (캐시에만 반영)
+            stockRepository.updateNxtAttributes(stockCode, attribute.nxtTrdPsblYn(),
+                    attribute.nxtTrStopYn(), attribute.nxtCheckedDate());
+
+            log.info("[비동기 동기화 완료] NXT 속성 - 종목코드: {}, NXT거래가능: {}, NXT거래정지: {}",
+                    stockCode, attribute.nxtTrdPsblYn(), attribute.nxtTrStopYn());
+            return CompletableFuture.completedFuture(attribute);
+
+        } catch (Exception e) {
+            log.error("[비동기 동기화 예외] NXT 속성 - 종목코드: {}, 에러: {}", stockCode, e.getMessage(), e);
+            return CompletableFuture.completedFuture(null);
+        }
+    }
+
     /**
      * 재무정보 비동기 동기화
      * @param stockCode 종목코드
@@ -270,7 +316,8 @@ public class StockDataSyncService {
 
             HttpEntity<Void> request = new HttpEntity<>(headers);
 
-            ResponseEntity<KisStockBasicInfoApiResponse> response = restTemplate.exchange(
+            ResponseEntity<KisStockBasicInfoApiResponse> response = kisRestGateway.exchange(
+                    KisPriority.BACKGROUND,
                     url, HttpMethod.GET, request, KisStockBasicInfoApiResponse.class
             );
 
@@ -298,7 +345,8 @@ public class StockDataSyncService {
 
             HttpEntity<Void> request = new HttpEntity<>(headers);
 
-            ResponseEntity<KisInvestOpinionApiResponse> response = restTemplate.exchange(
+            ResponseEntity<KisInvestOpinionApiResponse> response = kisRestGateway.exchange(
+                    KisPriority.BACKGROUND,
                     url, HttpMethod.GET, request, KisInvestOpinionApiResponse.class
             );
 
@@ -330,7 +378,8 @@ public class StockDataSyncService {
 
             HttpEntity<Void> request = new HttpEntity<>(headers);
 
-            ResponseEntity<KisPeriodChartApiResponse> response = restTemplate.exchange(
+            ResponseEntity<KisPeriodChartApiResponse> response = kisRestGateway.exchange(
+                    KisPriority.BACKGROUND,
                     url, HttpMethod.GET, request, KisPeriodChartApiResponse.class
             );
 
@@ -444,7 +493,8 @@ public class StockDataSyncService {
 
             HttpEntity<Void> request = new HttpEntity<>(headers);
 
-            ResponseEntity<KisFinancialRatioApiResponse> response = restTemplate.exchange(
+            ResponseEntity<KisFinancialRatioApiResponse> response = kisRestGateway.exchange(
+                    KisPriority.BACKGROUND,
                     url, HttpMethod.GET, request, KisFinancialRatioApiResponse.class
             );
 
@@ -473,7 +523,8 @@ public class StockDataSyncService {
 
             HttpEntity<Void> request = new HttpEntity<>(headers);
 
-            ResponseEntity<KisIncomeStatementApiResponse> response = restTemplate.exchange(
+            ResponseEntity<KisIncomeStatementApiResponse> response = kisRestGateway.exchange(
+                    KisPriority.BACKGROUND,
                     url, HttpMethod.GET, request, KisIncomeStatementApiResponse.class
             );
 
@@ -502,7 +553,8 @@ public class StockDataSyncService {
 
             HttpEntity<Void> request = new HttpEntity<>(headers);
 
-            ResponseEntity<KisBalanceSheetApiResponse> response = restTemplate.exchange(
+            ResponseEntity<KisBalanceSheetApiResponse> response = kisRestGateway.exchange(
+                    KisPriority.BACKGROUND,
                     url, HttpMethod.GET, request, KisBalanceSheetApiResponse.class
             );
 
@@ -0,0 +1,146 @@
+package com.hanati.domain.stock.service;
+
+import com.hanati.domain.stock.dto.StockNxtAttribute;
+import com.hanati.domain.stock.repository.StockRepository;
+import jakarta.annotation.PostConstruct;
+import lombok.RequiredArgsConstructor;
+import lombok.extern.slf4j.Slf4j;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+/**
+ * 종목 NXT 속성 로컬 캐시 (실시간 구독 TR_ID 판별용)
+ *
+ * - 기동 시 STOCK 마스터에서 전 종목 일괄 적재, 매일 장 시작 전 재적재
+ * - 조회는 메모리 맵 조회만 수행 (KIS 호출 없음)
+ * - 미확인/오늘 확인되지 않은 종목은 백그라운드(apiSyncExecutor)에서 1회 재확인 후 캐시와 STOCK에 반영
+ * - 재확인 결과 통합 시세 여부가 바뀌면 피드 변경 리스너로 통지 (이미 등록한 실시간 구독의 TR_ID 교체용)
+ */
+@Service
+@RequiredArgsConstructor
+@Slf4j
+public class StockNxtAttributeCache {
+
+    private final StockRepository stockRepository;
+    private final StockDataSyncService stockDataSyncService;
+
+    // 적재 시점에 통째로 교체 (조회 스레드는 락 없이 읽음)
+    private volatile Map<String, StockNxtAttribute> attributes = Map.of();
+    // 재확인 진행 중인 종목 (중복 API 호출 방지)
+    private final Set<String> refreshing = ConcurrentHashMap.newKeySet();
+    // 통합 시세 여부 변경 리스너 (종목코드 전달)
+    private final List<Consumer<String>> feedChangeListeners = new CopyOnWriteArrayList<>();
+
+    @PostConstruct
+    public void loadOnStartup() {
+        reload();
+    }
+
+    /**
+     * 매일 07:30 STOCK 마스터 재적재 (NXT 프리마켓 08:00 이전)
+     */
+    @Scheduled(cron = "0 30 7 * * *", zone = "Asia/Seoul")
+    public void reloadDaily() {
+        reload();
+    }
+
+    /**
+     * STOCK 마스터에서 전 종목 NXT 속성 적재
+     */
+    public void reload() {
+        try {
+            List<StockNxtAttribute> rows = stockRepository.findAllNxtAttributes();
+            Map<String, StockNxtAttribute> loaded = new HashMap<>(rows.size() * 2);
+            for (StockNxtAttribute row : rows) {
+                loaded.put(row.stockCode(), row);
+            }
+            attributes = loaded;
+            log.info("[NXT 속성 캐시] 적재 완료 - {}개 종목", loaded.size());
+        } catch (Exception e) {
+            log.error("[NXT 속성 캐시] 적재 실패 - 기존 캐시 유지 ({}개 종목)", attributes.size(), e);
+        }
+    }
+
+    /**
+     * NXT 통합 시세(H0UN*) 구독 여부
+     * - 캐시에 없거나 미확인 종목은 KRX 시세(H0ST*)로 처리하고 백그라운드 재확인 요청
+     */
+    public boolean useIntegratedFeed(String stockCode) {
+        StockNxtAttribute attribute = attributes.get(stockCode);
+        if (attribute == null || attribute.needsRefresh()) {
+            requestRefresh(stockCode);
+        }
+        return attribute != null && attribute.useIntegratedFeed();
+    }
+
+    public StockNxtAttribute get(String stockCode) {
+        return attributes.get(stockCode);
+    }
+
+    public int size() {
+        return attributes.size();
+    }
+
+    /**
+     * 통합 시세 여부 변경 리스너 등록 (재확인 스레드에서 호출)
+     */
+    public void addFeedChangeListener(Consumer<String> listener) {
+        if (listener != null) {
+            feedChangeListeners.add(listener);
+        }
+    }
+
+    private void requestRefresh(String stockCode) {
+        if (!refreshing.add(stockCode)) {
+            return;
+        }
+
+        try {
+            stockDataSyncService.syncNxtAttributesAsync(stockCode)
+                    .whenComplete((attribute, e) -> {
+                        refreshing.remove(stockCode);
+                        if (attribute == null) {
+                            return;
+                        }
+                        StockNxtAttribute previous = put(attribute);
+                        // 미확인 종목은 KRX 시세로 구독했으므로 이전 판정과 다르면 구독 교체 통지
+                        boolean wasIntegrated = previous != null && previous.useIntegratedFeed();
+                        if (attribute.useIntegratedFeed() != wasIntegrated) {
+                            notifyFeedChange(stockCode);
+                        }
+                    });
+        } catch (Exception e) {
+            refreshing.remove(stockCode);
+            log.warn("[NXT 속성 캐시] 재확인 요청 실패 - 종목코드: {}, 원인: {}", stockCode, e.getMessage());
+        }
+    }
+
+    private void notifyFeedChange(String stockCode) {
+        for (Consumer<String> listener : feedChangeListeners) {
+            try {
+                listener.accept(stockCode);
+            } catch (Exception e) {
+                log.error("[NXT 속성 캐시] 피드 변경 리스너 오류 - 종목코드: {}", stockCode, e);
+            }
+        }
+    }
+
+    /**
+     * 단건 반영 (copy-on-write - 갱신은 드물고 조회는 잦음)
+     * @return 이전 속성 (없으면 null)
+     */
+    private synchronized StockNxtAttribute put(StockNxtAttribute attribute) {
+        Map<String, StockNxtAttribute> updated = new HashMap<>(attributes);
+        StockNxtAttribute previous = updated.put(attribute.stockCode(), attribute);
+        attributes = updated;
+        return previous;
+    }
+}
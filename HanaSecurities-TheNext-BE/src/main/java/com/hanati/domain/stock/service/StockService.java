@@ -1,7 +1,14 @@
 package com.hanati.domain.stock.service;
 
+import com.hanati.common.cache.SingleFlight;
+import com.hanati.common.config.SingleFlightConfig;
 import com.hanati.common.config.TokenConfig;
+import com.hanati.common.gateway.KisPriority;
+import com.hanati.common.gateway.KisRestGateway;
 import com.hanati.common.service.TokenService;
+import com.hanati.domain.quote.dto.RealtimeQuoteResponse;
+import com.hanati.domain.quote.parser.RealtimeTimestamp;
+import com.hanati.domain.quote.service.IntradayCandleAggregator;
 import com.hanati.domain.stock.dto.*;
 import com.hanati.domain.stock.entity.StockChartData;
 import com.hanati.domain.stock.entity.StockInvestOpinion;
@@ -9,21 +16,25 @@ import com.hanati.domain.stock.entity.StockOverview;
 import com.hanati.domain.stock.repository.StockChartDataRepository;
 import com.hanati.domain.stock.repository.StockInvestOpinionRepository;
 import com.hanati.domain.stock.repository.StockOverviewRepository;
+import jakarta.annotation.PostConstruct;
 import lombok.RequiredArgsConstructor;
 import lombok.extern.slf4j.Slf4j;
 import org.springframework.http.*;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 import org.springframework.web.client.RestClientException;
-import org.springframework.web.client.RestTemplate;
 import org.springframework.web.util.UriComponentsBuilder;
 
 import java.time.LocalDate;
 import java.time.LocalDateTime;
+import java.time.LocalTime;
+import java.time.ZoneId;
 import java.time.format.DateTimeFormatter;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Map;
 import java.util.Optional;
+import java.util.concurrent.TimeUnit;
 
 @Service
 @RequiredArgsConstructor
@@ -32,7 +43,7 @@ public class StockService {
 
     private final TokenConfig tokenConfig;
     private final TokenService tokenService;
-    private final RestTemplate restTemplate;
+    private final KisRestGateway kisRestGateway;
 
     // DB 우선 조회 패턴을 위한 의존성
     private final StockOverviewRepository stockOverviewRepository;
@@ -41,15 +52,167 @@ public class StockService {
     private final StockDataSyncService stockDataSyncService;
     private final com.hanati.domain.stock.repository.StockRepository stockRepository;
 
+    // 실시간 체결 기반 당일 분봉
+    private final IntradayCandleAggregator candleAggregator;
+
+    // 같은 종목 화면이 동시에 열릴 때 DB 조회/API 호출/저장을 키별 1회로 병합
+    private final SingleFlightConfig singleFlightConfig;
+    private SingleFlight<String, PeriodChartResponse> periodChartFlights;
+    private SingleFlight<String, InvestOpinionResponse> investOpinionFlights;
+    private SingleFlight<String, StockBasicInfoResponse> basicInfoFlights;
+    // 실시간 종목의 과거 분봉 이어 채우기 (종목별 1회 실행)
+    private final SingleFlight<String, Void> intradayBackfillFlights = new SingleFlight<>();
+    // 실시간이 아닌 종목의 N분봉 합성 결과 (1분봉 여러 페이지 조회 → 같은 봉 구간 요청은 1분간 재사용)
+    private final SingleFlight<String, IntradayChartResponse> foldedIntradayFlights = new SingleFlight<>(1, TimeUnit.MINUTES);
+
+    @PostConstruct
+    public void init() {
+        long shareMs = singleFlightConfig.getReadShareMs();
+        periodChartFlights = new SingleFlight<>(shareMs, TimeUnit.MILLISECONDS);
+        investOpinionFlights = new SingleFlight<>(shareMs, TimeUnit.MILLISECONDS);
+        basicInfoFlights = new SingleFlight<>(shareMs, TimeUnit.MILLISECONDS);
+    }
+
     /**
-     * 주식 당일 분봉 조회
+     * 주식 당일 분봉 조회 (1분봉)
      * @param stockCode 종목 코드
      * @param inputTime 입력시간 (HHMMSS)
      * @return 당일 분봉 데이터
      */
     public IntradayChartResponse getIntradayChart(String stockCode, String inputTime) {
-        log.info("주식 당일 분봉 조회 시작 - 종목코드: {}, 입력시간: {}", stockCode, inputTime);
+        return getIntradayChart(stockCode, inputTime, 1);
+    }
+
+    /**
+     * 주식 당일 분봉 조회
+     * - 실시간 체결 수신 중인 종목은 메모리 분봉으로 응답 (실시간 이전 구간과 긴 주기에 필요한 과거 구간은 최초 1회 REST로 채움)
+     * - 그 외 종목은 KIS 당일 분봉 API 조회 (N분봉 합성 결과는 같은 봉 구간 요청에 1분간 재사용)
+     * @param stockCode 종목 코드
+     * @param inputTime 입력시간 (HHMMSS)
+     * @param interval 봉 주기 (1/3/5/10/30/60분)
+     * @return 당일 분봉 데이터
+     */
+    public IntradayChartResponse getIntradayChart(String stockCode, String inputTime, int interval) {
+        log.info("주식 당일 분봉 조회 시작 - 종목코드: {}, 입력시간: {}, 주기: {}분", stockCode, inputTime, interval);
+
+        if (candleAggregator.isStreaming(stockCode)) {
+            if (candleAggregator.needsBackfill(stockCode)) {
+                try {
+                    String now = LocalTime.now(ZoneId.of("Asia/Seoul")).format(DateTimeFormatter.ofPattern("HHmmss"));
+                    candleAggregator.backfill(stockCode, fetchIntradayChart(stockCode, now));
+                } catch (RuntimeException e) {
+                    log.warn("당일 분봉 backfill 실패 - 종목코드: {}, 원인: {}", stockCode, e.getMessage());
+                }
+            }
+
+            IntradayChartResponse cached = candleAggregator.chart(stockCode, inputTime, interval);
+            if (cached == null) {
+                extendIntradayBackfill(stockCode, inputTime, interval);
+                cached = candleAggregator.chart(stockCode, inputTime, interval);
+            }
+            if (cached != null) {
+                log.debug("당일 분봉 메모리 응답 - 종목코드: {}, {}개", stockCode, cached.getChartData().size());
+                return cached;
+            }
+        }
+
+        if (interval == 1) {
+            return convertToIntradayChartResponse(fetchIntradayChart(stockCode, inputTime), stockCode);
+        }
+        int endMinute = IntradayCandleAggregator.toMinute(Integer.parseInt(inputTime));
+        String key = stockCode + ":" + interval + ":" + (endMinute - endMinute % interval);
+        return foldedIntradayFlights.execute(key, () -> fetchFoldedIntradayChart(stockCode, inputTime, interval));
+    }
+
+    /**
+     * 요청 구간이 메모리 연속 구간보다 과거까지 필요하면 과거 1분봉을 이어서 조회해 채움
+     * - 채운 구간은 종목 분봉에 남으므로 이후 같은 주기 조회는 REST 없이 메모리에서 응답
+     */
+    private void extendIntradayBackfill(String stockCode, String inputTime, int interval) {
+        intradayBackfillFlights.execute(stockCode, () -> {
+            // 1회 응답이 MAX_BARS개(분)이므로 최대 interval회
+            for (int page = 0; page < interval && candleAggregator.chart(stockCode, inputTime, interval) == null; page++) {
+                String cursor = candleAggregator.olderBackfillTime(stockCode);
+                if (cursor == null) {
+                    break;
+                }
+                try {
+                    candleAggregator.backfill(stockCode, fetchIntradayChart(stockCode, cursor));
+                } catch (RuntimeException e) {
+                    log.warn("당일 분봉 과거 구간 backfill 실패 - 종목코드: {}, 원인: {}", stockCode, e.getMessage());
+                    break;
+                }
+                // 연속 구간이 넓어지지 않으면 중단 (실시간 전환 등)
+                if (cursor.equals(candleAggregator.olderBackfillTime(stockCode))) {
+                    break;
+                }
+            }
+            return null;
+        });
+    }
+
+    /**
+     * 실시간이 아닌 종목의 N분봉 - N분봉 MAX_BARS개를 채울 만큼 1분봉을 과거 방향으로 이어서 조회한 뒤 합침
+     * - 기준 시각이 속한 봉의 마지막 분부터 조회하므로 최신 봉도 N분 전체 (진행 중인 봉은 현재까지)
+     * - 장 시작 전에 멈춘 경우 가장 오래된 봉은 일부 분만 있으므로 fold에서 버림
+     * - 여러 페이지를 조회하므로 호출은 foldedIntradayFlights를 거쳐 같은 봉 구간 요청에 결과를 재사용
+     */
+    private IntradayChartResponse fetchFoldedIntradayChart(String stockCode, String inputTime, int interval) {
+        int endMinute = IntradayCandleAggregator.toMinute(Integer.parseInt(inputTime));
+        int lastMinute = endMinute - endMinute % interval + interval - 1;
+        int firstMinute = lastMinute + 1 - interval * IntradayCandleAggregator.MAX_BARS;
+
+        IntradayChartResponse response = null;
+        List<IntradayChartResponse.ChartItem> minuteItems = new ArrayList<>();
+        String tradingDate = null;
+        boolean reachedDayStart = false;
+        String cursor = IntradayCandleAggregator.formatMinute(lastMinute);
+        // 1회 응답이 MAX_BARS개(분)이므로 최대 interval회
+        for (int page = 0; page < interval; page++) {
+            IntradayChartResponse converted = convertToIntradayChartResponse(fetchIntradayChart(stockCode, cursor), stockCode);
+            if (response == null) {
+                response = converted;
+            }
+
+            List<IntradayChartResponse.ChartItem> items = converted.getChartData();
+            int oldestMinute = Integer.MAX_VALUE;
+            for (IntradayChartResponse.ChartItem item : items) {
+                if (tradingDate == null) {
+                    tradingDate = item.getDate();
+                }
+                // 과거 데이터 포함 조회라 전일 봉이 섞이면 당일 첫 봉까지 받은 것
+                if (!tradingDate.equals(item.getDate())) {
+                    reachedDayStart = true;
+                    break;
+                }
+                int minute = IntradayCandleAggregator.toMinute(Integer.parseInt(item.getTime()));
+                if (minute < oldestMinute) {
+                    oldestMinute = minute;
+                    minuteItems.add(item);
+                }
+            }
 
+            if (reachedDayStart || items.size() < IntradayCandleAggregator.MAX_BARS) {
+                reachedDayStart = true;
+                break;
+            }
+            // 필요한 구간을 모두 받았거나 더 과거로 진행하지 못하면 중단
+            if (oldestMinute <= firstMinute || oldestMinute == Integer.MAX_VALUE) {
+                break;
+            }
+            cursor = IntradayCandleAggregator.formatMinute(oldestMinute - 1);
+        }
+
+        response.setChartData(IntradayCandleAggregator.fold(minuteItems, interval, reachedDayStart));
+        log.debug("당일 {}분봉 REST 합성 - 종목코드: {}, 1분봉 {}개 → {}개", interval, stockCode,
+                minuteItems.size(), response.getChartData().size());
+        return response;
+    }
+
+    /**
+     * KIS 당일 분봉 API 호출 (FHKST03010200)
+     */
+    private KisIntradayChartApiResponse fetchIntradayChart(String stockCode, String inputTime) {
         try {
             // 헤더 설정
             HttpHeaders headers = createIntradayChartHeaders();
@@ -68,7 +231,8 @@ public class StockService {
             HttpEntity<Void> httpRequest = new HttpEntity<>(headers);
 
             // API 호출
-            ResponseEntity<KisIntradayChartApiResponse> response = restTemplate.exchange(
+            ResponseEntity<KisIntradayChartApiResponse> response = kisRestGateway.exchange(
+                    KisPriority.CHART,
                     url,
                     HttpMethod.GET,
                     httpRequest,
@@ -83,8 +247,7 @@ public class StockService {
                     throw new RuntimeException("당일 분봉 조회 실패: " + apiResponse.getMsg1());
                 }
 
-                // 응답 데이터 변환
-                return convertToIntradayChartResponse(apiResponse, stockCode);
+                return apiResponse;
             }
 
         } catch (RestClientException e) {
@@ -104,6 +267,14 @@ public class StockService {
      * @return 기간별 시세 데이터
      */
     public PeriodChartResponse getPeriodChart(String stockCode, String startDate, String endDate, String periodCode) {
+        String key = stockCode + ":" + periodCode + ":" + startDate + ":" + endDate;
+        return periodChartFlights.execute(key, () -> loadPeriodChart(stockCode, startDate, endDate, periodCode));
+    }
+
+    /**
+     * 기간별 시세 조회 (키별 single-flight 안에서 1회 실행)
+     */
+    private PeriodChartResponse loadPeriodChart(String stockCode, String startDate, String endDate, String periodCode) {
         log.info("[차트 데이터 조회] 종목코드: {}, 기간: {} ({} ~ {})", stockCode, periodCode, startDate, endDate);
 
         try {
@@ -181,7 +352,8 @@ public class StockService {
 
             // API 호출
             log.info("[API 직접 호출 시작] 종목코드: {}, 기간: {}", stockCode, periodCode);
-            ResponseEntity<KisPeriodChartApiResponse> response = restTemplate.exchange(
+            ResponseEntity<KisPeriodChartApiResponse> response = kisRestGateway.exchange(
+                    KisPriority.CHART,
                     url,
                     HttpMethod.GET,
                     httpRequest,
@@ -249,7 +421,8 @@ public class StockService {
             HttpEntity<Void> httpRequest = new HttpEntity<>(headers);
 
             // API 호출
-            ResponseEntity<KisPeriodChartApiResponse> response = restTemplate.exchange(
+            ResponseEntity<KisPeriodChartApiResponse> response = kisRestGateway.exchange(
+                    KisPriority.CHART,
                     url,
                     HttpMethod.GET,
                     httpRequest,
@@ -583,7 +756,8 @@ public class StockService {
             HttpEntity<KisStockOrderApiRequest> httpRequest = new HttpEntity<>(apiRequest, headers);
 
             // API 호출
-            ResponseEntity<KisStockOrderApiResponse> response = restTemplate.exchange(
+            ResponseEntity<KisStockOrderApiResponse> response = kisRestGateway.exchange(
+                    KisPriority.ORDER,
                     url,
                     HttpMethod.POST,
                     httpRequest,
@@ -649,7 +823,8 @@ public class StockService {
             HttpEntity<Void> httpRequest = new HttpEntity<>(headers);
 
             // API 호출
-            ResponseEntity<KisStockInfoApiResponse> response = restTemplate.exchange(
+            ResponseEntity<KisStockInfoApiResponse> response = kisRestGateway.exchange(
+                    KisPriority.QUOTE,
                     url,
                     HttpMethod.GET,
                     httpRequest,
@@ -715,6 +890,110 @@ public class StockService {
                 .build();
     }
 
+    /**
+     * 주식 10단계 호가 조회 (실시간 호가 수신 이력이 없는 종목의 REST 대체 조회용 - 등록 대기 중 갱신, 구독 직후 스냅샷)
+     * @param stockCode 종목코드
+     * @return 호가 (실시간 호가와 같은 형식)
+     */
+    public RealtimeQuoteResponse getOrderBook(String stockCode) {
+        log.info("주식 호가 조회 시작 - 종목코드: {}", stockCode);
+
+        try {
+            // 헤더 설정
+            HttpHeaders headers = createOrderBookHeaders();
+
+            // URL 구성
+            String url = UriComponentsBuilder.fromUriString(tokenConfig.getBaseUrl())
+                    .path("/uapi/domestic-stock/v1/quotations/inquire-asking-price-exp-ccn")
+                    .queryParam("FID_COND_MRKT_DIV_CODE", "J")  // J: 주식
+                    .queryParam("FID_INPUT_ISCD", stockCode)
+                    .build()
+                    .toUriString();
+
+            HttpEntity<Void> httpRequest = new HttpEntity<>(headers);
+
+            // API 호출
+            ResponseEntity<KisAskingPriceApiResponse> response = kisRestGateway.exchange(
+                    KisPriority.QUOTE,
+                    url,
+                    HttpMethod.GET,
+                    httpRequest,
+                    KisAskingPriceApiResponse.class
+            );
+
+            if (response.getStatusCode() == HttpStatus.OK && response.getBody() != null) {
+                KisAskingPriceApiResponse apiResponse = response.getBody();
+
+                if (!"0".equals(apiResponse.getRtCd()) || apiResponse.getOutput1() == null) {
+                    log.error("주식 호가 조회 실패: {}", apiResponse.getMsg1());
+                    throw new RuntimeException("주식 호가 조회 실패: " + apiResponse.getMsg1());
+                }
+
+                return convertToOrderBookResponse(stockCode, apiResponse.getOutput1());
+            }
+
+        } catch (RestClientException e) {
+            log.error("주식 호가 조회 실패: {}", e.getMessage());
+            throw new RuntimeException("주식 호가 조회 실패", e);
+        }
+
+        throw new RuntimeException("주식 호가 조회 실패");
+    }
+
+    /**
+     * 주식 호가 API 헤더 생성
+     */
+    private HttpHeaders createOrderBookHeaders() {
+        HttpHeaders headers = new HttpHeaders();
+        headers.setContentType(MediaType.APPLICATION_JSON);
+        headers.set("authorization", "Bearer " + tokenService.getRestApiAccessToken());
+        headers.set("appkey", tokenConfig.getAppKey());
+        headers.set("appsecret", tokenConfig.getAppSecret());
+        headers.set("tr_id", "FHKST01010200");  // 주식현재가 호가/예상체결
+        headers.set("custtype", "P");  // 개인
+
+        return headers;
+    }
+
+    /**
+     * 호가 API 응답(output1)을 실시간 호가 형식으로 변환
+     */
+    private RealtimeQuoteResponse convertToOrderBookResponse(String stockCode, Map<String, String> output) {
+        long[] askPrices = new long[10];
+        long[] bidPrices = new long[10];
+        long[] askVolumes = new long[10];
+        long[] bidVolumes = new long[10];
+        for (int i = 0; i < 10; i++) {
+            askPrices[i] = parseLongField(output, "askp" + (i + 1));
+            bidPrices[i] = parseLongField(output, "bidp" + (i + 1));
+            askVolumes[i] = parseLongField(output, "askp_rsqn" + (i + 1));
+            bidVolumes[i] = parseLongField(output, "bidp_rsqn" + (i + 1));
+        }
+
+        return RealtimeQuoteResponse.builder()
+                .stockCode(stockCode)
+                .timestamp(RealtimeTimestamp.now())
+                .askPrices(askPrices)
+                .bidPrices(bidPrices)
+                .askVolumes(askVolumes)
+                .bidVolumes(bidVolumes)
+                .totalAskVolume(parseLongField(output, "total_askp_rsqn"))
+                .totalBidVolume(parseLongField(output, "total_bidp_rsqn"))
+                .build();
+    }
+
+    private long parseLongField(Map<String, String> output, String key) {
+        String value = output.get(key);
+        if (value == null || value.isBlank()) {
+            return 0;
+        }
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return 0;
+        }
+    }
+
     /**
      * 주식 잔고 조회
      * @return 주식 잔고 정보
@@ -746,7 +1025,8 @@ public class StockService {
             HttpEntity<Void> httpRequest = new HttpEntity<>(headers);
 
             // API 호출
-            ResponseEntity<KisStockBalanceApiResponse> response = restTemplate.exchange(
+            ResponseEntity<KisStockBalanceApiResponse> response = kisRestGateway.exchange(
+                    KisPriority.BALANCE,
                     url,
                     HttpMethod.GET,
                     httpRequest,
@@ -868,7 +1148,8 @@ public class StockService {
             HttpEntity<Void> httpRequest = new HttpEntity<>(headers);
 
             // API 호출
-            ResponseEntity<KisBondBalanceApiResponse> response = restTemplate.exchange(
+            ResponseEntity<KisBondBalanceApiResponse> response = kisRestGateway.exchange(
+                    KisPriority.BALANCE,
                     url,
                     HttpMethod.GET,
                     httpRequest,
@@ -951,6 +1232,13 @@ public class StockService {
      * @return 투자의견 데이터
      */
     public InvestOpinionResponse getInvestOpinion(String stockCode) {
+        return investOpinionFlights.execute(stockCode, () -> loadInvestOpinion(stockCode));
+    }
+
+    /**
+     * 투자의견 조회 (종목별 single-flight 안에서 1회 실행)
+     */
+    private InvestOpinionResponse loadInvestOpinion(String stockCode) {
         log.info("[DB 우선 조회] 투자의견 시작 - 종목코드: {}", stockCode);
 
         try {
@@ -1017,7 +1305,8 @@ public class StockService {
             HttpEntity<Void> httpRequest = new HttpEntity<>(headers);
 
             // API 호출
-            ResponseEntity<KisInvestOpinionApiResponse> response = restTemplate.exchange(
+            ResponseEntity<KisInvestOpinionApiResponse> response = kisRestGateway.exchange(
+                    KisPriority.QUOTE,
                     url,
                     HttpMethod.GET,
                     httpRequest,
@@ -1150,7 +1439,8 @@ public class StockService {
             HttpEntity<Void> httpRequest = new HttpEntity<>(headers);
 
             // API 호출
-            ResponseEntity<KisBuyableAmountApiResponse> response = restTemplate.exchange(
+            ResponseEntity<KisBuyableAmountApiResponse> response = kisRestGateway.exchange(
+                    KisPriority.BALANCE,
                     url,
                     HttpMethod.GET,
                     httpRequest,
@@ -1252,7 +1542,8 @@ public class StockService {
             HttpEntity<Void> httpRequest = new HttpEntity<>(headers);
 
             // API 호출
-            ResponseEntity<KisSellableQuantityApiResponse> response = restTemplate.exchange(
+            ResponseEntity<KisSellableQuantityApiResponse> response = kisRestGateway.exchange(
+                    KisPriority.BALANCE,
                     url,
                     HttpMethod.GET,
                     httpRequest,
@@ -1356,6 +1647,14 @@ public class StockService {
      * @return 주식 기본 정보
      */
     public StockBasicInfoResponse getStockBasicInfo(String productTypeCode, String stockCode) {
+        return basicInfoFlights.execute(productTypeCode + ":" + stockCode,
+                () -> loadStockBasicInfo(productTypeCode, stockCode));
+    }
+
+    /**
+     * 종목 개요 정보 조회 (키별 single-flight 안에서 1회 실행)
+     */
+    private StockBasicInfoResponse loadStockBasicInfo(String productTypeCode, String stockCode) {
         log.info("[DB 우선 조회] 종목 개요 정보 시작 - 종목코드: {}", stockCode);
 
         try {
@@ -1412,7 +1711,8 @@ public class StockService {
             HttpEntity<Void> httpRequest = new HttpEntity<>(headers);
 
             // API 호출
-            ResponseEntity<KisStockBasicInfoApiResponse> response = restTemplate.exchange(
+            ResponseEntity<KisStockBasicInfoApiResponse> response = kisRestGateway.exchange(
+                    KisPriority.QUOTE,
                     url,
                     HttpMethod.GET,
                     httpRequest,
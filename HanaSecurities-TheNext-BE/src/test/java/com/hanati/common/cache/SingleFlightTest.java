@@ -0,0 +1,271 @@
+package com.hanati.common.cache;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.function.BooleanSupplier;
+import java.util.function.Supplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SingleFlightTest {
+
+    private static final long JOIN_MILLIS = 5000;
+
+    private final ExecutorService executor = Executors.newCachedThreadPool();
+
+    @AfterEach
+    void tearDown() {
+        executor.shutdownNow();
+    }
+
+    @Test
+    void concurrentCallersShareOneLoad() throws Exception {
+        SingleFlight<String, String> flights = new SingleFlight<>();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<String> loader = () -> {
+            loads.incrementAndGet();
+            started.countDown();
+            awaitQuietly(release);
+            return "005930";
+        };
+
+        List<String> results = new CopyOnWriteArrayList<>();
+        Thread leader = start(() -> results.add(flights.execute("key", loader)));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        Thread[] followers = new Thread[4];
+        for (int i = 0; i < followers.length; i++) {
+            followers[i] = start(() -> results.add(flights.execute("key", loader)));
+        }
+        for (Thread follower : followers) {
+            awaitUntil(() -> follower.getState() == Thread.State.WAITING);
+        }
+
+        release.countDown();
+        leader.join(JOIN_MILLIS);
+        for (Thread follower : followers) {
+            follower.join(JOIN_MILLIS);
+        }
+
+        assertThat(loads).hasValue(1);
+        assertThat(results).hasSize(5).containsOnly("005930");
+        assertThat(flights.size()).isZero();
+    }
+
+    @Test
+    void failureIsDeliveredToWaitersButNotRetained() throws Exception {
+        SingleFlight<String, String> flights = new SingleFlight<>(1, TimeUnit.SECONDS);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+
+        AtomicReference<Throwable> leaderError = new AtomicReference<>();
+        Thread leader = start(() -> {
+            try {
+                flights.execute("key", () -> {
+                    started.countDown();
+                    awaitQuietly(release);
+                    throw new IllegalStateException("KIS 오류");
+                });
+            } catch (RuntimeException e) {
+                leaderError.set(e);
+            }
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        AtomicReference<Throwable> followerError = new AtomicReference<>();
+        Thread follower = start(() -> {
+            try {
+                flights.execute("key", () -> "unused");
+            } catch (RuntimeException e) {
+                followerError.set(e);
+            }
+        });
+        awaitUntil(() -> follower.getState() == Thread.State.WAITING);
+
+        release.countDown();
+        leader.join(JOIN_MILLIS);
+        follower.join(JOIN_MILLIS);
+
+        assertThat(leaderError.get()).isInstanceOf(IllegalStateException.class).hasMessage("KIS 오류");
+        assertThat(followerError.get()).isSameAs(leaderError.get());
+        assertThat(flights.size()).isZero();
+
+        // 공유 시간 안이라도 실패는 재사용하지 않고 다시 조회
+        assertThat(flights.execute("key", () -> "recovered")).isEqualTo("recovered");
+    }
+
+    @Test
+    void waitersRetryAfterInterruptedLeader() throws Exception {
+        SingleFlight<String, String> flights = new SingleFlight<>();
+        CountDownLatch started = new CountDownLatch(1);
+
+        AtomicReference<Throwable> leaderError = new AtomicReference<>();
+        Thread leader = start(() -> {
+            try {
+                flights.execute("key", () -> {
+                    started.countDown();
+                    try {
+                        new CountDownLatch(1).await();
+                        return "unreachable";
+                    } catch (InterruptedException e) {
+                        Thread.currentThread().interrupt();
+                        throw new IllegalStateException("조회 중단", e);
+                    }
+                });
+            } catch (RuntimeException e) {
+                leaderError.set(e);
+            }
+        });
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        AtomicInteger followerLoads = new AtomicInteger();
+        AtomicReference<String> followerResult = new AtomicReference<>();
+        Thread follower = start(() -> followerResult.set(flights.execute("key", () -> {
+            followerLoads.incrementAndGet();
+            return "retried";
+        })));
+        awaitUntil(() -> follower.getState() == Thread.State.WAITING);
+
+        leader.interrupt();
+        leader.join(JOIN_MILLIS);
+        follower.join(JOIN_MILLIS);
+
+        assertThat(leaderError.get()).isInstanceOf(IllegalStateException.class).hasMessage("조회 중단");
+        assertThat(followerResult.get()).isEqualTo("retried");
+        assertThat(followerLoads).hasValue(1);
+    }
+
+    @Test
+    void interruptedWaiterDoesNotStopTheLoad() throws Exception {
+        SingleFlight<String, String> flights = new SingleFlight<>();
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<String> loader = () -> {
+            started.countDown();
+            awaitQuietly(release);
+            return "value";
+        };
+
+        AtomicReference<String> leaderResult = new AtomicReference<>();
+        Thread leader = start(() -> leaderResult.set(flights.execute("key", loader)));
+        assertThat(started.await(5, TimeUnit.SECONDS)).isTrue();
+
+        AtomicReference<Throwable> waiterError = new AtomicReference<>();
+        Thread waiter = start(() -> {
+            try {
+                flights.execute("key", loader);
+            } catch (RuntimeException e) {
+                waiterError.set(e);
+            }
+        });
+        awaitUntil(() -> waiter.getState() == Thread.State.WAITING);
+
+        waiter.interrupt();
+        waiter.join(JOIN_MILLIS);
+        release.countDown();
+        leader.join(JOIN_MILLIS);
+
+        assertThat(waiterError.get()).isInstanceOf(IllegalStateException.class);
+        assertThat(leaderResult.get()).isEqualTo("value");
+    }
+
+    @Test
+    void cancellingOneSubmitCopyDoesNotCancelOthers() throws Exception {
+        SingleFlight<String, String> flights = new SingleFlight<>();
+        AtomicInteger loads = new AtomicInteger();
+        CountDownLatch release = new CountDownLatch(1);
+        Supplier<String> loader = () -> {
+            loads.incrementAndGet();
+            awaitQuietly(release);
+            return "value";
+        };
+
+        CompletableFuture<String> first = flights.submit("key", loader, executor);
+        CompletableFuture<String> second = flights.submit("key", loader, executor);
+        assertThat(first.cancel(true)).isTrue();
+
+        release.countDown();
+
+        assertThat(second.get(5, TimeUnit.SECONDS)).isEqualTo("value");
+        assertThat(first).isCancelled();
+        assertThat(loads).hasValue(1);
+    }
+
+    @Test
+    void completedResultIsSharedOnlyWithinWindow() throws Exception {
+        SingleFlight<String, Integer> flights = new SingleFlight<>(300, TimeUnit.MILLISECONDS);
+        AtomicInteger loads = new AtomicInteger();
+        Supplier<Integer> loader = loads::incrementAndGet;
+
+        int first = flights.execute("key", loader);
+        int shared = flights.execute("key", loader);
+        int retained = flights.size();
+        Thread.sleep(400);
+        int reloaded = flights.execute("key", loader);
+
+        assertThat(first).isEqualTo(1);
+        assertThat(shared).isEqualTo(1);
+        assertThat(retained).isEqualTo(1);
+        assertThat(reloaded).isEqualTo(2);
+        assertThat(loads).hasValue(2);
+    }
+
+    @Test
+    void completedResultIsEvictedAfterWindowWithoutFurtherCalls() throws Exception {
+        SingleFlight<String, Integer> flights = new SingleFlight<>(100, TimeUnit.MILLISECONDS);
+
+        flights.execute("005930", () -> 1);
+        flights.execute("000660", () -> 2);
+        int retained = flights.size();
+
+        // 이후 호출이 없어도 공유 시간이 끝난 키는 각자 제거됨
+        awaitUntil(() -> flights.size() == 0);
+        assertThat(retained).isEqualTo(2);
+    }
+
+    @Test
+    void withoutWindowEveryCompletedCallLoadsAgain() {
+        SingleFlight<String, Integer> flights = new SingleFlight<>();
+        AtomicInteger loads = new AtomicInteger();
+
+        assertThat(flights.execute("key", loads::incrementAndGet)).isEqualTo(1);
+        assertThat(flights.execute("key", loads::incrementAndGet)).isEqualTo(2);
+        assertThat(flights.size()).isZero();
+    }
+
+    private static void awaitQuietly(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException(e);
+        }
+    }
+
+    private static Thread start(Runnable task) {
+        Thread thread = new Thread(task);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(5);
+        while (!condition.getAsBoolean() && System.nanoTime() - deadline < 0) {
+            Thread.sleep(1);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+}
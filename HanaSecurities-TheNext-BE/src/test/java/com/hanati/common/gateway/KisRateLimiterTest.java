@@ -0,0 +1,186 @@
+package com.hanati.common.gateway;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.BooleanSupplier;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KisRateLimiterTest {
+
+    private static final long SECOND = TimeUnit.SECONDS.toNanos(1);
+    private static final long JOIN_MILLIS = 5000;
+
+    @Test
+    void higherLaneIsServedBeforeEarlierLowerLane() throws Exception {
+        KisRateLimiter limiter = new KisRateLimiter(1, 1, 3);
+        assertThat(limiter.acquire(0, 0)).isGreaterThanOrEqualTo(0);
+
+        List<Integer> served = new CopyOnWriteArrayList<>();
+        Thread low = start(() -> acquireAndRecord(limiter, 2, served));
+        awaitQueued(limiter, 2, 1);
+        Thread high = start(() -> acquireAndRecord(limiter, 0, served));
+        awaitQueued(limiter, 0, 1);
+
+        low.join(JOIN_MILLIS);
+        high.join(JOIN_MILLIS);
+        assertThat(served).containsExactly(0, 2);
+    }
+
+    @Test
+    void sameLaneIsServedInArrivalOrder() throws Exception {
+        KisRateLimiter limiter = new KisRateLimiter(5, 1, 1);
+        assertThat(limiter.acquire(0, 0)).isGreaterThanOrEqualTo(0);
+
+        List<Integer> served = new CopyOnWriteArrayList<>();
+        Thread[] threads = new Thread[3];
+        for (int i = 0; i < threads.length; i++) {
+            int order = i;
+            threads[i] = start(() -> {
+                if (limiter.acquire(0, SECOND) >= 0) {
+                    served.add(order);
+                }
+            });
+            // 앞선 호출이 이미 배정받았을 수 있으므로 대기 + 배정 수로 도착 확인
+            int arrived = i + 1;
+            awaitUntil(() -> limiter.queued(0) + served.size() >= arrived);
+        }
+
+        for (Thread thread : threads) {
+            thread.join(JOIN_MILLIS);
+        }
+        assertThat(served).containsExactly(0, 1, 2);
+    }
+
+    @Test
+    void rejectsWhenNextPermitIsBeyondMaxWait() {
+        KisRateLimiter limiter = new KisRateLimiter(1, 1, 1);
+        assertThat(limiter.acquire(0, 0)).isGreaterThanOrEqualTo(0);
+
+        long start = System.nanoTime();
+        assertThat(limiter.acquire(0, TimeUnit.MILLISECONDS.toNanos(50))).isEqualTo(-1);
+        // 다음 토큰 시각이 최대 대기 시간 밖이면 기다리지 않고 바로 거부
+        assertThat(System.nanoTime() - start).isLessThan(TimeUnit.MILLISECONDS.toNanos(500));
+        assertThat(limiter.queued(0)).isZero();
+    }
+
+    @Test
+    void queuedBehindHeadIsRejectedAtDeadline() throws Exception {
+        KisRateLimiter limiter = new KisRateLimiter(2, 1, 1);
+        assertThat(limiter.acquire(0, 0)).isGreaterThanOrEqualTo(0);
+
+        Thread head = start(() -> limiter.acquire(0, SECOND));
+        awaitQueued(limiter, 0, 1);
+
+        long start = System.nanoTime();
+        assertThat(limiter.acquire(0, TimeUnit.MILLISECONDS.toNanos(100))).isEqualTo(-1);
+        assertThat(System.nanoTime() - start).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(90));
+        head.join(JOIN_MILLIS);
+    }
+
+    @Test
+    void pauseDelaysAllLanesUntilItEnds() {
+        KisRateLimiter limiter = new KisRateLimiter(10, 5, 2);
+        limiter.pause(TimeUnit.MILLISECONDS.toNanos(200));
+
+        long rejected = limiter.acquire(1, 0);
+        long waited = limiter.acquire(0, SECOND);
+
+        assertThat(rejected).isEqualTo(-1);
+        assertThat(waited).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(190));
+    }
+
+    @Test
+    void doesNotRefillWhilePaused() {
+        KisRateLimiter limiter = new KisRateLimiter(20, 5, 1);
+        limiter.pause(TimeUnit.MILLISECONDS.toNanos(200));
+
+        long waited = limiter.acquire(0, SECOND);
+        long burst = limiter.acquire(0, 0);
+
+        assertThat(waited).isGreaterThanOrEqualTo(TimeUnit.MILLISECONDS.toNanos(190));
+        // 중지 동안 쌓였을 토큰(약 4개)으로 재개 직후 몰아서 호출하지 않음
+        assertThat(burst).isEqualTo(-1);
+    }
+
+    @Test
+    void pauseDrainsRemainingBurst() {
+        KisRateLimiter limiter = new KisRateLimiter(1, 5, 1);
+        assertThat(limiter.acquire(0, 0)).isGreaterThanOrEqualTo(0);
+
+        limiter.pause(TimeUnit.MILLISECONDS.toNanos(10));
+
+        // 버스트 4개가 남아 있었지만 재개 후에도 새 토큰(1초)을 기다려야 함
+        assertThat(limiter.acquire(0, TimeUnit.MILLISECONDS.toNanos(300))).isEqualTo(-1);
+    }
+
+    @Test
+    void interruptedWaiterGivesUpAndKeepsInterruptFlag() throws Exception {
+        KisRateLimiter limiter = new KisRateLimiter(1, 1, 1);
+        assertThat(limiter.acquire(0, 0)).isGreaterThanOrEqualTo(0);
+
+        AtomicLong result = new AtomicLong();
+        AtomicBoolean interrupted = new AtomicBoolean();
+        Thread waiter = start(() -> {
+            result.set(limiter.acquire(0, 10 * SECOND));
+            interrupted.set(Thread.currentThread().isInterrupted());
+        });
+        awaitQueued(limiter, 0, 1);
+
+        waiter.interrupt();
+        waiter.join(JOIN_MILLIS);
+
+        assertThat(waiter.isAlive()).isFalse();
+        assertThat(result.get()).isEqualTo(-1);
+        assertThat(interrupted.get()).isTrue();
+        assertThat(limiter.queued(0)).isZero();
+    }
+
+    @Test
+    void interruptedHeadHandsOverToNextWaiter() throws Exception {
+        KisRateLimiter limiter = new KisRateLimiter(1, 1, 1);
+        assertThat(limiter.acquire(0, 0)).isGreaterThanOrEqualTo(0);
+
+        Thread head = start(() -> limiter.acquire(0, 10 * SECOND));
+        awaitQueued(limiter, 0, 1);
+        AtomicLong next = new AtomicLong(-2);
+        Thread follower = start(() -> next.set(limiter.acquire(0, 2 * SECOND)));
+        awaitQueued(limiter, 0, 2);
+
+        head.interrupt();
+        follower.join(JOIN_MILLIS);
+
+        assertThat(next.get()).isGreaterThanOrEqualTo(0);
+        head.join(JOIN_MILLIS);
+    }
+
+    private static void acquireAndRecord(KisRateLimiter limiter, int lane, List<Integer> served) {
+        if (limiter.acquire(lane, 3 * SECOND) >= 0) {
+            served.add(lane);
+        }
+    }
+
+    private static Thread start(Runnable task) {
+        Thread thread = new Thread(task);
+        thread.setDaemon(true);
+        thread.start();
+        return thread;
+    }
+
+    private static void awaitQueued(KisRateLimiter limiter, int lane, int count) throws InterruptedException {
+        awaitUntil(() -> limiter.queued(lane) >= count);
+    }
+
+    private static void awaitUntil(BooleanSupplier condition) throws InterruptedException {
+        long deadline = System.nanoTime() + 5 * SECOND;
+        while (!condition.getAsBoolean() && System.nanoTime() - deadline < 0) {
+            Thread.sleep(1);
+        }
+        assertThat(condition.getAsBoolean()).isTrue();
+    }
+}
@@ -0,0 +1,113 @@
+package com.hanati.common.realtime;
+
+import com.fasterxml.jackson.databind.JsonNode;
+import com.fasterxml.jackson.databind.ObjectMapper;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.TextMessage;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class OrderBookDeltaEncoderTest {
+
+    private final ObjectMapper objectMapper = new ObjectMapper();
+
+    @Test
+    void firstFrameIsSnapshot() throws Exception {
+        OrderBookDeltaEncoder encoder = new OrderBookDeltaEncoder("005930", 3);
+        assertThat(encoder.hasData()).isFalse();
+        assertThat(encoder.snapshotFrame()).isNull();
+
+        assertThat(encoder.update("090000", new long[]{101, 102, 103}, new long[]{10, 20, 30},
+                new long[]{100, 99, 98}, new long[]{11, 21, 31}, 60, 63)).isTrue();
+
+        JsonNode frame = read(encoder.deltaFrame());
+        assertThat(frame.get("type").asText()).isEqualTo("snapshot");
+        assertThat(frame.get("symbol").asText()).isEqualTo("005930");
+        assertThat(frame.get("seq").asLong()).isEqualTo(1);
+        assertThat(frame.get("asks").toString()).isEqualTo("[[101,10],[102,20],[103,30]]");
+        assertThat(frame.get("bids").toString()).isEqualTo("[[100,11],[99,21],[98,31]]");
+        assertThat(frame.get("totalAskVolume").asLong()).isEqualTo(60);
+        assertThat(frame.get("totalBidVolume").asLong()).isEqualTo(63);
+    }
+
+    @Test
+    void sequenceIncrementsOnlyWhenBookChanges() {
+        OrderBookDeltaEncoder encoder = new OrderBookDeltaEncoder("005930", 2);
+        long[] asks = {101, 102};
+        long[] volumes = {10, 20};
+        long[] bids = {100, 99};
+
+        assertThat(encoder.update("090000", asks, volumes, bids, volumes, 30, 30)).isTrue();
+        assertThat(encoder.sequence()).isEqualTo(1);
+
+        // 같은 호가 재수신은 seq 유지
+        assertThat(encoder.update("090001", asks, volumes, bids, volumes, 30, 30)).isFalse();
+        assertThat(encoder.sequence()).isEqualTo(1);
+
+        assertThat(encoder.update("090002", asks, new long[]{15, 20}, bids, volumes, 35, 30)).isTrue();
+        assertThat(encoder.update("090003", asks, new long[]{15, 25}, bids, volumes, 40, 30)).isTrue();
+        assertThat(encoder.sequence()).isEqualTo(3);
+    }
+
+    @Test
+    void deltaCarriesOnlyChangedLevels() throws Exception {
+        OrderBookDeltaEncoder encoder = new OrderBookDeltaEncoder("005930", 3);
+        encoder.update("090000", new long[]{101, 102, 103}, new long[]{10, 20, 30},
+                new long[]{100, 99, 98}, new long[]{11, 21, 31}, 60, 63);
+
+        encoder.update("090001", new long[]{101, 102, 104}, new long[]{10, 20, 30},
+                new long[]{100, 99, 98}, new long[]{11, 21, 31}, 60, 63);
+
+        JsonNode delta = read(encoder.deltaFrame());
+        assertThat(delta.get("type").asText()).isEqualTo("delta");
+        assertThat(delta.get("seq").asLong()).isEqualTo(2);
+        assertThat(delta.get("timestamp").asText()).isEqualTo("090001");
+        // [level, price, volume]
+        assertThat(delta.get("asks").toString()).isEqualTo("[[2,104,30]]");
+        assertThat(delta.get("bids").toString()).isEqualTo("[]");
+        // 총잔량은 바뀐 경우에만 포함
+        assertThat(delta.has("totalAskVolume")).isFalse();
+
+        encoder.update("090002", new long[]{101, 102, 104}, new long[]{10, 20, 30},
+                new long[]{100, 99, 98}, new long[]{12, 21, 31}, 60, 64);
+
+        JsonNode next = read(encoder.deltaFrame());
+        assertThat(next.get("seq").asLong()).isEqualTo(3);
+        assertThat(next.get("asks").toString()).isEqualTo("[]");
+        assertThat(next.get("bids").toString()).isEqualTo("[[0,100,12]]");
+        assertThat(next.get("totalBidVolume").asLong()).isEqualTo(64);
+    }
+
+    @Test
+    void resyncSnapshotCarriesCurrentSequenceAndFullBook() throws Exception {
+        OrderBookDeltaEncoder encoder = new OrderBookDeltaEncoder("M04020000", 2);
+        encoder.update("090000", new double[]{150000.5, 150001}, new double[]{1, 2},
+                new double[]{149999, 149998.5}, new double[]{3, 4}, Double.NaN, Double.NaN);
+        encoder.update("090001", new double[]{150000.5, 150002}, new double[]{1, 2},
+                new double[]{149999, 149998.5}, new double[]{3, 4}, Double.NaN, Double.NaN);
+
+        // seq 누락을 감지한 클라이언트의 resync → 현재 seq 기준 전체 스냅샷
+        JsonNode snapshot = read(encoder.snapshotFrame());
+        assertThat(snapshot.get("type").asText()).isEqualTo("snapshot");
+        assertThat(snapshot.get("seq").asLong()).isEqualTo(2);
+        assertThat(snapshot.get("asks").toString()).isEqualTo("[[150000.5,1],[150002,2]]");
+        assertThat(snapshot.get("bids").toString()).isEqualTo("[[149999,3],[149998.5,4]]");
+        // 총잔량이 없는 상품은 생략
+        assertThat(snapshot.has("totalAskVolume")).isFalse();
+
+        // 같은 seq 동안은 한 번만 직렬화한 프레임을 재사용
+        assertThat(encoder.snapshotFrame()).isSameAs(encoder.snapshotFrame());
+
+        // 스냅샷 이후 증분은 seq가 이어짐
+        encoder.update("090002", new double[]{150000.5, 150002}, new double[]{1, 5},
+                new double[]{149999, 149998.5}, new double[]{3, 4}, Double.NaN, Double.NaN);
+        JsonNode delta = read(encoder.deltaFrame());
+        assertThat(delta.get("seq").asLong()).isEqualTo(snapshot.get("seq").asLong() + 1);
+        assertThat(delta.get("asks").toString()).isEqualTo("[[1,150002,5]]");
+    }
+
+    private JsonNode read(TextMessage message) throws Exception {
+        assertThat(message).isNotNull();
+        return objectMapper.readTree(message.getPayload());
+    }
+}
@@ -0,0 +1,143 @@
+package com.hanati.common.realtime;
+
+import com.hanati.common.config.RealtimeConfig;
+import com.hanati.common.metrics.MarketDataMetrics;
+import com.hanati.common.metrics.TickLatency;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.Test;
+import org.springframework.web.socket.CloseStatus;
+import org.springframework.web.socket.TextMessage;
+import org.springframework.web.socket.WebSocketSession;
+
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.ArgumentMatchers.any;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.timeout;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+class OutboundSessionTest {
+
+    private final SimpleMeterRegistry registry = new SimpleMeterRegistry();
+    private final MarketDataMetrics metrics = new MarketDataMetrics(registry, new TickLatency());
+    private final List<String> sent = new CopyOnWriteArrayList<>();
+
+    @Test
+    void conflationKeepsOnlyLatestFramePerKey() throws Exception {
+        OutboundSession outbound = new OutboundSession(session("s1"), 16, metrics.channel("quote"));
+
+        assertThat(outbound.offer("005930", message("005930@71900"))).isTrue();
+        assertThat(outbound.offer("000660", message("000660@128500"))).isTrue();
+        assertThat(outbound.offer("005930", message("005930@72000"))).isTrue();
+        assertThat(outbound.offer("005930", message("005930@72100"))).isTrue();
+
+        assertThat(outbound.pendingCount()).isEqualTo(2);
+        assertThat(outbound.getConflatedCount()).isEqualTo(2);
+
+        assertThat(outbound.tryStartDrain()).isTrue();
+        outbound.drain();
+        // 최신 값만, 처음 대기한 순서대로
+        assertThat(sent).containsExactly("005930@72100", "000660@128500");
+        assertThat(registry.get("marketdata.outbound.frames").tag("channel", "quote").counter().count())
+                .isEqualTo(2);
+    }
+
+    @Test
+    void controlFramesAreNeverConflated() throws Exception {
+        OutboundSession outbound = new OutboundSession(session("s1"), 16, metrics.channel("quote"));
+
+        outbound.offer(null, message("subscribed:005930"));
+        outbound.offer("005930", message("005930@71900"));
+        outbound.offer(null, message("subscribed:005930"));
+        outbound.offer(null, message("error"));
+        outbound.offer("005930", message("005930@72000"));
+
+        assertThat(outbound.pendingCount()).isEqualTo(4);
+        assertThat(outbound.getConflatedCount()).isEqualTo(1);
+
+        assertThat(outbound.tryStartDrain()).isTrue();
+        outbound.drain();
+        assertThat(sent).containsExactly("subscribed:005930", "005930@72000", "subscribed:005930", "error");
+    }
+
+    @Test
+    void offerOverLimitReportsFullButConflationDoesNot() {
+        OutboundSession outbound = new OutboundSession(session("s1"), 2, metrics.channel("quote"));
+
+        assertThat(outbound.offer("005930", message("a"))).isTrue();
+        assertThat(outbound.offer("000660", message("b"))).isTrue();
+        // 같은 키 교체는 버퍼를 늘리지 않음
+        assertThat(outbound.offer("005930", message("c"))).isTrue();
+        assertThat(outbound.offer("035420", message("d"))).isFalse();
+    }
+
+    @Test
+    void sessionOverLimitIsClosedAndCountedAsDropped() throws Exception {
+        RealtimeConfig config = new RealtimeConfig();
+        config.getOutbound().setBufferLimit(2);
+        config.getOutbound().setSenderThreads(1);
+        OutboundSessionManager manager = new OutboundSessionManager(config, metrics);
+        manager.init();
+        try {
+            // 첫 전송에서 막히는 느린 클라이언트
+            CountDownLatch sending = new CountDownLatch(1);
+            CountDownLatch release = new CountDownLatch(1);
+            WebSocketSession slow = mock(WebSocketSession.class);
+            when(slow.getId()).thenReturn("slow");
+            when(slow.isOpen()).thenReturn(true);
+            doAnswer(invocation -> {
+                sending.countDown();
+                release.await(5, TimeUnit.SECONDS);
+                return null;
+            }).when(slow).sendMessage(any());
+
+            manager.register(slow, "quote");
+            manager.publish(slow, "005930", message("005930@71900"));
+            assertThat(sending.await(5, TimeUnit.SECONDS)).isTrue();
+
+            // 전송이 막힌 동안 버퍼 한도(2건)를 넘김
+            manager.publish(slow, "000660", message("000660@128500"));
+            manager.publish(slow, "035420", message("035420@201500"));
+            assertThat(manager.getDroppedSessions()).isZero();
+            manager.publish(slow, "005380", message("005380@215000"));
+
+            assertThat(manager.getDroppedSessions()).isEqualTo(1);
+            assertThat(registry.get("marketdata.outbound.dropped").tag("channel", "quote").counter().count())
+                    .isEqualTo(1);
+            assertThat(manager.getActiveSessions()).isZero();
+            verify(slow, timeout(5000)).close(CloseStatus.SESSION_NOT_RELIABLE);
+
+            // 종료 후 적재는 무시
+            manager.publish(slow, "005930", message("005930@72000"));
+            assertThat(manager.getDroppedSessions()).isEqualTo(1);
+            release.countDown();
+        } finally {
+            manager.destroy();
+        }
+    }
+
+    private WebSocketSession session(String id) {
+        WebSocketSession session = mock(WebSocketSession.class);
+        when(session.getId()).thenReturn(id);
+        when(session.isOpen()).thenReturn(true);
+        try {
+            doAnswer(invocation -> {
+                sent.add(((TextMessage) invocation.getArgument(0)).getPayload());
+                return null;
+            }).when(session).sendMessage(any());
+        } catch (Exception e) {
+            throw new IllegalStateException(e);
+        }
+        return session;
+    }
+
+    private static TextMessage message(String payload) {
+        return new TextMessage(payload);
+    }
+}
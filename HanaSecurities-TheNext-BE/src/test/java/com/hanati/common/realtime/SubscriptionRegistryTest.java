@@ -0,0 +1,148 @@
+package com.hanati.common.realtime;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class SubscriptionRegistryTest {
+
+    private final List<String> upstream = new CopyOnWriteArrayList<>();
+    private final SubscriptionRegistry<String> registry = new SubscriptionRegistry<>(
+            key -> upstream.add("subscribe:" + key), key -> upstream.add("unsubscribe:" + key));
+
+    @Test
+    void firstSubscriberSubscribesUpstreamOnce() {
+        assertThat(registry.subscribe("s1", "005930")).isTrue();
+        assertThat(registry.subscribe("s2", "005930")).isTrue();
+        // 같은 세션의 중복 구독은 참조 카운트에 반영하지 않음
+        assertThat(registry.subscribe("s1", "005930")).isFalse();
+
+        assertThat(upstream).containsExactly("subscribe:005930");
+        assertThat(registry.subscriberCount("005930")).isEqualTo(2);
+        assertThat(registry.subscribers("005930")).containsExactlyInAnyOrder("s1", "s2");
+        assertThat(registry.keysOf("s1")).containsExactly("005930");
+    }
+
+    @Test
+    void lastSubscriberLeavingUnsubscribesUpstream() {
+        registry.subscribe("s1", "005930");
+        registry.subscribe("s2", "005930");
+
+        assertThat(registry.unsubscribe("s1", "005930")).isTrue();
+        assertThat(upstream).containsExactly("subscribe:005930");
+        assertThat(registry.hasSubscribers("005930")).isTrue();
+
+        // 구독하지 않은 세션의 해제는 무시
+        assertThat(registry.unsubscribe("s1", "005930")).isFalse();
+        assertThat(registry.unsubscribe("s3", "005930")).isFalse();
+
+        assertThat(registry.unsubscribe("s2", "005930")).isTrue();
+        assertThat(upstream).containsExactly("subscribe:005930", "unsubscribe:005930");
+        assertThat(registry.hasSubscribers("005930")).isFalse();
+        assertThat(registry.activeKeys()).isEmpty();
+
+        // 다시 구독하면 업스트림도 다시 구독
+        registry.subscribe("s3", "005930");
+        assertThat(upstream).containsExactly("subscribe:005930", "unsubscribe:005930", "subscribe:005930");
+    }
+
+    @Test
+    void removeSessionReleasesOnlyItsKeys() {
+        registry.subscribe("s1", "005930");
+        registry.subscribe("s1", "000660");
+        registry.subscribe("s2", "005930");
+
+        assertThat(registry.removeSession("s1")).containsExactlyInAnyOrder("005930", "000660");
+
+        assertThat(upstream).containsExactlyInAnyOrder("subscribe:005930", "subscribe:000660", "unsubscribe:000660");
+        assertThat(registry.subscribers("005930")).containsExactly("s2");
+        assertThat(registry.keysOf("s1")).isEmpty();
+        assertThat(registry.sessionCount()).isEqualTo(1);
+        assertThat(registry.removeSession("s1")).isEmpty();
+    }
+
+    @Test
+    void failingUpstreamCallbackStillTracksSubscription() {
+        SubscriptionRegistry<String> failing = new SubscriptionRegistry<>(
+                key -> {
+                    throw new IllegalStateException("KIS 연결 없음");
+                },
+                key -> {
+                    throw new IllegalStateException("KIS 연결 없음");
+                });
+
+        assertThat(failing.subscribe("s1", "005930")).isTrue();
+        assertThat(failing.subscriberCount("005930")).isEqualTo(1);
+        assertThat(failing.unsubscribe("s1", "005930")).isTrue();
+        assertThat(failing.hasSubscribers("005930")).isFalse();
+    }
+
+    @Test
+    void concurrentAddRemoveKeepsUpstreamSubscribedExactlyWhileAnySessionIs() throws Exception {
+        int threads = 8;
+        int rounds = 2000;
+        // 업스트림 구독 수 - 전이 콜백이 종목별로 직렬화되면 0과 1 사이만 오감
+        AtomicInteger active = new AtomicInteger();
+        AtomicInteger violations = new AtomicInteger();
+        SubscriptionRegistry<String> counted = new SubscriptionRegistry<>(
+                key -> {
+                    if (active.incrementAndGet() != 1) {
+                        violations.incrementAndGet();
+                    }
+                },
+                key -> {
+                    if (active.decrementAndGet() != 0) {
+                        violations.incrementAndGet();
+                    }
+                });
+
+        CountDownLatch start = new CountDownLatch(1);
+        List<Thread> workers = new ArrayList<>();
+        for (int t = 0; t < threads; t++) {
+            String sessionId = "s" + t;
+            Thread worker = new Thread(() -> {
+                try {
+                    start.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    return;
+                }
+                for (int i = 0; i < rounds; i++) {
+                    counted.subscribe(sessionId, "005930");
+                    if (i % 2 == 0) {
+                        counted.unsubscribe(sessionId, "005930");
+                    } else {
+                        counted.removeSession(sessionId);
+                    }
+                }
+            });
+            worker.setDaemon(true);
+            worker.start();
+            workers.add(worker);
+        }
+
+        start.countDown();
+        for (Thread worker : workers) {
+            worker.join(TimeUnit.SECONDS.toMillis(30));
+            assertThat(worker.isAlive()).isFalse();
+        }
+
+        assertThat(violations).hasValue(0);
+        assertThat(active).hasValue(0);
+        assertThat(counted.hasSubscribers("005930")).isFalse();
+
+        // 한 세션이 남아 있으면 업스트림도 구독 상태
+        counted.subscribe("s0", "005930");
+        counted.subscribe("s1", "005930");
+        counted.unsubscribe("s0", "005930");
+        assertThat(active).hasValue(1);
+        assertThat(counted.subscriberCount("005930")).isEqualTo(1);
+    }
+}
@@ -0,0 +1,161 @@
+package com.hanati.domain.quote.parser;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.util.List;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+class KisRealtimeFrameTest {
+
+    private static final List<String> FIXTURES = List.of(
+            "kis-domestic-quote.txt", "kis-domestic-trade.txt", "kis-us-quote.txt", "kis-asia-quote.txt");
+
+    private final KisRealtimeFrame frame = new KisRealtimeFrame();
+
+    @Test
+    void fieldsMatchSplitParser() throws Exception {
+        for (String fixture : FIXTURES) {
+            for (String line : lines(fixture)) {
+                // 기존 파서: payload.split("\\|") → parts[3].split("\\^")
+                String[] parts = line.split("\\|");
+                String[] fields = parts[3].split("\\^");
+
+                assertThat(frame.wrap(line)).as(fixture).isTrue();
+                assertThat(frame.isEncrypted()).isFalse();
+                assertThat(frame.isTrId(parts[1])).isTrue();
+                assertThat(frame.trId()).isEqualTo(parts[1]);
+                assertThat(frame.recordCount()).isEqualTo(Integer.parseInt(parts[2]));
+                assertThat(frame.fieldCount()).isGreaterThanOrEqualTo(Math.min(fields.length, KisRealtimeFrame.MAX_FIELDS));
+                assertThat(frame.symbolField(0)).isEqualTo(fields[0]);
+
+                for (int i = 0; i < Math.min(fields.length, KisRealtimeFrame.MAX_FIELDS); i++) {
+                    assertThat(frame.field(i)).as("%s %s field %d", fixture, fields[0], i).isEqualTo(fields[i]);
+                    assertThat(frame.fieldEquals(i, fields[i])).isTrue();
+                    assertThat(frame.longField(i)).as("%s %s field %d", fixture, fields[0], i)
+                            .isEqualTo(splitParseLong(fields[i]));
+                    assertThat(frame.doubleField(i)).as("%s %s field %d", fixture, fields[0], i)
+                            .isEqualTo(splitParseDouble(fields[i]));
+                }
+            }
+        }
+    }
+
+    @Test
+    void symbolFieldReusesStringForRepeatedSymbol() throws Exception {
+        String line = lines("kis-domestic-trade.txt").get(0);
+
+        frame.wrap(line);
+        String first = frame.symbolField(0);
+        frame.wrap(line);
+
+        assertThat(frame.symbolField(0)).isSameAs(first);
+    }
+
+    @Test
+    void multiRecordFrameKeepsCountAndContinuesFieldsIntoNextRecord() throws Exception {
+        List<String> lines = lines("kis-domestic-trade.txt");
+        String[] first = lines.get(0).split("\\|")[3].split("\\^", -1);
+        String second = lines.get(1).split("\\|")[3];
+        String payload = "0|H0STCNT0|002|" + lines.get(0).split("\\|")[3] + "^" + second;
+
+        assertThat(frame.wrap(payload)).isTrue();
+        assertThat(frame.recordCount()).isEqualTo(2);
+        // 첫 레코드 필드는 단건 프레임과 같고, 이어지는 필드는 다음 레코드 (MAX_FIELDS까지만 기록)
+        assertThat(frame.fieldCount()).isEqualTo(KisRealtimeFrame.MAX_FIELDS);
+        for (int i = 0; i < first.length; i++) {
+            assertThat(frame.field(i)).isEqualTo(first[i]);
+        }
+        assertThat(frame.symbolField(first.length)).isEqualTo(second.substring(0, second.indexOf('^')));
+    }
+
+    @Test
+    void emptyFieldsParseAsZeroOrInvalid() {
+        assertThat(frame.wrap("0|H0STCNT0|001|005930^^ ^-^72000^")).isTrue();
+
+        assertThat(frame.fieldCount()).isEqualTo(6);
+        assertThat(frame.field(1)).isEmpty();
+        assertThat(frame.fieldEquals(1, "")).isTrue();
+        assertThat(frame.longField(1)).isZero();
+        assertThat(frame.longField(2)).isZero();
+        assertThat(frame.longField(3)).isZero();
+        assertThat(frame.scaledField(1, 4)).isEqualTo(KisRealtimeFrame.INVALID);
+        assertThat(frame.scaledField(2, 4)).isEqualTo(KisRealtimeFrame.INVALID);
+        assertThat(frame.doubleField(1)).isZero();
+        assertThat(frame.longField(4)).isEqualTo(72000);
+        // 마지막 '^' 뒤의 빈 필드도 유지 (split은 뒤쪽 빈 필드를 버림)
+        assertThat(frame.field(5)).isEmpty();
+    }
+
+    @Test
+    void scaledValuesOutOfRangeAreInvalidNotWrapped() {
+        // 누적 거래대금처럼 10^scale배 하면 long 범위를 넘는 값
+        assertThat(frame.wrap("0|H0STCNT0|001|005930^157915623700^189.25")).isTrue();
+
+        assertThat(frame.scaledField(1, 8)).isEqualTo(KisRealtimeFrame.INVALID);
+        assertThat(frame.scaledField(1, 4)).isEqualTo(1579156237000000L);
+        assertThat(frame.doubleField(1)).isEqualTo(157915623700.0);
+        assertThat(frame.scaledField(2, 4)).isEqualTo(1892500);
+        assertThat(frame.doubleField(2)).isEqualTo(189.25);
+    }
+
+    @Test
+    void truncatedPayload() throws Exception {
+        // 구분자가 모자라면 실시간 데이터 프레임이 아님
+        assertThat(frame.wrap("0|H0STCNT0")).isFalse();
+        assertThat(frame.wrap("0|H0STCNT0|001")).isFalse();
+        assertThat(frame.fieldCount()).isZero();
+        assertThat(frame.wrap("{\"header\":{\"tr_id\":\"PINGPONG\"}}")).isFalse();
+
+        // 데이터부가 중간에 잘린 경우 받은 필드까지만, 나머지는 기본값
+        String line = lines("kis-domestic-trade.txt").get(0);
+        String truncated = line.substring(0, line.indexOf("^71912.38") + 4);
+        assertThat(frame.wrap(truncated)).isTrue();
+
+        assertThat(frame.fieldCount()).isEqualTo(7);
+        assertThat(frame.longField(2)).isEqualTo(71900);
+        assertThat(frame.field(6)).isEqualTo("719");
+        assertThat(frame.longField(6)).isEqualTo(719);
+        assertThat(frame.longField(12)).isZero();
+        assertThat(frame.scaledField(12, 4)).isEqualTo(KisRealtimeFrame.INVALID);
+        assertThat(frame.fieldOrDefault(12, "0")).isEqualTo("0");
+        assertThat(frame.fieldEquals(12, "")).isFalse();
+    }
+
+    /**
+     * 기존 KisWebSocketClient.parseLong (변환 실패 시 0)
+     */
+    private static long splitParseLong(String value) {
+        try {
+            return Long.parseLong(value.trim());
+        } catch (NumberFormatException e) {
+            return 0L;
+        }
+    }
+
+    /**
+     * 기존 해외 시세 파서의 Double.parseDouble (변환 실패 시 0)
+     */
+    private static double splitParseDouble(String value) {
+        try {
+            return Double.parseDouble(value.trim());
+        } catch (NumberFormatException e) {
+            return 0.0;
+        }
+    }
+
+    private static List<String> lines(String name) throws IOException {
+        try (InputStream in = KisRealtimeFrameTest.class.getResourceAsStream("/fixtures/" + name)) {
+            assertThat(in).as(name).isNotNull();
+            return new BufferedReader(new InputStreamReader(in, StandardCharsets.UTF_8))
+                    .lines()
+                    .filter(line -> !line.isBlank())
+                    .toList();
+        }
+    }
+}
@@ -142,6 +142,9 @@ CREATE TABLE STOCK (
     stock_code VARCHAR2(20) NOT NULL,
     stock_name VARCHAR2(200) NOT NULL,
     market_type VARCHAR2(10),
+    nxt_trd_psbl_yn VARCHAR2(1),
+    nxt_tr_stop_yn VARCHAR2(1),
+    nxt_checked_date DATE,
     created_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL,
     updated_at TIMESTAMP DEFAULT CURRENT_TIMESTAMP NOT NULL,
     CONSTRAINT PK_STOCK PRIMARY KEY (stock_code)
@@ -156,6 +159,9 @@ COMMENT ON TABLE STOCK IS '주식 종목 마스터 테이블 (검색용)';
 COMMENT ON COLUMN STOCK.stock_code IS '종목코드 (단축코드 6자리, 예: 005930)';
 COMMENT ON COLUMN STOCK.stock_name IS '종목명 (예: 삼성전자)';
 COMMENT ON COLUMN STOCK.market_type IS '시장구분 (KOSPI/KOSDAQ)';
+COMMENT ON COLUMN STOCK.nxt_trd_psbl_yn IS 'NXT 거래가능여부 (Y/N, NULL: 미확인)';
+COMMENT ON COLUMN STOCK.nxt_tr_stop_yn IS 'NXT 거래정지여부 (Y/N)';
+COMMENT ON COLUMN STOCK.nxt_checked_date IS 'NXT 속성 마지막 확인 일자';
 
 
 -- ============================================================================